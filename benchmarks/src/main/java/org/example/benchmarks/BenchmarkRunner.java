@@ -0,0 +1,24 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Roda os benchmarks sempre com o profiler de GC, para que todo resultado venha com a taxa de alocação
+ * (`gc.alloc.rate.norm` é quantos bytes cada operação aloca).
+ *
+ * Aceita as mesmas opções da linha de comando do JMH, ex: `java -jar benchmarks.jar BoardBenchmark -p geometry=3x3`.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.benchmarks;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Moves;
+import org.example.core.OPlayer;
+import org.example.core.PlayerAction;
+import org.example.core.XPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * As operações do {@link Board} que a busca chama em todo nó, em tabuleiros vazios, no meio do jogo e no fim.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    /**
+     * Tamanho x sequência para ganhar
+     */
+    @Param({"3x3", "15x5"})
+    public String geometry;
+
+    @Param({"empty", "midgame", "final"})
+    public String stage;
+
+    private Board board;
+    private PlayerAction action;
+    private int actionCell;
+    private BoardCell previous;
+    /**
+     * A mesma jogada codificada, ou {@link Moves#NONE} se o tabuleiro estiver cheio
+     */
+    private int move;
+    private BoardCell side;
+    private int[] moves;
+
+    @Setup
+    public void setUp() {
+        final var parts = geometry.split("x");
+        board = Positions.build(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), stage);
+
+        // jogamos na primeira célula vazia (ou por cima da primeira, se o tabuleiro estiver cheio) e desfazemos depois
+        actionCell = 0;
+        while (actionCell < board.getGeometry().getCellCount() - 1 && !board.isCellEmpty(actionCell)) {
+            actionCell++;
+        }
+        previous = board.getBoardCell(actionCell);
+        side = Positions.sideToMove(board);
+        move = board.isCellEmpty(actionCell) ? Moves.of(actionCell, side) : Moves.NONE;
+        moves = new int[board.getGeometry().getCellCount()];
+        final var player = side == BoardCell.X ? new XPlayer(null) : new OPlayer(null);
+        action = new PlayerAction(player, actionCell / board.getBoardSize(), actionCell % board.getBoardSize());
+    }
+
+    @Benchmark
+    public boolean isWinner() {
+        return board.isWinner(BoardCell.X);
+    }
+
+    @Benchmark
+    public boolean isBoardFull() {
+        return board.isBoardFull();
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return board.isGameOver();
+    }
+
+    /**
+     * Aplica a jogada e desfaz, para o tabuleiro continuar igual entre as chamadas.
+     */
+    @Benchmark
+    public boolean applyAction() {
+        board.applyAction(action);
+        final var gameOver = board.isGameOver();
+        board.setCell(actionCell, previous);
+        return gameOver;
+    }
+
+    /**
+     * O mesmo que {@link #applyAction()}, mas pela API de make/unmake que a busca usa.
+     */
+    @Benchmark
+    public boolean makeUnmakeMove() {
+        if (move == Moves.NONE) {
+            return board.isGameOver();
+        }
+        board.makeMove(move);
+        final var gameOver = board.isGameOver();
+        board.unmakeMove();
+        return gameOver;
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return board.generateMoves(moves, side);
+    }
+}
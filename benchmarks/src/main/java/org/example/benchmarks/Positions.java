@@ -0,0 +1,59 @@
+package org.example.benchmarks;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.OPlayer;
+import org.example.core.RandomActionGenerator;
+import org.example.core.XPlayer;
+
+/**
+ * Posições usadas pelos benchmarks, sempre as mesmas entre uma execução e outra (a semente é fixa).
+ */
+final class Positions {
+    private static final long SEED = 0x5EED;
+
+    private Positions() {
+    }
+
+    /**
+     * Monta uma posição jogando aleatoriamente a partir do tabuleiro vazio, começando com X.
+     *
+     * @param size o tamanho do tabuleiro
+     * @param winLength quantas peças em linha para ganhar
+     * @param stage `empty` (tabuleiro vazio), `midgame` (metade das células, sem ninguém ter ganhado)
+     *              ou `final` (jogado até o fim)
+     * @return a posição
+     */
+    static Board build(int size, int winLength, String stage) {
+        final var board = new Board(size, winLength);
+        final var plies = switch (stage) {
+            case "empty" -> 0;
+            case "midgame" -> board.getGeometry().getCellCount() / 2;
+            case "final" -> board.getGeometry().getCellCount();
+            default -> throw new IllegalArgumentException("Estágio desconhecido: " + stage);
+        };
+
+        // tentamos sementes diferentes até o meio de jogo sair sem vencedor
+        for (var attempt = 0L; ; attempt++) {
+            board.copyFrom(new Board(size, winLength));
+            final var random = new RandomActionGenerator(SEED + attempt);
+            var player = BoardCell.X;
+            for (var ply = 0; ply < plies && !board.isGameOver(); ply++) {
+                final var current = player == BoardCell.X ? new XPlayer(random) : new OPlayer(random);
+                board.applyAction(current.getPlayerAction(board));
+                player = player.opponent();
+            }
+            if (!stage.equals("midgame") || !board.isGameOver()) {
+                return board;
+            }
+        }
+    }
+
+    /**
+     * @return quem joga na posição, considerando que X começou
+     */
+    static BoardCell sideToMove(Board board) {
+        final var pieces = board.getGeometry().getCellCount() - board.getEmptyCellCount();
+        return pieces % 2 == 0 ? BoardCell.X : BoardCell.O;
+    }
+}
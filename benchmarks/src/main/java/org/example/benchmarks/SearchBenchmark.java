@@ -0,0 +1,82 @@
+package org.example.benchmarks;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.MiniMaxActionGenerator;
+import org.example.core.OPlayer;
+import org.example.core.Player;
+import org.example.core.TranspositionTable;
+import org.example.core.XPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma jogada do {@link MiniMaxActionGenerator} no 3x3, a partir do tabuleiro vazio e do meio do jogo.
+ *
+ * Cada busca precisa começar com a tabela de transposição vazia: senão, a partir da segunda a resposta já
+ * estaria na tabela e estaríamos medindo só uma consulta. Limpar a tabela antes de cada busca de poucos
+ * microssegundos não dá (o `Level.Invocation` do JMH não é confiável para chamadas tão curtas), então cada
+ * chamada faz {@link #SEARCHES} buscas, cada uma com a sua tabela, e as tabelas são limpas entre as chamadas.
+ * O JMH divide o resultado por {@link #SEARCHES}, então os números continuam sendo por jogada.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    /**
+     * Quantas buscas (e tabelas) cada chamada faz: o bastante para a chamada passar de um milissegundo
+     */
+    static final int SEARCHES = 128;
+
+    @Param({"empty", "midgame"})
+    public String stage;
+
+    private Board board;
+    private Player player;
+    private TranspositionTable[] transpositionTables;
+    private MiniMaxActionGenerator[] generators;
+
+    @Setup
+    public void setUp() {
+        board = Positions.build(3, 3, stage);
+        player = Positions.sideToMove(board) == BoardCell.X ? new XPlayer(null) : new OPlayer(null);
+        transpositionTables = new TranspositionTable[SEARCHES];
+        generators = new MiniMaxActionGenerator[SEARCHES];
+        for (var i = 0; i < SEARCHES; i++) {
+            transpositionTables[i] = new TranspositionTable();
+            generators[i] = new MiniMaxActionGenerator(transpositionTables[i]);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        for (final var transpositionTable : transpositionTables) {
+            transpositionTable.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEARCHES)
+    public void generateAction(Blackhole blackhole) {
+        for (final var generator : generators) {
+            blackhole.consume(generator.generateAction(board, player));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.benchmarks;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Game;
+import org.example.core.GameListener;
+import org.example.core.GameState;
+import org.example.core.MiniMaxActionGenerator;
+import org.example.core.RandomActionGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partidas inteiras pelo {@link Game#play}, sem console: é o custo que o simulador paga por partida.
+ *
+ * O MiniMax guarda a tabela de transposição entre as partidas, como aconteceria no simulador,
+ * então isso mede o regime estável (a maioria das posições já está na tabela).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelfPlayBenchmark {
+    /**
+     * Quem joga de X contra um jogador aleatório de O
+     */
+    @Param({"random", "minimax"})
+    public String xBot;
+
+    private Board empty;
+    private Game game;
+    private GameState gameState;
+    private boolean xStarts;
+
+    @Setup
+    public void setUp() {
+        gameState = new GameState(
+                xBot.equals("minimax") ? new MiniMaxActionGenerator() : new RandomActionGenerator(1),
+                new RandomActionGenerator(2));
+        empty = new Board();
+        game = new Game(gameState, new Board());
+    }
+
+    @Benchmark
+    public BoardCell playGame() {
+        game.getBoard().copyFrom(empty);
+        // alternamos quem começa, como no simulador
+        xStarts = !xStarts;
+        return game.play(xStarts ? gameState.getXPlayer() : gameState.getOPlayer(), GameListener.NONE);
+    }
+}
@@ -1,15 +1,80 @@
 package org.example;
 
+import org.example.core.Board;
+import org.example.core.BoardGeometry;
+import org.example.core.CliActionGenerator;
 import org.example.core.Game;
 import org.example.core.GameState;
+import org.example.core.PonderingActionGenerator;
+import org.example.core.SearchBudget;
+import org.example.learning.ValueTable;
+import org.example.learning.ValueTableActionGenerator;
+import org.example.load.LoadGenerator;
+import org.example.qubic.QubicActionGenerator;
+import org.example.server.GameServer;
+import org.example.threat.ThreatSpaceActionGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 public class Main {
-    public static void main(String[] args) {
-        // iniciamos o estado do jogo
-        final var gameState = new GameState();
-        final var game = new Game(gameState);
+    /**
+     * Tempo que o bot tem para cada jogada em tabuleiros maiores que 3x3
+     */
+    private static final long BOT_MILLIS_PER_MOVE = 1000;
+
+    public static void main(String[] args) throws IOException {
+        // `server [porta] [threads para os bots]` sobe o servidor de partidas em vez de jogar no terminal
+        if (args.length >= 1 && args[0].equals("server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // `load <partidas/s[,...]> <segundos> ...` mede a latência dos bots sob carga (veja o LoadGenerator)
+        if (args.length >= 1 && args[0].equals("load")) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // `qubic` joga o 4x4x4 contra o bot do Qubic
+        if (args.length >= 1 && args[0].equals("qubic")) {
+            final var gameState = new GameState(new CliActionGenerator(),
+                    new QubicActionGenerator(SearchBudget.ofMillis(BOT_MILLIS_PER_MOVE)));
+            new Game(gameState, new Board(BoardGeometry.QUBIC)).mainGameLoop();
+            return;
+        }
+
+        // `gomoku` joga o 15x15 com cinco em linha contra o bot da busca de ameaças
+        if (args.length >= 1 && args[0].equals("gomoku")) {
+            final var gameState = new GameState(new CliActionGenerator(),
+                    new ThreatSpaceActionGenerator(SearchBudget.ofMillis(BOT_MILLIS_PER_MOVE)));
+            new Game(gameState, new Board(BoardGeometry.of(15, 5))).mainGameLoop();
+            return;
+        }
+
+        // `td <arquivo>` joga contra a tabela treinada pelo TemporalDifferenceTrainer, no tabuleiro dela
+        if (args.length >= 2 && args[0].equals("td")) {
+            final var table = ValueTable.load(Path.of(args[1]));
+            final var gameState = new GameState(new CliActionGenerator(), new ValueTableActionGenerator(table));
+            new Game(gameState, new Board(table.getGeometry())).mainGameLoop();
+            return;
+        }
+
+        // opcionalmente recebemos o tamanho do tabuleiro e a sequência para ganhar, ex: `4 4` ou `15 5`
+        final var board = args.length >= 2
+                ? new Board(Integer.parseInt(args[0]), Integer.parseInt(args[1]))
+                : new Board();
 
-        // iniciamos o loop principal do jogo
-        game.mainGameLoop();
+        // no 3x3 o MiniMax busca até o fim; em tabuleiros maiores a busca tem tempo limitado por jogada
+        // e o bot continua pensando enquanto esperamos a jogada no terminal
+        if (board.getBoardSize() <= 3) {
+            new Game(new GameState(), board).mainGameLoop();
+            return;
+        }
+        try (final var bot = new PonderingActionGenerator(SearchBudget.ofMillis(BOT_MILLIS_PER_MOVE))) {
+            // iniciamos o loop principal do jogo; no fim, a busca em segundo plano é parada e a thread dela liberada
+            new Game(new GameState(new CliActionGenerator(), bot), board).mainGameLoop();
+        }
     }
 }
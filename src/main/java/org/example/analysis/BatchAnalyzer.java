@@ -0,0 +1,242 @@
+package org.example.analysis;
+
+import org.example.core.AlphaBetaSearch;
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+import org.example.core.OpenLinesEvaluator;
+import org.example.core.SearchBudget;
+import org.example.core.TranspositionTable;
+import org.example.core.WorkerPool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Analisa lotes de posições de uma vez: para cada uma, o valor do jogo e todas as jogadas ótimas.
+ *
+ * Os lotes que chegam dos jobs de análise repetem muito as mesmas posições (e rotações/reflexões delas),
+ * então antes de buscar qualquer coisa levamos cada posição para a forma canônica (o hash canônico do
+ * {@link Board} mais a vez) e ficamos só com uma de cada. As posições únicas são resolvidas em paralelo,
+ * cada thread pegando a próxima da fila, e no final o resultado de cada entrada é montado na ordem em
+ * que ela chegou, com as jogadas ótimas convertidas de volta para a orientação dela.
+ *
+ * Como no {@link org.example.core.MiniMaxActionGenerator}, a busca vai até o fim do jogo, então só é
+ * viável em tabuleiros pequenos. A tabela de transposição é compartilhada pelas threads e continua
+ * valendo entre um lote e outro.
+ *
+ * Não é thread-safe: um lote por vez. O pool criado pelo próprio analisador é liberado no {@link #close()};
+ * um pool recebido no construtor é de quem o passou e continua aberto.
+ */
+public class BatchAnalyzer implements AutoCloseable {
+    /**
+     * Quantidade de entradas da tabela de transposição padrão
+     */
+    public static final int DEFAULT_TABLE_SIZE = 1 << 22;
+
+    private final TranspositionTable transpositionTable;
+    /**
+     * Onde rodam as threads auxiliares
+     */
+    private final WorkerPool pool;
+    private final Worker[] workers;
+    private int uniqueCount;
+
+    /**
+     * Cria um analisador com um pool próprio de `threads - 1` threads auxiliares.
+     * @param threads quantas threads resolvem posições (contando a que chama)
+     */
+    public BatchAnalyzer(int threads) {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED),
+                new WorkerPool("batch-analyzer", threads));
+    }
+
+    /**
+     * @param threads quantas threads resolvem posições (contando a que chama)
+     * @param transpositionTable a tabela compartilhada pelas threads
+     * @param executor o pool onde rodam as threads auxiliares (pode ser null se `threads` for 1)
+     */
+    public BatchAnalyzer(int threads, TranspositionTable transpositionTable, ExecutorService executor) {
+        this(transpositionTable, new WorkerPool("batch-analyzer", threads, executor));
+    }
+
+    private BatchAnalyzer(TranspositionTable transpositionTable, WorkerPool pool) {
+        this.transpositionTable = transpositionTable;
+        this.pool = pool;
+        this.workers = new Worker[pool.getThreads()];
+        for (var i = 0; i < workers.length; i++) {
+            workers[i] = new Worker();
+        }
+    }
+
+    /**
+     * @param positions as posições, em qualquer quantidade (o stream é consumido inteiro)
+     * @return a análise de cada posição, na ordem do stream
+     */
+    public List<PositionAnalysis> analyze(Stream<Position> positions) {
+        return analyze(positions.toList());
+    }
+
+    /**
+     * @param positions as posições
+     * @return a análise de cada posição, na ordem do array
+     */
+    public List<PositionAnalysis> analyze(Position... positions) {
+        return analyze(Arrays.asList(positions));
+    }
+
+    /**
+     * @param positions as posições (os tabuleiros não são alterados)
+     * @return a análise de cada posição, na ordem da lista
+     */
+    public List<PositionAnalysis> analyze(List<Position> positions) {
+        // 1. forma canônica e deduplicação: cada entrada aponta para uma posição única
+        final var uniqueIndexes = new HashMap<Key, Integer>();
+        final var unique = new ArrayList<Position>();
+        final var uniqueOf = new int[positions.size()];
+        final var symmetries = new int[positions.size()];
+        for (var i = 0; i < positions.size(); i++) {
+            final var position = positions.get(i);
+            final var board = position.board();
+            final var symmetry = board.getCanonicalSymmetry();
+            final var key = new Key(board.getGeometry(), board.getSymmetryHash(symmetry), position.sideToMove());
+            uniqueOf[i] = uniqueIndexes.computeIfAbsent(key, ignored -> {
+                unique.add(position);
+                return unique.size() - 1;
+            });
+            symmetries[i] = symmetry;
+        }
+        uniqueCount = unique.size();
+
+        // 2. resolve as posições únicas em paralelo, com as jogadas ótimas na orientação canônica
+        final var solved = solveAll(unique);
+
+        // 3. monta o resultado na ordem de entrada, desfazendo a simetria de cada uma
+        final var results = new ArrayList<PositionAnalysis>(positions.size());
+        for (var i = 0; i < positions.size(); i++) {
+            final var canonical = solved[uniqueOf[i]];
+            final var boardSymmetry = positions.get(i).board().getSymmetry();
+            final var cells = new int[canonical.optimalCells().length];
+            for (var j = 0; j < cells.length; j++) {
+                cells[j] = boardSymmetry.invert(symmetries[i], canonical.optimalCells()[j]);
+            }
+            Arrays.sort(cells);
+            results.add(new PositionAnalysis(canonical.score(), cells));
+        }
+        return results;
+    }
+
+    /**
+     * @return quantas posições únicas (a menos de simetria) o último lote tinha
+     */
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    /**
+     * Desliga o pool das threads auxiliares, se foi criado pelo analisador (depois disso ele não analisa mais).
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private PositionAnalysis[] solveAll(List<Position> unique) {
+        final var solved = new PositionAnalysis[unique.size()];
+        final var next = new AtomicInteger();
+        transpositionTable.newGeneration();
+
+        // não adianta acordar mais threads do que posições
+        final var threads = Math.max(1, Math.min(workers.length, unique.size()));
+        pool.run(threads, worker -> workers[worker].run(unique, solved, next));
+        return solved;
+    }
+
+    /**
+     * A chave da deduplicação. O hash canônico já ignora rotações e reflexões, e a geometria separa
+     * lotes que misturam tamanhos de tabuleiro.
+     */
+    private record Key(BoardGeometry geometry, long canonicalHash, BoardCell sideToMove) {
+    }
+
+    /**
+     * Uma thread de análise: tem a sua busca e o seu tabuleiro de rascunho, e só divide a tabela de transposição.
+     */
+    private final class Worker {
+        private final AlphaBetaSearch search = new AlphaBetaSearch(transpositionTable, new OpenLinesEvaluator());
+        private Board scratch;
+        private int[] moves;
+        private int[] optimal;
+
+        void run(List<Position> unique, PositionAnalysis[] solved, AtomicInteger next) {
+            for (var index = next.getAndIncrement(); index < unique.size(); index = next.getAndIncrement()) {
+                solved[index] = solve(unique.get(index));
+            }
+        }
+
+        /**
+         * Resolve uma posição olhando cada jogada com a janela inteira: a poda da raiz esconderia os empates,
+         * e queremos todas as jogadas ótimas, não só uma.
+         *
+         * @return o valor e as jogadas ótimas, já na orientação canônica
+         */
+        private PositionAnalysis solve(Position position) {
+            final var board = prepare(position.board());
+            final var player = position.sideToMove();
+
+            if (board.isWinner(BoardCell.X) || board.isWinner(BoardCell.O)) {
+                final var score = AlphaBetaSearch.WIN_SCORE + board.getEmptyCellCount();
+                return new PositionAnalysis(board.isWinner(player) ? score : -score, new int[0]);
+            }
+            if (board.isBoardFull()) {
+                return new PositionAnalysis(0, new int[0]);
+            }
+
+            final var symmetry = board.getCanonicalSymmetry();
+            final var moveCount = board.generateMoves(moves, player);
+            var bestScore = Integer.MIN_VALUE;
+            var optimalCount = 0;
+            for (var i = 0; i < moveCount; i++) {
+                board.makeMove(moves[i]);
+                final int score;
+                if (board.isWinner(player)) {
+                    // vitórias mais rápidas valem mais, como na busca
+                    score = AlphaBetaSearch.WIN_SCORE + board.getEmptyCellCount();
+                } else if (board.isBoardFull()) {
+                    score = 0;
+                } else {
+                    search.startSharedSearch(board, SearchBudget.UNLIMITED);
+                    search.searchRoot(board, player.opponent(), board.getEmptyCellCount());
+                    score = -search.getLastScore();
+                }
+                board.unmakeMove();
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    optimalCount = 0;
+                }
+                if (score == bestScore) {
+                    optimal[optimalCount++] = board.getSymmetry().apply(symmetry, Moves.cell(moves[i]));
+                }
+            }
+            return new PositionAnalysis(bestScore, Arrays.copyOf(optimal, optimalCount));
+        }
+
+        private Board prepare(Board board) {
+            if (scratch == null || scratch.getGeometry() != board.getGeometry()) {
+                scratch = board.copy();
+                moves = new int[board.getGeometry().getCellCount()];
+                optimal = new int[board.getGeometry().getCellCount()];
+            } else {
+                scratch.copyFrom(board);
+            }
+            return scratch;
+        }
+    }
+}
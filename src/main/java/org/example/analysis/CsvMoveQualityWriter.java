@@ -0,0 +1,43 @@
+package org.example.analysis;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Grava os relatórios de bloco do {@link MoveQualityAnalyzer} à medida que ficam prontos, um por linha:
+ * `primeira partida,partidas,ignoradas,jogadas,ótimas,erros,sem erro,precisão,precisão média,lance decidido médio`.
+ *
+ * Os blocos terminam fora de ordem (cada thread no seu ritmo), então as linhas também; a primeira
+ * coluna diz de onde cada uma é. É chamado por várias threads ao mesmo tempo, então a escrita é sincronizada.
+ */
+public class CsvMoveQualityWriter implements Consumer<MoveQualityReport>, Closeable {
+    private final BufferedWriter writer;
+
+    public CsvMoveQualityWriter(Writer writer) {
+        this.writer = new BufferedWriter(writer, 1 << 16);
+    }
+
+    @Override
+    public synchronized void accept(MoveQualityReport report) {
+        try {
+            writer.append(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%d,%.6f,%.6f,%.4f%n",
+                    report.firstGame(), report.games(), report.skippedGames(), report.moves(), report.optimalMoves(),
+                    report.blunders(), report.flawlessGames(), report.accuracy(), report.meanGameAccuracy(),
+                    report.meanDecidedPly()));
+            // o relatório é lido enquanto a análise roda, então cada bloco vai para o disco assim que termina
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
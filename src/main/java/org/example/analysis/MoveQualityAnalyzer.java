@@ -0,0 +1,283 @@
+package org.example.analysis;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Moves;
+import org.example.core.WorkerPool;
+import org.example.gamelog.GameLogCursor;
+import org.example.gamelog.GameLogReader;
+import org.example.retrograde.RetrogradeSolver;
+import org.example.retrograde.RetrogradeTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Mede a qualidade das jogadas das partidas gravadas no log ({@link GameLogReader}) comparando cada uma
+ * com o jogo perfeito: precisão, erros e em que lance o resultado ficou decidido (veja {@link MoveQualityReport}).
+ *
+ * Buscar cada jogada com o {@link org.example.core.MiniMaxActionGenerator} não dá para centenas de milhões
+ * de partidas, então o oráculo são as {@link RetrogradeTable}s: o valor de cada posição já está resolvido,
+ * e julgar uma jogada é uma consulta só. As posições são mantidas num {@link Board} jogada a jogada, e as
+ * máscaras de peças dele vão direto para a tabela.
+ *
+ * O log é dividido em blocos de {@link #CHUNK_GAMES} partidas: uma thread por vez avança um cursor
+ * compartilhado só pelos cabeçalhos e leva um fork dele no começo do bloco, que analisa sozinha. Cada bloco
+ * vira um {@link MoveQualityReport} entregue assim que termina, então a memória não cresce com o log e o
+ * relatório vai sendo gravado enquanto a análise roda.
+ *
+ * Uso: `java org.example.analysis.MoveQualityAnalyzer <diretório do log> <diretório das tabelas> [relatório.csv] [threads]`
+ * (as tabelas vêm do {@link RetrogradeSolver}; partidas de outros tabuleiros são ignoradas).
+ */
+public class MoveQualityAnalyzer implements AutoCloseable {
+    /**
+     * Quantas partidas cada bloco tem
+     */
+    public static final int CHUNK_GAMES = 1 << 16;
+
+    // o valor de uma posição do ponto de vista de quem joga, em ordem: perder < empatar < ganhar
+    private static final int LOSS = 0;
+    private static final int DRAW = 1;
+    private static final int WIN = 2;
+
+    /**
+     * O valor de cada posição do ponto de vista de quem tem a vez, indexado pelo valor da tabela
+     */
+    private static final int[] RANKS = new int[4];
+
+    static {
+        RANKS[RetrogradeTable.WIN] = WIN;
+        RANKS[RetrogradeTable.DRAW] = DRAW;
+        RANKS[RetrogradeTable.LOSS] = LOSS;
+        RANKS[RetrogradeTable.INVALID] = -1;
+    }
+
+    private final RetrogradeTable oracle;
+    private final WorkerPool pool;
+
+    /**
+     * @param oracle as tabelas do tabuleiro analisado
+     * @param threads quantas threads analisam blocos (contando a que chama)
+     */
+    public MoveQualityAnalyzer(RetrogradeTable oracle, int threads) {
+        this.oracle = oracle;
+        this.pool = new WorkerPool("move-quality", threads);
+    }
+
+    /**
+     * Desliga o pool das threads auxiliares (depois disso o analisador não analisa mais).
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: MoveQualityAnalyzer <diretório do log> <diretório das tabelas> [relatório.csv] [threads]");
+            return;
+        }
+        final var reader = GameLogReader.open(Path.of(args[0]));
+        final var oracle = RetrogradeTable.open(Path.of(args[1]));
+        final var threads = args.length >= 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        try (final var analyzer = new MoveQualityAnalyzer(oracle, threads)) {
+            final var start = System.nanoTime();
+            final MoveQualityReport total;
+            if (args.length >= 3) {
+                try (final var csv = new CsvMoveQualityWriter(Files.newBufferedWriter(Path.of(args[2])))) {
+                    total = analyzer.analyze(reader, csv);
+                }
+            } else {
+                total = analyzer.analyze(reader, report -> {
+                });
+            }
+            final var seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(total);
+            System.out.printf("%.2fs (%,.0f partidas/s)%n", seconds, (total.games() + total.skippedGames()) / seconds);
+        }
+    }
+
+    /**
+     * Analisa o log inteiro.
+     *
+     * @param reader o log
+     * @param chunkReports quem recebe o relatório de cada bloco, assim que ele termina (chamado por várias
+     *                     threads, fora de ordem)
+     * @return o relatório do log inteiro
+     */
+    public MoveQualityReport analyze(GameLogReader reader, Consumer<MoveQualityReport> chunkReports) {
+        final var scanner = reader.cursor();
+        final var tallies = new Tally[pool.getThreads()];
+        for (var i = 0; i < tallies.length; i++) {
+            tallies[i] = new Tally(oracle);
+        }
+        pool.run(worker -> analyzeChunks(scanner, tallies[worker], chunkReports));
+
+        final var total = new Tally(oracle);
+        for (final var tally : tallies) {
+            total.add(tally);
+        }
+        return total.report(0);
+    }
+
+    /**
+     * O laço de uma thread: pega o próximo bloco do cursor compartilhado, analisa e entrega o relatório.
+     * `total` acumula todos os blocos da thread.
+     */
+    private void analyzeChunks(GameLogCursor scanner, Tally total, Consumer<MoveQualityReport> chunkReports) {
+        final var chunk = new Tally(oracle);
+        while (true) {
+            final GameLogCursor cursor;
+            var games = 0;
+            synchronized (scanner) {
+                cursor = scanner.fork();
+                while (games < CHUNK_GAMES && scanner.next()) {
+                    games++;
+                }
+            }
+            if (games == 0) {
+                return;
+            }
+            chunk.clear();
+            for (var i = 0; i < games; i++) {
+                cursor.next();
+                chunk.analyzeGame(cursor);
+            }
+            chunkReports.accept(chunk.report(cursor.getGameIndex() - games + 1));
+            total.add(chunk);
+        }
+    }
+
+    /**
+     * Os contadores de uma thread (e o tabuleiro de rascunho dela).
+     */
+    private static final class Tally {
+        private final RetrogradeTable oracle;
+        private final Board board;
+        private final Board empty;
+        private final int cellCount;
+        long games;
+        long skippedGames;
+        long moves;
+        long optimalMoves;
+        long blunders;
+        long flawlessGames;
+        double accuracySum;
+        final long[] decidedAt;
+
+        Tally(RetrogradeTable oracle) {
+            this.oracle = oracle;
+            this.empty = new Board(oracle.getGeometry());
+            this.board = new Board(oracle.getGeometry());
+            this.cellCount = oracle.getGeometry().getCellCount();
+            this.decidedAt = new long[cellCount + 1];
+        }
+
+        /**
+         * Reproduz a partida atual do cursor jogada a jogada, julgando cada uma pelo oráculo.
+         */
+        void analyzeGame(GameLogCursor cursor) {
+            final var geometry = oracle.getGeometry();
+            if (cursor.getBoardSize() != geometry.getSize() || cursor.getWinLength() != geometry.getWinLength()) {
+                skippedGames++;
+                return;
+            }
+            board.copyFrom(empty);
+            var player = cursor.getFirstPlayer();
+            // o valor da posição para quem tem a vez, e o resultado com jogo perfeito visto pelo X
+            var value = rank(player);
+            var outcome = outcome(value, player);
+            var decided = 0;
+            var optimal = 0;
+            var errors = 0;
+            final var moveCount = cursor.getMoveCount();
+            for (var i = 0; i < moveCount; i++) {
+                final var cell = cursor.getMove(i);
+                if (cell >= cellCount || !board.isCellEmpty(cell) || board.isGameOver()) {
+                    // log corrompido: a partida inteira fica de fora
+                    skippedGames++;
+                    return;
+                }
+                board.makeMove(Moves.of(cell, player));
+                final var opponent = player.opponent();
+                final int after;
+                if (board.isWinner(player)) {
+                    after = WIN;
+                } else if (board.isBoardFull()) {
+                    after = DRAW;
+                } else {
+                    after = WIN - rank(opponent);
+                }
+                if (after < value) {
+                    errors++;
+                } else {
+                    optimal++;
+                }
+                final var newOutcome = outcome(after, player);
+                if (newOutcome != outcome) {
+                    outcome = newOutcome;
+                    decided = i + 1;
+                }
+                value = WIN - after;
+                player = opponent;
+            }
+
+            games++;
+            moves += moveCount;
+            optimalMoves += optimal;
+            blunders += errors;
+            if (errors == 0) {
+                flawlessGames++;
+            }
+            accuracySum += moveCount == 0 ? 1 : (double) optimal / moveCount;
+            decidedAt[decided]++;
+        }
+
+        /**
+         * @return o valor da posição do tabuleiro para `player`, que tem a vez
+         */
+        private int rank(BoardCell player) {
+            return RANKS[oracle.value(board.getBits(player, 0), board.getBits(player.opponent(), 0))];
+        }
+
+        /**
+         * @return o resultado visto pelo X: 1 se o X ganha, -1 se perde, 0 se é velha
+         */
+        private static int outcome(int value, BoardCell player) {
+            final var forPlayer = value - DRAW;
+            return player == BoardCell.X ? forPlayer : -forPlayer;
+        }
+
+        void add(Tally other) {
+            games += other.games;
+            skippedGames += other.skippedGames;
+            moves += other.moves;
+            optimalMoves += other.optimalMoves;
+            blunders += other.blunders;
+            flawlessGames += other.flawlessGames;
+            accuracySum += other.accuracySum;
+            for (var ply = 0; ply < decidedAt.length; ply++) {
+                decidedAt[ply] += other.decidedAt[ply];
+            }
+        }
+
+        void clear() {
+            games = 0;
+            skippedGames = 0;
+            moves = 0;
+            optimalMoves = 0;
+            blunders = 0;
+            flawlessGames = 0;
+            accuracySum = 0;
+            Arrays.fill(decidedAt, 0);
+        }
+
+        MoveQualityReport report(long firstGame) {
+            return new MoveQualityReport(firstGame, games, skippedGames, moves, optimalMoves, blunders, flawlessGames,
+                    accuracySum, decidedAt.clone());
+        }
+    }
+}
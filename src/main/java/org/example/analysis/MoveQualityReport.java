@@ -0,0 +1,54 @@
+package org.example.analysis;
+
+/**
+ * O resumo da qualidade das jogadas de um bloco de partidas (ou do log inteiro), feito pelo {@link MoveQualityAnalyzer}.
+ *
+ * Uma jogada é ótima se mantém o valor da posição com jogo perfeito (vitória continua vitória, velha
+ * continua velha) e é um erro se piora esse valor. A precisão de uma partida é a fração de jogadas ótimas
+ * dela, e a partida fica decidida no lance depois do qual o resultado com jogo perfeito não muda mais.
+ *
+ * @param firstGame a posição no log da primeira partida do bloco
+ * @param games quantas partidas foram analisadas
+ * @param skippedGames quantas foram ignoradas (de outro tabuleiro ou com jogadas inválidas)
+ * @param moves quantas jogadas as partidas analisadas têm
+ * @param optimalMoves quantas delas foram ótimas
+ * @param blunders quantas pioraram o resultado com jogo perfeito
+ * @param flawlessGames quantas partidas não tiveram nenhum erro
+ * @param accuracySum a soma da precisão de cada partida (para a média por partida)
+ * @param decidedAt decidedAt[n] é quantas partidas ficaram decididas no lance `n` (0: já na posição inicial)
+ */
+public record MoveQualityReport(long firstGame, long games, long skippedGames, long moves, long optimalMoves,
+                                long blunders, long flawlessGames, double accuracySum, long[] decidedAt) {
+    /**
+     * @return a fração das jogadas que foram ótimas
+     */
+    public double accuracy() {
+        return moves == 0 ? 0 : (double) optimalMoves / moves;
+    }
+
+    /**
+     * @return a média da precisão de cada partida (partidas curtas pesam o mesmo que as longas)
+     */
+    public double meanGameAccuracy() {
+        return games == 0 ? 0 : accuracySum / games;
+    }
+
+    /**
+     * @return em média, em que lance as partidas ficaram decididas
+     */
+    public double meanDecidedPly() {
+        var sum = 0L;
+        for (var ply = 0; ply < decidedAt.length; ply++) {
+            sum += ply * decidedAt[ply];
+        }
+        return games == 0 ? 0 : (double) sum / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d partidas (%d ignoradas), %d jogadas: precisão %.2f%% (média por partida %.2f%%), "
+                        + "%d erros, %d partidas sem erro, decididas em média no lance %.2f",
+                games, skippedGames, moves, 100 * accuracy(), 100 * meanGameAccuracy(), blunders, flawlessGames,
+                meanDecidedPly());
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.analysis;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+
+/**
+ * Uma posição para analisar: o tabuleiro e de quem é a vez.
+ * A vez precisa vir junto porque o primeiro jogador é sorteado, então o tabuleiro sozinho não diz quem joga.
+ *
+ * @param board o tabuleiro (não é alterado pela análise)
+ * @param sideToMove X ou O
+ */
+public record Position(Board board, BoardCell sideToMove) {
+    public Position {
+        if (sideToMove == BoardCell.EMPTY) {
+            throw new IllegalArgumentException("A vez precisa ser do X ou do O");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.analysis;
+
+import org.example.core.AlphaBetaSearch;
+
+/**
+ * O resultado da análise de uma posição.
+ *
+ * @param score o valor do jogo para quem tem a vez, na escala do {@link AlphaBetaSearch}:
+ *              0 é velha, a partir de {@link AlphaBetaSearch#WIN_SCORE} é vitória forçada (e o negativo, derrota)
+ * @param optimalCells todas as células que mantêm esse valor, em ordem crescente e na orientação da posição
+ *                     analisada (vazio se o jogo já acabou)
+ */
+public record PositionAnalysis(int score, int[] optimalCells) {
+    /**
+     * @return true se quem tem a vez ganha jogando certo
+     */
+    public boolean isWin() {
+        return score >= AlphaBetaSearch.WIN_SCORE;
+    }
+
+    /**
+     * @return true se quem tem a vez perde contra um adversário que joga certo
+     */
+    public boolean isLoss() {
+        return score <= -AlphaBetaSearch.WIN_SCORE;
+    }
+
+    /**
+     * @return true se o jogo dá velha com os dois jogando certo
+     */
+    public boolean isDraw() {
+        return score == 0;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.book;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.Moves;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+
+/**
+ * Action generator que responde direto do {@link PositionBook}, sem busca nenhuma.
+ *
+ * Se a posição não estiver no livro (outro tamanho de tabuleiro, livro incompleto...),
+ * a jogada é delegada para outro action generator, normalmente um de busca.
+ *
+ * Não guarda estado, então uma única instância pode atender todos os jogos ao mesmo tempo
+ * (desde que o gerador de fallback também possa).
+ */
+public class BookActionGenerator implements ActionGenerator {
+    private final PositionBook book;
+    private final ActionGenerator fallback;
+
+    /**
+     * @param book o livro de posições resolvidas
+     * @param fallback quem gera a jogada quando a posição não está no livro
+     */
+    public BookActionGenerator(PositionBook book, ActionGenerator fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var entry = book.lookup(board, player.getBoardCell());
+        if (entry == PositionBook.MISS) {
+            return fallback.generateMove(board, player);
+        }
+
+        // todas as jogadas da máscara são ótimas; ficamos com a de menor índice para ser determinístico
+        final var cell = Integer.numberOfTrailingZeros(PositionBook.bestCells(board, entry));
+        return Moves.of(cell, player.getBoardCell());
+    }
+}
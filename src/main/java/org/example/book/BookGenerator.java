@@ -0,0 +1,133 @@
+package org.example.book;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Ferramenta offline que resolve todas as posições legais e grava o {@link PositionBook}.
+ *
+ * Uso: `java org.example.book.BookGenerator <arquivo> [tamanho sequência]` (o padrão é 3x3, três em linha).
+ *
+ * Como o primeiro jogador é sorteado, resolvemos a árvore começando tanto com X quanto com O.
+ * Cada posição é resolvida uma vez só: o próprio array de entradas serve de memo, e como ele é
+ * indexado pela forma canônica, rotações e reflexões também são resolvidas uma vez só.
+ */
+public class BookGenerator {
+    private final BoardGeometry geometry;
+    private final short[] entries;
+    /**
+     * Um buffer de jogadas por profundidade (a profundidade é o tamanho da pilha de jogadas do tabuleiro)
+     */
+    private final int[][] moveBuffers;
+
+    public BookGenerator(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.entries = new short[PositionBook.entryCount(geometry)];
+        this.moveBuffers = new int[geometry.getCellCount() + 1][geometry.getCellCount()];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Uso: BookGenerator <arquivo> [tamanho sequência]");
+            return;
+        }
+        final var geometry = args.length >= 3
+                ? BoardGeometry.of(Integer.parseInt(args[1]), Integer.parseInt(args[2]))
+                : BoardGeometry.STANDARD;
+        final var generator = new BookGenerator(geometry);
+        final var solved = generator.solveAll();
+        generator.write(Path.of(args[0]));
+        System.out.println(solved + " posições canônicas resolvidas e gravadas em " + args[0]);
+    }
+
+    /**
+     * Resolve todas as posições alcançáveis a partir do tabuleiro vazio, com qualquer um começando.
+     * @return quantas posições (canônicas) foram resolvidas
+     */
+    public int solveAll() {
+        final var board = new Board(geometry);
+        solve(board, BoardCell.X);
+        solve(board, BoardCell.O);
+        var solved = 0;
+        for (final var entry : entries) {
+            if (entry != PositionBook.MISS) {
+                solved++;
+            }
+        }
+        return solved;
+    }
+
+    /**
+     * Grava o livro no formato descrito em {@link PositionBook}.
+     * @param path o caminho do arquivo
+     * @throws IOException se não for possível escrever o arquivo
+     */
+    public void write(Path path) throws IOException {
+        try (final var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.writeInt(PositionBook.MAGIC);
+            output.writeInt(PositionBook.VERSION);
+            output.writeInt(geometry.getSize());
+            output.writeInt(geometry.getWinLength());
+            output.writeInt(entries.length);
+            for (final var entry : entries) {
+                output.writeShort(entry);
+            }
+        }
+    }
+
+    /**
+     * Resolve uma posição que ainda não acabou (negamax sem poda, já que queremos todas as jogadas ótimas).
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @return o valor do jogo para quem joga
+     */
+    private int solve(Board board, BoardCell player) {
+        final var symmetry = board.getCanonicalSymmetry();
+        final var index = PositionBook.index(board, symmetry, player);
+        if (entries[index] != PositionBook.MISS) {
+            return PositionBook.value(Short.toUnsignedInt(entries[index]));
+        }
+
+        var bestValue = Integer.MIN_VALUE;
+        var bestMoves = 0;
+        final var moves = moveBuffers[board.getMoveStackSize()];
+        final var moveCount = board.generateMoves(moves, player);
+        for (var i = 0; i < moveCount; i++) {
+            final var cell = Moves.cell(moves[i]);
+            board.makeMove(moves[i]);
+            final int value;
+            if (board.isWinner(player)) {
+                // vitórias mais rápidas valem mais
+                value = 1 + board.getEmptyCellCount();
+            } else if (board.isBoardFull()) {
+                value = 0;
+            } else {
+                value = -solve(board, player.opponent());
+            }
+            board.unmakeMove();
+
+            // a máscara fica na orientação canônica, para servir a todas as posições simétricas
+            final var canonicalCell = board.getSymmetry().apply(symmetry, cell);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMoves = 1 << canonicalCell;
+            } else if (value == bestValue) {
+                bestMoves |= 1 << canonicalCell;
+            }
+        }
+
+        entries[index] = (short) (PositionBook.PRESENT_BIT
+                | ((bestValue + PositionBook.VALUE_OFFSET) << PositionBook.VALUE_SHIFT)
+                | bestMoves);
+        return bestValue;
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.book;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Livro de posições resolvidas: para cada posição legal, o valor do jogo com jogo perfeito e
+ * todas as jogadas ótimas. Consultar o livro é O(1), sem busca nenhuma.
+ *
+ * O arquivo é gerado offline pelo {@link BookGenerator} e aberto aqui com memory-map, então o
+ * sistema operacional carrega as páginas sob demanda e compartilha a mesma memória entre todos os
+ * jogos (e até entre processos). A leitura é thread-safe.
+ *
+ * Formato do arquivo (big-endian):
+ * - cabeçalho: magic "TTTB" (int), versão (int), tamanho do tabuleiro (int), sequência para ganhar (int),
+ *   quantidade de entradas (int)
+ * - entradas: um short por posição
+ *
+ * A posição é indexada na sua forma canônica (veja {@link Board#getCanonicalSymmetry()}):
+ * índice = (código base 3 do tabuleiro canônico) * 2 + (1 se for a vez de O). Cada entrada guarda:
+ * - bits 0..8: máscara das jogadas ótimas, na orientação canônica
+ * - bits 9..13: valor do jogo para quem joga + 16 (vitória = 1 + células vazias no fim, derrota é o negativo)
+ * - bit 15: a entrada existe
+ */
+public class PositionBook {
+    static final int MAGIC = 0x54545442; // "TTTB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5 * Integer.BYTES;
+    /**
+     * O maior tabuleiro suportado: 3^9 * 2 entradas (o 4x4 já teria 3^16 * 2)
+     */
+    static final int MAX_CELLS = 9;
+
+    static final int MOVES_MASK = 0x1FF;
+    static final int VALUE_SHIFT = 9;
+    static final int VALUE_OFFSET = 16;
+    static final int PRESENT_BIT = 1 << 15;
+    /**
+     * POWERS_OF_THREE[i] = 3^i, para montar o código base 3 sem multiplicar a cada célula
+     */
+    private static final int[] POWERS_OF_THREE = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
+    /**
+     * Valor retornado por {@link #lookup(Board, BoardCell)} quando a posição não está no livro
+     */
+    public static final int MISS = 0;
+
+    private final ByteBuffer entries;
+    private final BoardGeometry geometry;
+
+    private PositionBook(ByteBuffer entries, BoardGeometry geometry) {
+        this.entries = entries;
+        this.geometry = geometry;
+    }
+
+    /**
+     * Abre um livro gerado pelo {@link BookGenerator}.
+     *
+     * @param path o caminho do arquivo
+     * @return o livro, mapeado em memória
+     * @throws IOException se o arquivo não puder ser lido ou não for um livro válido
+     */
+    public static PositionBook open(Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // o mapeamento continua válido depois de fechar o canal
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Arquivo não é um livro de posições válido: " + path);
+            }
+            final var geometry = BoardGeometry.of(buffer.getInt(8), buffer.getInt(12));
+            final var entryCount = buffer.getInt(16);
+            if (entryCount != entryCount(geometry) || buffer.limit() < HEADER_BYTES + entryCount * Short.BYTES) {
+                throw new IOException("Livro de posições truncado: " + path);
+            }
+            return new PositionBook(buffer.slice(HEADER_BYTES, entryCount * Short.BYTES), geometry);
+        }
+    }
+
+    /**
+     * @return a geometria do tabuleiro para o qual o livro foi gerado
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Procura a posição no livro.
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @return a entrada (use {@link #value(int)} e {@link #bestCells(Board, int)}), ou {@link #MISS}
+     */
+    public int lookup(Board board, BoardCell player) {
+        if (board.getGeometry() != geometry) {
+            return MISS;
+        }
+        final var index = index(board, board.getCanonicalSymmetry(), player);
+        final var entry = Short.toUnsignedInt(entries.getShort(index * Short.BYTES));
+        return (entry & PRESENT_BIT) == 0 ? MISS : entry;
+    }
+
+    /**
+     * @param entry uma entrada retornada por {@link #lookup(Board, BoardCell)}
+     * @return o valor do jogo para quem joga: positivo é vitória, negativo é derrota e 0 é velha
+     */
+    public static int value(int entry) {
+        return ((entry >>> VALUE_SHIFT) & 0x1F) - VALUE_OFFSET;
+    }
+
+    /**
+     * Converte a máscara de jogadas ótimas (guardada na orientação canônica) para células do tabuleiro atual.
+     *
+     * @param board é o tabuleiro atual
+     * @param entry uma entrada retornada por {@link #lookup(Board, BoardCell)}
+     * @return a máscara das jogadas ótimas, bit `cell` ligado para cada célula ótima
+     */
+    public static int bestCells(Board board, int entry) {
+        final var symmetry = board.getCanonicalSymmetry();
+        var canonicalMoves = entry & MOVES_MASK;
+        var cells = 0;
+        while (canonicalMoves != 0) {
+            final var canonicalCell = Integer.numberOfTrailingZeros(canonicalMoves);
+            canonicalMoves &= canonicalMoves - 1;
+            cells |= 1 << board.getSymmetry().invert(symmetry, canonicalCell);
+        }
+        return cells;
+    }
+
+    /**
+     * @param geometry a geometria do tabuleiro
+     * @return quantas entradas o livro tem para essa geometria
+     */
+    static int entryCount(BoardGeometry geometry) {
+        if (geometry.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("O livro só suporta tabuleiros de até " + MAX_CELLS + " células");
+        }
+        var count = 2;
+        for (var cell = 0; cell < geometry.getCellCount(); cell++) {
+            count *= 3;
+        }
+        return count;
+    }
+
+    /**
+     * Calcula o índice da posição no livro: o código base 3 da posição depois de aplicada a simetria
+     * (vazio = 0, X = 1, O = 2), vezes dois, mais um se for a vez de O.
+     *
+     * @param board é o tabuleiro atual
+     * @param symmetry a simetria que leva a posição para a forma canônica
+     * @param player é o jogador da vez
+     * @return o índice da entrada
+     */
+    static int index(Board board, int symmetry, BoardCell player) {
+        final var cellCount = board.getGeometry().getCellCount();
+        var code = 0;
+        for (var cell = 0; cell < cellCount; cell++) {
+            final var value = board.getBoardCell(cell);
+            if (value != BoardCell.EMPTY) {
+                code += (value == BoardCell.X ? 1 : 2) * POWERS_OF_THREE[board.getSymmetry().apply(symmetry, cell)];
+            }
+        }
+        return code * 2 + (player == BoardCell.O ? 1 : 0);
+    }
+}
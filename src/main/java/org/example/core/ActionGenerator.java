@@ -22,4 +22,16 @@ public interface ActionGenerator {
      * @return o movimento gerado
      */
     PlayerAction generateAction(Board board, Player player);
+
+    /**
+     * Mesmo que {@link #generateAction(Board, Player)}, mas devolvendo a jogada codificada (veja {@link Moves}).
+     * Os bots sobrescrevem isso para não alocar nada por jogada; o padrão só converte a ação.
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador que deve gerar o movimento
+     * @return o movimento gerado, codificado
+     */
+    default int generateMove(Board board, Player player) {
+        return Moves.of(generateAction(board, player), board.getBoardSize());
+    }
 }
@@ -0,0 +1,513 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * O motor de busca usado pelos action generators baseados em MiniMax.
+ *
+ * É um negamax com poda alfa-beta:
+ * 1. Se o jogo acabou, retorna o valor do estado do jogo do ponto de vista de quem é a vez
+ * 2. Se a profundidade acabou, retorna o valor da heurística ({@link Evaluator})
+ * 3. Se não, o valor da posição é o maior entre os valores (negados) dos filhos, já que o que é bom
+ *    para o adversário é ruim para o jogador atual
+ * 4. Mantemos uma janela [alpha, beta] com o que cada lado já tem garantido; quando um filho
+ *    passa do beta, o adversário nunca deixaria o jogo chegar aqui e podemos parar de olhar os irmãos
+ *
+ * Definimos o valor de um fim de jogo (para o jogador da vez) da seguinte forma:
+ * 1. Se o adversário ganhou, retorna -({@link #WIN_SCORE} + células vazias)
+ * 2. Se deu velha, retorna 0
+ *
+ * Somar as células vazias faz vitórias mais rápidas valerem mais e derrotas mais demoradas valerem
+ * menos, então o bot fecha o jogo o quanto antes e, se estiver perdido, adia a derrota.
+ * Como o valor só depende da posição (e não da distância até a raiz), ele pode ir direto para a
+ * tabela de transposição.
+ *
+ * Para a poda funcionar bem, as jogadas são ordenadas: primeiro a jogada da tabela de transposição,
+ * depois as células por onde passam mais linhas (centro, depois cantos) e, no empate, as jogadas
+ * "killer" (que já causaram corte na mesma profundidade) e o histórico de cortes de cada célula.
+ *
+ * A busca respeita um {@link SearchBudget}: quando o tempo ou os nós acabam ela é abortada, e o
+ * resultado da iteração em andamento deve ser descartado (veja {@link #isAborted()}).
+ *
+ * Uma instância não é thread-safe: cada thread precisa da sua (a tabela de transposição pode ser compartilhada).
+ * Outra thread pode pedir para a busca parar com {@link #requestStop()}.
+ */
+public class AlphaBetaSearch {
+    /**
+     * Valor base de uma vitória, ao qual somamos as células que sobraram vazias
+     */
+    public static final int WIN_SCORE = 1_000_000;
+    /**
+     * Maior valor que uma heurística pode retornar, bem abaixo de qualquer vitória
+     */
+    public static final int MAX_HEURISTIC_SCORE = WIN_SCORE / 2;
+    /**
+     * Maior valor possível, usado como "infinito" na janela alfa-beta
+     */
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    /**
+     * Chave que diferencia no hash de quem é a vez (o mesmo tabuleiro com O para jogar é outra posição)
+     */
+    private static final long O_TO_MOVE_KEY = 0x5DEECE66DL * 0x9E3779B97F4A7C15L;
+    /**
+     * De quantos em quantos nós olhamos o relógio (olhar a cada nó custaria caro)
+     */
+    private static final long BUDGET_CHECK_INTERVAL = 1024;
+
+    // prioridades usadas na ordenação das jogadas
+    private static final int TRANSPOSITION_MOVE_PRIORITY = 1 << 30;
+    private static final int LINE_PRIORITY = 1 << 24;
+    private static final int KILLER_PRIORITY = 1 << 20;
+
+    /**
+     * Cache das posições já avaliadas
+     */
+    private final TranspositionTable transpositionTable;
+    /**
+     * Heurística usada quando a profundidade acaba antes do jogo
+     */
+    private final Evaluator evaluator;
+    /**
+     * killers[ply] são as duas últimas jogadas que causaram corte naquela profundidade
+     */
+    private int[][] killers;
+    /**
+     * history[cell] acumula o quanto uma célula já causou cortes, em qualquer profundidade
+     */
+    private int[] history;
+    /**
+     * Buffers de jogadas e prioridades por profundidade, para não alocar nada durante a busca
+     */
+    private int[][] moveBuffers;
+    private int[][] priorityBuffers;
+
+    private long nodesVisited;
+    /**
+     * Contadores da busca atual, para as métricas (cada instância é usada por uma thread só, então nada de atômicos)
+     */
+    private long terminalNodes;
+    private long evaluations;
+    private long cutoffs;
+    private long transpositionProbes;
+    private long transpositionHits;
+    private long startNanos;
+    private long deadlineNanos;
+    private long maxNodes;
+    private boolean aborted;
+    private int lastScore;
+    private int completedDepth;
+    /**
+     * Pedido de parada vindo de outra thread, olhado junto com o orçamento
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * @param transpositionTable a tabela de transposição usada como cache
+     * @param evaluator a heurística para posições que não acabaram (só é usada em buscas com profundidade limitada)
+     */
+    public AlphaBetaSearch(TranspositionTable transpositionTable, Evaluator evaluator) {
+        this.transpositionTable = transpositionTable;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Prepara uma nova busca (uma por jogada): zera os contadores e killers, começa uma nova geração
+     * na tabela e calcula o prazo a partir do orçamento.
+     *
+     * @param board é o tabuleiro atual
+     * @param budget o limite de tempo e nós para esta jogada
+     */
+    public void startSearch(Board board, SearchBudget budget) {
+        transpositionTable.newGeneration();
+        startSharedSearch(board, budget);
+    }
+
+    /**
+     * Mesmo que {@link #startSearch(Board, SearchBudget)}, mas sem começar uma nova geração na tabela.
+     * É o que as buscas auxiliares de uma busca paralela usam, já que a tabela é compartilhada e a
+     * geração é iniciada uma vez só por quem coordena a busca.
+     *
+     * @param board é o tabuleiro atual
+     * @param budget o limite de tempo e nós para esta jogada
+     */
+    public void startSharedSearch(Board board, SearchBudget budget) {
+        prepareBuffers(board);
+        nodesVisited = 0;
+        terminalNodes = 0;
+        evaluations = 0;
+        cutoffs = 0;
+        transpositionProbes = 0;
+        transpositionHits = 0;
+        completedDepth = 0;
+        stopRequested = false;
+        aborted = false;
+        startNanos = System.nanoTime();
+        deadlineNanos = budget.hasTimeLimit() ? startNanos + budget.timeMillis() * 1_000_000L : Long.MAX_VALUE;
+        maxNodes = budget.hasNodeLimit() ? budget.maxNodes() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Aprofundamento iterativo: busca com profundidade `startDepth`, depois a próxima, e assim por diante,
+     * até o orçamento acabar, até achar uma vitória/derrota forçada ou até chegar no fim do jogo.
+     * Cada iteração começa pela melhor jogada da anterior, que fica na tabela de transposição.
+     *
+     * Quando o orçamento acaba no meio de uma iteração, ela é descartada e a jogada retornada é a da
+     * última profundidade completa (ou a melhor parcial da primeira iteração, se nenhuma terminou).
+     *
+     * @param board é o tabuleiro atual (o jogo não pode ter acabado)
+     * @param player é o jogador da vez
+     * @param startDepth a profundidade da primeira iteração
+     * @return a célula da melhor jogada
+     */
+    public int iterativeDeepening(Board board, BoardCell player, int startDepth) {
+        completedDepth = 0;
+        var bestCell = -1;
+        var bestScore = 0;
+        final var maxDepth = board.getEmptyCellCount();
+        for (var depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            final var cell = searchRoot(board, player, depth);
+            if (aborted) {
+                // a iteração não terminou, então só usamos o resultado parcial se não tivermos nenhum outro
+                if (bestCell == -1) {
+                    bestCell = cell;
+                    bestScore = lastScore;
+                }
+                break;
+            }
+            bestCell = cell;
+            bestScore = lastScore;
+            completedDepth = depth;
+            if (isDecisive(lastScore)) {
+                // já sabemos como o jogo termina, buscar mais fundo não muda nada
+                break;
+            }
+        }
+        lastScore = bestScore;
+        return bestCell;
+    }
+
+    /**
+     * Pede para a busca parar o quanto antes, como se o orçamento tivesse acabado.
+     * Pode ser chamado de qualquer thread.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * @return a profundidade da última iteração completa em {@link #iterativeDeepening(Board, BoardCell, int)}
+     * (ou da busca mais funda que terminou em {@link #searchRoot(Board, BoardCell, int)})
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Busca a melhor jogada na raiz até a profundidade informada.
+     *
+     * Se a tabela de transposição já tem um score exato de uma busca pelo menos tão profunda,
+     * a jogada guardada é devolvida sem buscar nada.
+     *
+     * Se a busca for abortada no meio, a jogada retornada é a melhor entre as que foram totalmente
+     * avaliadas (ou a primeira da ordenação, se nenhuma foi) e {@link #isAborted()} passa a ser true.
+     *
+     * @param board é o tabuleiro atual (o jogo não pode ter acabado)
+     * @param player é o jogador da vez
+     * @param depth quantas jogadas olhar para frente (use as células vazias para buscar até o fim)
+     * @return a célula da melhor jogada
+     */
+    public int searchRoot(Board board, BoardCell player, int depth) {
+        final var symmetry = board.getCanonicalSymmetry();
+        final var key = positionKey(board, symmetry, player);
+
+        final var entry = probe(key);
+        if (entry != TranspositionTable.MISS
+                && TranspositionTable.bound(entry) == TranspositionTable.EXACT
+                && TranspositionTable.depth(entry) >= depth
+                && TranspositionTable.move(entry) != TranspositionTable.NO_MOVE) {
+            // a jogada está guardada na orientação canônica, então desfazemos a simetria
+            lastScore = TranspositionTable.score(entry);
+            completedDepth = Math.max(completedDepth, depth);
+            return board.getSymmetry().invert(symmetry, TranspositionTable.move(entry));
+        }
+
+        final var moves = moveBuffers[0];
+        final var moveCount = orderMoves(board, player, 0, symmetry, entry);
+        var alpha = -INFINITY;
+        var bestCell = Moves.cell(moves[0]);
+        for (var i = 0; i < moveCount; i++) {
+            // emula a jogada
+            board.makeMove(moves[i]);
+            // vê qual o melhor score possível considerando que a jogada foi feita
+            final var score = -negaMax(board, player.opponent(), depth - 1, -INFINITY, -alpha, 1);
+            // desfaz a jogada
+            board.unmakeMove();
+            if (aborted) {
+                break;
+            }
+            // só trocamos se for estritamente melhor, assim a ordenação decide os empates
+            if (score > alpha) {
+                alpha = score;
+                bestCell = Moves.cell(moves[i]);
+            }
+        }
+
+        lastScore = alpha;
+        if (!aborted) {
+            completedDepth = Math.max(completedDepth, depth);
+            transpositionTable.store(key, alpha, TranspositionTable.EXACT,
+                    board.getSymmetry().apply(symmetry, bestCell), depth);
+        }
+        return bestCell;
+    }
+
+    /**
+     * @return true se a última busca foi interrompida pelo orçamento
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * @return o score da melhor jogada encontrada na última chamada de {@link #searchRoot(Board, BoardCell, int)}
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * @return quantos nós foram visitados desde {@link #startSearch(Board, SearchBudget)}
+     */
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * Os números da busca desde {@link #startSearch(Board, SearchBudget)}, para as métricas.
+     * @return as estatísticas, com o tempo medido até agora
+     */
+    public SearchStatistics getStatistics() {
+        return new SearchStatistics(nodesVisited, terminalNodes, evaluations, cutoffs,
+                transpositionProbes, transpositionHits, completedDepth, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @param score um score retornado pela busca
+     * @return true se o score é uma vitória ou derrota forçada (e não uma heurística)
+     */
+    public static boolean isDecisive(int score) {
+        return Math.abs(score) >= WIN_SCORE;
+    }
+
+    /**
+     * Retorna o valor do estado do jogo do ponto de vista de `player`, olhando só o que cabe na janela
+     * [alpha, beta]. Valores fora da janela são limites: se o retorno é menor ou igual a alpha ele é um
+     * limite superior, se é maior ou igual a beta é um limite inferior.
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @param depth quantas jogadas ainda podemos olhar para frente
+     * @param alpha o mínimo que o jogador da vez já tem garantido
+     * @param beta o máximo que o adversário deixa o jogador da vez conseguir
+     * @param ply a distância até a raiz da busca
+     * @return o valor do estado do jogo
+     */
+    private int negaMax(Board board, BoardCell player, int depth, int alpha, int beta, int ply) {
+        if (++nodesVisited % BUDGET_CHECK_INTERVAL == 0) {
+            checkBudget();
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        // se o jogo acabou, retornamos o valor do estado do jogo.
+        // só quem acabou de jogar pode ter ganhado, e esse é o adversário
+        final var emptyCells = board.getEmptyCellCount();
+        if (board.isWinner(player.opponent())) {
+            terminalNodes++;
+            return -(WIN_SCORE + emptyCells);
+        }
+        if (emptyCells == 0) {
+            terminalNodes++;
+            return 0;
+        }
+        if (depth <= 0) {
+            evaluations++;
+            final var score = evaluator.evaluate(board, player);
+            return Math.max(-MAX_HEURISTIC_SCORE, Math.min(MAX_HEURISTIC_SCORE, score));
+        }
+
+        // se essa posição (ou uma simétrica) já foi avaliada com profundidade suficiente,
+        // talvez nem precisemos descer na árvore
+        final var originalAlpha = alpha;
+        final var symmetry = board.getCanonicalSymmetry();
+        final var key = positionKey(board, symmetry, player);
+        final var entry = probe(key);
+        if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+            final var score = TranspositionTable.score(entry);
+            switch (TranspositionTable.bound(entry)) {
+                case TranspositionTable.EXACT -> {
+                    return score;
+                }
+                case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, score);
+                default -> beta = Math.min(beta, score);
+            }
+            if (alpha >= beta) {
+                return score;
+            }
+        }
+
+        final var moves = moveBuffers[ply];
+        final var moveCount = orderMoves(board, player, ply, symmetry, entry);
+        var bestScore = -INFINITY;
+        var bestCell = TranspositionTable.NO_MOVE;
+        for (var i = 0; i < moveCount; i++) {
+            final var cell = Moves.cell(moves[i]);
+            // emula a jogada
+            board.makeMove(moves[i]);
+            // o valor para nós é o negativo do valor para o adversário
+            final var score = -negaMax(board, player.opponent(), depth - 1, -beta, -alpha, ply + 1);
+            // desfaz a jogada
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestCell = cell;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                // corte: o adversário nunca deixaria chegar aqui, então lembramos da jogada que cortou
+                cutoffs++;
+                recordCutoff(ply, cell, depth);
+                break;
+            }
+        }
+
+        final int bound;
+        if (bestScore <= originalAlpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        } else if (bestScore >= beta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        } else {
+            bound = TranspositionTable.EXACT;
+        }
+        transpositionTable.store(key, bestScore, bound, board.getSymmetry().apply(symmetry, bestCell), depth);
+        return bestScore;
+    }
+
+    /**
+     * Consulta a tabela de transposição contando consultas e acertos.
+     */
+    private long probe(long key) {
+        transpositionProbes++;
+        final var entry = transpositionTable.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            transpositionHits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Marca a busca como abortada se o prazo ou a quantidade de nós estourou, ou se alguém pediu para parar.
+     */
+    private void checkBudget() {
+        if (stopRequested || nodesVisited >= maxNodes || System.nanoTime() >= deadlineNanos) {
+            aborted = true;
+        }
+    }
+
+    /**
+     * Preenche o buffer de jogadas da profundidade `ply` com as jogadas possíveis (codificadas, veja {@link Moves}),
+     * já ordenadas da mais promissora para a menos promissora.
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @param ply a profundidade atual
+     * @param symmetry a simetria canônica da posição (para converter a jogada da tabela)
+     * @param entry a entrada da tabela de transposição para a posição, ou {@link TranspositionTable#MISS}
+     * @return a quantidade de jogadas
+     */
+    private int orderMoves(Board board, BoardCell player, int ply, int symmetry, long entry) {
+        final var geometry = board.getGeometry();
+        final var moves = moveBuffers[ply];
+        final var priorities = priorityBuffers[ply];
+        final var transpositionMove = entry == TranspositionTable.MISS || TranspositionTable.move(entry) == TranspositionTable.NO_MOVE
+                ? -1
+                : board.getSymmetry().invert(symmetry, TranspositionTable.move(entry));
+
+        final var count = board.generateMoves(moves, player);
+        for (var i = 0; i < count; i++) {
+            final var move = moves[i];
+            final var cell = Moves.cell(move);
+            var priority = geometry.getCellLines(cell).length * LINE_PRIORITY + Math.min(history[cell], KILLER_PRIORITY - 1);
+            if (cell == transpositionMove) {
+                priority += TRANSPOSITION_MOVE_PRIORITY;
+            }
+            if (cell == killers[ply][0] || cell == killers[ply][1]) {
+                priority += KILLER_PRIORITY;
+            }
+            // insertion sort no próprio buffer, as listas são pequenas
+            var position = i;
+            while (position > 0 && priorities[position - 1] < priority) {
+                moves[position] = moves[position - 1];
+                priorities[position] = priorities[position - 1];
+                position--;
+            }
+            moves[position] = move;
+            priorities[position] = priority;
+        }
+        return count;
+    }
+
+    /**
+     * Guarda uma jogada que causou corte como killer da profundidade e soma no histórico da célula.
+     * @param ply a profundidade onde aconteceu o corte
+     * @param cell a jogada que causou o corte
+     * @param depth quanto faltava buscar (cortes perto da raiz pesam mais)
+     */
+    private void recordCutoff(int ply, int cell, int depth) {
+        if (killers[ply][0] != cell) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = cell;
+        }
+        history[cell] += depth * depth;
+    }
+
+    /**
+     * Garante que os buffers da busca têm o tamanho do tabuleiro e zera killers e histórico.
+     * @param board é o tabuleiro atual
+     */
+    private void prepareBuffers(Board board) {
+        final var cellCount = board.getGeometry().getCellCount();
+        if (moveBuffers == null || moveBuffers[0].length != cellCount) {
+            moveBuffers = new int[cellCount + 1][cellCount];
+            priorityBuffers = new int[cellCount + 1][cellCount];
+            killers = new int[cellCount + 1][2];
+            history = new int[cellCount];
+        }
+        for (final var killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        Arrays.fill(history, 0);
+    }
+
+    /**
+     * Monta a chave da posição para a tabela de transposição: o hash da orientação canônica
+     * combinado com quem é a vez de jogar.
+     *
+     * @param board é o tabuleiro atual
+     * @param symmetry é a simetria canônica do tabuleiro
+     * @param player é o jogador da vez
+     * @return a chave da posição
+     */
+    static long positionKey(Board board, int symmetry, BoardCell player) {
+        final var hash = board.getSymmetryHash(symmetry);
+        return player == BoardCell.O ? hash ^ O_TO_MOVE_KEY : hash;
+    }
+}
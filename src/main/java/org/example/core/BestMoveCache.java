@@ -0,0 +1,264 @@
+package org.example.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de melhores jogadas compartilhado por todos os jogos da JVM.
+ *
+ * Cada bot tem a sua {@link TranspositionTable}, então o que um jogo descobre se perde para os outros,
+ * mesmo com milhares de jogos passando pelas mesmas aberturas. Aqui os geradores de busca guardam a
+ * jogada que escolheram, indexada pela posição canônica (hash do {@link Board} na orientação canônica,
+ * quem joga e a variante do tabuleiro), e qualquer outro jogo que chegar na mesma posição, ou numa
+ * rotação/reflexão dela, responde com uma consulta só.
+ *
+ * Cada entrada guarda também a profundidade da busca que a produziu, para quem consulta poder recusar
+ * jogadas de buscas mais rasas que a sua (o {@link MiniMaxActionGenerator} só aceita posições resolvidas).
+ *
+ * O cache tem tamanho fixo e é associativo por conjuntos: cada chave só pode ficar nas {@link #WAYS}
+ * entradas do seu conjunto, e quando o conjunto enche a vítima é escolhida com CLOCK (quem foi lido
+ * desde a última passada do ponteiro ganha uma segunda chance). Os conjuntos são protegidos por locks
+ * listrados, então threads em conjuntos diferentes nunca disputam o mesmo lock.
+ */
+public class BestMoveCache {
+    /**
+     * Valor que {@link #lookup(Board, BoardCell, int)} retorna quando a posição não está no cache
+     */
+    public static final int MISS = -1;
+    /**
+     * Quantidade padrão de entradas do cache compartilhado
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    /**
+     * Quantas entradas cada conjunto tem
+     */
+    static final int WAYS = 8;
+    private static final int STRIPES = 64;
+
+    private static final long O_TO_MOVE_KEY = 0x2545F4914F6CDD1DL;
+    private static final int CELL_MASK = 0xFF;
+    private static final int DEPTH_SHIFT = 8;
+    private static final int MAX_DEPTH = 0xFF;
+
+    private static final class Shared {
+        static final BestMoveCache INSTANCE = new BestMoveCache(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * keys[i] e values[i] são a chave e a jogada (célula canônica e profundidade) da entrada `i`;
+     * o conjunto `s` ocupa as entradas `s * WAYS` até `s * WAYS + WAYS - 1`. Chave 0 é entrada vazia.
+     */
+    private final long[] keys;
+    private final int[] values;
+    /**
+     * O bit de referência do CLOCK de cada entrada
+     */
+    private final boolean[] referenced;
+    /**
+     * O ponteiro do CLOCK de cada conjunto
+     */
+    private final byte[] hands;
+    private final Object[] locks = new Object[STRIPES];
+    private final int setMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity quantas jogadas o cache guarda (arredondado para cima para uma potência de 2, mínimo {@link #WAYS})
+     */
+    public BestMoveCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade do cache precisa ser positiva");
+        }
+        final var minimumSets = (capacity + WAYS - 1) / WAYS;
+        final var sets = minimumSets == 1 ? 1 : Integer.highestOneBit(minimumSets - 1) << 1;
+        this.setMask = sets - 1;
+        this.keys = new long[sets * WAYS];
+        this.values = new int[sets * WAYS];
+        this.referenced = new boolean[sets * WAYS];
+        this.hands = new byte[sets];
+        for (var i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return o cache de toda a JVM, criado no primeiro uso com {@link #DEFAULT_CAPACITY} entradas
+     */
+    public static BestMoveCache shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @param minDepth a menor profundidade aceita (use as células vazias para exigir a posição resolvida)
+     * @return a célula da jogada guardada, na orientação do tabuleiro, ou {@link #MISS}
+     */
+    public int lookup(Board board, BoardCell player, int minDepth) {
+        final var symmetry = board.getCanonicalSymmetry();
+        final var key = key(board, symmetry, player);
+        final var set = set(key);
+        final int value;
+        synchronized (locks[set & (STRIPES - 1)]) {
+            final var index = find(set, key);
+            if (index < 0 || depth(values[index]) < Math.min(minDepth, MAX_DEPTH)) {
+                value = MISS;
+            } else {
+                referenced[index] = true;
+                value = values[index];
+            }
+        }
+        if (value == MISS) {
+            misses.increment();
+            return MISS;
+        }
+        hits.increment();
+        return board.getSymmetry().invert(symmetry, value & CELL_MASK);
+    }
+
+    /**
+     * Guarda a jogada escolhida numa posição. Se já houver uma de uma busca mais funda, ela é mantida.
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @param cell a célula escolhida, na orientação do tabuleiro
+     * @param depth a profundidade da busca que escolheu (as células vazias se ela foi até o fim)
+     */
+    public void store(Board board, BoardCell player, int cell, int depth) {
+        final var symmetry = board.getCanonicalSymmetry();
+        final var key = key(board, symmetry, player);
+        final var value = board.getSymmetry().apply(symmetry, cell) | Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT;
+        final var set = set(key);
+        synchronized (locks[set & (STRIPES - 1)]) {
+            var index = find(set, key);
+            if (index >= 0) {
+                if (depth(values[index]) <= depth(value)) {
+                    values[index] = value;
+                }
+                return;
+            }
+            index = victim(set);
+            keys[index] = key;
+            values[index] = value;
+            referenced[index] = false;
+        }
+        stores.increment();
+    }
+
+    /**
+     * Esvazia o cache (as estatísticas continuam).
+     */
+    public void clear() {
+        for (var stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                for (var set = stripe; set <= setMask; set += STRIPES) {
+                    for (var index = set * WAYS; index < set * WAYS + WAYS; index++) {
+                        keys[index] = 0;
+                        referenced[index] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return quantas jogadas o cache consegue guardar
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return quantas consultas acharam uma jogada
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return quantas consultas não acharam jogada (ou acharam uma rasa demais)
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return quantas posições novas foram guardadas
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return quantas entradas foram descartadas para abrir espaço
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return a fração das consultas que acharam jogada (0 se ainda não houve consulta)
+     */
+    public double getHitRate() {
+        final var hits = getHits();
+        final var total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return a entrada da chave no conjunto, ou -1
+     */
+    private int find(int set, long key) {
+        for (var index = set * WAYS; index < set * WAYS + WAYS; index++) {
+            if (keys[index] == key) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Escolhe onde guardar uma chave nova: uma entrada vazia ou, com o conjunto cheio, a primeira que o
+     * ponteiro do CLOCK encontrar sem o bit de referência (limpando os bits pelo caminho).
+     */
+    private int victim(int set) {
+        final var base = set * WAYS;
+        for (var index = base; index < base + WAYS; index++) {
+            if (keys[index] == 0) {
+                return index;
+            }
+        }
+        var hand = hands[set];
+        while (referenced[base + hand]) {
+            referenced[base + hand] = false;
+            hand = (byte) ((hand + 1) % WAYS);
+        }
+        hands[set] = (byte) ((hand + 1) % WAYS);
+        evictions.increment();
+        return base + hand;
+    }
+
+    private int set(long key) {
+        return (int) (key >>> 40) & setMask;
+    }
+
+    private static int depth(int value) {
+        return value >>> DEPTH_SHIFT;
+    }
+
+    /**
+     * A chave da posição: o hash canônico, quem joga e a variante (o mesmo desenho de peças no 4x4 com
+     * três ou quatro em linha é outra posição). Nunca é 0, que marca entrada vazia.
+     */
+    private static long key(Board board, int symmetry, BoardCell player) {
+        final var geometry = board.getGeometry();
+        var variant = geometry.getSize() | (long) geometry.getWinLength() << 8 | (long) geometry.getLayers() << 16;
+        variant *= 0x9E3779B97F4A7C15L;
+        variant ^= variant >>> 31;
+        final var key = board.getSymmetryHash(symmetry) ^ variant ^ (player == BoardCell.O ? O_TO_MOVE_KEY : 0);
+        return key == 0 ? 1 : key;
+    }
+}
@@ -5,41 +5,142 @@ package org.example.core;
  * Ela é responsável por verificar se o jogo acabou, se alguém ganhou, se deu velha, etc.
  *
  * Ela também é responsável por aplicar uma ação no tabuleiro.
- * Ela é, nada além de que um wrapper para uma matriz de BoardCell.
- * Porém capaz de nos dar informações sobre o estado atual do jogo.
+ *
+ * O tabuleiro é NxN e ganha quem fizer K em sequência (o tradicional é 3x3 com K = 3),
+ * tudo que depende só de N e K fica na {@link BoardGeometry}.
+ *
+ * Internamente o tabuleiro é um bitboard: cada jogador tem uma máscara de bits (um long[]) onde o bit
+ * `row * N + column` está ligado se o jogador ocupa aquela célula.
+ *
+ * Para não varrer o tabuleiro a cada jogada, contamos quantas peças de cada jogador existem em cada
+ * linha vencedora. Ao colocar (ou tirar) uma peça, só atualizamos as linhas que passam pela célula,
+ * e quando uma linha chega a K peças o jogador tem uma linha completa. Assim, saber se alguém ganhou
+ * é O(1), e cada jogada custa só o número de linhas que passam pela célula.
+ *
+ * Além disso, o tabuleiro mantém um hash Zobrist para cada uma das 8 simetrias do quadrado,
+ * atualizado a cada jogada. O menor deles é o hash canônico, que é igual para todas as
+ * rotações e reflexões de uma mesma posição (útil para a tabela de transposição).
+ *
+ * Para a busca e o self-play existe ainda a API de make/unmake: {@link #makeMove(int)} recebe a jogada
+ * codificada num int (veja {@link Moves}) e empilha ela, e {@link #unmakeMove()} desfaz a última.
+ * Junto com {@link #generateMoves(int[], BoardCell)}, que preenche um array do chamador com as jogadas
+ * possíveis, dá para jogar e desfazer milhões de jogadas sem alocar nada.
  */
 public class Board {
     /**
-     * Tamanho do tabuleiro, jogos da velha tradicionais são uma matriz quadrada 3x3
+     * Geometria do tabuleiro: tamanho, sequência para ganhar, linhas vencedoras, simetrias...
+     */
+    private final BoardGeometry geometry;
+    /**
+     * Máscara das células ocupadas pelo jogador X
+     */
+    private final long[] xBits;
+    /**
+     * Máscara das células ocupadas pelo jogador O
+     */
+    private final long[] oBits;
+    /**
+     * xLineCounts[line] é quantas peças X existem na linha vencedora `line` (idem para O)
+     */
+    private final byte[] xLineCounts;
+    private final byte[] oLineCounts;
+    /**
+     * Quantas linhas vencedoras cada jogador tem completas
+     */
+    private int xCompletedLines;
+    private int oCompletedLines;
+    /**
+     * Quantas peças existem no tabuleiro
      */
-    private static final int BOARD_SIZE = 3;
+    private int pieceCount;
     /**
-     * Matriz de BoardCell que representa o tabuleiro
+     * symmetryHashes[s] é o hash Zobrist da posição depois de aplicada a simetria `s`
      */
-    private final BoardCell[][] boardCells;
+    private final long[] symmetryHashes = new long[BoardSymmetry.SYMMETRY_COUNT];
+    /**
+     * As jogadas feitas com {@link #makeMove(int)}, em ordem, para o {@link #unmakeMove()} desfazer.
+     * Cada célula só pode ser ocupada uma vez, então a pilha nunca passa do número de células
+     */
+    private final int[] moveStack;
+    private int moveStackSize;
 
+    /**
+     * Cria um tabuleiro 3x3 tradicional
+     */
     public Board() {
-        boardCells = new BoardCell[BOARD_SIZE][BOARD_SIZE];
+        this(BoardGeometry.STANDARD);
+    }
 
-        // Aqui inicializamos o tabuleiro com todas as células vazias
-        for (var row = 0; row < BOARD_SIZE; row++) {
-            for (var column = 0; column < BOARD_SIZE; column++) {
-                boardCells[row][column] = BoardCell.EMPTY;
-            }
+    /**
+     * Cria um tabuleiro NxN onde é preciso fazer K em sequência para ganhar
+     * @param size o tamanho N do lado do tabuleiro
+     * @param winLength quantas peças em sequência K são necessárias para ganhar
+     */
+    public Board(int size, int winLength) {
+        this(BoardGeometry.of(size, winLength));
+    }
+
+    /**
+     * Cria um tabuleiro vazio de uma geometria qualquer (inclusive o cubo do Qubic)
+     * @param geometry as linhas vencedoras e o tamanho do tabuleiro
+     */
+    public Board(BoardGeometry geometry) {
+        this.geometry = geometry;
+        // as máscaras e contadores começam zerados, ou seja, todas as células estão vazias
+        // e o hash de um tabuleiro vazio é zero em todas as simetrias
+        final var words = (geometry.getCellCount() + Long.SIZE - 1) / Long.SIZE;
+        this.xBits = new long[words];
+        this.oBits = new long[words];
+        this.xLineCounts = new byte[geometry.getLineCount()];
+        this.oLineCounts = new byte[geometry.getLineCount()];
+        this.moveStack = new int[geometry.getCellCount()];
+    }
+
+    /**
+     * @return uma cópia independente do tabuleiro (útil para buscar em outra thread sem mexer no original)
+     */
+    public Board copy() {
+        final var copy = new Board(geometry);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Copia o estado de outro tabuleiro da mesma geometria para este, sem alocar nada.
+     * @param other o tabuleiro a ser copiado
+     */
+    public void copyFrom(Board other) {
+        if (other.geometry != geometry) {
+            throw new IllegalArgumentException("Os tabuleiros têm geometrias diferentes");
         }
+        System.arraycopy(other.xBits, 0, xBits, 0, xBits.length);
+        System.arraycopy(other.oBits, 0, oBits, 0, oBits.length);
+        System.arraycopy(other.xLineCounts, 0, xLineCounts, 0, xLineCounts.length);
+        System.arraycopy(other.oLineCounts, 0, oLineCounts, 0, oLineCounts.length);
+        System.arraycopy(other.symmetryHashes, 0, symmetryHashes, 0, symmetryHashes.length);
+        xCompletedLines = other.xCompletedLines;
+        oCompletedLines = other.oCompletedLines;
+        pieceCount = other.pieceCount;
+        System.arraycopy(other.moveStack, 0, moveStack, 0, other.moveStackSize);
+        moveStackSize = other.moveStackSize;
     }
 
     @Override
     public String toString() {
         // A ideia desse override do método toString é apenas para facilitar a visualização do tabuleiro
-        // ou seja, podemos pensar como o tabuleiro stringificado, sem precisarmos olhar intermanete para a matriz
+        // ou seja, podemos pensar como o tabuleiro stringificado, sem precisarmos olhar intermanete para as máscaras
         // Usando um string builder para facilitar a concatenação de strings
+        final var size = geometry.getSize();
         StringBuilder stringBuilder = new StringBuilder();
-        for (int row = 0; row < BOARD_SIZE; row++) {
+        for (int row = 0; row < geometry.getRowCount(); row++) {
+            // no cubo, uma linha em branco separa as camadas
+            if (row > 0 && row % size == 0) {
+                stringBuilder.append("\n");
+            }
             // borda superior
             stringBuilder.append("|");
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                stringBuilder.append(boardCells[row][column].toString());
+            for (int column = 0; column < size; column++) {
+                stringBuilder.append(getBoardCell(row, column).toString());
                 // borda lateral
                 stringBuilder.append("|");
             }
@@ -55,18 +156,150 @@ public class Board {
      * @return o tamanho do tabuleiro, isso poderia ser hardcoded, mas é melhor ter um método para isso
      */
     public int getBoardSize() {
-        return BOARD_SIZE;
+        return geometry.getSize();
+    }
+
+    /**
+     * @return quantas linhas o tabuleiro tem (igual ao tamanho, a não ser no cubo, onde as camadas ficam uma embaixo da outra)
+     */
+    public int getRowCount() {
+        return geometry.getRowCount();
     }
 
     /**
-     * Simplesmente seta uma célula do para um valor informado
-     * TODO: Converter em um objeto do tipo Move ao invés de receber linha e coluna separadamente
+     * @return quantas peças em sequência são necessárias para ganhar
+     */
+    public int getWinLength() {
+        return geometry.getWinLength();
+    }
+
+    /**
+     * @return a geometria do tabuleiro
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Simplesmente seta uma célula do para um valor informado.
+     * Não passa pela pilha de jogadas, para jogar e desfazer use {@link #makeMove(int)} e {@link #unmakeMove()}
      * @param row linha
      * @param column coluna
      * @param boardCell valor
      */
     public void setCell(int row, int column, BoardCell boardCell) {
-        boardCells[row][column] = boardCell;
+        setCell(row * geometry.getSize() + column, boardCell);
+    }
+
+    /**
+     * Mesmo que {@link #setCell(int, int, BoardCell)}, mas recebendo o índice da célula (`row * N + column`)
+     * @param cell índice da célula
+     * @param boardCell valor
+     */
+    public void setCell(int cell, BoardCell boardCell) {
+        final var previous = getBoardCell(cell);
+        if (previous == boardCell) {
+            return;
+        }
+        // tiramos a peça antiga (se houver) e colocamos a nova (se houver)
+        if (previous != BoardCell.EMPTY) {
+            removePiece(cell, previous);
+        }
+        if (boardCell != BoardCell.EMPTY) {
+            placePiece(cell, boardCell);
+        }
+    }
+
+    /**
+     * Faz uma jogada e empilha ela para poder ser desfeita com {@link #unmakeMove()}.
+     * @param move a jogada codificada (veja {@link Moves})
+     * @throws IllegalArgumentException se a célula já está ocupada
+     */
+    public void makeMove(int move) {
+        final var cell = Moves.cell(move);
+        if (!isCellEmpty(cell)) {
+            throw new IllegalArgumentException("A célula " + cell + " já está ocupada");
+        }
+        placePiece(cell, Moves.player(move));
+        moveStack[moveStackSize++] = move;
+    }
+
+    /**
+     * Desfaz a última jogada feita com {@link #makeMove(int)}.
+     * @return a jogada desfeita
+     * @throws IllegalStateException se não há jogada para desfazer
+     */
+    public int unmakeMove() {
+        if (moveStackSize == 0) {
+            throw new IllegalStateException("Não há jogada para desfazer");
+        }
+        final var move = moveStack[--moveStackSize];
+        removePiece(Moves.cell(move), Moves.player(move));
+        return move;
+    }
+
+    /**
+     * @return a última jogada feita com {@link #makeMove(int)}, ou {@link Moves#NONE} se não houver
+     */
+    public int getLastMove() {
+        return moveStackSize == 0 ? Moves.NONE : moveStack[moveStackSize - 1];
+    }
+
+    /**
+     * @return quantas jogadas feitas com {@link #makeMove(int)} ainda podem ser desfeitas
+     */
+    public int getMoveStackSize() {
+        return moveStackSize;
+    }
+
+    /**
+     * @param index a posição na pilha (0 é a primeira jogada)
+     * @return a jogada feita com {@link #makeMove(int)} naquela posição
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= moveStackSize) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moveStack[index];
+    }
+
+    /**
+     * Preenche `moves` com todas as jogadas possíveis de `player`, em ordem de célula.
+     * Varremos as máscaras 64 células por vez, então o custo é o número de células vazias, não o tamanho do tabuleiro.
+     *
+     * @param moves onde as jogadas são escritas (precisa caber {@link #getEmptyCellCount()} jogadas)
+     * @param player quem vai jogar
+     * @return quantas jogadas foram escritas
+     */
+    public int generateMoves(int[] moves, BoardCell player) {
+        final var cellCount = geometry.getCellCount();
+        final var playerBit = Moves.of(0, player);
+        var count = 0;
+        for (var word = 0; word < xBits.length; word++) {
+            var empty = ~(xBits[word] | oBits[word]);
+            final var remaining = cellCount - word * Long.SIZE;
+            if (remaining < Long.SIZE) {
+                // a última palavra tem bits que não são células
+                empty &= (1L << remaining) - 1;
+            }
+            while (empty != 0) {
+                moves[count++] = (word * Long.SIZE + Long.numberOfTrailingZeros(empty)) | playerBit;
+                empty &= empty - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A máscara de bits de um jogador, 64 células por palavra (no 4x4x4, o tabuleiro inteiro cabe numa palavra só).
+     * Serve para motores que trabalham direto com bitboards.
+     *
+     * @param boardCell X ou O
+     * @param word qual palavra (a célula `cell` está na palavra `cell / 64`, no bit `cell % 64`)
+     * @return as células do jogador naquela palavra
+     */
+    public long getBits(BoardCell boardCell, int word) {
+        return boardCell == BoardCell.X ? xBits[word] : oBits[word];
     }
 
     /**
@@ -76,7 +309,16 @@ public class Board {
      * @return true se a célula está vazia, false caso contrário
      */
     public boolean isCellEmpty(int row, int column) {
-        return boardCells[row][column] == BoardCell.EMPTY;
+        return isCellEmpty(row * geometry.getSize() + column);
+    }
+
+    /**
+     * @param cell índice da célula
+     * @return true se a célula está vazia, false caso contrário
+     */
+    public boolean isCellEmpty(int cell) {
+        final var word = cell >>> 6;
+        return ((xBits[word] | oBits[word]) & (1L << cell)) == 0;
     }
 
     /**
@@ -88,7 +330,7 @@ public class Board {
      * @return true se o jogo acabou, false caso contrário
      */
     public boolean isGameOver() {
-        return isBoardFull() || isWinner(BoardCell.X) || isWinner(BoardCell.O);
+        return isBoardFull() || xCompletedLines > 0 || oCompletedLines > 0;
     }
 
     /**
@@ -97,64 +339,50 @@ public class Board {
      * @return true se o tabuleiro está cheio, false caso contrário
      */
     public boolean isBoardFull() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                if (boardCells[row][column] == BoardCell.EMPTY) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return pieceCount == geometry.getCellCount();
     }
 
     /**
-     * Verifica se um jogador ganhou o jogo
-     * @param boardCell o jogador que queremos verificar se ganhou
-     * @return true se o jogador ganhou, false caso contrário
+     * Quantas linhas vencedoras passam por uma célula. Quanto mais linhas, mais valiosa costuma ser a célula,
+     * por isso a busca usa isso para decidir quais jogadas olhar primeiro.
+     *
+     * @param row linha
+     * @param column coluna
+     * @return a quantidade de linhas vencedoras que passam pela célula
      */
-    public boolean isWinner(BoardCell boardCell) {
-        return isWinnerInRows(boardCell) || isWinnerInColumns(boardCell) || isWinnerInDiagonals(boardCell);
+    public int getWinningLinesThrough(int row, int column) {
+        return geometry.getCellLines(row * geometry.getSize() + column).length;
     }
 
     /**
-     * Verifica se um jogador ganhou nas linhas, ou seja, se ele tem três células em sequência na mesma linha
-     *
-     * @param boardCell o jogador que queremos verificar se ganhou
-     * @return true se o jogador ganhou nas linhas, false caso contrário
+     * @param boardCell X ou O
+     * @param line o índice da linha vencedora (veja {@link BoardGeometry#getLineCells(int)})
+     * @return quantas peças do jogador existem na linha
      */
-    private boolean isWinnerInRows(BoardCell boardCell) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            if (boardCells[row][0] == boardCell && boardCells[row][1] == boardCell && boardCells[row][2] == boardCell) {
-                return true;
-            }
-        }
-        return false;
+    public int getPiecesInLine(BoardCell boardCell, int line) {
+        return boardCell == BoardCell.X ? xLineCounts[line] : oLineCounts[line];
     }
 
     /**
-     * Verifica se um jogador ganhou nas colunas, ou seja, se ele tem três células em sequência na mesma coluna
-     * @param boardCell o jogador que queremos verificar se ganhou
-     * @return true se o jogador ganhou nas colunas, false caso contrário
+     * @return quantas células ainda estão vazias
      */
-    private boolean isWinnerInColumns(BoardCell boardCell) {
-        for (int column = 0; column < BOARD_SIZE; column++) {
-            if (boardCells[0][column] == boardCell && boardCells[1][column] == boardCell && boardCells[2][column] == boardCell) {
-                return true;
-            }
-        }
-        return false;
+    public int getEmptyCellCount() {
+        return geometry.getCellCount() - pieceCount;
     }
 
     /**
-     * Verifica se um jogador ganhou nas diagonais, ou seja, se ele tem três células em sequência na mesma diagonal
-     * TODO: Este método acabaria quebrando se aumentássemos o tamanho do tabuleiro, talvez seja melhor encontrar a diagonal
-     *       da forma correta, ao invés de hardcodar
-     * @param boardCell o jogador que queremos verificar se ganhou
-     * @return true se o jogador ganhou nas diagonais, false caso contrário
+     * Verifica se um jogador ganhou o jogo.
+     * Não precisamos olhar o tabuleiro, os contadores de linhas completas já são mantidos a cada jogada.
+     *
+     * @param boardCell o jogador que queremos verificar se ganhou (EMPTY nunca ganha)
+     * @return true se o jogador ganhou, false caso contrário
      */
-    private boolean isWinnerInDiagonals(BoardCell boardCell) {
-        return boardCells[0][0] == boardCell && boardCells[1][1] == boardCell && boardCells[2][2] == boardCell ||
-                boardCells[0][2] == boardCell && boardCells[1][1] == boardCell && boardCells[2][0] == boardCell;
+    public boolean isWinner(BoardCell boardCell) {
+        return switch (boardCell) {
+            case X -> xCompletedLines > 0;
+            case O -> oCompletedLines > 0;
+            case EMPTY -> false;
+        };
     }
 
     /**
@@ -163,7 +391,7 @@ public class Board {
      * @return true se o jogo deu velha, false caso contrário
      */
     public boolean isTie() {
-        return isBoardFull() && !isWinner(BoardCell.X) && !isWinner(BoardCell.O);
+        return isBoardFull() && xCompletedLines == 0 && oCompletedLines == 0;
     }
 
     /**
@@ -173,7 +401,23 @@ public class Board {
      * @return o valor da célula
      */
     public BoardCell getBoardCell(int row, int column) {
-        return boardCells[row][column];
+        return getBoardCell(row * geometry.getSize() + column);
+    }
+
+    /**
+     * @param cell índice da célula
+     * @return o valor da célula
+     */
+    public BoardCell getBoardCell(int cell) {
+        final var word = cell >>> 6;
+        final var bit = 1L << cell;
+        if ((xBits[word] & bit) != 0) {
+            return BoardCell.X;
+        }
+        if ((oBits[word] & bit) != 0) {
+            return BoardCell.O;
+        }
+        return BoardCell.EMPTY;
     }
 
     /**
@@ -181,6 +425,114 @@ public class Board {
      * @param playerAction a ação que deve ser aplicada
      */
     public void applyAction(PlayerAction playerAction) {
-        boardCells[playerAction.getRow()][playerAction.getColumn()] = playerAction.getPlayerWhoActed().getBoardCell();
+        setCell(playerAction.getRow(), playerAction.getColumn(), playerAction.getPlayerWhoActed().getBoardCell());
+    }
+
+    /**
+     * Retorna o hash canônico da posição, ou seja, o menor hash entre as 8 simetrias.
+     * Posições que são rotações ou reflexões umas das outras têm o mesmo hash canônico.
+     *
+     * @return o hash canônico da posição
+     */
+    public long getCanonicalHash() {
+        return symmetryHashes[getCanonicalSymmetry()];
+    }
+
+    /**
+     * Retorna qual simetria leva a posição atual para a posição canônica.
+     * Use {@link #getSymmetry()} para converter jogadas entre as duas orientações.
+     *
+     * @return o índice da simetria canônica
+     */
+    public int getCanonicalSymmetry() {
+        var canonical = BoardSymmetry.IDENTITY;
+        for (var symmetry = 1; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            if (symmetryHashes[symmetry] < symmetryHashes[canonical]) {
+                canonical = symmetry;
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * @param symmetry o índice da simetria
+     * @return o hash da posição depois de aplicada a simetria
+     */
+    public long getSymmetryHash(int symmetry) {
+        return symmetryHashes[symmetry];
+    }
+
+    /**
+     * @return as simetrias do tabuleiro, para converter jogadas de/para a orientação canônica
+     */
+    public BoardSymmetry getSymmetry() {
+        return geometry.getSymmetry();
+    }
+
+    /**
+     * Coloca uma peça numa célula vazia, atualizando máscara, hashes e as linhas que passam pela célula.
+     * @param cell a célula (que precisa estar vazia)
+     * @param boardCell X ou O
+     */
+    private void placePiece(int cell, BoardCell boardCell) {
+        final var isX = boardCell == BoardCell.X;
+        final var bits = isX ? xBits : oBits;
+        final var lineCounts = isX ? xLineCounts : oLineCounts;
+        bits[cell >>> 6] |= 1L << cell;
+        pieceCount++;
+        toggleHashes(cell, boardCell);
+
+        // só as linhas que passam pela última jogada podem ter sido completadas
+        final var winLength = geometry.getWinLength();
+        var completed = 0;
+        for (final var line : geometry.getCellLines(cell)) {
+            if (++lineCounts[line] == winLength) {
+                completed++;
+            }
+        }
+        if (isX) {
+            xCompletedLines += completed;
+        } else {
+            oCompletedLines += completed;
+        }
+    }
+
+    /**
+     * Tira uma peça de uma célula, desfazendo tudo que {@link #placePiece(int, BoardCell)} fez.
+     * @param cell a célula
+     * @param boardCell a peça que está na célula
+     */
+    private void removePiece(int cell, BoardCell boardCell) {
+        final var isX = boardCell == BoardCell.X;
+        final var bits = isX ? xBits : oBits;
+        final var lineCounts = isX ? xLineCounts : oLineCounts;
+        bits[cell >>> 6] &= ~(1L << cell);
+        pieceCount--;
+        toggleHashes(cell, boardCell);
+
+        final var winLength = geometry.getWinLength();
+        var broken = 0;
+        for (final var line : geometry.getCellLines(cell)) {
+            if (lineCounts[line]-- == winLength) {
+                broken++;
+            }
+        }
+        if (isX) {
+            xCompletedLines -= broken;
+        } else {
+            oCompletedLines -= broken;
+        }
+    }
+
+    /**
+     * Liga ou desliga (XOR) a chave de uma peça em todos os hashes simétricos.
+     * @param cell a célula
+     * @param boardCell X ou O
+     */
+    private void toggleHashes(int cell, BoardCell boardCell) {
+        final var symmetry = geometry.getSymmetry();
+        for (var s = 0; s < BoardSymmetry.SYMMETRY_COUNT; s++) {
+            symmetryHashes[s] ^= geometry.zobristKey(boardCell, symmetry.apply(s, cell));
+        }
     }
 }
@@ -20,4 +20,17 @@ public enum BoardCell {
             return this.name();
         }
     }
+
+    /**
+     * Retorna o valor do adversário. Útil para a busca, que alterna entre os dois jogadores.
+     *
+     * @return O se a célula for X, X se a célula for O e EMPTY se for vazia
+     */
+    public BoardCell opponent() {
+        return switch (this) {
+            case X -> O;
+            case O -> X;
+            case EMPTY -> EMPTY;
+        };
+    }
 }
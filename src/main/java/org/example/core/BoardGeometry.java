@@ -0,0 +1,256 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Descreve a "forma" de um tabuleiro: o tamanho N do lado, quantas peças em sequência K são
+ * necessárias para ganhar e tudo que dá para pré-calcular a partir disso.
+ *
+ * - Todas as linhas vencedoras (segmentos de K células em linha, coluna ou diagonal)
+ * - Para cada célula, quais linhas vencedoras passam por ela
+ * - As simetrias do tabuleiro e as chaves Zobrist usadas no hash
+ *
+ * Como tudo isso só depende de N e K, a geometria é imutável e compartilhada por todos os
+ * tabuleiros do mesmo tipo (veja {@link #of(int, int)}).
+ *
+ * Também existe o cubo NxNxN ({@link #cube(int)}, o 4x4x4 é o Qubic): são N camadas NxN empilhadas,
+ * a célula é `camada * N * N + linha * N + coluna` e as linhas vencedoras seguem as 13 direções do espaço.
+ * Para o resto do código ele é só um tabuleiro com N * N "linhas" de N colunas (veja {@link #getRowCount()}).
+ */
+public final class BoardGeometry {
+    /**
+     * Cache das geometrias já criadas, indexado por (tamanho, sequência)
+     */
+    private static final Map<Long, BoardGeometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+    /**
+     * As direções (camada, linha, coluna) em que uma linha pode seguir: as quatro do plano (horizontal,
+     * vertical e as duas diagonais) e, no cubo, as nove que atravessam as camadas
+     */
+    private static final int[][] DIRECTIONS = {
+            {0, 0, 1}, {0, 1, 0}, {0, 1, 1}, {0, 1, -1},
+            {1, 0, 0}, {1, 1, 0}, {1, -1, 0}, {1, 0, 1}, {1, 0, -1},
+            {1, 1, 1}, {1, 1, -1}, {1, -1, 1}, {1, -1, -1},
+    };
+    /**
+     * O maior cubo: 6x6x6 = 216 células, abaixo do limite de 225 da tabela de transposição
+     */
+    private static final int MAX_CUBE_SIZE = 6;
+
+    /**
+     * O jogo da velha tradicional: 3x3, três em linha
+     */
+    public static final BoardGeometry STANDARD = of(3, 3);
+    /**
+     * O jogo da velha 3D 4x4x4 (Qubic): quatro em linha, 76 linhas vencedoras
+     */
+    public static final BoardGeometry QUBIC = cube(4);
+
+    private final int size;
+    private final int winLength;
+    /**
+     * Quantas camadas NxN o tabuleiro tem (1 no plano, N no cubo)
+     */
+    private final int layers;
+    private final int cellCount;
+    /**
+     * lineCells[line] são as células da linha vencedora `line`
+     */
+    private final int[][] lineCells;
+    /**
+     * cellLines[cell] são as linhas vencedoras que passam pela célula `cell`
+     */
+    private final int[][] cellLines;
+    private final BoardSymmetry symmetry;
+    /**
+     * Chaves Zobrist de cada célula para X (índice 0) e O (índice 1)
+     */
+    private final long[][] zobristKeys;
+
+    private BoardGeometry(int size, int winLength, int layers) {
+        this.size = size;
+        this.winLength = winLength;
+        this.layers = layers;
+        this.cellCount = size * size * layers;
+        this.lineCells = buildLines(size, winLength, layers);
+        this.cellLines = indexLinesByCell(cellCount, lineCells);
+        this.symmetry = new BoardSymmetry(size, layers);
+        this.zobristKeys = buildZobristKeys(cellCount);
+    }
+
+    /**
+     * Retorna a geometria de um tabuleiro NxN onde é preciso fazer K em sequência para ganhar.
+     *
+     * @param size o tamanho N do lado do tabuleiro
+     * @param winLength quantas peças em sequência K são necessárias para ganhar
+     * @return a geometria (sempre a mesma instância para o mesmo N e K)
+     */
+    public static BoardGeometry of(int size, int winLength) {
+        // 15x15 = 225 células, o máximo que cabe nos 8 bits de jogada da tabela de transposição
+        if (size < 1 || size > 15) {
+            throw new IllegalArgumentException("Tamanho de tabuleiro inválido: " + size);
+        }
+        if (winLength < 1 || winLength > size) {
+            throw new IllegalArgumentException("Tamanho de sequência inválido: " + winLength);
+        }
+        return GEOMETRIES.computeIfAbsent(((long) size << 32) | winLength, key -> new BoardGeometry(size, winLength, 1));
+    }
+
+    /**
+     * Retorna a geometria do cubo NxNxN onde é preciso fazer N em sequência para ganhar.
+     *
+     * @param size o tamanho N da aresta do cubo
+     * @return a geometria (sempre a mesma instância para o mesmo N)
+     */
+    public static BoardGeometry cube(int size) {
+        if (size < 2 || size > MAX_CUBE_SIZE) {
+            throw new IllegalArgumentException("Tamanho de cubo inválido: " + size);
+        }
+        // o bit 63 separa os cubos dos tabuleiros planos no cache
+        return GEOMETRIES.computeIfAbsent((1L << 63) | ((long) size << 32) | size, key -> new BoardGeometry(size, size, size));
+    }
+
+    /**
+     * @return o tamanho N do lado do tabuleiro
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return quantas peças em sequência são necessárias para ganhar
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * @return quantas camadas NxN o tabuleiro tem (1 se for plano)
+     */
+    public int getLayers() {
+        return layers;
+    }
+
+    /**
+     * @return quantas linhas de N células o tabuleiro tem (N no plano, N * N no cubo, camada por camada)
+     */
+    public int getRowCount() {
+        return size * layers;
+    }
+
+    /**
+     * @return a quantidade de células do tabuleiro
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @return a quantidade de linhas vencedoras
+     */
+    public int getLineCount() {
+        return lineCells.length;
+    }
+
+    /**
+     * @param line o índice da linha vencedora
+     * @return as células da linha (não altere o array)
+     */
+    public int[] getLineCells(int line) {
+        return lineCells[line];
+    }
+
+    /**
+     * @param cell o índice da célula
+     * @return as linhas vencedoras que passam pela célula (não altere o array)
+     */
+    public int[] getCellLines(int cell) {
+        return cellLines[cell];
+    }
+
+    /**
+     * @return as simetrias do tabuleiro
+     */
+    public BoardSymmetry getSymmetry() {
+        return symmetry;
+    }
+
+    /**
+     * @param boardCell X ou O
+     * @param cell o índice da célula
+     * @return a chave Zobrist da peça na célula
+     */
+    long zobristKey(BoardCell boardCell, int cell) {
+        return zobristKeys[boardCell == BoardCell.X ? 0 : 1][cell];
+    }
+
+    /**
+     * Enumera todos os segmentos de K células em cada direção.
+     * Para N = K = 3 isso dá as 3 linhas, 3 colunas e 2 diagonais de sempre; no cubo 4x4x4, as 76 linhas do Qubic.
+     */
+    private static int[][] buildLines(int size, int winLength, int layers) {
+        final var lines = new ArrayList<int[]>();
+        for (final var direction : DIRECTIONS) {
+            if (layers == 1 && direction[0] != 0) {
+                // no plano só as quatro primeiras direções existem
+                continue;
+            }
+            for (var layer = 0; layer < layers; layer++) {
+                for (var row = 0; row < size; row++) {
+                    for (var column = 0; column < size; column++) {
+                        final var lastLayer = layer + direction[0] * (winLength - 1);
+                        final var lastRow = row + direction[1] * (winLength - 1);
+                        final var lastColumn = column + direction[2] * (winLength - 1);
+                        if (lastLayer >= layers || lastRow < 0 || lastRow >= size || lastColumn < 0 || lastColumn >= size) {
+                            continue;
+                        }
+                        final var line = new int[winLength];
+                        for (var i = 0; i < winLength; i++) {
+                            line[i] = ((layer + direction[0] * i) * size + row + direction[1] * i) * size
+                                    + column + direction[2] * i;
+                        }
+                        lines.add(line);
+                    }
+                }
+            }
+        }
+        return lines.toArray(new int[0][]);
+    }
+
+    private static int[][] indexLinesByCell(int cellCount, int[][] lineCells) {
+        final var counts = new int[cellCount];
+        for (final var line : lineCells) {
+            for (final var cell : line) {
+                counts[cell]++;
+            }
+        }
+        final var cellLines = new int[cellCount][];
+        for (var cell = 0; cell < cellCount; cell++) {
+            cellLines[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (var line = 0; line < lineCells.length; line++) {
+            for (final var cell : lineCells[line]) {
+                cellLines[cell][counts[cell]++] = line;
+            }
+        }
+        return cellLines;
+    }
+
+    /**
+     * A semente é fixa para que os hashes sejam os mesmos entre execuções.
+     */
+    private static long[][] buildZobristKeys(int cellCount) {
+        final var random = new SplittableRandom(0x7106_7AC7_0E5EL);
+        final var keys = new long[2][cellCount];
+        for (final var playerKeys : keys) {
+            for (var cell = 0; cell < cellCount; cell++) {
+                playerKeys[cell] = random.nextLong();
+            }
+        }
+        return keys;
+    }
+}
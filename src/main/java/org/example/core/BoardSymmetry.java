@@ -0,0 +1,93 @@
+package org.example.core;
+
+/**
+ * Representa as 8 simetrias de um tabuleiro quadrado (o grupo diedral do quadrado):
+ * identidade, as três rotações e as quatro reflexões.
+ *
+ * Duas posições que são rotações ou reflexões uma da outra têm exatamente o mesmo valor,
+ * então podemos tratar todas elas como uma só. Aqui guardamos, para cada simetria,
+ * para onde cada célula vai (e a volta), assim conseguimos converter jogadas entre
+ * a posição real e a posição canônica.
+ *
+ * Num tabuleiro com várias camadas (o cubo 4x4x4, veja {@link BoardGeometry#cube(int)}) a mesma
+ * simetria é aplicada em cada camada, sem trocar as camadas entre si. O cubo tem mais simetrias que
+ * essas 8, mas elas já bastam para o hash canônico e o resto do código não precisa saber que é 3D.
+ */
+public final class BoardSymmetry {
+    /**
+     * Quantidade de simetrias de um quadrado
+     */
+    public static final int SYMMETRY_COUNT = 8;
+    /**
+     * Índice da simetria identidade
+     */
+    public static final int IDENTITY = 0;
+
+    /**
+     * permutations[s][cell] é a célula para onde `cell` vai quando aplicamos a simetria `s`
+     */
+    private final int[][] permutations;
+    /**
+     * inverses[s][cell] é a célula que vai para `cell` quando aplicamos a simetria `s`
+     */
+    private final int[][] inverses;
+
+    public BoardSymmetry(int boardSize) {
+        this(boardSize, 1);
+    }
+
+    /**
+     * @param boardSize o lado N de cada camada
+     * @param layers quantas camadas NxN o tabuleiro tem
+     */
+    public BoardSymmetry(int boardSize, int layers) {
+        final var layerCells = boardSize * boardSize;
+        final var cellCount = layerCells * layers;
+        permutations = new int[SYMMETRY_COUNT][cellCount];
+        inverses = new int[SYMMETRY_COUNT][cellCount];
+
+        final var last = boardSize - 1;
+        for (var row = 0; row < boardSize; row++) {
+            for (var column = 0; column < boardSize; column++) {
+                // (linha, coluna) de destino para cada uma das 8 simetrias
+                final int[][] targets = {
+                        {row, column},               // identidade
+                        {column, last - row},        // rotação de 90 graus
+                        {last - row, last - column}, // rotação de 180 graus
+                        {last - column, row},        // rotação de 270 graus
+                        {row, last - column},        // reflexão horizontal
+                        {last - row, column},        // reflexão vertical
+                        {column, row},               // transposição (diagonal principal)
+                        {last - column, last - row}, // transposição pela diagonal secundária
+                };
+                for (var layer = 0; layer < layers; layer++) {
+                    final var cell = layer * layerCells + row * boardSize + column;
+                    for (var symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++) {
+                        final var target = layer * layerCells + targets[symmetry][0] * boardSize + targets[symmetry][1];
+                        permutations[symmetry][cell] = target;
+                        inverses[symmetry][target] = cell;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param symmetry o índice da simetria
+     * @param cell a célula original
+     * @return a célula para onde `cell` vai ao aplicarmos a simetria
+     */
+    public int apply(int symmetry, int cell) {
+        return permutations[symmetry][cell];
+    }
+
+    /**
+     * Desfaz uma simetria, ou seja, leva uma célula da posição transformada de volta para a original.
+     * @param symmetry o índice da simetria
+     * @param cell a célula na posição transformada
+     * @return a célula correspondente na posição original
+     */
+    public int invert(int symmetry, int cell) {
+        return inverses[symmetry][cell];
+    }
+}
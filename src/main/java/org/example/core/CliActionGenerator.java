@@ -7,44 +7,71 @@ import java.util.Scanner;
  * terminal.
  */
 public class CliActionGenerator implements ActionGenerator {
+    /**
+     * Um único Scanner para a entrada padrão, compartilhado por todas as instâncias.
+     * Criar um Scanner por jogada descarta o que o anterior já tinha lido para o buffer.
+     */
+    private static final Scanner SCANNER = new Scanner(System.in);
+
     @Override
     public PlayerAction generateAction(Board board, Player player) {
-        Scanner scanner = new Scanner(System.in);
-        try {
-            System.out.println("Digite a linha e a coluna da jogada:");
-
-            int row = scanner.nextInt();
-            int column = scanner.nextInt();
-            // se não passar em alguma validaçao, vai lançar uma exceção
-            // e cair no catch, fazendo com queo jogador tenha que digitar de novo
-            // pois estamos em um loop infinito (recursivo).
-            validateAction(board, row, column);
-
-            return new PlayerAction(player, row, column);
-        } catch (Exception e) {
-            System.out.println("Jogada inválida");
+        // repetimos até o jogador digitar uma jogada válida
+        while (true) {
+            final var layers = board.getGeometry().getLayers();
+            System.out.println(layers > 1
+                    ? "Digite a camada, a linha e a coluna da jogada:"
+                    : "Digite a linha e a coluna da jogada:");
+            if (!SCANNER.hasNextLine()) {
+                throw new IllegalStateException("A entrada acabou antes do fim do jogo");
+            }
+            try {
+                final var parts = SCANNER.nextLine().trim().split("\\s+");
+                if (parts.length != (layers > 1 ? 3 : 2)) {
+                    throw new IllegalArgumentException("Digite a linha e a coluna");
+                }
+                final int row;
+                if (layers > 1) {
+                    // as camadas ficam uma embaixo da outra, então a linha do tabuleiro é camada * N + linha
+                    final var layer = Integer.parseInt(parts[0]);
+                    final var layerRow = Integer.parseInt(parts[1]);
+                    if (layer < 0 || layer >= layers || layerRow < 0 || layerRow >= board.getBoardSize()) {
+                        throw new IllegalArgumentException("Camada ou linha inválida");
+                    }
+                    row = layer * board.getBoardSize() + layerRow;
+                } else {
+                    row = Integer.parseInt(parts[0]);
+                }
+                final var column = Integer.parseInt(parts[parts.length - 1]);
+                // se não passar em alguma validação, vai lançar uma exceção
+                // e cair no catch, fazendo com que o jogador tenha que digitar de novo
+                validateAction(board, row, column);
 
-            // re-executa a função, pois não retornou nada
-            return generateAction(board, player);
+                return new PlayerAction(player, row, column);
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException também é uma IllegalArgumentException
+                System.out.println("Jogada inválida");
+            }
         }
     }
 
     /**
      * Valida se a ação é válida. Uma ação é válida se:
-     * - a linha está entre 0 e 2
-     * - a coluna está entre 0 e 2
+     * - a linha está entre 0 e N - 1 (ou N * N - 1 no cubo, veja {@link Board#getRowCount()})
+     * - a coluna está entre 0 e N - 1
      * - a célula está vazia
      *
      * @param board a situação atual do tabuleiro
      * @param row a linha da ação
      * @param column a coluna da ação
+     * @throws IllegalArgumentException com o motivo, se a ação não for válida
      */
-    private void validateAction(Board board, int row, int column) {
-        if (row < 0 || row > 2) {
+    public static void validateAction(Board board, int row, int column) {
+        final var size = board.getBoardSize();
+        if (row < 0 || row >= board.getRowCount()) {
             throw new IllegalArgumentException("Linha inválida");
         }
 
-        if (column < 0 || column > 2) {
+        if (column < 0 || column >= size) {
             throw new IllegalArgumentException("Coluna inválida");
         }
 
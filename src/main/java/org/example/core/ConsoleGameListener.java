@@ -0,0 +1,39 @@
+package org.example.core;
+
+/**
+ * Mostra a partida no terminal: o tabuleiro a cada jogada e o resultado no final.
+ * É o que o {@link Game#mainGameLoop()} sempre fez, só que fora do loop do jogo.
+ */
+public class ConsoleGameListener implements GameListener {
+    @Override
+    public void onTurn(Board board, Player player) {
+        System.out.println("Vez do jogador " + player.getBoardCell() + ":");
+        System.out.println(board);
+    }
+
+    @Override
+    public void onMove(Board board, int move, long nanos) {
+        // se o jogo não acabou, limpamos a tela para a próxima jogada
+        if (!board.isGameOver()) {
+            clearScreen();
+        }
+    }
+
+    @Override
+    public void onGameOver(Board board, BoardCell winner) {
+        if (winner == BoardCell.EMPTY) {
+            System.out.println("Fim de jogo! Empate!");
+            return;
+        }
+        System.out.println("Fim de jogo! O jogador " + winner + " venceu!");
+    }
+
+    /**
+     * Método utilizado para limpar a tela do terminal.
+     * Acho que só funciona no Linux. (:P)
+     */
+    private void clearScreen() {
+        System.out.print("\033[H\033[2J");
+        System.out.flush();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.core;
+
+/**
+ * Avalia uma posição que ainda não acabou.
+ *
+ * Em tabuleiros grandes a busca não consegue chegar até o fim do jogo, então precisa parar
+ * em alguma profundidade e "chutar" quem está melhor. Esse chute é a heurística, e fica atrás
+ * dessa interface para que possamos trocá-la sem mexer na busca.
+ */
+public interface Evaluator {
+    /**
+     * Avalia a posição do ponto de vista de `player`.
+     * Valores positivos são bons para `player`, negativos são bons para o adversário.
+     * A busca limita o valor a {@link AlphaBetaSearch#MAX_HEURISTIC_SCORE}, para que uma heurística
+     * nunca valha mais do que uma vitória de verdade.
+     *
+     * @param board é o tabuleiro atual (o jogo ainda não acabou)
+     * @param player é o jogador da vez
+     * @return o valor da posição
+     */
+    int evaluate(Board board, BoardCell player);
+}
@@ -16,40 +16,57 @@ public class Game {
     private final Board board;
 
     public Game(GameState gameState) {
-        this.board = new Board();
+        this(gameState, new Board());
+    }
+
+    /**
+     * @param gameState o estado do jogo
+     * @param board o tabuleiro onde o jogo vai acontecer (permite jogar em tabuleiros NxN)
+     */
+    public Game(GameState gameState, Board board) {
+        this.board = board;
         this.gameState = gameState;
     }
 
     /**
-     * Método principal do jogo.
-     * Aqui nós mostramos o tabuleiro, pedimos a ação do jogador atual e aplicamos a ação no tabuleiro.
-     * Depois disso, verificamos se o jogo acabou e, se não, passamos a vez para o próximo jogador.
+     * Método principal do jogo, jogado no terminal.
+     * Sorteamos quem começa e mostramos o tabuleiro a cada jogada com o {@link ConsoleGameListener}.
      */
     public void mainGameLoop() {
-        Player currentPlayer = getRandomPlayer();
+        play(getRandomPlayer(), new ConsoleGameListener());
+    }
+
+    /**
+     * Joga uma partida inteira, sem saber nada de console.
+     * Pedimos a ação do jogador atual e aplicamos a ação no tabuleiro.
+     * Depois disso, verificamos se o jogo acabou e, se não, passamos a vez para o próximo jogador.
+     *
+     * @param firstPlayer quem começa a partida
+     * @param listener quem é avisado de cada jogada e do resultado
+     * @return quem ganhou, ou EMPTY se deu velha
+     */
+    public BoardCell play(Player firstPlayer, GameListener listener) {
+        Player currentPlayer = firstPlayer;
         while (true) {
-            System.out.println("Vez do jogador " + currentPlayer.getBoardCell() + ":");
-            System.out.println(board);
-            PlayerAction playerAction = currentPlayer.getPlayerAction(board);
-            board.applyAction(playerAction);
+            listener.onTurn(board, currentPlayer);
+            final var start = System.nanoTime();
+            // a jogada vem codificada num int, então uma partida entre bots não aloca nada por jogada
+            final var move = currentPlayer.getMove(board);
+            final var elapsed = System.nanoTime() - start;
+            board.makeMove(move);
+            listener.onMove(board, move, elapsed);
 
-            // Se a ação do player atual fez com que o jogo acabasse, nós mostramos o resultado e saímos do loop.
+            // Se a ação do player atual fez com que o jogo acabasse, avisamos o resultado e saímos do loop.
             if (board.isGameOver()) {
                 // isGameOver() retorna true se o jogo acabou por vitória ou empate.
                 // portanto, precisamos desse if para desambiguar.
-                if (board.isTie()) {
-                    System.out.println("Fim de jogo! Empate!");
-                    break;
-                }
-
-                // se não foi velha e o jogo acabou, então alguém venceu.
-                System.out.println("Fim de jogo! O jogador " + currentPlayer.getBoardCell() + " venceu!");
-                break;
+                final var winner = board.isTie() ? BoardCell.EMPTY : currentPlayer.getBoardCell();
+                listener.onGameOver(board, winner);
+                return winner;
             }
 
             // se o jogo não acabou, passamos a vez para o próximo jogador.
             currentPlayer = gameState.getOpponent(currentPlayer);
-            clearScreen();
         }
     }
 
@@ -63,11 +80,9 @@ public class Game {
     }
 
     /**
-     * Método utilizado para limpar a tela do terminal.
-     * Acho que só funciona no Linux. (:P)
+     * @return o tabuleiro do jogo
      */
-    private void clearScreen() {
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
+    public Board getBoard() {
+        return board;
     }
 }
@@ -0,0 +1,71 @@
+package org.example.core;
+
+/**
+ * Recebe os eventos de uma partida jogada por {@link Game#play(Player, GameListener)}.
+ *
+ * O loop do jogo não sabe nada de console: quem quiser mostrar o tabuleiro, medir o tempo das
+ * jogadas ou gravar a partida implementa essa interface. Todos os métodos têm implementação vazia,
+ * então cada listener só sobrescreve o que lhe interessa.
+ */
+public interface GameListener {
+    /**
+     * Um listener que ignora tudo, para jogar sem mostrar nada
+     */
+    GameListener NONE = new GameListener() {
+    };
+
+    /**
+     * Junta vários listeners em um, chamados na ordem em que foram passados.
+     * @param listeners os listeners
+     * @return um listener que repassa cada evento para todos
+     */
+    static GameListener all(GameListener... listeners) {
+        return new GameListener() {
+            @Override
+            public void onTurn(Board board, Player player) {
+                for (final var listener : listeners) {
+                    listener.onTurn(board, player);
+                }
+            }
+
+            @Override
+            public void onMove(Board board, int move, long nanos) {
+                for (final var listener : listeners) {
+                    listener.onMove(board, move, nanos);
+                }
+            }
+
+            @Override
+            public void onGameOver(Board board, BoardCell winner) {
+                for (final var listener : listeners) {
+                    listener.onGameOver(board, winner);
+                }
+            }
+        };
+    }
+
+    /**
+     * Chamado antes de pedir a jogada ao jogador da vez.
+     * @param board o tabuleiro antes da jogada
+     * @param player o jogador da vez
+     */
+    default void onTurn(Board board, Player player) {
+    }
+
+    /**
+     * Chamado depois que a jogada foi aplicada no tabuleiro.
+     * @param board o tabuleiro depois da jogada
+     * @param move a jogada, codificada (veja {@link Moves})
+     * @param nanos quanto tempo o jogador levou para decidir a jogada
+     */
+    default void onMove(Board board, int move, long nanos) {
+    }
+
+    /**
+     * Chamado quando a partida acaba.
+     * @param board o tabuleiro final
+     * @param winner quem ganhou, ou EMPTY se deu velha
+     */
+    default void onGameOver(Board board, BoardCell winner) {
+    }
+}
@@ -14,10 +14,26 @@ public class GameState {
     /**
      * Aqui definimos quais jogadores serão usados.
      * Nesse caso, o jogador X será um jogador humano e o jogador O será um jogador de IA.
+     * O bot consulta o {@link BestMoveCache#shared()}, então o que um jogo resolve vale para todos os outros da JVM.
      */
     public GameState() {
-        this.xPlayer = new XPlayer(new CliActionGenerator());
-        this.oPlayer = new OPlayer(new MiniMaxActionGenerator(this));
+        this(new CliActionGenerator(), sharedCacheBot());
+    }
+
+    /**
+     * Permite escolher como cada jogador gera suas jogadas (humano, MiniMax, busca com tempo limitado...).
+     * @param xActionGenerator o gerador de jogadas do jogador X
+     * @param oActionGenerator o gerador de jogadas do jogador O
+     */
+    public GameState(ActionGenerator xActionGenerator, ActionGenerator oActionGenerator) {
+        this.xPlayer = new XPlayer(xActionGenerator);
+        this.oPlayer = new OPlayer(oActionGenerator);
+    }
+
+    private static ActionGenerator sharedCacheBot() {
+        final var bot = new MiniMaxActionGenerator();
+        bot.setBestMoveCache(BestMoveCache.shared());
+        return bot;
     }
 
     /**
@@ -0,0 +1,132 @@
+package org.example.core;
+
+/**
+ * Action generator para tabuleiros onde a busca não consegue chegar até o fim do jogo.
+ *
+ * Ele faz aprofundamento iterativo: busca com profundidade 1, depois 2, depois 3... até o
+ * orçamento ({@link SearchBudget}) acabar. Cada iteração começa pela melhor jogada da anterior
+ * (que fica na tabela de transposição), então as iterações rasas quase não custam nada e ainda
+ * melhoram a ordenação das mais profundas.
+ *
+ * Quando o orçamento acaba no meio de uma iteração, ela é descartada e a jogada retornada é a da
+ * última profundidade completa. Assim, o tempo por jogada fica limitado e a jogada é sempre
+ * consistente. As posições que não acabaram são avaliadas por um {@link Evaluator}.
+ */
+public class IterativeDeepeningActionGenerator implements ActionGenerator {
+    /**
+     * Limite de tempo e/ou nós por jogada
+     */
+    private final SearchBudget budget;
+    /**
+     * O motor de busca, que guarda a tabela de transposição entre uma iteração e outra
+     */
+    private final AlphaBetaSearch search;
+    /**
+     * Quem recebe as estatísticas de cada jogada
+     */
+    private SearchListener searchListener = SearchListener.NONE;
+    /**
+     * Cache de jogadas compartilhado com outros jogos (null se desligado)
+     */
+    private BestMoveCache bestMoveCache;
+    /**
+     * Até onde as nossas buscas chegam, para decidir que jogadas do cache aceitar
+     */
+    private final ReachedDepths reachedDepths = new ReachedDepths();
+
+    /**
+     * @param budget limite de tempo e/ou nós por jogada
+     */
+    public IterativeDeepeningActionGenerator(SearchBudget budget) {
+        this(budget, new OpenLinesEvaluator());
+    }
+
+    /**
+     * @param budget limite de tempo e/ou nós por jogada
+     * @param evaluator a heurística para posições que não acabaram
+     */
+    public IterativeDeepeningActionGenerator(SearchBudget budget, Evaluator evaluator) {
+        this(budget, evaluator, new TranspositionTable(1 << 20, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    /**
+     * @param budget limite de tempo e/ou nós por jogada
+     * @param evaluator a heurística para posições que não acabaram
+     * @param transpositionTable a tabela de transposição usada como cache
+     */
+    public IterativeDeepeningActionGenerator(SearchBudget budget, Evaluator evaluator, TranspositionTable transpositionTable) {
+        this.budget = budget;
+        this.search = new AlphaBetaSearch(transpositionTable, evaluator);
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var boardCell = player.getBoardCell();
+        return Moves.of(getBestCell(board, boardCell), boardCell);
+    }
+
+    /**
+     * @param searchListener quem recebe as estatísticas de cada jogada (métricas, logs...)
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Liga a consulta a um cache de jogadas compartilhado entre jogos (normalmente o {@link BestMoveCache#shared()}).
+     * @param bestMoveCache o cache, ou null para desligar
+     */
+    public void setBestMoveCache(BestMoveCache bestMoveCache) {
+        this.bestMoveCache = bestMoveCache;
+    }
+
+    /**
+     * @return a profundidade da última iteração completa na última busca (uma jogada vinda do cache não busca)
+     */
+    public int getCompletedDepth() {
+        return search.getCompletedDepth();
+    }
+
+    /**
+     * @return quantos nós a última jogada visitou
+     */
+    public long getNodesVisited() {
+        return search.getNodesVisited();
+    }
+
+    /**
+     * Aprofunda a busca até o orçamento acabar (veja {@link AlphaBetaSearch#iterativeDeepening(Board, BoardCell, int)}).
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @return a célula da melhor jogada da última profundidade completa
+     */
+    private int getBestCell(Board board, BoardCell player) {
+        if (bestMoveCache != null) {
+            // só aceitamos jogadas de buscas pelo menos tão fundas quanto as nossas costumam ir nessa posição
+            final var start = System.nanoTime();
+            final var minDepth = reachedDepths.minDepth(board);
+            final var cached = bestMoveCache.lookup(board, player, minDepth);
+            if (cached != BestMoveCache.MISS) {
+                if (searchListener != SearchListener.NONE) {
+                    searchListener.onSearch(SearchStatistics.cacheHit(minDepth, System.nanoTime() - start));
+                }
+                return cached;
+            }
+        }
+        search.startSearch(board, budget);
+        final var cell = search.iterativeDeepening(board, player, 1);
+        if (bestMoveCache != null && search.getCompletedDepth() > 0) {
+            bestMoveCache.store(board, player, cell, reachedDepths.record(board, search.getCompletedDepth(), search.getLastScore()));
+        }
+        if (searchListener != SearchListener.NONE) {
+            searchListener.onSearch(search.getStatistics());
+        }
+        return cell;
+    }
+}
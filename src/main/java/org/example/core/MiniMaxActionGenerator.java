@@ -3,132 +3,112 @@ package org.example.core;
 /**
  * Classe que gera a ação do jogador baseado no algoritmo MiniMax.
  * O algoritmo MiniMax é um algoritmo de busca em árvore que busca o melhor movimento para o jogador.
- * Ele funciona da seguinte forma:
- * 1. Se o jogo acabou, retorna o valor do estado do jogo
- * 2. Se o jogador atual é o jogador que queremos maximizar, retorna o maior valor dos filhos
- * 3. Se o jogador atual é o jogador que queremos minimizar, retorna o menor valor dos filhos
  *
- * Definimos o valor do estado do jogo da seguinte forma:
- * 1. Se o jogador X ganhou, retorna -10
- * 2. Se o jogador O ganhou, retorna 10
- * 3. Se deu velha, retorna 0
+ * Aqui a busca sempre vai até o fim do jogo (negamax com poda alfa-beta, veja {@link AlphaBetaSearch}),
+ * então o bot joga perfeitamente. Isso só é viável em tabuleiros pequenos, para tabuleiros maiores
+ * use o {@link IterativeDeepeningActionGenerator}.
+ *
+ * Cada posição avaliada vai para uma {@link TranspositionTable}, indexada pelo hash canônico
+ * do tabuleiro. Assim, uma posição (ou qualquer rotação/reflexão dela) só é calculada uma vez,
+ * e as próximas chamadas, inclusive de outras jogadas, só fazem uma consulta na tabela.
+ *
+ * Com um {@link BestMoveCache} ligado, posições já resolvidas por qualquer outro jogo da JVM nem
+ * chegam na busca (só jogadas de buscas que foram até o fim são aceitas).
  */
 public class MiniMaxActionGenerator implements ActionGenerator {
     /**
-     * O estado do jogo.
+     * O motor de busca, que guarda a tabela de transposição entre uma jogada e outra
+     */
+    private final AlphaBetaSearch search;
+    /**
+     * Quem recebe as estatísticas de cada jogada
+     */
+    private SearchListener searchListener = SearchListener.NONE;
+    /**
+     * Cache de jogadas compartilhado com outros jogos (null se desligado)
      */
-    private final GameState gameState;
+    private BestMoveCache bestMoveCache;
 
-    public MiniMaxActionGenerator(GameState gameState) {
-        this.gameState = gameState;
+    public MiniMaxActionGenerator() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * @param transpositionTable a tabela de transposição usada como cache (permite configurar tamanho e política)
+     */
+    public MiniMaxActionGenerator(TranspositionTable transpositionTable) {
+        // a busca vai até o fim do jogo, então a heurística nunca é usada de fato
+        this.search = new AlphaBetaSearch(transpositionTable, new OpenLinesEvaluator());
     }
 
     @Override
     public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
         // pegamos o melhor movimento possível para o jogador atual e retornamos ele.
-        final var move = getBestMove(board, player);
-        return new PlayerAction(player, move.line(), move.col());
+        final var boardCell = player.getBoardCell();
+        return Moves.of(getBestCell(board, boardCell), boardCell);
     }
 
     /**
-     * Retorna o melhor movimento possível para o jogador atual.
-     * Pra isso nós iteramos por todas as células vazias do tabuleiro, simulamos que o jogador atual
-     * jogou nessa célula e chamamos o MiniMax para o jogador adversário.
-     * Depois disso, desfazemos a jogada e comparamos o valor retornado pelo MiniMax com o melhor valor
-     * que já encontramos até agora.
-     * Se o valor retornado pelo MiniMax for maior que o melhor valor que já encontramos até agora,
-     * atualizamos o melhor valor e o melhor movimento.
-     * Depois de iterar por todas as células vazias, retornamos o melhor movimento.
-     *
-     * @param board é o tabuleiro atual
-     * @param player é o jogador atual
-     * @return o melhor movimento possível para o jogador atual
+     * @param searchListener quem recebe as estatísticas de cada jogada (métricas, logs...)
      */
-    private Move getBestMove(Board board, Player player) {
-        var bestScore = Integer.MIN_VALUE;
-        Move bestMove = null;
-        for (var row = 0; row < board.getBoardSize(); ++row) {
-            for (var col = 0; col < board.getBoardSize(); ++col) {
-                if (board.isCellEmpty(row, col)) {
-                    // emula a jogada
-                    board.setCell(row, col, player.getBoardCell());
-                    // vê qual o melhor score possível considerando que a jogada foi feita
-                    var score = miniMax(board, gameState.getOpponent(player), false);
-                    // desfaz a jogada
-                    board.setCell(row, col, BoardCell.EMPTY);
-                    // se o score for melhor que o melhor score que já encontramos até agora,
-                    // atualizamos o melhor score e o melhor movimento
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestMove = new Move(row, col, score);
-                    }
-                }
-            }
-        }
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
 
-        // retorna o melhor movimento
-        return bestMove;
+    /**
+     * Liga a consulta a um cache de jogadas compartilhado entre jogos (normalmente o {@link BestMoveCache#shared()}).
+     * @param bestMoveCache o cache, ou null para desligar
+     */
+    public void setBestMoveCache(BestMoveCache bestMoveCache) {
+        this.bestMoveCache = bestMoveCache;
     }
 
     /**
-     * Retorna o valor do estado do jogo.
-     * O valor do estado do jogo é definido da seguinte forma:
-     * 1. Se o jogador X ganhou, retorna -10
-     * 2. Se o jogador O ganhou, retorna 10
-     * 3. Se deu velha, retorna 0
-     *
-     * Se o jogo não acabou, retorna o melhor valor possível para o jogador atual.
-     * Pra isso, iteramos por todas as células vazias do tabuleiro, simulamos que o jogador atual
-     * jogou nessa célula e chamamos o MiniMax para o jogador adversário.
+     * @return quantos nós a última busca visitou (útil para comparar o efeito da poda e da ordenação)
+     */
+    public long getNodesVisited() {
+        return search.getNodesVisited();
+    }
+
+    /**
+     * @return o score da última jogada, do ponto de vista de quem jogou
+     */
+    public int getLastScore() {
+        return search.getLastScore();
+    }
+
+    /**
+     * Retorna a célula do melhor movimento possível para o jogador atual, buscando até o fim do jogo.
      *
      * @param board é o tabuleiro atual
      * @param player é o jogador atual
-     * @param isMax é true se o jogador atual é o jogador que queremos maximizar e false caso contrário
-     * @return o valor do estado do jogo
+     * @return a célula do melhor movimento possível para o jogador atual
      */
-    private int miniMax(Board board, Player player, boolean isMax) {
-        // se o jogo acabou, retornamos o valor do estado do jogo
-        if (board.isWinner(gameState.getXPlayer().getBoardCell())) {
-            return -10;
-        }
-        if (board.isWinner(gameState.getOPlayer().getBoardCell())) {
-            return 10;
-        }
-        if (board.isBoardFull()) {
-            return 0;
-        }
-
-        if (isMax) {
-            // se o jogador atual é o jogador que queremos maximizar, retornamos o maior valor dos filhos
-            var bestScore = Integer.MIN_VALUE;
-            for (int row = 0; row < board.getBoardSize(); ++row) {
-                for (int col = 0; col < board.getBoardSize(); ++col) {
-                    if (board.isCellEmpty(row, col)) {
-                        // emula a jogada
-                        board.setCell(row, col, player.getBoardCell());
-                        // vê qual o melhor score possível considerando que a jogada foi feita
-                        bestScore = Math.max(bestScore, miniMax(board, gameState.getOpponent(player), false));
-                        // desfaz a jogada
-                        board.setCell(row, col, BoardCell.EMPTY);
-                    }
-                }
-            }
-
-            return bestScore;
-        } else {
-            //aqui é a mesma coisa, mas agora queremos minimizar
-            var bestScore = Integer.MAX_VALUE;
-            for (int row = 0; row < board.getBoardSize(); ++row) {
-                for (int col = 0; col < board.getBoardSize(); ++col) {
-                    if (board.isCellEmpty(row, col)) {
-                        board.setCell(row, col, player.getBoardCell());
-                        bestScore = Math.min(bestScore, miniMax(board, gameState.getOpponent(player), true));
-                        board.setCell(row, col, BoardCell.EMPTY);
-                    }
+    private int getBestCell(Board board, BoardCell player) {
+        if (bestMoveCache != null) {
+            final var start = System.nanoTime();
+            final var cached = bestMoveCache.lookup(board, player, board.getEmptyCellCount());
+            if (cached != BestMoveCache.MISS) {
+                if (searchListener != SearchListener.NONE) {
+                    searchListener.onSearch(SearchStatistics.cacheHit(board.getEmptyCellCount(), System.nanoTime() - start));
                 }
+                return cached;
             }
-
-            return bestScore;
         }
+        search.startSearch(board, SearchBudget.UNLIMITED);
+        final var cell = search.searchRoot(board, player, board.getEmptyCellCount());
+        if (bestMoveCache != null) {
+            bestMoveCache.store(board, player, cell, board.getEmptyCellCount());
+        }
+        // as estatísticas são um objeto novo, então só montamos se alguém for ouvir
+        if (searchListener != SearchListener.NONE) {
+            searchListener.onSearch(search.getStatistics());
+        }
+        return cell;
     }
 }
@@ -0,0 +1,171 @@
+package org.example.core;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Action generator baseado em Monte Carlo Tree Search (UCT), pensado para tabuleiros grandes onde
+ * o MiniMax não chega nem perto do fim do jogo e uma heurística boa é difícil de escrever.
+ *
+ * Cada iteração desce pela árvore escolhendo o filho com o melhor equilíbrio entre taxa de vitória
+ * e exploração, expande uma folha, joga o resto da partida aleatoriamente e sobe com o resultado.
+ * Depois de todas as iterações, a jogada escolhida é a mais visitada na raiz.
+ *
+ * O paralelismo é na raiz: cada thread constrói a sua própria árvore ({@link MonteCarloTree}) com seu
+ * próprio {@link SplittableRandom}, e no final somamos as visitas dos filhos da raiz de todas as árvores.
+ * As threads não compartilham nada durante a busca, então escalam linearmente com os núcleos.
+ *
+ * O orçamento ({@link SearchBudget}) limita o tempo e/ou a quantidade de simulações (os "nós" do
+ * orçamento são simulações, contadas por thread).
+ *
+ * O pool criado pelo próprio gerador é liberado no {@link #close()}; um pool recebido no construtor é de
+ * quem o passou e continua aberto.
+ */
+public class MonteCarloActionGenerator implements ActionGenerator, AutoCloseable {
+    /**
+     * Constante de exploração clássica do UCT, sqrt(2)
+     */
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+    /**
+     * Quantos nós cada árvore pode ter
+     */
+    public static final int DEFAULT_TREE_CAPACITY = 1 << 20;
+
+    private final SearchBudget budget;
+    private final double explorationConstant;
+    /**
+     * Onde rodam as árvores auxiliares
+     */
+    private final WorkerPool pool;
+    private final MonteCarloTree[] trees;
+    /**
+     * O gerador de números aleatórios de cada árvore, derivados da semente informada (reprodutível)
+     */
+    private final SplittableRandom[] randoms;
+    /**
+     * Quantas simulações cada árvore fez na última jogada
+     */
+    private final long[] iterationsByTree;
+    /**
+     * Acumulador das visitas da raiz, reaproveitado entre as jogadas
+     */
+    private long[] visitsByCell;
+    private long iterations;
+
+    /**
+     * Cria um gerador de uma thread só.
+     * @param budget limite de tempo e/ou simulações por jogada
+     * @param seed a semente dos números aleatórios
+     */
+    public MonteCarloActionGenerator(SearchBudget budget, long seed) {
+        this(budget, DEFAULT_EXPLORATION, DEFAULT_TREE_CAPACITY, seed, new WorkerPool("monte-carlo", 1));
+    }
+
+    /**
+     * Cria um gerador com um pool próprio de `threads - 1` threads auxiliares.
+     * @param budget limite de tempo e/ou simulações por jogada
+     * @param explorationConstant a constante C do UCT
+     * @param threads quantas árvores são construídas em paralelo (contando a thread que chama)
+     * @param seed a semente dos números aleatórios
+     */
+    public MonteCarloActionGenerator(SearchBudget budget, double explorationConstant, int threads, long seed) {
+        this(budget, explorationConstant, DEFAULT_TREE_CAPACITY, seed, new WorkerPool("monte-carlo", threads));
+    }
+
+    /**
+     * @param budget limite de tempo e/ou simulações por jogada
+     * @param explorationConstant a constante C do UCT
+     * @param threads quantas árvores são construídas em paralelo (contando a thread que chama)
+     * @param treeCapacity quantos nós cada árvore pode ter
+     * @param seed a semente dos números aleatórios
+     * @param executor o pool onde rodam as árvores auxiliares (pode ser null se `threads` for 1)
+     */
+    public MonteCarloActionGenerator(SearchBudget budget, double explorationConstant, int threads, int treeCapacity,
+                                     long seed, ExecutorService executor) {
+        this(budget, explorationConstant, treeCapacity, seed, new WorkerPool("monte-carlo", threads, executor));
+    }
+
+    private MonteCarloActionGenerator(SearchBudget budget, double explorationConstant, int treeCapacity, long seed,
+                                      WorkerPool pool) {
+        this.budget = budget;
+        this.explorationConstant = explorationConstant;
+        this.pool = pool;
+        final var threads = pool.getThreads();
+        final var seeds = new SplittableRandom(seed);
+        this.trees = new MonteCarloTree[threads];
+        this.randoms = new SplittableRandom[threads];
+        this.iterationsByTree = new long[threads];
+        for (var i = 0; i < threads; i++) {
+            trees[i] = new MonteCarloTree(treeCapacity);
+            randoms[i] = seeds.split();
+        }
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var boardCell = player.getBoardCell();
+        return Moves.of(getBestCell(board, boardCell), boardCell);
+    }
+
+    /**
+     * @return quantas simulações todas as threads fizeram juntas na última jogada
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Desliga o pool das árvores auxiliares, se foi criado pelo gerador (depois disso ele não busca mais).
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private int getBestCell(Board board, BoardCell player) {
+        final var deadline = budget.hasTimeLimit()
+                ? System.nanoTime() + budget.timeMillis() * 1_000_000L
+                : Long.MAX_VALUE;
+        final var maxIterations = budget.hasNodeLimit() ? budget.maxNodes() : Long.MAX_VALUE;
+        if (deadline == Long.MAX_VALUE && maxIterations == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("O MCTS precisa de um limite de tempo ou de simulações");
+        }
+
+        // a raiz só é lida (cada árvore joga no seu tabuleiro de rascunho), então as threads podem compartilhar ela
+        pool.run(tree -> iterationsByTree[tree] =
+                trees[tree].search(board, player, explorationConstant, maxIterations, deadline, randoms[tree]));
+        iterations = 0;
+        for (final var treeIterations : iterationsByTree) {
+            iterations += treeIterations;
+        }
+
+        // a jogada mais visitada somando todas as árvores
+        final var cellCount = board.getGeometry().getCellCount();
+        if (visitsByCell == null || visitsByCell.length != cellCount) {
+            visitsByCell = new long[cellCount];
+        } else {
+            Arrays.fill(visitsByCell, 0);
+        }
+        for (final var tree : trees) {
+            tree.addRootVisits(visitsByCell);
+        }
+        var bestCell = -1;
+        for (var cell = 0; cell < visitsByCell.length; cell++) {
+            if (board.isCellEmpty(cell) && (bestCell == -1 || visitsByCell[cell] > visitsByCell[bestCell])) {
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+
+    @Override
+    public String toString() {
+        return "MonteCarloActionGenerator" + Arrays.asList(budget, explorationConstant, trees.length);
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * A árvore de busca de uma thread do {@link MonteCarloActionGenerator}.
+ *
+ * Os nós não são objetos: cada campo é um array primitivo indexado pelo número do nó, e os filhos
+ * de um nó ficam em posições consecutivas (primeiro filho + quantidade). Assim a árvore inteira são
+ * meia dúzia de arrays alocados uma vez só e reaproveitados a cada jogada, e o laço principal
+ * (seleção, expansão, simulação e retropropagação) não aloca nada.
+ *
+ * Quando os arrays enchem a árvore para de crescer, mas as simulações continuam a partir das folhas.
+ */
+class MonteCarloTree {
+    private static final int ROOT = 0;
+    private static final int UNEXPANDED = -1;
+
+    private final int capacity;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] childCounts;
+    private final int[] cells;
+    private final int[] visits;
+    private final double[] wins;
+    private int size;
+
+    /**
+     * Tabuleiro de rascunho, copiado da raiz a cada iteração. Desfazer as jogadas da iteração parece mais barato,
+     * mas cada unmakeMove refaz as contagens das linhas e os hashes das simetrias, e medido ficou uns 15-25% mais
+     * lento que a cópia de poucos arrays
+     */
+    private Board scratch;
+    /**
+     * Jogadas possíveis durante a expansão e a simulação aleatória
+     */
+    private int[] emptyCells;
+
+    /**
+     * @param capacity quantos nós a árvore pode ter no máximo
+     */
+    MonteCarloTree(int capacity) {
+        this.capacity = capacity;
+        this.parents = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.childCounts = new int[capacity];
+        this.cells = new int[capacity];
+        this.visits = new int[capacity];
+        this.wins = new double[capacity];
+    }
+
+    /**
+     * Roda iterações do MCTS até o número de iterações ou o prazo acabarem.
+     *
+     * @param root a posição da raiz (não é alterada)
+     * @param player o jogador da vez na raiz
+     * @param explorationConstant a constante C do UCT: maior explora mais, menor aproveita mais
+     * @param maxIterations quantas iterações rodar no máximo
+     * @param deadlineNanos até quando rodar (em {@link System#nanoTime()})
+     * @param random o gerador de números aleatórios desta thread
+     * @return quantas iterações foram feitas
+     */
+    long search(Board root, BoardCell player, double explorationConstant, long maxIterations,
+                long deadlineNanos, SplittableRandom random) {
+        reset(root);
+        var iterations = 0L;
+        while (iterations < maxIterations) {
+            // olhamos o relógio só de vez em quando, ele é caro perto de uma simulação de 3x3
+            if ((iterations & 255) == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            iterate(root, player, explorationConstant, random);
+            iterations++;
+        }
+        return iterations;
+    }
+
+    /**
+     * Soma as visitas de cada filho da raiz em `visitsByCell`, indexado pela célula da jogada.
+     * @param visitsByCell o acumulador (uma posição por célula do tabuleiro)
+     */
+    void addRootVisits(long[] visitsByCell) {
+        final var first = firstChildren[ROOT];
+        if (first == UNEXPANDED) {
+            return;
+        }
+        for (var child = first; child < first + childCounts[ROOT]; child++) {
+            visitsByCell[cells[child]] += visits[child];
+        }
+    }
+
+    /**
+     * @return quantos nós a árvore tem agora
+     */
+    int size() {
+        return size;
+    }
+
+    private void reset(Board root) {
+        if (scratch == null || scratch.getGeometry() != root.getGeometry()) {
+            scratch = root.copy();
+            emptyCells = new int[root.getGeometry().getCellCount()];
+        }
+        size = 1;
+        parents[ROOT] = -1;
+        firstChildren[ROOT] = UNEXPANDED;
+        childCounts[ROOT] = 0;
+        cells[ROOT] = -1;
+        visits[ROOT] = 0;
+        wins[ROOT] = 0;
+    }
+
+    /**
+     * Uma iteração: desce pela árvore escolhendo filhos pelo UCT, expande a folha, simula o resto do jogo
+     * aleatoriamente e sobe com o resultado.
+     */
+    private void iterate(Board root, BoardCell rootPlayer, double explorationConstant, SplittableRandom random) {
+        scratch.copyFrom(root);
+        var node = ROOT;
+        var depth = 0;
+        var player = rootPlayer;
+
+        // seleção
+        while (firstChildren[node] != UNEXPANDED && !scratch.isGameOver()) {
+            node = selectChild(node, explorationConstant);
+            scratch.makeMove(Moves.of(cells[node], player));
+            player = player.opponent();
+            depth++;
+        }
+
+        // expansão: só expandimos nós que já foram visitados uma vez (a raiz sempre)
+        if (!scratch.isGameOver() && (node == ROOT || visits[node] > 0) && expand(node)) {
+            node = firstChildren[node] + random.nextInt(childCounts[node]);
+            scratch.makeMove(Moves.of(cells[node], player));
+            player = player.opponent();
+            depth++;
+        }
+
+        // simulação
+        final var winner = playout(player, random);
+
+        // retropropagação: cada nó guarda as vitórias de quem fez a jogada que levou até ele
+        var mover = depth % 2 == 1 ? rootPlayer : rootPlayer.opponent();
+        while (node != -1) {
+            visits[node]++;
+            if (winner == mover) {
+                wins[node] += 1;
+            } else if (winner == BoardCell.EMPTY) {
+                wins[node] += 0.5;
+            }
+            mover = mover.opponent();
+            node = parents[node];
+        }
+    }
+
+    /**
+     * Escolhe o filho com o maior UCT: taxa de vitória + C * sqrt(ln(visitas do pai) / visitas do filho).
+     * Filhos nunca visitados são escolhidos primeiro.
+     */
+    private int selectChild(int node, double explorationConstant) {
+        final var first = firstChildren[node];
+        final var logParentVisits = Math.log(Math.max(1, visits[node]));
+        var best = first;
+        var bestValue = Double.NEGATIVE_INFINITY;
+        for (var child = first; child < first + childCounts[node]; child++) {
+            if (visits[child] == 0) {
+                return child;
+            }
+            final var value = wins[child] / visits[child]
+                    + explorationConstant * Math.sqrt(logParentVisits / visits[child]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Cria um filho para cada célula vazia do tabuleiro de rascunho.
+     * @return false se não couber na árvore
+     */
+    private boolean expand(int node) {
+        final var children = scratch.getEmptyCellCount();
+        if (size + children > capacity) {
+            return false;
+        }
+        // o jogador não importa aqui, só guardamos as células
+        scratch.generateMoves(emptyCells, BoardCell.X);
+        firstChildren[node] = size;
+        childCounts[node] = children;
+        for (var i = 0; i < children; i++) {
+            parents[size] = node;
+            firstChildren[size] = UNEXPANDED;
+            childCounts[size] = 0;
+            cells[size] = Moves.cell(emptyCells[i]);
+            visits[size] = 0;
+            wins[size] = 0;
+            size++;
+        }
+        return true;
+    }
+
+    /**
+     * Joga aleatoriamente até o fim a partir do tabuleiro de rascunho.
+     * @param player quem joga agora
+     * @return o vencedor, ou EMPTY se deu velha
+     */
+    private BoardCell playout(BoardCell player, SplittableRandom random) {
+        if (scratch.isWinner(BoardCell.X)) {
+            return BoardCell.X;
+        }
+        if (scratch.isWinner(BoardCell.O)) {
+            return BoardCell.O;
+        }
+        var count = scratch.generateMoves(emptyCells, BoardCell.X);
+        while (count > 0) {
+            // sorteia uma célula vazia e tira ela da lista trocando com a última
+            final var index = random.nextInt(count);
+            final var cell = Moves.cell(emptyCells[index]);
+            emptyCells[index] = emptyCells[--count];
+            scratch.makeMove(Moves.of(cell, player));
+            if (scratch.isWinner(player)) {
+                return player;
+            }
+            player = player.opponent();
+        }
+        return BoardCell.EMPTY;
+    }
+}
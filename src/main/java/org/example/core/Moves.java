@@ -0,0 +1,86 @@
+package org.example.core;
+
+/**
+ * Codificação de uma jogada num int, para os caminhos quentes (busca, self-play) não alocarem nada.
+ *
+ * Os bits 0..7 são o índice da célula (`row * N + column`) e o bit 8 diz se quem jogou foi o O.
+ * Como o maior tabuleiro tem 15x15 = 225 células, o índice sempre cabe em 8 bits.
+ *
+ * O {@link PlayerAction} continua existindo para quem joga de fora (terminal, rede), e dá para
+ * converter de um para o outro com {@link #of(PlayerAction, int)} e {@link #toAction(int, Player, int)}.
+ */
+public final class Moves {
+    /**
+     * Valor que representa "nenhuma jogada" (nenhuma jogada válida é negativa)
+     */
+    public static final int NONE = -1;
+
+    private static final int CELL_MASK = 0xFF;
+    private static final int O_BIT = 1 << 8;
+
+    private Moves() {
+    }
+
+    /**
+     * @param cell índice da célula
+     * @param player X ou O
+     * @return a jogada codificada
+     */
+    public static int of(int cell, BoardCell player) {
+        return player == BoardCell.O ? cell | O_BIT : cell;
+    }
+
+    /**
+     * @param action uma jogada vinda de fora
+     * @param size o tamanho N do tabuleiro
+     * @return a jogada codificada
+     */
+    public static int of(PlayerAction action, int size) {
+        return of(action.getRow() * size + action.getColumn(), action.getPlayerWhoActed().getBoardCell());
+    }
+
+    /**
+     * @param move a jogada codificada
+     * @return o índice da célula
+     */
+    public static int cell(int move) {
+        return move & CELL_MASK;
+    }
+
+    /**
+     * @param move a jogada codificada
+     * @return quem jogou (X ou O)
+     */
+    public static BoardCell player(int move) {
+        return (move & O_BIT) != 0 ? BoardCell.O : BoardCell.X;
+    }
+
+    /**
+     * @param move a jogada codificada
+     * @param size o tamanho N do tabuleiro
+     * @return a linha da jogada
+     */
+    public static int row(int move, int size) {
+        return cell(move) / size;
+    }
+
+    /**
+     * @param move a jogada codificada
+     * @param size o tamanho N do tabuleiro
+     * @return a coluna da jogada
+     */
+    public static int column(int move, int size) {
+        return cell(move) % size;
+    }
+
+    /**
+     * Converte para o {@link PlayerAction} (isso aloca, então não use na busca).
+     * @param move a jogada codificada
+     * @param player o jogador que fez a jogada
+     * @param size o tamanho N do tabuleiro
+     * @return a jogada como ação
+     */
+    public static PlayerAction toAction(int move, Player player, int size) {
+        return new PlayerAction(player, row(move, size), column(move, size));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.core;
+
+/**
+ * Heurística que conta as linhas vencedoras ainda "abertas" para cada jogador.
+ *
+ * Uma linha está aberta para um jogador se o adversário não tem nenhuma peça nela, ou seja,
+ * ainda dá para completá-la. Cada linha aberta vale mais quanto mais peças o jogador já tem nela:
+ * uma peça vale 1, duas valem 10, três valem 100 e assim por diante. Linhas com peças dos dois
+ * jogadores estão mortas e não valem nada.
+ */
+public class OpenLinesEvaluator implements Evaluator {
+    /**
+     * Quanto cada peça a mais numa linha multiplica o valor da linha
+     */
+    private static final int GROWTH = 10;
+    /**
+     * WEIGHTS[k][n] é o valor de uma linha aberta com n peças quando é preciso fazer k em sequência
+     */
+    private static final int[][] WEIGHTS = buildWeights(15);
+
+    @Override
+    public int evaluate(Board board, BoardCell player) {
+        final var geometry = board.getGeometry();
+        final var weights = WEIGHTS[geometry.getWinLength()];
+        final var opponent = player.opponent();
+        var score = 0;
+        for (var line = 0; line < geometry.getLineCount(); line++) {
+            final var mine = board.getPiecesInLine(player, line);
+            final var theirs = board.getPiecesInLine(opponent, line);
+            if (theirs == 0) {
+                score += weights[mine];
+            } else if (mine == 0) {
+                score -= weights[theirs];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @param maxWinLength o maior tamanho de sequência suportado
+     * @return a tabela de pesos para cada tamanho de sequência
+     */
+    private static int[][] buildWeights(int maxWinLength) {
+        final var table = new int[maxWinLength + 1][];
+        for (var winLength = 0; winLength <= maxWinLength; winLength++) {
+            final var weights = new int[winLength + 1];
+            var weight = 1;
+            for (var pieces = 1; pieces <= winLength; pieces++) {
+                weights[pieces] = weight;
+                // limitamos para a soma de centenas de linhas não estourar um int
+                weight = (int) Math.min((long) weight * GROWTH, Integer.MAX_VALUE / 1024);
+            }
+            table[winLength] = weights;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,235 @@
+package org.example.core;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Action generator que usa vários núcleos para buscar a jogada, no esquema "Lazy SMP".
+ *
+ * Todas as threads fazem o mesmo aprofundamento iterativo na mesma posição, cada uma com sua
+ * própria cópia do tabuleiro e seu próprio {@link AlphaBetaSearch}, mas compartilhando uma única
+ * {@link TranspositionTable}. Metade das threads auxiliares começa uma profundidade à frente, então
+ * elas acabam explorando partes diferentes da árvore e enchendo a tabela com resultados que as
+ * outras reaproveitam.
+ *
+ * A tabela não usa lock: cada entrada guarda `key ^ data`, então uma entrada escrita pela metade
+ * por outra thread simplesmente não bate com a chave na leitura e é ignorada.
+ *
+ * A busca principal roda na thread que chamou {@link #generateAction(Board, Player)}; as auxiliares
+ * rodam no pool configurado (veja {@link WorkerPool}). Quando a principal termina, as auxiliares são paradas e a jogada
+ * retornada é a da busca que completou a maior profundidade.
+ *
+ * O pool criado pelo próprio gerador é liberado no {@link #close()}; um pool recebido no construtor é de
+ * quem o passou e continua aberto.
+ */
+public class ParallelSearchActionGenerator implements ActionGenerator, AutoCloseable {
+    /**
+     * Limite de tempo e/ou nós por jogada (os nós são contados por thread)
+     */
+    private final SearchBudget budget;
+    /**
+     * Tabela compartilhada por todas as threads
+     */
+    private final TranspositionTable transpositionTable;
+    /**
+     * Onde rodam as buscas auxiliares
+     */
+    private final WorkerPool pool;
+    /**
+     * Uma busca e um tabuleiro de rascunho por thread, para nada ser alterado concorrentemente
+     */
+    private final AlphaBetaSearch[] searches;
+    private final Board[] scratchBoards;
+    /**
+     * Resultados de cada thread na última jogada
+     */
+    private final int[] bestCells;
+    private final int[] completedDepths;
+    /**
+     * Quem recebe as estatísticas de cada jogada
+     */
+    private SearchListener searchListener = SearchListener.NONE;
+    /**
+     * Cache de jogadas compartilhado com outros jogos (null se desligado)
+     */
+    private BestMoveCache bestMoveCache;
+    /**
+     * Até onde as nossas buscas chegam, para decidir que jogadas do cache aceitar
+     */
+    private final ReachedDepths reachedDepths = new ReachedDepths();
+
+    /**
+     * Cria o gerador com um pool próprio de `threads - 1` threads auxiliares.
+     * @param budget limite de tempo e/ou nós por jogada
+     * @param threads quantas threads buscam ao mesmo tempo (contando a que chama)
+     */
+    public ParallelSearchActionGenerator(SearchBudget budget, int threads) {
+        this(budget, threads, new OpenLinesEvaluator(),
+                new TranspositionTable(1 << 22, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED),
+                new WorkerPool("parallel-search", threads));
+    }
+
+    /**
+     * @param budget limite de tempo e/ou nós por jogada
+     * @param threads quantas threads buscam ao mesmo tempo (contando a que chama)
+     * @param evaluator a heurística para posições que não acabaram (compartilhada, precisa ser thread-safe)
+     * @param transpositionTable a tabela compartilhada por todas as threads
+     * @param executor o pool onde rodam as buscas auxiliares (um ForkJoinPool ou um executor dedicado;
+     *                 pode ser null se `threads` for 1)
+     */
+    public ParallelSearchActionGenerator(SearchBudget budget, int threads, Evaluator evaluator,
+                                         TranspositionTable transpositionTable, ExecutorService executor) {
+        this(budget, threads, evaluator, transpositionTable, new WorkerPool("parallel-search", threads, executor));
+    }
+
+    private ParallelSearchActionGenerator(SearchBudget budget, int threads, Evaluator evaluator,
+                                          TranspositionTable transpositionTable, WorkerPool pool) {
+        this.budget = budget;
+        this.transpositionTable = transpositionTable;
+        this.pool = pool;
+        this.searches = new AlphaBetaSearch[threads];
+        this.scratchBoards = new Board[threads];
+        this.bestCells = new int[threads];
+        this.completedDepths = new int[threads];
+        for (var i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch(transpositionTable, evaluator);
+        }
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var boardCell = player.getBoardCell();
+        return Moves.of(getBestCell(board, boardCell), boardCell);
+    }
+
+    /**
+     * @param searchListener quem recebe as estatísticas de cada jogada, somadas entre as threads
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Liga a consulta a um cache de jogadas compartilhado entre jogos (normalmente o {@link BestMoveCache#shared()}).
+     * @param bestMoveCache o cache, ou null para desligar
+     */
+    public void setBestMoveCache(BestMoveCache bestMoveCache) {
+        this.bestMoveCache = bestMoveCache;
+    }
+
+    /**
+     * @return a maior profundidade completa entre as threads na última busca (uma jogada vinda do cache não busca)
+     */
+    public int getCompletedDepth() {
+        var deepest = 0;
+        for (final var depth : completedDepths) {
+            deepest = Math.max(deepest, depth);
+        }
+        return deepest;
+    }
+
+    /**
+     * @return quantos nós todas as threads visitaram juntas na última jogada
+     */
+    public long getNodesVisited() {
+        var nodes = 0L;
+        for (final var search : searches) {
+            nodes += search.getNodesVisited();
+        }
+        return nodes;
+    }
+
+    /**
+     * Desliga o pool das buscas auxiliares, se foi criado pelo gerador (depois disso ele não busca mais).
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * Dispara as buscas auxiliares, roda a principal na thread atual e escolhe o resultado
+     * da busca que foi mais fundo.
+     *
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @return a célula da melhor jogada
+     */
+    private int getBestCell(Board board, BoardCell player) {
+        if (bestMoveCache != null) {
+            // só aceitamos jogadas de buscas pelo menos tão fundas quanto as nossas costumam ir nessa posição
+            final var start = System.nanoTime();
+            final var minDepth = reachedDepths.minDepth(board);
+            final var cached = bestMoveCache.lookup(board, player, minDepth);
+            if (cached != BestMoveCache.MISS) {
+                if (searchListener != SearchListener.NONE) {
+                    searchListener.onSearch(SearchStatistics.cacheHit(minDepth, System.nanoTime() - start));
+                }
+                return cached;
+            }
+        }
+        transpositionTable.newGeneration();
+        for (var i = 0; i < searches.length; i++) {
+            // cada thread trabalha na sua própria cópia, o tabuleiro original nunca é alterado
+            if (scratchBoards[i] == null || scratchBoards[i].getGeometry() != board.getGeometry()) {
+                scratchBoards[i] = board.copy();
+            } else {
+                scratchBoards[i].copyFrom(board);
+            }
+            // preparamos aqui, antes de submeter, para que um requestStop() nunca seja perdido
+            searches[i].startSharedSearch(scratchBoards[i], budget);
+        }
+
+        pool.run(worker -> {
+            if (worker > 0) {
+                runWorker(worker, player, 1 + worker % 2);
+                return;
+            }
+            try {
+                runWorker(0, player, 1);
+            } finally {
+                // a principal terminou, então as auxiliares podem parar
+                for (var i = 1; i < searches.length; i++) {
+                    searches[i].requestStop();
+                }
+            }
+        });
+
+        if (searchListener != SearchListener.NONE) {
+            var statistics = searches[0].getStatistics();
+            for (var i = 1; i < searches.length; i++) {
+                statistics = statistics.combine(searches[i].getStatistics());
+            }
+            searchListener.onSearch(statistics);
+        }
+
+        // ficamos com a jogada da busca mais profunda; no empate, a principal ganha
+        var best = 0;
+        for (var i = 1; i < searches.length; i++) {
+            if (completedDepths[i] > completedDepths[best]) {
+                best = i;
+            }
+        }
+        if (bestMoveCache != null && completedDepths[best] > 0) {
+            bestMoveCache.store(board, player, bestCells[best],
+                    reachedDepths.record(board, completedDepths[best], searches[best].getLastScore()));
+        }
+        return bestCells[best];
+    }
+
+    /**
+     * Roda o aprofundamento iterativo de uma das threads e guarda o resultado.
+     * @param worker o índice da thread
+     * @param player é o jogador da vez
+     * @param startDepth a profundidade da primeira iteração
+     */
+    private void runWorker(int worker, BoardCell player, int startDepth) {
+        final var search = searches[worker];
+        bestCells[worker] = search.iterativeDeepening(scratchBoards[worker], player, startDepth);
+        completedDepths[worker] = search.getCompletedDepth();
+    }
+}
@@ -19,4 +19,13 @@ public interface Player {
      * @return a ação gerada (pode ser ótima ou não)
      */
     PlayerAction getPlayerAction(Board board);
+
+    /**
+     * Mesmo que {@link #getPlayerAction(Board)}, mas com a jogada codificada (veja {@link Moves})
+     * @param board é o tabuleiro atual
+     * @return a jogada gerada, codificada
+     */
+    default int getMove(Board board) {
+        return Moves.of(getPlayerAction(board), board.getBoardSize());
+    }
 }
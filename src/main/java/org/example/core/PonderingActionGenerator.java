@@ -0,0 +1,293 @@
+package org.example.core;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Action generator que continua pensando enquanto o adversário pensa ("ponder").
+ *
+ * Com o {@link IterativeDeepeningActionGenerator} o bot fica parado enquanto o humano digita a jogada
+ * no terminal. Aqui, assim que escolhemos a nossa jogada, uma thread em segundo plano:
+ * 1. aplica a nossa jogada numa cópia do tabuleiro e prevê a resposta do adversário (a melhor jogada dele
+ *    numa busca rasa, que quase toda sai da tabela de transposição da busca que acabamos de fazer)
+ * 2. aplica a resposta prevista e busca a posição resultante, como se já fosse a nossa vez
+ *
+ * Tudo vai para a mesma {@link TranspositionTable}. Quando a jogada do adversário chega, a busca em
+ * segundo plano é parada e:
+ * - se ele jogou o previsto ("ponder hit"), as iterações que já terminaram saem direto da tabela e o tempo
+ *   que passamos pensando é descontado do orçamento da jogada, então respondemos mais rápido com a mesma
+ *   profundidade (ou na hora, se o orçamento já foi todo gasto)
+ * - se não ("ponder miss"), a busca começa normalmente, aproveitando o que a previsão deixou na tabela
+ *   sobre as outras respostas
+ *
+ * A busca em segundo plano só roda na vez do adversário e sempre é parada antes da nossa começar, então
+ * nunca usamos mais de um núcleo ao mesmo tempo. Ela também para sozinha quando o `ponderBudget` acaba,
+ * para não ficar rodando depois que a partida terminou; dá para pará-la antes com {@link #stopPondering()}.
+ * A thread dela é liberada no {@link #close()}.
+ *
+ * Como os outros geradores, uma instância é de um jogador só numa partida por vez.
+ */
+public class PonderingActionGenerator implements ActionGenerator, AutoCloseable {
+    /**
+     * Limite padrão da busca em segundo plano, caso o adversário demore (ou a partida acabe)
+     */
+    public static final SearchBudget DEFAULT_PONDER_BUDGET = SearchBudget.ofMillis(60_000);
+
+    private final SearchBudget budget;
+    private final SearchBudget ponderBudget;
+    /**
+     * A busca da nossa jogada, a da previsão da resposta e a da posição prevista (uma por fase, assim
+     * cada uma é preparada antes de a thread começar e um pedido de parada nunca se perde)
+     */
+    private final AlphaBetaSearch search;
+    private final AlphaBetaSearch predictionSearch;
+    private final AlphaBetaSearch ponderSearch;
+    /**
+     * A thread onde roda a busca em segundo plano
+     */
+    private final ExecutorService executor;
+
+    /**
+     * A posição que estamos buscando em segundo plano (nossa jogada mais a resposta prevista)
+     */
+    private Board ponderBoard;
+    private Future<?> pondering;
+    private long ponderStartNanos;
+    /**
+     * Resultado da busca em segundo plano, escrito pela thread dela e lido depois do {@link Future#get()}
+     */
+    private int ponderCell;
+    private boolean pondered;
+
+    /**
+     * A profundidade completa da última jogada, contando a que veio da busca em segundo plano
+     */
+    private int completedDepth;
+    private long ponderHits;
+    private long ponderMisses;
+    private SearchListener searchListener = SearchListener.NONE;
+
+    /**
+     * @param budget limite de tempo e/ou nós por jogada
+     */
+    public PonderingActionGenerator(SearchBudget budget) {
+        this(budget, DEFAULT_PONDER_BUDGET, new OpenLinesEvaluator(),
+                new TranspositionTable(1 << 20, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    /**
+     * @param budget limite de tempo e/ou nós por jogada
+     * @param ponderBudget limite da busca em segundo plano a cada vez do adversário
+     * @param evaluator a heurística para posições que não acabaram (usada pelas duas threads, precisa ser thread-safe)
+     * @param transpositionTable a tabela compartilhada entre a nossa busca e a de segundo plano
+     */
+    public PonderingActionGenerator(SearchBudget budget, SearchBudget ponderBudget, Evaluator evaluator,
+                                    TranspositionTable transpositionTable) {
+        this.budget = budget;
+        this.ponderBudget = ponderBudget;
+        this.search = new AlphaBetaSearch(transpositionTable, evaluator);
+        this.predictionSearch = new AlphaBetaSearch(transpositionTable, evaluator);
+        this.ponderSearch = new AlphaBetaSearch(transpositionTable, evaluator);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final var thread = new Thread(runnable, "ponder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var boardCell = player.getBoardCell();
+        final var cell = getBestCell(board, boardCell);
+        startPondering(board, Moves.of(cell, boardCell));
+        return Moves.of(cell, boardCell);
+    }
+
+    /**
+     * Para a busca em segundo plano, se houver uma, e espera a thread dela terminar.
+     * Use quando a partida acabar na vez do adversário.
+     */
+    public void stopPondering() {
+        if (pondering == null) {
+            return;
+        }
+        predictionSearch.requestStop();
+        ponderSearch.requestStop();
+        try {
+            pondering.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando a busca em segundo plano", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na busca em segundo plano", e.getCause());
+        } finally {
+            pondering = null;
+        }
+    }
+
+    /**
+     * Para a busca em segundo plano e libera a thread dela (depois disso o gerador não joga mais).
+     */
+    @Override
+    public void close() {
+        try {
+            stopPondering();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param searchListener quem recebe as estatísticas de cada jogada (métricas, logs...)
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * @return a profundidade da última iteração completa na última jogada
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return quantos nós a última jogada visitou (sem contar a busca em segundo plano)
+     */
+    public long getNodesVisited() {
+        return search.getNodesVisited();
+    }
+
+    /**
+     * @return em quantas jogadas o adversário jogou o que a gente previu
+     */
+    public long getPonderHits() {
+        return ponderHits;
+    }
+
+    /**
+     * @return em quantas jogadas a previsão errou e a busca em segundo plano foi descartada
+     */
+    public long getPonderMisses() {
+        return ponderMisses;
+    }
+
+    /**
+     * Para a busca em segundo plano e decide: se a posição é a que estávamos buscando, continuamos de
+     * onde ela parou, com o que sobrou do orçamento; se não, buscamos do zero.
+     */
+    private int getBestCell(Board board, BoardCell player) {
+        final var hadPondering = pondering != null;
+        stopPondering();
+        final var hit = hadPondering && pondered && samePosition(board, ponderBoard);
+
+        if (!hit) {
+            if (hadPondering) {
+                ponderMisses++;
+            }
+            search.startSearch(board, budget);
+            final var cell = search.iterativeDeepening(board, player, 1);
+            return finishSearch(cell, search.getCompletedDepth());
+        }
+
+        ponderHits++;
+        final var remaining = remainingBudget();
+        if (ponderSearch.getCompletedDepth() > 0
+                && (remaining == null || AlphaBetaSearch.isDecisive(ponderSearch.getLastScore()))) {
+            // o tempo que passamos pensando já cobre a jogada inteira (ou o resultado já está decidido)
+            search.startSharedSearch(board, budget);
+            return finishSearch(ponderCell, ponderSearch.getCompletedDepth());
+        }
+        // mesma geração da tabela: as profundidades que a busca em segundo plano completou saem direto dela
+        search.startSharedSearch(board, remaining == null ? budget : remaining);
+        final var cell = search.iterativeDeepening(board, player, 1);
+        return finishSearch(cell, search.getCompletedDepth());
+    }
+
+    private int finishSearch(int cell, int depth) {
+        completedDepth = depth;
+        if (searchListener != SearchListener.NONE) {
+            searchListener.onSearch(search.getStatistics());
+        }
+        return cell;
+    }
+
+    /**
+     * @return o orçamento descontando o que a busca em segundo plano já gastou,
+     * ou null se ele já acabou
+     */
+    private SearchBudget remainingBudget() {
+        final var ponderMillis = (System.nanoTime() - ponderStartNanos) / 1_000_000L;
+        final var timeMillis = budget.hasTimeLimit() ? budget.timeMillis() - ponderMillis : 0;
+        final var maxNodes = budget.hasNodeLimit() ? budget.maxNodes() - ponderSearch.getNodesVisited() : 0;
+        if ((budget.hasTimeLimit() && timeMillis <= 0) || (budget.hasNodeLimit() && maxNodes <= 0)) {
+            return null;
+        }
+        return new SearchBudget(timeMillis, maxNodes);
+    }
+
+    /**
+     * Dispara a busca em segundo plano na posição depois da nossa jogada, se o jogo não acabou com ela.
+     */
+    private void startPondering(Board board, int move) {
+        if (ponderBoard == null || ponderBoard.getGeometry() != board.getGeometry()) {
+            ponderBoard = board.copy();
+        } else {
+            ponderBoard.copyFrom(board);
+        }
+        ponderBoard.makeMove(move);
+        pondered = false;
+        if (ponderBoard.isGameOver()) {
+            return;
+        }
+
+        // a previsão reaproveita a profundidade da nossa busca (a resposta do adversário é um nível abaixo)
+        final var opponent = Moves.player(move).opponent();
+        final var predictionDepth = Math.max(1, completedDepth - 1);
+        // preparamos aqui, antes de submeter, para que um requestStop() nunca seja perdido
+        predictionSearch.startSharedSearch(ponderBoard, ponderBudget);
+        ponderSearch.startSharedSearch(ponderBoard, ponderBudget);
+        ponderStartNanos = System.nanoTime();
+        pondering = executor.submit(() -> ponder(opponent, predictionDepth));
+    }
+
+    /**
+     * O que roda na thread de segundo plano: prevê a resposta e busca a posição resultante até ser parada.
+     */
+    private void ponder(BoardCell opponent, int predictionDepth) {
+        final var reply = predictionSearch.searchRoot(ponderBoard, opponent, predictionDepth);
+        if (predictionSearch.isAborted()) {
+            return;
+        }
+        ponderBoard.makeMove(Moves.of(reply, opponent));
+        if (ponderBoard.isGameOver()) {
+            return;
+        }
+        ponderCell = ponderSearch.iterativeDeepening(ponderBoard, opponent.opponent(), 1);
+        pondered = true;
+    }
+
+    /**
+     * @return true se os dois tabuleiros têm as mesmas peças nas mesmas células
+     */
+    private static boolean samePosition(Board board, Board other) {
+        if (board.getGeometry() != other.getGeometry()) {
+            return false;
+        }
+        final var words = (board.getGeometry().getCellCount() + Long.SIZE - 1) / Long.SIZE;
+        for (var word = 0; word < words; word++) {
+            if (board.getBits(BoardCell.X, word) != other.getBits(BoardCell.X, word)
+                    || board.getBits(BoardCell.O, word) != other.getBits(BoardCell.O, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
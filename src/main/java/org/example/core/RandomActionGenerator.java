@@ -0,0 +1,37 @@
+package org.example.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Action generator que joga numa célula vazia qualquer, sorteada.
+ * Serve de adversário de referência para testar os bots: um bot que perde para ele tem bug.
+ *
+ * A semente é fixa, então a sequência de jogadas é reprodutível.
+ * Não é thread-safe: use uma instância por thread.
+ */
+public class RandomActionGenerator implements ActionGenerator {
+    private final SplittableRandom random;
+
+    /**
+     * @param seed a semente dos números aleatórios
+     */
+    public RandomActionGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        // sorteamos a k-ésima célula vazia, assim basta um número aleatório por jogada
+        var remaining = random.nextInt(board.getEmptyCellCount());
+        for (var cell = 0; ; cell++) {
+            if (board.isCellEmpty(cell) && remaining-- == 0) {
+                return Moves.of(cell, player.getBoardCell());
+            }
+        }
+    }
+}
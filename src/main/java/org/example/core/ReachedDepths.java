@@ -0,0 +1,60 @@
+package org.example.core;
+
+/**
+ * Quão fundo as buscas de um gerador costumam chegar, por quantidade de células vazias. É o que decide
+ * se uma jogada do {@link BestMoveCache} é boa o bastante para ser usada no lugar de uma busca nossa.
+ *
+ * A profundidade da última jogada não serve para isso: num gerador novo ela é 0, depois de uma vitória
+ * achada cedo ela é pequena, e numa jogada vinda do cache ela nem muda. Aqui a exigência depende só da
+ * posição (e do que as nossas buscas de verdade alcançaram nela), com um mínimo fixo.
+ *
+ * Não é thread-safe: cada gerador tem o seu e só a thread da jogada mexe.
+ */
+final class ReachedDepths {
+    /**
+     * A menor profundidade aceita do cache quando ainda não buscamos nenhuma posição parecida
+     */
+    static final int MIN_CACHED_DEPTH = 4;
+
+    /**
+     * depths[vazias] é a profundidade que a última busca completa com essa quantidade de células vazias alcançou
+     */
+    private int[] depths;
+    /**
+     * O tabuleiro das buscas registradas (outro tabuleiro começa do zero)
+     */
+    private BoardGeometry geometry;
+
+    /**
+     * @param board é o tabuleiro atual
+     * @return a menor profundidade que uma jogada do cache precisa ter para ser aceita nessa posição
+     */
+    int minDepth(Board board) {
+        final var empty = board.getEmptyCellCount();
+        final var reached = board.getGeometry() == geometry ? depths[empty] : 0;
+        return Math.min(empty, Math.max(MIN_CACHED_DEPTH, reached));
+    }
+
+    /**
+     * Registra o resultado de uma busca e diz com que profundidade guardá-lo no cache.
+     *
+     * @param board é o tabuleiro onde a busca rodou
+     * @param completedDepth a profundidade completa da busca
+     * @param score o score da jogada escolhida
+     * @return a profundidade para o cache: as células vazias se o score é decisivo (o resultado não muda
+     * buscando mais fundo), senão a própria profundidade completa
+     */
+    int record(Board board, int completedDepth, int score) {
+        final var empty = board.getEmptyCellCount();
+        if (AlphaBetaSearch.isDecisive(score)) {
+            // a busca parou cedo porque achou o fim, isso não diz quão fundo ela costuma ir
+            return empty;
+        }
+        if (board.getGeometry() != geometry) {
+            geometry = board.getGeometry();
+            depths = new int[geometry.getCellCount() + 1];
+        }
+        depths[empty] = completedDepth;
+        return completedDepth;
+    }
+}
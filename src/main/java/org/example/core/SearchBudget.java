@@ -0,0 +1,45 @@
+package org.example.core;
+
+/**
+ * Limite de recursos para uma busca: tempo de parede e/ou quantidade de nós.
+ * Zero (ou negativo) significa "sem limite" naquela dimensão.
+ *
+ * @param timeMillis tempo máximo por jogada, em milissegundos
+ * @param maxNodes quantidade máxima de nós visitados por jogada
+ */
+public record SearchBudget(long timeMillis, long maxNodes) {
+    /**
+     * Sem limite nenhum, a busca vai até o fim
+     */
+    public static final SearchBudget UNLIMITED = new SearchBudget(0, 0);
+
+    /**
+     * @param timeMillis tempo máximo por jogada, em milissegundos
+     * @return um orçamento limitado só por tempo
+     */
+    public static SearchBudget ofMillis(long timeMillis) {
+        return new SearchBudget(timeMillis, 0);
+    }
+
+    /**
+     * @param maxNodes quantidade máxima de nós visitados por jogada
+     * @return um orçamento limitado só por nós
+     */
+    public static SearchBudget ofNodes(long maxNodes) {
+        return new SearchBudget(0, maxNodes);
+    }
+
+    /**
+     * @return true se existe limite de tempo
+     */
+    public boolean hasTimeLimit() {
+        return timeMillis > 0;
+    }
+
+    /**
+     * @return true se existe limite de nós
+     */
+    public boolean hasNodeLimit() {
+        return maxNodes > 0;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.core;
+
+/**
+ * Recebe as estatísticas de cada jogada decidida por busca (MiniMax, aprofundamento iterativo, busca paralela).
+ *
+ * É chamado na thread que fez a busca, uma vez por jogada e fora do laço da busca, então o custo é
+ * de uma chamada por jogada. Implementações compartilhadas entre threads precisam ser thread-safe.
+ */
+public interface SearchListener {
+    /**
+     * Um listener que ignora tudo
+     */
+    SearchListener NONE = statistics -> {
+    };
+
+    /**
+     * @param statistics o que a busca fez para decidir a jogada
+     */
+    void onSearch(SearchStatistics statistics);
+}
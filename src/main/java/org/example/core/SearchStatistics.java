@@ -0,0 +1,46 @@
+package org.example.core;
+
+/**
+ * O que uma busca fez para decidir uma jogada. Publicado para um {@link SearchListener} a cada jogada.
+ *
+ * @param nodesVisited quantos nós a busca visitou
+ * @param terminalNodes quantos nós eram fim de jogo (vitória ou velha)
+ * @param evaluations quantas vezes a heurística foi chamada (nós no limite da profundidade)
+ * @param cutoffs quantos cortes beta aconteceram
+ * @param transpositionProbes quantas consultas à tabela de transposição
+ * @param transpositionHits quantas consultas acharam a posição na tabela
+ * @param depth a profundidade completa mais funda
+ * @param nanos quanto tempo a jogada levou
+ */
+public record SearchStatistics(long nodesVisited, long terminalNodes, long evaluations, long cutoffs,
+                               long transpositionProbes, long transpositionHits, int depth, long nanos) {
+    /**
+     * @param depth a profundidade exigida da jogada do cache (a da busca que a guardou é pelo menos essa)
+     * @param nanos quanto tempo a consulta levou
+     * @return as estatísticas de uma jogada respondida pelo {@link BestMoveCache}, sem busca nenhuma
+     */
+    public static SearchStatistics cacheHit(int depth, long nanos) {
+        return new SearchStatistics(0, 0, 0, 0, 0, 0, depth, nanos);
+    }
+
+    /**
+     * @return a fração das consultas à tabela que acharam a posição (0 se não houve consultas)
+     */
+    public double transpositionHitRate() {
+        return transpositionProbes == 0 ? 0 : (double) transpositionHits / transpositionProbes;
+    }
+
+    /**
+     * Soma os números de duas buscas que rodaram juntas (como as threads de uma busca paralela).
+     * A profundidade é a maior das duas e o tempo é o maior, já que elas rodaram ao mesmo tempo.
+     *
+     * @param other a outra busca
+     * @return as estatísticas somadas
+     */
+    public SearchStatistics combine(SearchStatistics other) {
+        return new SearchStatistics(nodesVisited + other.nodesVisited, terminalNodes + other.terminalNodes,
+                evaluations + other.evaluations, cutoffs + other.cutoffs,
+                transpositionProbes + other.transpositionProbes, transpositionHits + other.transpositionHits,
+                Math.max(depth, other.depth), Math.max(nanos, other.nanos));
+    }
+}
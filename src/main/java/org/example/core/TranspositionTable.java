@@ -0,0 +1,196 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição: um cache de posições já avaliadas pela busca.
+ *
+ * A chave é o hash canônico da posição (veja {@link Board#getCanonicalHash()}), então
+ * posições que são rotações ou reflexões umas das outras caem na mesma entrada.
+ * Para cada entrada guardamos o score, o tipo de limite (exato, inferior ou superior),
+ * a melhor jogada (já na orientação canônica) e a profundidade da busca que gerou o score.
+ *
+ * As entradas ficam num único long[] (duas posições por entrada), sem nenhum objeto por entrada.
+ * A chave é guardada como `key ^ data`, assim uma escrita pela metade é detectada na leitura
+ * (a chave não bate) ao invés de devolver dados misturados.
+ */
+public class TranspositionTable {
+    /**
+     * O score guardado é exato
+     */
+    public static final int EXACT = 0;
+    /**
+     * O score guardado é um limite inferior (a busca cortou por ser bom demais)
+     */
+    public static final int LOWER_BOUND = 1;
+    /**
+     * O score guardado é um limite superior (nenhuma jogada conseguiu passar do alpha)
+     */
+    public static final int UPPER_BOUND = 2;
+    /**
+     * Valor retornado por {@link #probe(long)} quando a posição não está na tabela
+     */
+    public static final long MISS = 0L;
+    /**
+     * Valor usado quando a entrada não tem melhor jogada
+     */
+    public static final int NO_MOVE = 0xFF;
+
+    /**
+     * Política de substituição quando duas posições caem no mesmo slot.
+     */
+    public enum ReplacementPolicy {
+        /**
+         * Sempre sobrescreve, a entrada mais nova ganha
+         */
+        ALWAYS_REPLACE,
+        /**
+         * Só sobrescreve se a nova entrada vier de uma busca pelo menos tão profunda
+         * (ou se a entrada antiga for de outra geração, ou seja, de uma busca anterior)
+         */
+        DEPTH_PREFERRED
+    }
+
+    // layout do long de dados:
+    // bits 0..31 score | 32..33 limite | 34..41 jogada | 42..49 profundidade | 50..57 geração | 63 válido
+    private static final int BOUND_SHIFT = 32;
+    private static final int MOVE_SHIFT = 34;
+    private static final int DEPTH_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 50;
+    private static final long VALID_BIT = 1L << 63;
+
+    /**
+     * Quantidade de entradas padrão (2^16 entradas, 1 MiB)
+     */
+    public static final int DEFAULT_SIZE = 1 << 16;
+
+    private final long[] entries;
+    private final int mask;
+    private final ReplacementPolicy replacementPolicy;
+    private int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    /**
+     * @param size quantidade de entradas, arredondada para a próxima potência de dois
+     * @param replacementPolicy o que fazer quando duas posições disputam o mesmo slot
+     */
+    public TranspositionTable(int size, ReplacementPolicy replacementPolicy) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Tamanho inválido para a tabela de transposição");
+        }
+        final var capacity = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        this.entries = new long[capacity * 2];
+        this.mask = capacity - 1;
+        this.replacementPolicy = replacementPolicy;
+    }
+
+    /**
+     * Procura uma posição na tabela.
+     * @param key o hash da posição
+     * @return os dados da entrada, ou {@link #MISS} se a posição não estiver na tabela
+     */
+    public long probe(long key) {
+        final var index = slot(key);
+        final var data = entries[index + 1];
+        if (data == MISS || (entries[index] ^ data) != key) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Guarda uma posição na tabela, respeitando a política de substituição.
+     * @param key o hash da posição
+     * @param score o score encontrado
+     * @param bound o tipo de limite do score ({@link #EXACT}, {@link #LOWER_BOUND} ou {@link #UPPER_BOUND})
+     * @param move a melhor jogada (célula) na orientação canônica, ou {@link #NO_MOVE}
+     * @param depth a profundidade da busca que gerou o score
+     */
+    public void store(long key, int score, int bound, int move, int depth) {
+        final var index = slot(key);
+        final var current = entries[index + 1];
+        if (replacementPolicy == ReplacementPolicy.DEPTH_PREFERRED
+                && current != MISS
+                && (entries[index] ^ current) != key
+                && generation(current) == (generation & 0xFF)
+                && depth(current) > depth) {
+            // a entrada atual é de uma busca mais profunda desta mesma geração, vale mais mantê-la
+            return;
+        }
+
+        final var data = VALID_BIT
+                | (score & 0xFFFFFFFFL)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (move & 0xFF) << MOVE_SHIFT)
+                | ((long) Math.min(depth, 0xFF) << DEPTH_SHIFT)
+                | ((long) (generation & 0xFF) << GENERATION_SHIFT);
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * Começa uma nova geração. Entradas de gerações antigas podem ser substituídas livremente.
+     * A ideia é chamar isso uma vez por busca.
+     */
+    public void newGeneration() {
+        generation++;
+    }
+
+    /**
+     * Apaga todas as entradas.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    /**
+     * @return a quantidade de entradas da tabela
+     */
+    public int size() {
+        return mask + 1;
+    }
+
+    /**
+     * @param data os dados de uma entrada
+     * @return o score guardado
+     */
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    /**
+     * @param data os dados de uma entrada
+     * @return o tipo de limite do score
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * @param data os dados de uma entrada
+     * @return a melhor jogada guardada (na orientação canônica), ou {@link #NO_MOVE}
+     */
+    public static int move(long data) {
+        return (int) (data >>> MOVE_SHIFT) & 0xFF;
+    }
+
+    /**
+     * @param data os dados de uma entrada
+     * @return a profundidade da busca que gerou a entrada
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    private int slot(long key) {
+        // mistura os bits altos para não depender só dos bits baixos do hash
+        return (int) ((key ^ (key >>> 32)) & mask) << 1;
+    }
+}
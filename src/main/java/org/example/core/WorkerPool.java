@@ -0,0 +1,133 @@
+package org.example.core;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * O esquema de threads que as buscas e análises paralelas usam: `threads` workers numerados de 0 a
+ * `threads - 1`, o 0 rodando na própria thread que chama e os outros num pool de auxiliares, e a chamada
+ * só volta quando todos terminam.
+ *
+ * Se um worker falha ou a thread que chama é interrompida esperando, os auxiliares que ainda rodam são
+ * cancelados e a chamada lança {@link IllegalStateException} (na interrupção, com a flag da thread restaurada).
+ *
+ * O pool criado aqui é liberado no {@link #close()}; um pool recebido no construtor é de quem o passou e
+ * continua aberto. Não é thread-safe: um {@link #run(IntConsumer)} por vez.
+ */
+public class WorkerPool implements AutoCloseable {
+    /**
+     * Nome das threads auxiliares, também usado nas mensagens de erro
+     */
+    private final String name;
+    private final int threads;
+    /**
+     * Onde rodam os workers 1 em diante (null se só há uma thread)
+     */
+    private final ExecutorService executor;
+    /**
+     * Se o pool foi criado aqui (e então é desligado no {@link #close()})
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * Cria o pool com `threads - 1` threads auxiliares próprias (nenhuma, se `threads` for 1).
+     * @param name o nome das threads auxiliares
+     * @param threads quantos workers rodam ao mesmo tempo (contando a thread que chama)
+     */
+    public WorkerPool(String name, int threads) {
+        this(name, threads, threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            final var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }) : null, true);
+    }
+
+    /**
+     * @param name o nome usado nas mensagens de erro
+     * @param threads quantos workers rodam ao mesmo tempo (contando a thread que chama)
+     * @param executor o pool onde rodam os auxiliares (pode ser null se `threads` for 1)
+     */
+    public WorkerPool(String name, int threads, ExecutorService executor) {
+        this(name, threads, executor, false);
+    }
+
+    private WorkerPool(String name, int threads, ExecutorService executor, boolean ownsExecutor) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("É preciso pelo menos uma thread");
+        }
+        if (threads > 1 && executor == null) {
+            throw new IllegalArgumentException("É preciso um executor para usar mais de uma thread");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @return quantos workers rodam ao mesmo tempo (contando a thread que chama)
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Roda todos os workers e espera eles terminarem.
+     * @param worker o trabalho, recebendo o índice do worker
+     */
+    public void run(IntConsumer worker) {
+        run(threads, worker);
+    }
+
+    /**
+     * Roda só os primeiros workers, para quando não há trabalho para todos, e espera eles terminarem.
+     * @param workers quantos workers (de 1 até {@link #getThreads()})
+     * @param worker o trabalho, recebendo o índice do worker
+     */
+    public void run(int workers, IntConsumer worker) {
+        if (workers < 1 || workers > threads) {
+            throw new IllegalArgumentException("Esperava de 1 a " + threads + " workers: " + workers);
+        }
+        if (workers == 1) {
+            // sem auxiliares não submetemos nada e a chamada não aloca nada
+            worker.accept(0);
+            return;
+        }
+        final var helpers = new Future<?>[workers - 1];
+        try {
+            for (var i = 1; i < workers; i++) {
+                final var index = i;
+                helpers[i - 1] = executor.submit(() -> worker.accept(index));
+            }
+            worker.accept(0);
+            for (final var helper : helpers) {
+                helper.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando as threads de " + name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha numa thread de " + name, e.getCause());
+        } finally {
+            // no caminho normal todos já terminaram; numa falha, ninguém fica rodando sem dono
+            for (final var helper : helpers) {
+                if (helper != null) {
+                    helper.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Desliga o pool das threads auxiliares, se foi criado aqui (depois disso só dá para rodar um worker).
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor && executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
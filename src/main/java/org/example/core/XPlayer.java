@@ -19,4 +19,9 @@ public class XPlayer implements Player {
     public PlayerAction getPlayerAction(Board board) {
         return actionGenerator.generateAction(board, this);
     }
+
+    @Override
+    public int getMove(Board board) {
+        return actionGenerator.generateMove(board, this);
+    }
 }
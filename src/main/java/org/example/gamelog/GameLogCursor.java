@@ -0,0 +1,121 @@
+package org.example.gamelog;
+
+import org.example.core.BoardCell;
+
+import java.nio.MappedByteBuffer;
+import java.util.List;
+
+/**
+ * Percorre as partidas do log, uma de cada vez, lendo direto dos segmentos mapeados.
+ *
+ * É um flyweight: {@link #next()} só avança a posição, e os getters leem os bytes da partida atual.
+ * Nenhum objeto é criado por partida. Não é thread-safe; para ler em paralelo, use um cursor por thread.
+ *
+ * Uso:
+ * <pre>
+ * final var cursor = reader.cursor();
+ * while (cursor.next()) {
+ *     ... cursor.getWinner(), cursor.getMove(i) ...
+ * }
+ * </pre>
+ */
+public class GameLogCursor {
+    private final List<MappedByteBuffer> segments;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    /**
+     * Onde começa a partida atual no segmento atual (-1 antes do primeiro next)
+     */
+    private int frameStart = -1;
+    private int nextFrameStart;
+    private long gameIndex = -1;
+
+    GameLogCursor(List<MappedByteBuffer> segments) {
+        this.segments = segments;
+        this.segmentIndex = 0;
+        this.segment = segments.isEmpty() ? null : segments.get(0);
+        this.nextFrameStart = GameLogFormat.SEGMENT_HEADER_BYTES;
+    }
+
+    /**
+     * Avança para a próxima partida.
+     * @return false se o log acabou
+     */
+    public boolean next() {
+        while (segment != null) {
+            final var limit = segment.limit();
+            if (nextFrameStart + GameLogFormat.FRAME_HEADER_BYTES <= limit) {
+                final var moveCount = Byte.toUnsignedInt(segment.get(nextFrameStart + 3));
+                final var frameEnd = nextFrameStart + GameLogFormat.FRAME_HEADER_BYTES + moveCount;
+                // uma partida cortada no fim do segmento é de uma escrita interrompida: ignoramos
+                if (frameEnd <= limit) {
+                    frameStart = nextFrameStart;
+                    nextFrameStart = frameEnd;
+                    gameIndex++;
+                    return true;
+                }
+            }
+            segmentIndex++;
+            segment = segmentIndex < segments.size() ? segments.get(segmentIndex) : null;
+            nextFrameStart = GameLogFormat.SEGMENT_HEADER_BYTES;
+        }
+        return false;
+    }
+
+    /**
+     * Cria um cursor independente que continua daqui: o primeiro {@link #next()} dele vai para a mesma
+     * partida que o próximo {@link #next()} deste. Serve para dividir o log em blocos entre threads:
+     * uma thread avança um cursor só pelos cabeçalhos e entrega um fork no começo de cada bloco.
+     *
+     * @return o cursor novo
+     */
+    public GameLogCursor fork() {
+        final var fork = new GameLogCursor(segments);
+        fork.segmentIndex = segmentIndex;
+        fork.segment = segment;
+        fork.nextFrameStart = nextFrameStart;
+        fork.gameIndex = gameIndex;
+        return fork;
+    }
+
+    /**
+     * @return a posição da partida atual no log (0 para a primeira)
+     */
+    public long getGameIndex() {
+        return gameIndex;
+    }
+
+    public int getBoardSize() {
+        return Byte.toUnsignedInt(segment.get(frameStart));
+    }
+
+    public int getWinLength() {
+        return Byte.toUnsignedInt(segment.get(frameStart + 1));
+    }
+
+    /**
+     * @return quem começou a partida atual
+     */
+    public BoardCell getFirstPlayer() {
+        return GameLogFormat.firstPlayer(segment.get(frameStart + 2));
+    }
+
+    /**
+     * @return quem ganhou a partida atual, ou EMPTY se deu velha
+     */
+    public BoardCell getWinner() {
+        return GameLogFormat.winner(segment.get(frameStart + 2));
+    }
+
+    public int getMoveCount() {
+        return Byte.toUnsignedInt(segment.get(frameStart + 3));
+    }
+
+    /**
+     * @param index a jogada, de 0 até {@link #getMoveCount()} - 1
+     * @return a célula jogada (linha * tamanho + coluna)
+     */
+    public int getMove(int index) {
+        return Byte.toUnsignedInt(segment.get(frameStart + GameLogFormat.FRAME_HEADER_BYTES + index));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.gamelog;
+
+import org.example.core.BoardCell;
+
+/**
+ * O formato binário do log de partidas, compartilhado pelo {@link GameLogWriter} e pelo {@link GameLogReader}.
+ *
+ * O log é um diretório de segmentos (`games-000000.log`, `games-000001.log`...), só de escrita no fim.
+ * Cada segmento começa com o magic "TTTL" (int) e a versão (int), seguidos das partidas, uma atrás da outra:
+ * - byte 0: tamanho do tabuleiro
+ * - byte 1: sequência para ganhar
+ * - byte 2: bit 0 = O começou; bits 1..2 = resultado (0 velha, 1 X ganhou, 2 O ganhou)
+ * - byte 3: quantidade de jogadas
+ * - um byte por jogada: a célula (linha * tamanho + coluna), alternando a partir de quem começou
+ *
+ * Uma partida de 3x3 ocupa no máximo 13 bytes. Como as partidas não têm tamanho fixo, uma escrita
+ * interrompida no meio deixa uma partida incompleta no fim do segmento, que o leitor simplesmente ignora.
+ */
+final class GameLogFormat {
+    static final int MAGIC = 0x5454544C; // "TTTL"
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 2 * Integer.BYTES;
+    static final int FRAME_HEADER_BYTES = 4;
+    /**
+     * O maior tabuleiro cujas células cabem em um byte (15x15 = 225)
+     */
+    static final int MAX_CELLS = 255;
+
+    static final int FIRST_PLAYER_O = 1;
+    static final int RESULT_SHIFT = 1;
+    static final int RESULT_DRAW = 0;
+    static final int RESULT_X = 1;
+    static final int RESULT_O = 2;
+
+    private GameLogFormat() {
+    }
+
+    static int flags(BoardCell firstPlayer, BoardCell winner) {
+        final var result = switch (winner) {
+            case X -> RESULT_X;
+            case O -> RESULT_O;
+            default -> RESULT_DRAW;
+        };
+        return (firstPlayer == BoardCell.O ? FIRST_PLAYER_O : 0) | (result << RESULT_SHIFT);
+    }
+
+    static BoardCell firstPlayer(int flags) {
+        return (flags & FIRST_PLAYER_O) != 0 ? BoardCell.O : BoardCell.X;
+    }
+
+    static BoardCell winner(int flags) {
+        return switch ((flags >>> RESULT_SHIFT) & 0b11) {
+            case RESULT_X -> BoardCell.X;
+            case RESULT_O -> BoardCell.O;
+            default -> BoardCell.EMPTY;
+        };
+    }
+
+    static String segmentName(int index) {
+        return String.format("games-%06d.log", index);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.gamelog;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.GameListener;
+import org.example.core.Moves;
+import org.example.core.Player;
+
+/**
+ * Guarda as jogadas de uma partida e manda a partida para o {@link GameLogWriter} quando ela termina.
+ *
+ * Uma instância por sessão (não é thread-safe); o buffer de jogadas é reaproveitado entre as partidas.
+ */
+public class GameLogListener implements GameListener {
+    private final GameLogWriter writer;
+    private byte[] moves = new byte[0];
+    private int moveCount;
+    private BoardCell firstPlayer;
+
+    public GameLogListener(GameLogWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void onTurn(Board board, Player player) {
+        if (firstPlayer == null) {
+            firstPlayer = player.getBoardCell();
+            moveCount = 0;
+            if (moves.length < board.getGeometry().getCellCount()) {
+                moves = new byte[board.getGeometry().getCellCount()];
+            }
+        }
+    }
+
+    @Override
+    public void onMove(Board board, int move, long nanos) {
+        moves[moveCount++] = (byte) Moves.cell(move);
+    }
+
+    @Override
+    public void onGameOver(Board board, BoardCell winner) {
+        writer.append(board.getGeometry(), firstPlayer, winner, moves, moveCount);
+        firstPlayer = null;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.gamelog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê o log de partidas gravado pelo {@link GameLogWriter}.
+ *
+ * Cada segmento é mapeado em memória, então o sistema operacional carrega as páginas sob demanda e
+ * ler bilhões de jogadas não passa pelo heap. As partidas são percorridas por um {@link GameLogCursor},
+ * que lê direto do arquivo mapeado, sem criar objeto nenhum por partida ou jogada.
+ *
+ * O leitor vê os segmentos como estavam quando foi aberto; o que o writer gravar depois não aparece.
+ *
+ * O writer cria o arquivo do segmento antes de gravar o cabeçalho, então um crash nesse meio deixa um
+ * segmento vazio ou com o cabeçalho pela metade. Ele não tem partida nenhuma e é ignorado, como a última
+ * partida cortada no fim de um segmento (e o writer, ao reabrir, segue num segmento novo depois dele).
+ */
+public class GameLogReader {
+    private final List<MappedByteBuffer> segments;
+
+    private GameLogReader(List<MappedByteBuffer> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Mapeia todos os segmentos do diretório, em ordem.
+     *
+     * @param directory o diretório do log
+     * @return o leitor
+     * @throws IOException se algum segmento não puder ser lido ou não for um segmento válido
+     */
+    public static GameLogReader open(Path directory) throws IOException {
+        final var segments = new ArrayList<MappedByteBuffer>();
+        final var last = lastSegmentIndex(directory);
+        for (var index = 0; index <= last; index++) {
+            final var path = directory.resolve(GameLogFormat.segmentName(index));
+            if (!Files.exists(path)) {
+                continue;
+            }
+            try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                // o mapeamento continua válido depois de fechar o canal
+                final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.limit() < GameLogFormat.SEGMENT_HEADER_BYTES) {
+                    // criado, mas o cabeçalho não chegou ao disco: não há partidas aqui
+                    continue;
+                }
+                if (buffer.getInt(0) != GameLogFormat.MAGIC
+                        || buffer.getInt(Integer.BYTES) != GameLogFormat.VERSION) {
+                    throw new IOException("Arquivo não é um segmento de log de partidas válido: " + path);
+                }
+                segments.add(buffer);
+            }
+        }
+        return new GameLogReader(segments);
+    }
+
+    /**
+     * @return um cursor no começo do log; cada cursor anda independente dos outros
+     */
+    public GameLogCursor cursor() {
+        return new GameLogCursor(segments);
+    }
+
+    /**
+     * @return quantos segmentos foram mapeados
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * @param directory o diretório do log
+     * @return o índice do último segmento, ou -1 se não houver nenhum
+     * @throws IOException se o diretório não puder ser listado
+     */
+    static int lastSegmentIndex(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return -1;
+        }
+        var last = -1;
+        try (final var files = Files.newDirectoryStream(directory, "games-*.log")) {
+            for (final var file : files) {
+                final var name = file.getFileName().toString();
+                try {
+                    last = Math.max(last, Integer.parseInt(name.substring("games-".length(), name.length() - ".log".length())));
+                } catch (NumberFormatException e) {
+                    // não é um segmento nosso
+                }
+            }
+        }
+        return last;
+    }
+}
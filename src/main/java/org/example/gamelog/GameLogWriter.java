@@ -0,0 +1,282 @@
+package org.example.gamelog;
+
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grava as partidas terminadas no log binário (veja o formato em {@link GameLogFormat}).
+ *
+ * As sessões só copiam a partida para um buffer em memória ({@link #append}); uma thread dedicada
+ * escreve o buffer inteiro no disco de tempos em tempos e faz um único fsync para todas as partidas
+ * que chegaram nesse meio tempo (group commit). Assim, mil partidas terminando juntas custam um fsync,
+ * não mil. Quem precisa saber que a partida já está no disco chama {@link #awaitDurable(long)} com o
+ * ticket retornado pelo append, e espera no máximo até o próximo fsync.
+ *
+ * Quando o buffer enche antes do próximo flush, o append espera a thread de escrita liberar espaço.
+ * Os segmentos trocam quando passam de `segmentBytes`, e um writer novo sempre começa um segmento novo.
+ */
+public class GameLogWriter implements Closeable {
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+    public static final long DEFAULT_SEGMENT_BYTES = 256L << 20;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long flushIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Avisa a thread de escrita que o buffer encheu ou que o writer está fechando
+     */
+    private final Condition flushRequested = lock.newCondition();
+    /**
+     * Avisa quem espera (por espaço no buffer ou por durabilidade) que um flush terminou
+     */
+    private final Condition flushed = lock.newCondition();
+    /**
+     * As partidas que ainda não foram para o disco; a thread de escrita troca os dois buffers a cada flush
+     */
+    private ByteBuffer active;
+    private ByteBuffer writing;
+    /**
+     * Quantos bytes já entraram no log / quantos já estão no disco com fsync
+     */
+    private long appendedBytes;
+    private long durableBytes;
+    private boolean closed;
+    private IOException failure;
+
+    private FileChannel segment;
+    private int segmentIndex;
+    private long segmentSize;
+    private final Thread flusher;
+
+    /**
+     * @param directory o diretório dos segmentos (é criado se não existir)
+     * @throws IOException se não for possível criar o diretório ou o primeiro segmento
+     */
+    public GameLogWriter(Path directory) throws IOException {
+        this(directory, DEFAULT_BUFFER_BYTES, DEFAULT_SEGMENT_BYTES, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param directory o diretório dos segmentos (é criado se não existir)
+     * @param bufferBytes o tamanho de cada um dos dois buffers em memória
+     * @param segmentBytes a partir de que tamanho começamos um segmento novo (somado a `bufferBytes`, no máximo
+     *                     {@link Integer#MAX_VALUE}: o último lote pode passar do limite, e o {@link GameLogReader}
+     *                     mapeia cada segmento inteiro num buffer só)
+     * @param flushIntervalMillis de quanto em quanto tempo os buffers vão para o disco
+     * @throws IOException se não for possível criar o diretório ou o primeiro segmento
+     */
+    public GameLogWriter(Path directory, int bufferBytes, long segmentBytes, long flushIntervalMillis) throws IOException {
+        if (bufferBytes < GameLogFormat.FRAME_HEADER_BYTES + GameLogFormat.MAX_CELLS) {
+            throw new IllegalArgumentException("O buffer precisa caber pelo menos uma partida");
+        }
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("O tamanho do segmento precisa ser positivo");
+        }
+        if (segmentBytes + bufferBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segmentos de mais de 2 GiB não podem ser mapeados na leitura: "
+                    + segmentBytes + " + " + bufferBytes + " bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.active = ByteBuffer.allocateDirect(bufferBytes);
+        this.writing = ByteBuffer.allocateDirect(bufferBytes);
+
+        Files.createDirectories(directory);
+        this.segmentIndex = GameLogReader.lastSegmentIndex(directory) + 1;
+        openSegment();
+
+        this.flusher = new Thread(this::flushLoop, "game-log-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Coloca uma partida terminada no log. Não espera o disco: use {@link #awaitDurable(long)} para isso.
+     *
+     * @param geometry o tabuleiro da partida
+     * @param firstPlayer quem começou
+     * @param winner quem ganhou, ou EMPTY se deu velha
+     * @param moves as células jogadas, em ordem
+     * @param moveCount quantas posições de `moves` usar
+     * @return o ticket da partida, para {@link #awaitDurable(long)}
+     * @throws IllegalStateException se o writer já foi fechado ou a escrita no disco falhou
+     */
+    public long append(BoardGeometry geometry, BoardCell firstPlayer, BoardCell winner, byte[] moves, int moveCount) {
+        if (geometry.getCellCount() > GameLogFormat.MAX_CELLS) {
+            throw new IllegalArgumentException("O log só suporta tabuleiros de até " + GameLogFormat.MAX_CELLS + " células");
+        }
+        if (geometry.getLayers() > 1) {
+            // o cabeçalho só guarda tamanho e sequência, então a partida voltaria como um tabuleiro plano
+            throw new IllegalArgumentException("O log não suporta tabuleiros com camadas");
+        }
+        final var frameBytes = GameLogFormat.FRAME_HEADER_BYTES + moveCount;
+        lock.lock();
+        try {
+            while (active.remaining() < frameBytes) {
+                checkOpen();
+                // o buffer encheu antes do próximo flush: pedimos um agora e esperamos liberar espaço
+                flushRequested.signal();
+                flushed.awaitUninterruptibly();
+            }
+            checkOpen();
+            active.put((byte) geometry.getSize())
+                    .put((byte) geometry.getWinLength())
+                    .put((byte) GameLogFormat.flags(firstPlayer, winner))
+                    .put((byte) moveCount)
+                    .put(moves, 0, moveCount);
+            appendedBytes += frameBytes;
+            return appendedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Espera a partida do ticket (e todas as anteriores) estar no disco.
+     *
+     * @param ticket o retorno de {@link #append}
+     * @throws UncheckedIOException se a escrita no disco falhou
+     */
+    public void awaitDurable(long ticket) {
+        lock.lock();
+        try {
+            while (durableBytes < ticket) {
+                if (failure != null) {
+                    throw new UncheckedIOException(failure);
+                }
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava o que estiver pendente, espera o fsync e fecha o segmento atual.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("O log de partidas já foi fechado");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("O log de partidas falhou", failure);
+        }
+    }
+
+    /**
+     * A thread de escrita: a cada intervalo (ou quando alguém pede) troca os buffers, escreve e faz fsync.
+     */
+    private void flushLoop() {
+        while (true) {
+            final long target;
+            final boolean last;
+            lock.lock();
+            try {
+                if (!closed && active.position() == 0) {
+                    flushRequested.awaitNanos(flushIntervalNanos);
+                }
+                last = closed;
+                // trocamos os buffers: as sessões continuam escrevendo no outro enquanto este vai para o disco
+                final var full = active;
+                active = writing;
+                writing = full;
+                target = appendedBytes;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            if (writing.position() > 0) {
+                try {
+                    write(writing.flip());
+                } catch (IOException e) {
+                    error = e;
+                }
+                writing.clear();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableBytes = target;
+                }
+                flushed.signalAll();
+                if (last || failure != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(ByteBuffer batch) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            segment.close();
+            segmentIndex++;
+            openSegment();
+        }
+        segmentSize += batch.remaining();
+        while (batch.hasRemaining()) {
+            segment.write(batch);
+        }
+        // um fsync para todas as partidas do lote
+        segment.force(false);
+    }
+
+    private void openSegment() throws IOException {
+        segment = FileChannel.open(directory.resolve(GameLogFormat.segmentName(segmentIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        final var header = ByteBuffer.allocate(GameLogFormat.SEGMENT_HEADER_BYTES)
+                .putInt(GameLogFormat.MAGIC)
+                .putInt(GameLogFormat.VERSION)
+                .flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+        segmentSize = GameLogFormat.SEGMENT_HEADER_BYTES;
+    }
+}
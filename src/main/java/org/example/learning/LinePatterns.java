@@ -0,0 +1,117 @@
+package org.example.learning;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+
+import java.util.Arrays;
+
+/**
+ * Os padrões das linhas de um tabuleiro, mantidos jogada a jogada, para avaliar a {@link ValueTable}
+ * sem percorrer o tabuleiro todo.
+ *
+ * Uma jogada só muda as linhas que passam pela célula, então o valor de cada filho sai da soma do pai
+ * corrigida nessas poucas linhas. É isso que deixa o {@link ValueTableActionGenerator} escolher em
+ * microssegundos e o {@link TemporalDifferenceTrainer} jogar milhares de partidas por segundo.
+ *
+ * Não é thread-safe: use uma instância por thread (os pesos podem ser compartilhados).
+ */
+final class LinePatterns {
+    private final ValueTable table;
+    private final float[] weights;
+    private final int[][] cellLines;
+    /**
+     * O padrão de cada linha do ponto de vista do X
+     */
+    private final int[] patterns;
+
+    LinePatterns(ValueTable table) {
+        this.table = table;
+        this.weights = table.weights;
+        final var geometry = table.getGeometry();
+        this.cellLines = new int[geometry.getCellCount()][];
+        for (var cell = 0; cell < cellLines.length; cell++) {
+            cellLines[cell] = geometry.getCellLines(cell);
+        }
+        this.patterns = new int[table.lineCount()];
+    }
+
+    /**
+     * Começa de um tabuleiro vazio.
+     */
+    void clear() {
+        Arrays.fill(patterns, 0);
+    }
+
+    /**
+     * Lê os padrões de um tabuleiro qualquer (da geometria da tabela).
+     */
+    void load(Board board) {
+        for (var line = 0; line < patterns.length; line++) {
+            patterns[line] = table.pattern(board, line);
+        }
+    }
+
+    /**
+     * @return a soma dos pesos do ponto de vista de `player`
+     */
+    double sum(BoardCell player) {
+        var sum = 0.0;
+        for (var line = 0; line < patterns.length; line++) {
+            sum += weights[table.index(line, patterns[line], player)];
+        }
+        return sum;
+    }
+
+    /**
+     * @param opponentSum a soma atual do ponto de vista de quem vai responder (veja {@link #sum(BoardCell)})
+     * @param cell uma célula vazia
+     * @param player quem joga nela
+     * @return a soma depois da jogada, do ponto de vista do adversário de `player` (quem terá a vez)
+     */
+    double childSum(double opponentSum, int cell, BoardCell player) {
+        final var opponent = player.opponent();
+        final var lines = cellLines[cell];
+        var sum = opponentSum;
+        for (var i = 0; i < lines.length; i++) {
+            final var line = lines[i];
+            final var pattern = patterns[line];
+            sum += weights[table.index(line, pattern + table.digit(cell, i, player), opponent)]
+                    - weights[table.index(line, pattern, opponent)];
+        }
+        return sum;
+    }
+
+    /**
+     * @return se jogar em `cell` completa uma linha de `player`
+     */
+    boolean wins(int cell, BoardCell player) {
+        final var full = table.fullPattern(player);
+        final var lines = cellLines[cell];
+        for (var i = 0; i < lines.length; i++) {
+            if (patterns[lines[i]] + table.digit(cell, i, player) == full) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aplica uma jogada nos padrões.
+     */
+    void play(int cell, BoardCell player) {
+        final var lines = cellLines[cell];
+        for (var i = 0; i < lines.length; i++) {
+            patterns[lines[i]] += table.digit(cell, i, player);
+        }
+    }
+
+    /**
+     * Soma `delta` no peso de cada linha da posição atual, do ponto de vista de `player` (o passo do gradiente).
+     * Não é atômico: threads treinando juntas podem perder uma atualização ou outra, e tudo bem.
+     */
+    void update(BoardCell player, float delta) {
+        for (var line = 0; line < patterns.length; line++) {
+            weights[table.index(line, patterns[line], player)] += delta;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.learning;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+import org.example.core.WorkerPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Treina uma {@link ValueTable} jogando contra si mesma, com aprendizado por diferença temporal (TD(0)).
+ *
+ * Em cada posição o jogador da vez escolhe a jogada gulosa da tabela (ou uma aleatória, com probabilidade
+ * ε, para explorar) e puxa o valor da posição na direção do valor depois da jogada: 1 se a jogada
+ * ganhou, 0 se empatou e, fora isso, menos o valor da posição seguinte para o adversário (quem é bom
+ * para um é ruim para o outro). O passo é o gradiente da tangente hiperbólica, aplicado no peso de
+ * cada linha.
+ *
+ * As threads jogam partidas independentes e atualizam o mesmo `float[]` sem lock nenhum (Hogwild):
+ * cada jogada só mexe em poucos pesos, então colisões são raras, e uma atualização perdida aqui e ali
+ * não atrapalha o treino. Os pesos são compartilhados sem cópia por thread.
+ *
+ * Uso: `java org.example.learning.TemporalDifferenceTrainer <arquivo> [tamanho sequência] [partidas] [threads]`
+ * (o padrão é 7x7 com quatro em linha, 100 mil partidas e uma thread por núcleo). Se o arquivo já existir,
+ * o treino continua dos pesos dele.
+ */
+public class TemporalDifferenceTrainer implements AutoCloseable {
+    /**
+     * Passo padrão do gradiente
+     */
+    public static final float DEFAULT_ALPHA = 0.01f;
+    /**
+     * Probabilidade padrão de uma jogada aleatória
+     */
+    public static final double DEFAULT_EPSILON = 0.1;
+    /**
+     * Quantas partidas cada thread pega por vez
+     */
+    private static final int CHUNK_GAMES = 64;
+    // índices das contagens de resultados
+    private static final int X_WINS = 0;
+    private static final int O_WINS = 1;
+    private static final int DRAWS = 2;
+    private static final int MOVES = 3;
+
+    private final ValueTable table;
+    private final float alpha;
+    private final double epsilon;
+    private final SplittableRandom seeds;
+    private final WorkerPool pool;
+    private final AtomicLongArray totals = new AtomicLongArray(4);
+
+    /**
+     * @param table a tabela treinada (os pesos são alterados no lugar)
+     * @param threads quantas threads jogam (contando a que chama)
+     * @param alpha o passo do gradiente
+     * @param epsilon a probabilidade de uma jogada aleatória
+     * @param seed a semente dos números aleatórios (com mais de uma thread a ordem das atualizações varia)
+     */
+    public TemporalDifferenceTrainer(ValueTable table, int threads, float alpha, double epsilon, long seed) {
+        if (alpha <= 0) {
+            throw new IllegalArgumentException("O passo precisa ser positivo");
+        }
+        if (epsilon < 0 || epsilon > 1) {
+            throw new IllegalArgumentException("A exploração precisa estar entre 0 e 1");
+        }
+        this.table = table;
+        this.alpha = alpha;
+        this.epsilon = epsilon;
+        this.seeds = new SplittableRandom(seed);
+        this.pool = new WorkerPool("td-trainer", threads);
+    }
+
+    /**
+     * Desliga o pool das threads auxiliares (depois disso o treino não roda mais).
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Uso: TemporalDifferenceTrainer <arquivo> [tamanho sequência] [partidas] [threads]");
+            return;
+        }
+        final var path = Path.of(args[0]);
+        final var geometry = args.length >= 3
+                ? BoardGeometry.of(Integer.parseInt(args[1]), Integer.parseInt(args[2]))
+                : BoardGeometry.of(7, 4);
+        final var games = args.length >= 4 ? Long.parseLong(args[3]) : 100_000;
+        final var threads = args.length >= 5 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        final ValueTable table;
+        if (Files.exists(path)) {
+            table = ValueTable.load(path);
+            if (table.getGeometry() != geometry) {
+                throw new IllegalArgumentException("O arquivo tem uma tabela de outro tabuleiro: " + path);
+            }
+        } else {
+            table = ValueTable.create(geometry);
+        }
+        try (final var trainer = new TemporalDifferenceTrainer(table, threads, DEFAULT_ALPHA, DEFAULT_EPSILON, System.nanoTime())) {
+            // treinamos em rodadas para mostrar o progresso e salvar de vez em quando
+            final var rounds = 10;
+            for (var round = 0; round < rounds; round++) {
+                final var roundGames = games / rounds + (round < games % rounds ? 1 : 0);
+                final var before = trainer.getResults();
+                final var start = System.nanoTime();
+                trainer.train(roundGames);
+                final var seconds = (System.nanoTime() - start) / 1e9;
+                final var after = trainer.getResults();
+                System.out.printf("%,d partidas (%,.0f/s, %,.0f jogadas/s): X %d, O %d, velha %d%n",
+                        after[X_WINS] + after[O_WINS] + after[DRAWS], roundGames / seconds,
+                        (after[MOVES] - before[MOVES]) / seconds, after[X_WINS] - before[X_WINS],
+                        after[O_WINS] - before[O_WINS], after[DRAWS] - before[DRAWS]);
+                table.save(path);
+            }
+        }
+    }
+
+    /**
+     * Joga `games` partidas de treino, dividindo entre as threads.
+     * @param games quantas partidas
+     */
+    public void train(long games) {
+        final var nextChunk = new AtomicLong();
+        // as sementes são tiradas antes de começar, sempre na mesma ordem
+        final var randoms = new SplittableRandom[pool.getThreads()];
+        for (var i = 0; i < randoms.length; i++) {
+            randoms[i] = seeds.split();
+        }
+        pool.run(worker -> playChunks(games, nextChunk, randoms[worker]));
+    }
+
+    /**
+     * @return quantas partidas de treino X ganhou, O ganhou e empataram, e quantas jogadas foram feitas, desde o começo
+     */
+    public long[] getResults() {
+        final var results = new long[totals.length()];
+        for (var i = 0; i < results.length; i++) {
+            results[i] = totals.get(i);
+        }
+        return results;
+    }
+
+    /**
+     * O laço de uma thread: pega blocos de partidas até acabar.
+     */
+    private void playChunks(long games, AtomicLong nextChunk, SplittableRandom random) {
+        final var geometry = table.getGeometry();
+        final var empty = new Board(geometry);
+        final var board = new Board(geometry);
+        final var patterns = new LinePatterns(table);
+        final var counts = new long[totals.length()];
+        for (var start = nextChunk.getAndAdd(CHUNK_GAMES); start < games; start = nextChunk.getAndAdd(CHUNK_GAMES)) {
+            final var end = Math.min(games, start + CHUNK_GAMES);
+            for (var game = start; game < end; game++) {
+                board.copyFrom(empty);
+                patterns.clear();
+                final var winner = playGame(board, patterns, random);
+                counts[winner == BoardCell.X ? X_WINS : winner == BoardCell.O ? O_WINS : DRAWS]++;
+                counts[MOVES] += board.getMoveStackSize();
+            }
+        }
+        for (var i = 0; i < counts.length; i++) {
+            totals.addAndGet(i, counts[i]);
+        }
+    }
+
+    /**
+     * Joga uma partida de treino, atualizando os pesos a cada jogada.
+     * @return o vencedor, ou {@link BoardCell#EMPTY} se deu velha
+     */
+    private BoardCell playGame(Board board, LinePatterns patterns, SplittableRandom random) {
+        var player = BoardCell.X;
+        while (true) {
+            final var opponent = player.opponent();
+            final var value = Math.tanh(patterns.sum(player));
+
+            final int cell;
+            if (random.nextDouble() < epsilon) {
+                var remaining = random.nextInt(board.getEmptyCellCount());
+                var candidate = 0;
+                while (!board.isCellEmpty(candidate) || remaining-- > 0) {
+                    candidate++;
+                }
+                cell = candidate;
+            } else {
+                cell = ValueTableActionGenerator.chooseCell(patterns, board, player);
+            }
+
+            final var won = patterns.wins(cell, player);
+            final var full = board.getEmptyCellCount() == 1;
+            final double target;
+            if (won) {
+                target = 1;
+            } else if (full) {
+                target = 0;
+            } else {
+                target = -Math.tanh(patterns.childSum(patterns.sum(opponent), cell, player));
+            }
+            patterns.update(player, (float) (alpha * (target - value) * (1 - value * value)));
+
+            board.makeMove(Moves.of(cell, player));
+            patterns.play(cell, player);
+            if (won) {
+                return player;
+            }
+            if (full) {
+                return BoardCell.EMPTY;
+            }
+            player = opponent;
+        }
+    }
+}
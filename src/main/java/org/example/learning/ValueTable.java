@@ -0,0 +1,298 @@
+package org.example.learning;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.BoardSymmetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Uma função de valor aprendida por self-play (veja {@link TemporalDifferenceTrainer}): quanto uma posição
+ * vale para quem tem a vez, entre -1 (derrota) e 1 (vitória).
+ *
+ * As features são as linhas vencedoras do tabuleiro. Cada linha está num de 3^k padrões (cada célula vazia,
+ * de quem tem a vez ou do adversário), e cada padrão de cada linha tem um peso; o valor da posição é a
+ * tangente hiperbólica da soma dos pesos das linhas. Para aprender mais rápido, linhas que uma rotação ou
+ * reflexão leva uma na outra dividem os mesmos pesos, e um padrão e o seu espelho (a linha lida ao
+ * contrário) também.
+ *
+ * Os pesos ficam num `float[]` só, sem objeto nenhum por feature, e o arquivo salvo é esse array cru
+ * depois de um cabeçalho pequeno, então carregar é um read só.
+ *
+ * Formato do arquivo (little-endian): magic "TTTV" (int), versão (int), tamanho, sequência e camadas do
+ * tabuleiro (int cada), quantidade de pesos (int) e os pesos (float cada).
+ */
+public final class ValueTable {
+    static final int MAGIC = 0x56545454; // "TTTV" lido em little-endian
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    private final BoardGeometry geometry;
+    /**
+     * Quantos padrões uma linha tem (3^k)
+     */
+    private final int patternCount;
+    /**
+     * lineClass[line] é o grupo de linhas simétricas da linha, já multiplicado por {@link #patternCount}
+     */
+    private final int[] lineOffset;
+    /**
+     * canonical[p] é o padrão ou o seu espelho, o que for menor (os dois usam o mesmo peso)
+     */
+    private final int[] canonical;
+    /**
+     * swapped[p] é o padrão visto pelo outro jogador (as peças de um viram do outro)
+     */
+    private final int[] swapped;
+    /**
+     * cellPowers[cell][i] é quanto a célula soma no padrão da i-ésima linha que passa por ela
+     * (3^posição, o dígito de X; o de O é o dobro)
+     */
+    private final int[][] cellPowers;
+    final float[] weights;
+
+    private ValueTable(BoardGeometry geometry, float[] weights) {
+        this.geometry = geometry;
+        final var winLength = geometry.getWinLength();
+        var patterns = 1;
+        for (var i = 0; i < winLength; i++) {
+            patterns *= 3;
+        }
+        this.patternCount = patterns;
+        this.lineOffset = buildLineClasses(geometry);
+        for (var line = 0; line < lineOffset.length; line++) {
+            lineOffset[line] *= patternCount;
+        }
+        this.canonical = new int[patternCount];
+        this.swapped = new int[patternCount];
+        for (var pattern = 0; pattern < patternCount; pattern++) {
+            var reversed = 0;
+            var swap = 0;
+            var rest = pattern;
+            var power = 1;
+            for (var i = 0; i < winLength; i++) {
+                final var digit = rest % 3;
+                rest /= 3;
+                reversed = reversed * 3 + digit;
+                swap += (digit == 0 ? 0 : 3 - digit) * power;
+                power *= 3;
+            }
+            canonical[pattern] = Math.min(pattern, reversed);
+            swapped[pattern] = swap;
+        }
+        this.cellPowers = new int[geometry.getCellCount()][];
+        for (var cell = 0; cell < cellPowers.length; cell++) {
+            final var lines = geometry.getCellLines(cell);
+            cellPowers[cell] = new int[lines.length];
+            for (var i = 0; i < lines.length; i++) {
+                final var cells = geometry.getLineCells(lines[i]);
+                var power = 1;
+                for (var position = 0; cells[position] != cell; position++) {
+                    power *= 3;
+                }
+                cellPowers[cell][i] = power;
+            }
+        }
+        final var size = Arrays.stream(lineOffset).max().orElse(0) + patternCount;
+        if (weights == null) {
+            this.weights = new float[size];
+        } else if (weights.length != size) {
+            throw new IllegalArgumentException("A tabela tem " + weights.length + " pesos, mas o tabuleiro precisa de " + size);
+        } else {
+            this.weights = weights;
+        }
+    }
+
+    /**
+     * @param geometry o tabuleiro
+     * @return uma tabela nova, com todos os pesos zerados (toda posição vale 0)
+     */
+    public static ValueTable create(BoardGeometry geometry) {
+        return new ValueTable(geometry, null);
+    }
+
+    /**
+     * Carrega uma tabela salva por {@link #save(Path)}.
+     * @param path o arquivo
+     * @return a tabela
+     * @throws IOException se o arquivo não existir, estiver truncado ou não for uma tabela
+     */
+    public static ValueTable load(Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, path);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Arquivo não é uma tabela de valores: " + path);
+            }
+            final var size = header.getInt();
+            final var winLength = header.getInt();
+            final var layers = header.getInt();
+            final var count = header.getInt();
+            final var geometry = layers > 1 ? BoardGeometry.cube(size) : BoardGeometry.of(size, winLength);
+
+            final var body = ByteBuffer.allocate(count * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, body, path);
+            body.flip();
+            final var weights = new float[count];
+            body.asFloatBuffer().get(weights);
+            return new ValueTable(geometry, weights);
+        }
+    }
+
+    /**
+     * Grava os pesos (é seguro chamar com um treino rodando, só que os pesos gravados podem misturar
+     * atualizações de antes e de depois).
+     *
+     * @param path o arquivo (é sobrescrito)
+     * @throws IOException se não for possível gravar
+     */
+    public void save(Path path) throws IOException {
+        final var buffer = ByteBuffer.allocate(HEADER_BYTES + weights.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(geometry.getSize())
+                .putInt(geometry.getWinLength())
+                .putInt(geometry.getLayers())
+                .putInt(weights.length);
+        buffer.asFloatBuffer().put(weights);
+        buffer.position(buffer.limit());
+        buffer.flip();
+        try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * @return o tabuleiro para o qual a tabela foi treinada
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return quantos pesos a tabela tem
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * @param board é o tabuleiro atual (da mesma geometria da tabela)
+     * @param player é o jogador da vez
+     * @return o valor da posição para `player`, entre -1 e 1
+     */
+    public float evaluate(Board board, BoardCell player) {
+        return (float) Math.tanh(sum(board, player));
+    }
+
+    /**
+     * @return a soma dos pesos das linhas, do ponto de vista de `player` (antes da tangente hiperbólica)
+     */
+    double sum(Board board, BoardCell player) {
+        var sum = 0.0;
+        for (var line = 0; line < lineOffset.length; line++) {
+            sum += weights[index(line, pattern(board, line), player)];
+        }
+        return sum;
+    }
+
+    /**
+     * @return o padrão da linha do ponto de vista do X (dígito 1 para X, 2 para O)
+     */
+    int pattern(Board board, int line) {
+        var pattern = 0;
+        var power = 1;
+        for (final var cell : geometry.getLineCells(line)) {
+            final var boardCell = board.getBoardCell(cell);
+            if (boardCell != BoardCell.EMPTY) {
+                pattern += boardCell == BoardCell.X ? power : 2 * power;
+            }
+            power *= 3;
+        }
+        return pattern;
+    }
+
+    /**
+     * @param line a linha
+     * @param xPattern o padrão da linha do ponto de vista do X
+     * @param player quem tem a vez
+     * @return a posição do peso no array
+     */
+    int index(int line, int xPattern, BoardCell player) {
+        return lineOffset[line] + canonical[player == BoardCell.X ? xPattern : swapped[xPattern]];
+    }
+
+    /**
+     * @return quanto a peça de `player` na célula soma no padrão (do ponto de vista do X) da i-ésima linha dela
+     */
+    int digit(int cell, int i, BoardCell player) {
+        return player == BoardCell.X ? cellPowers[cell][i] : 2 * cellPowers[cell][i];
+    }
+
+    /**
+     * @return o padrão (do ponto de vista do X) de uma linha completa de `player`
+     */
+    int fullPattern(BoardCell player) {
+        final var ones = (patternCount - 1) / 2;
+        return player == BoardCell.X ? ones : 2 * ones;
+    }
+
+    int lineCount() {
+        return lineOffset.length;
+    }
+
+    /**
+     * Agrupa as linhas por simetria: linhas que uma das 8 simetrias leva uma na outra ficam no mesmo grupo.
+     * @return o grupo de cada linha (o menor índice de linha do grupo, renumerado a partir de 0)
+     */
+    private static int[] buildLineClasses(BoardGeometry geometry) {
+        final var byCells = new HashMap<String, Integer>();
+        for (var line = 0; line < geometry.getLineCount(); line++) {
+            byCells.put(cellsKey(geometry.getLineCells(line)), line);
+        }
+        final var symmetry = geometry.getSymmetry();
+        final var classes = new int[geometry.getLineCount()];
+        final var renumbered = new HashMap<Integer, Integer>();
+        for (var line = 0; line < classes.length; line++) {
+            var representative = line;
+            for (var s = 0; s < BoardSymmetry.SYMMETRY_COUNT; s++) {
+                final var cells = geometry.getLineCells(line).clone();
+                for (var i = 0; i < cells.length; i++) {
+                    cells[i] = symmetry.apply(s, cells[i]);
+                }
+                final var image = byCells.get(cellsKey(cells));
+                if (image != null) {
+                    representative = Math.min(representative, image);
+                }
+            }
+            classes[line] = renumbered.computeIfAbsent(representative, ignored -> renumbered.size());
+        }
+        return classes;
+    }
+
+    private static String cellsKey(int[] cells) {
+        final var sorted = cells.clone();
+        Arrays.sort(sorted);
+        return Arrays.toString(sorted);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Tabela de valores truncada: " + path);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.learning;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Moves;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+
+/**
+ * Action generator que não busca nada: joga onde a {@link ValueTable} diz que o adversário fica pior.
+ *
+ * Cada jogada olha só um nível: ganha se puder, bloqueia se o adversário ameaça ganhar na próxima e,
+ * fora isso, escolhe o filho de menor valor para quem responde. Como os filhos são avaliados só nas
+ * linhas que passam pela célula jogada (veja {@link LinePatterns}), uma jogada custa microssegundos
+ * mesmo no 15x15, e a força vem toda do treino.
+ *
+ * Não é thread-safe: use uma instância por thread (a tabela pode ser compartilhada).
+ */
+public class ValueTableActionGenerator implements ActionGenerator {
+    private final ValueTable table;
+    private final LinePatterns patterns;
+
+    /**
+     * @param table a tabela treinada (da mesma geometria dos tabuleiros jogados)
+     */
+    public ValueTableActionGenerator(ValueTable table) {
+        this.table = table;
+        this.patterns = new LinePatterns(table);
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var boardCell = player.getBoardCell();
+        return Moves.of(getBestCell(board, boardCell), boardCell);
+    }
+
+    /**
+     * @param board é o tabuleiro atual (da geometria da tabela, com o jogo em andamento)
+     * @param player é o jogador da vez
+     * @return a célula escolhida
+     */
+    public int getBestCell(Board board, BoardCell player) {
+        if (board.getGeometry() != table.getGeometry()) {
+            throw new IllegalArgumentException("A tabela foi treinada para outro tabuleiro");
+        }
+        patterns.load(board);
+        return chooseCell(patterns, board, player);
+    }
+
+    /**
+     * A escolha gulosa, a partir de padrões já carregados. O {@link TemporalDifferenceTrainer} usa a mesma.
+     *
+     * @return a célula escolhida, ou -1 se o tabuleiro estiver cheio
+     */
+    static int chooseCell(LinePatterns patterns, Board board, BoardCell player) {
+        final var opponent = player.opponent();
+        final var opponentSum = patterns.sum(opponent);
+        var block = -1;
+        var best = -1;
+        var bestSum = Double.POSITIVE_INFINITY;
+        final var cellCount = board.getGeometry().getCellCount();
+        for (var cell = 0; cell < cellCount; cell++) {
+            if (!board.isCellEmpty(cell)) {
+                continue;
+            }
+            if (patterns.wins(cell, player)) {
+                return cell;
+            }
+            if (block < 0 && patterns.wins(cell, opponent)) {
+                block = cell;
+            }
+            // o valor do filho é -tanh(soma do adversário), então o melhor é a menor soma
+            final var sum = patterns.childSum(opponentSum, cell, player);
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = cell;
+            }
+        }
+        return block >= 0 ? block : best;
+    }
+
+    @Override
+    public String toString() {
+        return "ValueTableActionGenerator[" + table.getGeometry().getSize() + "x" + table.getGeometry().getSize()
+                + ", " + table.size() + " pesos]";
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.learning;
+
+import org.example.core.AlphaBetaSearch;
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Evaluator;
+
+/**
+ * Heurística para a {@link AlphaBetaSearch} que usa uma {@link ValueTable} treinada no lugar de pesos
+ * escolhidos à mão (como os do {@link org.example.core.OpenLinesEvaluator}).
+ *
+ * Só lê os pesos, então é thread-safe e pode ser dividida por todas as threads de uma busca.
+ */
+public class ValueTableEvaluator implements Evaluator {
+    /**
+     * Quanto vale a certeza de vitória (valor 1 da tabela); fica bem abaixo de
+     * {@link AlphaBetaSearch#MAX_HEURISTIC_SCORE}, então nunca se confunde com uma vitória de verdade
+     */
+    public static final int SCALE = 10_000;
+
+    private final ValueTable table;
+
+    /**
+     * @param table a tabela treinada (da mesma geometria dos tabuleiros avaliados)
+     */
+    public ValueTableEvaluator(ValueTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public int evaluate(Board board, BoardCell player) {
+        return Math.round(table.evaluate(board, player) * SCALE);
+    }
+}
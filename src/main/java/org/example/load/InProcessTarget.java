@@ -0,0 +1,111 @@
+package org.example.load;
+
+import org.example.core.ActionGenerator;
+import org.example.core.BestMoveCache;
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.IterativeDeepeningActionGenerator;
+import org.example.core.MiniMaxActionGenerator;
+import org.example.core.Moves;
+import org.example.core.OPlayer;
+import org.example.core.OpenLinesEvaluator;
+import org.example.core.SearchBudget;
+import org.example.core.TranspositionTable;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Alvo que joga contra os bots direto na JVM, sem rede: mede só o custo das buscas e da fila do pool.
+ *
+ * Os bots são montados como os do servidor (MiniMax no 3x3, aprofundamento iterativo com tempo limitado nos
+ * maiores, tabela pequena por sessão e o {@link BestMoveCache#shared()}), e as buscas rodam num pool com
+ * uma quantidade fixa de threads, também como no servidor. Assim a saturação aparece no mesmo lugar: a
+ * fila do pool.
+ */
+public class InProcessTarget implements LoadTarget {
+    private static final int BOT_TABLE_SIZE = 1 << 8;
+
+    private final ExecutorService botPool;
+    private final long botMillisPerMove;
+
+    /**
+     * @param botThreads quantas buscas podem rodar ao mesmo tempo
+     * @param botMillisPerMove o tempo de cada busca em tabuleiros maiores que 3x3
+     */
+    public InProcessTarget(int botThreads, long botMillisPerMove) {
+        if (botThreads < 1) {
+            throw new IllegalArgumentException("É preciso pelo menos uma thread");
+        }
+        this.botMillisPerMove = botMillisPerMove;
+        this.botPool = Executors.newFixedThreadPool(botThreads, runnable -> {
+            final var thread = new Thread(runnable, "load-bot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Session open() {
+        return new InProcessSession();
+    }
+
+    @Override
+    public void close() {
+        botPool.shutdownNow();
+    }
+
+    private ActionGenerator createBot(BoardGeometry geometry) {
+        final var transpositionTable = new TranspositionTable(BOT_TABLE_SIZE, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        if (geometry.getCellCount() <= 9) {
+            final var bot = new MiniMaxActionGenerator(transpositionTable);
+            bot.setBestMoveCache(BestMoveCache.shared());
+            return bot;
+        }
+        final var bot = new IterativeDeepeningActionGenerator(SearchBudget.ofMillis(botMillisPerMove),
+                new OpenLinesEvaluator(), transpositionTable);
+        bot.setBestMoveCache(BestMoveCache.shared());
+        return bot;
+    }
+
+    private final class InProcessSession implements Session {
+        private Board board;
+        private OPlayer bot;
+
+        @Override
+        public int start(BoardGeometry geometry) throws IOException {
+            board = new Board(geometry);
+            bot = new OPlayer(createBot(geometry));
+            return ThreadLocalRandom.current().nextBoolean() ? CLIENT_FIRST : botMove();
+        }
+
+        @Override
+        public int move(int cell) throws IOException {
+            board.makeMove(Moves.of(cell, BoardCell.X));
+            return board.isGameOver() ? GAME_OVER : botMove();
+        }
+
+        private int botMove() throws IOException {
+            final int move;
+            try {
+                move = botPool.submit(() -> bot.getMove(board)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrompido esperando o bot", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Falha na busca do bot", e.getCause());
+            }
+            board.makeMove(move);
+            return Moves.cell(move);
+        }
+
+        @Override
+        public void close() {
+            board = null;
+        }
+    }
+}
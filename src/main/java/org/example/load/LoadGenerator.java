@@ -0,0 +1,264 @@
+package org.example.load;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+import org.example.metrics.ConcurrentLatencyHistogram;
+import org.example.server.GameServer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga: simula milhares de clientes jogando contra os bots, para achar a taxa em que o
+ * servidor satura antes de cada release.
+ *
+ * A agenda é de malha aberta: os clientes chegam numa taxa fixa (uma partida a cada `1 / taxa` segundos),
+ * independente de quantas partidas ainda estão em andamento, como acontece com clientes de verdade. Cada
+ * chegada vira uma thread virtual que abre uma sessão no {@link LoadTarget}, joga uma partida inteira
+ * (jogadas sorteadas ou de um roteiro) e fecha. Num gerador de malha fechada, um alvo lento atrasaria as
+ * próximas requisições e as latências ruins nunca seriam medidas (a omissão coordenada); aqui toda
+ * latência é medida a partir do instante em que a partida ou jogada deveria ter começado pela agenda.
+ *
+ * As latências vão para histogramas log-lineares ({@link ConcurrentLatencyHistogram}) e o resultado de cada
+ * rodada é um {@link LoadReport} com p50/p99/p99.9 e vazão.
+ *
+ * Uso: `java org.example.load.LoadGenerator <partidas/s[,partidas/s...]> <segundos por taxa>
+ * [inprocess|loopback|host:porta] [tamanho sequência] [threads para os bots] [roteiro]`. O alvo padrão é
+ * `inprocess` (os bots direto na JVM); `loopback` sobe um {@link GameServer} nesta JVM e joga pela rede local.
+ * O roteiro são células separadas por vírgula, que o cliente tenta em ordem (sem roteiro, ele sorteia).
+ */
+public class LoadGenerator {
+    /**
+     * Quantas partidas podem estar em andamento ao mesmo tempo; as chegadas além disso são descartadas
+     * (e contadas) para o gerador não derrubar a própria JVM quando o alvo trava
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 50_000;
+
+    private final LoadTarget target;
+    private final BoardGeometry geometry;
+    /**
+     * As células que o cliente tenta em ordem (null para sortear)
+     */
+    private final int[] script;
+    private final long thinkNanos;
+    private final int maxInFlight;
+    private final SplittableRandom seeds;
+
+    /**
+     * Clientes que sorteiam as jogadas e respondem na hora.
+     *
+     * @param target contra quem jogar
+     * @param geometry o tabuleiro das partidas
+     */
+    public LoadGenerator(LoadTarget target, BoardGeometry geometry) {
+        this(target, geometry, null, 0, DEFAULT_MAX_IN_FLIGHT, 42);
+    }
+
+    /**
+     * @param target contra quem jogar
+     * @param geometry o tabuleiro das partidas
+     * @param script as células que o cliente tenta em ordem (a primeira vazia é jogada; se nenhuma estiver,
+     *               ele sorteia), ou null para sempre sortear
+     * @param thinkMillis quanto o cliente "pensa" antes de cada jogada
+     * @param maxInFlight quantas partidas podem estar em andamento ao mesmo tempo
+     * @param seed a semente dos sorteios
+     */
+    public LoadGenerator(LoadTarget target, BoardGeometry geometry, int[] script, long thinkMillis, int maxInFlight, long seed) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("É preciso permitir pelo menos uma partida em andamento");
+        }
+        if (script != null) {
+            for (final var cell : script) {
+                if (cell < 0 || cell >= geometry.getCellCount()) {
+                    throw new IllegalArgumentException("Célula fora do tabuleiro no roteiro: " + cell);
+                }
+            }
+        }
+        this.target = target;
+        this.geometry = geometry;
+        this.script = script;
+        this.thinkNanos = TimeUnit.MILLISECONDS.toNanos(thinkMillis);
+        this.maxInFlight = maxInFlight;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: LoadGenerator <partidas/s[,partidas/s...]> <segundos por taxa> "
+                    + "[inprocess|loopback|host:porta] [tamanho sequência] [threads para os bots] [roteiro]");
+            return;
+        }
+        final var rates = Arrays.stream(args[0].split(",")).mapToDouble(Double::parseDouble).toArray();
+        final var seconds = Double.parseDouble(args[1]);
+        final var targetName = args.length >= 3 ? args[2] : "inprocess";
+        final var geometry = args.length >= 5
+                ? BoardGeometry.of(Integer.parseInt(args[3]), Integer.parseInt(args[4]))
+                : BoardGeometry.STANDARD;
+        final var botThreads = args.length >= 6 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        final var script = args.length >= 7 ? Arrays.stream(args[6].split(",")).mapToInt(Integer::parseInt).toArray() : null;
+
+        GameServer server = null;
+        final LoadTarget target;
+        if (targetName.equals("inprocess")) {
+            target = new InProcessTarget(botThreads, GameServer.BOT_MILLIS_PER_MOVE);
+        } else if (targetName.equals("loopback")) {
+            server = new GameServer(0, botThreads);
+            final var serving = server;
+            final var thread = new Thread(() -> {
+                try {
+                    serving.serve();
+                } catch (IOException e) {
+                    System.err.println("Servidor de loopback parou: " + e.getMessage());
+                }
+            }, "loopback-server");
+            thread.setDaemon(true);
+            thread.start();
+            target = new SocketTarget("127.0.0.1", server.getPort());
+        } else {
+            final var separator = targetName.lastIndexOf(':');
+            target = new SocketTarget(targetName.substring(0, separator), Integer.parseInt(targetName.substring(separator + 1)));
+        }
+
+        try (target) {
+            final var generator = new LoadGenerator(target, geometry, script, 0, DEFAULT_MAX_IN_FLIGHT, System.nanoTime());
+            for (final var rate : rates) {
+                System.out.println(generator.run(rate, (long) (seconds * 1000)));
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * Uma rodada: clientes chegando na taxa pedida durante `durationMillis`, e depois a espera pelas
+     * partidas que ainda estão em andamento.
+     *
+     * @param gamesPerSecond a taxa de chegada
+     * @param durationMillis por quanto tempo chegam clientes
+     * @return as medidas da rodada
+     */
+    public LoadReport run(double gamesPerSecond, long durationMillis) {
+        if (gamesPerSecond <= 0) {
+            throw new IllegalArgumentException("A taxa precisa ser positiva");
+        }
+        final var run = new Run();
+        final var interval = 1e9 / gamesPerSecond;
+        final var duration = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        final var start = System.nanoTime();
+        var inFlightAtHalf = -1L;
+        var inFlightAtEnd = 0L;
+        try (final var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var arrival = 0L; ; arrival++) {
+                // a agenda é fixa: o instante de cada chegada não depende de quando a anterior saiu
+                final var offset = (long) (arrival * interval);
+                if (offset >= duration) {
+                    inFlightAtEnd = run.inFlight.get();
+                    break;
+                }
+                if (inFlightAtHalf < 0 && offset >= duration / 2) {
+                    inFlightAtHalf = run.inFlight.get();
+                }
+                final var intended = start + offset;
+                for (var now = System.nanoTime(); now < intended; now = System.nanoTime()) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                run.scheduleLag.record(System.nanoTime() - intended);
+                if (run.inFlight.get() >= maxInFlight) {
+                    run.dropped.increment();
+                    continue;
+                }
+                run.inFlight.incrementAndGet();
+                final var seed = seeds.nextLong();
+                clients.submit(() -> {
+                    try {
+                        playGame(run, intended, new SplittableRandom(seed));
+                    } finally {
+                        run.inFlight.decrementAndGet();
+                    }
+                });
+            }
+            // o close do executor espera as partidas em andamento
+        }
+        final var elapsed = System.nanoTime() - start;
+        return new LoadReport(gamesPerSecond, elapsed, run.started.sum(), run.completed.sum(), run.failed.sum(),
+                run.dropped.sum(), run.moves.sum(), run.moveLatency.snapshot(), run.gameLatency.snapshot(),
+                run.scheduleLag.snapshot(), Math.max(0, inFlightAtHalf), inFlightAtEnd);
+    }
+
+    /**
+     * Um cliente: uma sessão, uma partida.
+     */
+    private void playGame(Run run, long intendedStart, SplittableRandom random) {
+        run.started.increment();
+        final var board = new Board(geometry);
+        try (final var session = target.open()) {
+            var reply = session.start(geometry);
+            if (reply != LoadTarget.Session.CLIENT_FIRST) {
+                // a primeira jogada do bot conta desde a chegada do cliente
+                run.moveLatency.record(System.nanoTime() - intendedStart);
+                run.moves.increment();
+                board.makeMove(Moves.of(reply, BoardCell.O));
+            }
+            while (!board.isGameOver()) {
+                final var intendedMove = System.nanoTime() + thinkNanos;
+                for (var now = System.nanoTime(); now < intendedMove; now = System.nanoTime()) {
+                    LockSupport.parkNanos(intendedMove - now);
+                }
+                final var cell = chooseCell(board, random);
+                board.makeMove(Moves.of(cell, BoardCell.X));
+                reply = session.move(cell);
+                if (reply == LoadTarget.Session.GAME_OVER) {
+                    break;
+                }
+                run.moveLatency.record(System.nanoTime() - intendedMove);
+                run.moves.increment();
+                board.makeMove(Moves.of(reply, BoardCell.O));
+            }
+            run.gameLatency.record(System.nanoTime() - intendedStart);
+            run.completed.increment();
+        } catch (IOException | RuntimeException e) {
+            run.failed.increment();
+        }
+    }
+
+    private int chooseCell(Board board, SplittableRandom random) {
+        if (script != null) {
+            for (final var cell : script) {
+                if (board.isCellEmpty(cell)) {
+                    return cell;
+                }
+            }
+        }
+        var remaining = random.nextInt(board.getEmptyCellCount());
+        for (var cell = 0; ; cell++) {
+            if (board.isCellEmpty(cell) && remaining-- == 0) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * Os contadores de uma rodada, gravados por todos os clientes ao mesmo tempo.
+     */
+    private static final class Run {
+        final ConcurrentLatencyHistogram moveLatency = new ConcurrentLatencyHistogram();
+        final ConcurrentLatencyHistogram gameLatency = new ConcurrentLatencyHistogram();
+        final ConcurrentLatencyHistogram scheduleLag = new ConcurrentLatencyHistogram();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final LongAdder started = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder moves = new LongAdder();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.load;
+
+import org.example.metrics.LatencyHistogram;
+
+/**
+ * O resultado de uma rodada do {@link LoadGenerator} numa taxa de chegada.
+ *
+ * As latências são medidas a partir do instante em que cada partida (ou jogada) deveria ter começado pela
+ * agenda, não de quando começou de fato: se o gerador ou o alvo atrasam, o atraso entra na latência em vez
+ * de sumir (a correção de omissão coordenada).
+ *
+ * @param offeredRate a taxa pedida, em partidas por segundo
+ * @param elapsedNanos quanto tempo a rodada levou, contando a espera pelas partidas em andamento
+ * @param gamesStarted quantas partidas começaram
+ * @param gamesCompleted quantas terminaram
+ * @param gamesFailed quantas falharam (conexão recusada, erro de protocolo...)
+ * @param gamesDropped quantas chegadas foram descartadas por já haver partidas demais em andamento
+ * @param moves quantas respostas do bot foram medidas
+ * @param moveLatency do instante agendado da jogada do cliente até a resposta do bot
+ * @param gameLatency do instante agendado da chegada do cliente até o fim da partida
+ * @param scheduleLag quanto o gerador atrasou para lançar cada partida (se cresce, o gerador é o gargalo)
+ * @param inFlightAtHalf quantas partidas estavam em andamento na metade do período de chegadas
+ * @param inFlightAtEnd quantas estavam em andamento no fim das chegadas. Com a taxa de chegada fixa, quando o
+ *                      alvo dá conta as duas ficam parecidas (a fila fica estável); quando não dá, a fila cresce
+ *                      sem parar e a do fim fica bem maior
+ */
+public record LoadReport(double offeredRate, long elapsedNanos, long gamesStarted, long gamesCompleted, long gamesFailed,
+                         long gamesDropped, long moves, LatencyHistogram moveLatency, LatencyHistogram gameLatency,
+                         LatencyHistogram scheduleLag, long inFlightAtHalf, long inFlightAtEnd) {
+    /**
+     * Quantas partidas a fila pode crescer da metade para o fim da rodada, além de metade do que já tinha,
+     * sem contar como saturação (o ruído de rodadas com poucas partidas em andamento)
+     */
+    private static final long BACKLOG_SLACK = 10;
+
+    /**
+     * @return partidas terminadas por segundo
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : gamesCompleted * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return respostas do bot por segundo
+     */
+    public double movesPerSecond() {
+        return elapsedNanos == 0 ? 0 : moves * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return se o alvo não deu conta da taxa pedida: a fila de partidas em andamento cresceu durante a
+     * rodada (mais da metade), ou partidas falharam ou foram descartadas
+     */
+    public boolean isSaturated() {
+        return inFlightAtEnd - inFlightAtHalf > Math.max(BACKLOG_SLACK, inFlightAtHalf / 2)
+                || gamesFailed > 0 || gamesDropped > 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("taxa pedida %.0f/s: %d partidas em %.2fs (%.1f partidas/s, %.1f jogadas/s), "
+                        + "%d falharam, %d descartadas, em andamento %d -> %d%s%n  jogada: %s%n  partida: %s%n  atraso da agenda: %s",
+                offeredRate, gamesCompleted, elapsedNanos / 1e9, gamesPerSecond(), movesPerSecond(), gamesFailed,
+                gamesDropped, inFlightAtHalf, inFlightAtEnd, isSaturated() ? " (SATURADO)" : "", moveLatency, gameLatency, scheduleLag);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.load;
+
+import org.example.core.BoardGeometry;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Contra quem o {@link LoadGenerator} joga: os bots direto na JVM ({@link InProcessTarget}) ou um
+ * {@link org.example.server.GameServer} pela rede ({@link SocketTarget}).
+ *
+ * Cada cliente simulado abre uma sessão, joga uma partida e fecha. As sessões são usadas por uma thread
+ * (virtual) só, mas o alvo é compartilhado por todas, então {@link #open()} precisa ser thread-safe.
+ */
+public interface LoadTarget extends Closeable {
+    /**
+     * @return uma sessão nova (no alvo de rede, uma conexão nova)
+     * @throws IOException se não for possível conectar
+     */
+    Session open() throws IOException;
+
+    /**
+     * Uma partida de um cliente contra o bot. O cliente é sempre X e quem começa é o alvo que decide
+     * (como no servidor, que sorteia).
+     */
+    interface Session extends Closeable {
+        /**
+         * Valor de {@link #start(BoardGeometry)} quando o cliente começa
+         */
+        int CLIENT_FIRST = -1;
+        /**
+         * Valor de {@link #move(int)} quando a jogada do cliente terminou a partida
+         */
+        int GAME_OVER = -2;
+
+        /**
+         * Começa a partida.
+         * @param geometry o tabuleiro
+         * @return a primeira jogada do bot (a célula), se ele começou, ou {@link #CLIENT_FIRST}
+         * @throws IOException se a conexão falhar ou o alvo responder fora do protocolo
+         */
+        int start(BoardGeometry geometry) throws IOException;
+
+        /**
+         * Joga pelo cliente e espera a resposta do bot. Se a resposta terminar a partida, ela é retornada
+         * normalmente (o cliente vê o fim no próprio tabuleiro).
+         *
+         * @param cell uma célula vazia
+         * @return a célula da resposta do bot, ou {@link #GAME_OVER}
+         * @throws IOException se a conexão falhar ou o alvo responder fora do protocolo
+         */
+        int move(int cell) throws IOException;
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.load;
+
+import org.example.core.BoardGeometry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Alvo que joga contra um {@link org.example.server.GameServer} pela rede, falando o protocolo de texto dele.
+ * Cada sessão é uma conexão nova, então o custo de conectar entra na latência da partida.
+ */
+public class SocketTarget implements LoadTarget {
+    /**
+     * Quanto esperamos para conectar e por cada resposta antes de dar a partida como falha: um servidor
+     * saturado pode aceitar a conexão na fila do accept e nunca atender, e o cliente não pode ficar preso
+     */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+
+    /**
+     * @param host o servidor (normalmente o loopback)
+     * @param port a porta
+     */
+    public SocketTarget(String host, int port) {
+        this(host, port, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param host o servidor (normalmente o loopback)
+     * @param port a porta
+     * @param timeoutMillis quanto esperar para conectar e por cada resposta
+     */
+    public SocketTarget(String host, int port, int timeoutMillis) {
+        this.address = new InetSocketAddress(host, port);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Session open() throws IOException {
+        final var socket = new Socket();
+        try {
+            socket.connect(address, timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            return new SocketSession(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static final class SocketSession implements Session {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+        private int size;
+
+        SocketSession(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            expect(readLine(), "WELCOME");
+        }
+
+        @Override
+        public int start(BoardGeometry geometry) throws IOException {
+            size = geometry.getSize();
+            send("NEW " + geometry.getSize() + " " + geometry.getWinLength());
+            // o SPECTATE só vem com os espectadores ligados; pulamos o que não for o START
+            var line = readLine();
+            while (line.startsWith("SPECTATE")) {
+                line = readLine();
+            }
+            final var parts = expect(line, "START");
+            if (parts.length != 5) {
+                throw new IOException("START inválido: " + line);
+            }
+            return parts[4].equals("X") ? awaitTurn() : readBotMove();
+        }
+
+        @Override
+        public int move(int cell) throws IOException {
+            send("MOVE " + cell / size + " " + cell % size);
+            // o servidor confirma a nossa jogada e depois manda a do bot, ou o fim
+            final var line = readLine();
+            if (line.startsWith("ERROR")) {
+                throw new IOException("Jogada recusada: " + line);
+            }
+            expect(line, "MOVED");
+            final var next = readLine();
+            if (next.startsWith("END")) {
+                return GAME_OVER;
+            }
+            return readBotMove(next);
+        }
+
+        private int readBotMove() throws IOException {
+            return readBotMove(readLine());
+        }
+
+        /**
+         * Lê a jogada do bot e o que vem depois dela ({@code TURN}, ou {@code END} se ela terminou a partida).
+         */
+        private int readBotMove(String line) throws IOException {
+            final var parts = expect(line, "MOVED");
+            if (parts.length != 4) {
+                throw new IOException("MOVED inválido: " + line);
+            }
+            final var cell = Integer.parseInt(parts[2]) * size + Integer.parseInt(parts[3]);
+            final var next = readLine();
+            if (!next.startsWith("END")) {
+                expect(next, "TURN");
+            }
+            return cell;
+        }
+
+        private int awaitTurn() throws IOException {
+            expect(readLine(), "TURN");
+            return CLIENT_FIRST;
+        }
+
+        private static String[] expect(String line, String command) throws IOException {
+            final var parts = line.split("\\s+");
+            if (!parts[0].equals(command)) {
+                throw new IOException("Esperava " + command + ", veio: " + line);
+            }
+            return parts;
+        }
+
+        private String readLine() throws IOException {
+            final var line = reader.readLine();
+            if (line == null) {
+                throw new IOException("O servidor fechou a conexão");
+            }
+            return line.trim();
+        }
+
+        private void send(String line) throws IOException {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                send("QUIT");
+            } catch (IOException e) {
+                // a conexão já caiu; só fechamos o socket
+            }
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.metrics;
+
+import org.example.core.BestMoveCache;
+
+/**
+ * Publica no JMX as estatísticas de um {@link BestMoveCache} (o cache já conta tudo, aqui só repassamos).
+ */
+public class CacheMetrics implements CacheMetricsMXBean {
+    private final BestMoveCache cache;
+
+    /**
+     * @param cache o cache observado
+     */
+    public CacheMetrics(BestMoveCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    @Override
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    @Override
+    public long getStores() {
+        return cache.getStores();
+    }
+
+    @Override
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    @Override
+    public int getCapacity() {
+        return cache.capacity();
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.metrics;
+
+/**
+ * O que o {@link CacheMetrics} expõe via JMX: o uso do cache de jogadas compartilhado entre as sessões.
+ */
+public interface CacheMetricsMXBean {
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    long getStores();
+
+    long getEvictions();
+
+    int getCapacity();
+}
@@ -0,0 +1,58 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Versão thread-safe do {@link LatencyHistogram}, para muitas threads gravando ao mesmo tempo
+ * (todas as sessões do servidor, por exemplo).
+ *
+ * Os contadores são divididos em faixas e cada thread grava na faixa do seu id, então threads
+ * diferentes quase nunca disputam a mesma linha de cache. Gravar é um incremento atômico, sem lock;
+ * ler ({@link #snapshot()}) soma as faixas e pode não ver as gravações que estão acontecendo naquele
+ * instante, o que não tem problema para métricas.
+ */
+public class ConcurrentLatencyHistogram {
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public ConcurrentLatencyHistogram() {
+        // uma potência de 2 acima da quantidade de núcleos, para o índice ser só uma máscara
+        final var stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.stripes = new AtomicLongArray[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (var i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+        }
+    }
+
+    /**
+     * Registra um valor. Valores negativos contam como zero.
+     * @param nanos a latência
+     */
+    public void record(long nanos) {
+        final var value = Math.max(0, nanos);
+        final var stripe = stripes[(int) Thread.currentThread().threadId() & stripeMask];
+        stripe.getAndIncrement(LatencyHistogram.bucketIndex(value));
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return uma cópia dos valores registrados até agora, para calcular percentis
+     */
+    public LatencyHistogram snapshot() {
+        final var counts = new long[LatencyHistogram.BUCKET_COUNT];
+        for (final var stripe : stripes) {
+            for (var i = 0; i < counts.length; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return new LatencyHistogram(counts, sum.sum(), min.get(), max.get());
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.metrics;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.GameListener;
+import org.example.core.Player;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do loop do jogo de todas as partidas: quantas partidas, resultados e quanto tempo cada
+ * jogada levou para ser decidida (humano ou bot, do jeito que o {@link org.example.core.Game} mede).
+ *
+ * Cada partida usa o seu {@link SessionMetrics} (criado com {@link #newSession()}), que mede a própria
+ * latência e repassa tudo para cá. Gravar é lock-free, então uma instância serve o servidor inteiro.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder xWins = new LongAdder();
+    private final LongAdder oWins = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final ConcurrentLatencyHistogram moveLatency = new ConcurrentLatencyHistogram();
+
+    /**
+     * @return um listener para uma sessão; passe para {@link org.example.core.Game#play(Player, GameListener)}
+     */
+    public SessionMetrics newSession() {
+        return new SessionMetrics();
+    }
+
+    /**
+     * @return o histograma da latência por jogada de todas as partidas, em nanossegundos
+     */
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency.snapshot();
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public long getGamesFinished() {
+        return gamesFinished.sum();
+    }
+
+    @Override
+    public long getActiveGames() {
+        return gamesStarted.sum() - gamesFinished.sum();
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public long getXWins() {
+        return xWins.sum();
+    }
+
+    @Override
+    public long getOWins() {
+        return oWins.sum();
+    }
+
+    @Override
+    public long getDraws() {
+        return draws.sum();
+    }
+
+    @Override
+    public double getMoveLatencyMeanMicros() {
+        return moveLatency.snapshot().getMean() / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyP50Micros() {
+        return moveLatency.snapshot().getPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyP99Micros() {
+        return moveLatency.snapshot().getPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyP999Micros() {
+        return moveLatency.snapshot().getPercentile(99.9) / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyMaxMicros() {
+        return moveLatency.snapshot().getMax() / 1000;
+    }
+
+    /**
+     * As métricas de uma sessão (uma conexão, que pode jogar várias partidas seguidas).
+     * É usada por uma thread só, então a latência da sessão fica num {@link LatencyHistogram} simples.
+     */
+    public class SessionMetrics implements GameListener {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private boolean inGame;
+
+        @Override
+        public void onTurn(Board board, Player player) {
+            if (!inGame) {
+                inGame = true;
+                gamesStarted.increment();
+            }
+        }
+
+        @Override
+        public void onMove(Board board, int move, long nanos) {
+            latency.record(nanos);
+            moveLatency.record(nanos);
+            moves.increment();
+        }
+
+        @Override
+        public void onGameOver(Board board, BoardCell winner) {
+            inGame = false;
+            gamesFinished.increment();
+            switch (winner) {
+                case X -> xWins.increment();
+                case O -> oWins.increment();
+                default -> draws.increment();
+            }
+        }
+
+        /**
+         * Encerra uma partida que não chegou ao fim (o cliente desconectou no meio).
+         */
+        public void abandon() {
+            if (inGame) {
+                inGame = false;
+                gamesFinished.increment();
+            }
+        }
+
+        /**
+         * @return a latência por jogada só desta sessão, em nanossegundos
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.metrics;
+
+/**
+ * O que o {@link GameMetrics} expõe via JMX. Os tempos estão em microssegundos.
+ */
+public interface GameMetricsMXBean {
+    long getGamesStarted();
+
+    long getGamesFinished();
+
+    long getActiveGames();
+
+    long getMoves();
+
+    long getXWins();
+
+    long getOWins();
+
+    long getDraws();
+
+    double getMoveLatencyMeanMicros();
+
+    long getMoveLatencyP50Micros();
+
+    long getMoveLatencyP99Micros();
+
+    long getMoveLatencyP999Micros();
+
+    long getMoveLatencyMaxMicros();
+}
@@ -0,0 +1,149 @@
+package org.example.metrics;
+
+/**
+ * Histograma de latências (em nanossegundos) com buckets log-lineares.
+ *
+ * Cada potência de 2 é dividida em 16 buckets iguais, então qualquer valor é guardado com erro
+ * relativo de no máximo ~6%, de 1ns até horas, em menos de mil contadores. Registrar um valor é
+ * O(1) e não aloca nada, o que permite medir cada jogada de milhões de partidas.
+ *
+ * Não é thread-safe: a ideia é cada thread ter o seu e juntar tudo no final com {@link #merge(LatencyHistogram)}.
+ * Para vários threads gravando no mesmo histograma, use o {@link ConcurrentLatencyHistogram}.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public LatencyHistogram() {
+    }
+
+    /**
+     * Monta um histograma a partir de contadores já somados (usado pelo {@link ConcurrentLatencyHistogram}).
+     */
+    LatencyHistogram(long[] counts, long sum, long min, long max) {
+        System.arraycopy(counts, 0, this.counts, 0, BUCKET_COUNT);
+        for (final var bucketCount : counts) {
+            this.count += bucketCount;
+        }
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Registra um valor. Valores negativos contam como zero.
+     * @param nanos a latência
+     */
+    public void record(long nanos) {
+        final var value = Math.max(0, nanos);
+        counts[bucketIndex(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Soma os valores de outro histograma neste.
+     * @param other o outro histograma
+     */
+    public void merge(LatencyHistogram other) {
+        for (var i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return quantos valores foram registrados
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return o menor valor registrado (0 se estiver vazio)
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return o maior valor registrado
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return a média exata dos valores registrados
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Retorna o valor abaixo do qual estão `percentile` por cento dos valores registrados.
+     * O resultado é o maior valor do bucket, ou seja, nunca subestima a latência.
+     *
+     * @param percentile de 0 a 100
+     * @return o percentil, em nanossegundos
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final var target = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+        var seen = 0L;
+        for (var i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(max, bucketUpperBound(i));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d média=%.1fµs p50=%.1fµs p99=%.1fµs p99.9=%.1fµs máx=%.1fµs",
+                count, getMean() / 1000, getPercentile(50) / 1000.0, getPercentile(99) / 1000.0,
+                getPercentile(99.9) / 1000.0, max / 1000.0);
+    }
+
+    /**
+     * Os primeiros 16 buckets guardam 0..15 exatamente; depois, cada potência de 2 tem 16 buckets.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final var shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        final var subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return o maior valor que cai no bucket `index`
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final var shift = index / SUB_BUCKETS - 1;
+        final var subBucket = index % SUB_BUCKETS;
+        final var nextBucketStart = (long) (SUB_BUCKETS + subBucket + 1) << shift;
+        // os últimos buckets passam de Long.MAX_VALUE
+        return nextBucketStart <= 0 ? Long.MAX_VALUE : nextBucketStart - 1;
+    }
+}
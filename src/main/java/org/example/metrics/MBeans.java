@@ -0,0 +1,44 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registra as métricas no servidor JMX da JVM, para aparecerem no jconsole/VisualVM em `org.example`.
+ */
+public final class MBeans {
+    private MBeans() {
+    }
+
+    /**
+     * @param type o nome que aparece no JMX, ex: "SearchMetrics"
+     * @param bean a métrica (uma implementação de uma interface *MXBean)
+     * @return o nome com que a métrica foi registrada
+     * @throws IllegalStateException se já houver uma métrica registrada com esse nome
+     */
+    public static ObjectName register(String type, Object bean) {
+        try {
+            final var name = new ObjectName("org.example:type=" + type);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível registrar a métrica " + type, e);
+        }
+    }
+
+    /**
+     * Remove uma métrica registrada por {@link #register(String, Object)}, se ainda estiver lá.
+     * @param name o nome retornado pelo registro
+     */
+    public static void unregister(ObjectName name) {
+        try {
+            final var server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível remover a métrica " + name, e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.metrics;
+
+import org.example.core.SearchListener;
+import org.example.core.SearchStatistics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Junta as estatísticas de todas as buscas de todos os bots (veja {@link SearchListener}).
+ *
+ * Pode ser compartilhado por todas as threads: os contadores são {@link LongAdder}s, que espalham as
+ * somas entre células por thread, e o tempo vai para um {@link ConcurrentLatencyHistogram}. Nada de
+ * lock, e o custo é pago uma vez por jogada, não por nó da busca.
+ */
+public class SearchMetrics implements SearchListener, SearchMetricsMXBean {
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder nodesVisited = new LongAdder();
+    private final LongAdder terminalNodes = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder transpositionProbes = new LongAdder();
+    private final LongAdder transpositionHits = new LongAdder();
+    private final LongAdder depthSum = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final ConcurrentLatencyHistogram searchTime = new ConcurrentLatencyHistogram();
+
+    @Override
+    public void onSearch(SearchStatistics statistics) {
+        searches.increment();
+        nodesVisited.add(statistics.nodesVisited());
+        terminalNodes.add(statistics.terminalNodes());
+        evaluations.add(statistics.evaluations());
+        cutoffs.add(statistics.cutoffs());
+        transpositionProbes.add(statistics.transpositionProbes());
+        transpositionHits.add(statistics.transpositionHits());
+        depthSum.add(statistics.depth());
+        maxDepth.accumulate(statistics.depth());
+        searchTime.record(statistics.nanos());
+    }
+
+    /**
+     * @return o histograma do tempo por busca, em nanossegundos
+     */
+    public LatencyHistogram getSearchTime() {
+        return searchTime.snapshot();
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited.sum();
+    }
+
+    @Override
+    public long getTerminalNodes() {
+        return terminalNodes.sum();
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    @Override
+    public double getTranspositionHitRate() {
+        final var probes = transpositionProbes.sum();
+        return probes == 0 ? 0 : (double) transpositionHits.sum() / probes;
+    }
+
+    @Override
+    public double getMeanNodesPerSearch() {
+        final var count = searches.sum();
+        return count == 0 ? 0 : (double) nodesVisited.sum() / count;
+    }
+
+    @Override
+    public double getMeanDepth() {
+        final var count = searches.sum();
+        return count == 0 ? 0 : (double) depthSum.sum() / count;
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public double getSearchTimeMeanMicros() {
+        return searchTime.snapshot().getMean() / 1000;
+    }
+
+    @Override
+    public long getSearchTimeP50Micros() {
+        return searchTime.snapshot().getPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getSearchTimeP99Micros() {
+        return searchTime.snapshot().getPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getSearchTimeMaxMicros() {
+        return searchTime.snapshot().getMax() / 1000;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.metrics;
+
+/**
+ * O que o {@link SearchMetrics} expõe via JMX (jconsole, VisualVM, Prometheus JMX exporter...).
+ * Os tempos estão em microssegundos.
+ */
+public interface SearchMetricsMXBean {
+    long getSearches();
+
+    long getNodesVisited();
+
+    long getTerminalNodes();
+
+    long getEvaluations();
+
+    long getCutoffs();
+
+    double getTranspositionHitRate();
+
+    double getMeanNodesPerSearch();
+
+    double getMeanDepth();
+
+    long getMaxDepth();
+
+    double getSearchTimeMeanMicros();
+
+    long getSearchTimeP50Micros();
+
+    long getSearchTimeP99Micros();
+
+    long getSearchTimeMaxMicros();
+}
@@ -0,0 +1,93 @@
+package org.example.qubic;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+import org.example.core.SearchBudget;
+import org.example.core.SearchListener;
+import org.example.core.TranspositionTable;
+
+/**
+ * Action generator do Qubic (jogo da velha 4x4x4, veja {@link BoardGeometry#QUBIC}).
+ *
+ * O jogo em si é o de sempre: {@link org.example.core.Game}, {@link Board} e os mesmos jogadores, então dá
+ * para jogar contra ele no terminal ou colocar para jogar contra outro bot. Só a busca é própria: em vez
+ * de mexer no {@link Board}, ela copia as peças de cada jogador para um long (as 64 células cabem certinho)
+ * e trabalha só com máscaras (veja {@link QubicSearch}).
+ *
+ * Precisa de um limite de tempo ou de nós, já que buscar o Qubic até o fim não é viável.
+ * Não é thread-safe: use uma instância por jogo.
+ */
+public class QubicActionGenerator implements ActionGenerator {
+    private final SearchBudget budget;
+    private final QubicSearch search;
+    private SearchListener searchListener = SearchListener.NONE;
+
+    /**
+     * @param budget o limite de tempo e/ou nós por jogada
+     */
+    public QubicActionGenerator(SearchBudget budget) {
+        this(budget, new TranspositionTable(1 << 22, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    /**
+     * @param budget o limite de tempo e/ou nós por jogada
+     * @param transpositionTable a tabela de transposição (não pode ser compartilhada com buscas de outros tabuleiros)
+     */
+    public QubicActionGenerator(SearchBudget budget, TranspositionTable transpositionTable) {
+        if (!budget.hasTimeLimit() && !budget.hasNodeLimit()) {
+            throw new IllegalArgumentException("O Qubic precisa de um limite de tempo ou de nós");
+        }
+        this.budget = budget;
+        this.search = new QubicSearch(transpositionTable);
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        if (board.getGeometry() != BoardGeometry.QUBIC) {
+            throw new IllegalArgumentException("O QubicActionGenerator só joga no tabuleiro 4x4x4");
+        }
+        final var boardCell = player.getBoardCell();
+        final var cell = search.search(board.getBits(boardCell, 0), board.getBits(boardCell.opponent(), 0), budget);
+        if (searchListener != SearchListener.NONE) {
+            searchListener.onSearch(search.getStatistics());
+        }
+        return Moves.of(cell, boardCell);
+    }
+
+    /**
+     * @param searchListener quem recebe as estatísticas de cada jogada (métricas, logs...)
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * @return a profundidade da última iteração completa da última jogada
+     */
+    public int getCompletedDepth() {
+        return search.getCompletedDepth();
+    }
+
+    /**
+     * @return quantos nós a última busca visitou
+     */
+    public long getNodesVisited() {
+        return search.getNodesVisited();
+    }
+
+    /**
+     * @return o score da última jogada, do ponto de vista de quem jogou
+     */
+    public int getLastScore() {
+        return search.getLastScore();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.qubic;
+
+import org.example.core.BoardGeometry;
+
+/**
+ * As operações de bitboard do Qubic (4x4x4): as 64 células cabem num long por jogador, e cada uma das
+ * 76 linhas vencedoras é uma máscara pré-calculada a partir da {@link BoardGeometry#QUBIC}.
+ *
+ * Com isso saber se alguém fez linha, quantas peças cada um tem numa linha ou onde estão as ameaças
+ * (linhas com três peças e a quarta vazia) é só AND e {@link Long#bitCount(long)}, sem olhar célula por célula.
+ */
+final class QubicBitboard {
+    static final int CELLS = 64;
+    static final int LINE_COUNT = 76;
+    /**
+     * LINES[line] tem ligados os bits das quatro células da linha
+     */
+    static final long[] LINES = new long[LINE_COUNT];
+    /**
+     * CELL_LINES[cell] são as máscaras das linhas que passam pela célula (4 ou 7)
+     */
+    static final long[][] CELL_LINES = new long[CELLS][];
+
+    static {
+        final var geometry = BoardGeometry.QUBIC;
+        for (var line = 0; line < LINE_COUNT; line++) {
+            for (final var cell : geometry.getLineCells(line)) {
+                LINES[line] |= 1L << cell;
+            }
+        }
+        for (var cell = 0; cell < CELLS; cell++) {
+            final var lines = geometry.getCellLines(cell);
+            CELL_LINES[cell] = new long[lines.length];
+            for (var i = 0; i < lines.length; i++) {
+                CELL_LINES[cell][i] = LINES[lines[i]];
+            }
+        }
+    }
+
+    private QubicBitboard() {
+    }
+
+    /**
+     * @param pieces as peças de um jogador
+     * @param cell a última célula jogada por ele
+     * @return true se a jogada completou alguma linha (só as linhas da célula podem ter sido completadas)
+     */
+    static boolean completesLine(long pieces, int cell) {
+        for (final var line : CELL_LINES[cell]) {
+            if ((pieces & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param mine as peças de um jogador
+     * @param theirs as peças do adversário
+     * @return as células vazias onde `mine` completa uma linha na próxima jogada
+     */
+    static long winningCells(long mine, long theirs) {
+        var cells = 0L;
+        for (final var line : LINES) {
+            if ((line & theirs) == 0 && Long.bitCount(line & mine) == 3) {
+                cells |= line & ~mine;
+            }
+        }
+        return cells;
+    }
+}
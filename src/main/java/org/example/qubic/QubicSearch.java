@@ -0,0 +1,353 @@
+package org.example.qubic;
+
+import org.example.core.AlphaBetaSearch;
+import org.example.core.SearchBudget;
+import org.example.core.SearchStatistics;
+import org.example.core.TranspositionTable;
+
+import java.util.Arrays;
+
+/**
+ * O motor de busca do Qubic: o mesmo negamax com poda alfa-beta e aprofundamento iterativo do
+ * {@link AlphaBetaSearch}, só que a posição são dois longs (as peças de quem tem a vez e as do adversário)
+ * e jogar/desfazer é um OR, então não existe tabuleiro para atualizar.
+ *
+ * O que faz diferença no Qubic são as ameaças (linhas com três peças e a quarta vazia), então a busca
+ * olha para elas antes de tudo:
+ * - se quem tem a vez tem uma ameaça, ele ganha na próxima jogada
+ * - se o adversário tem duas, não dá para bloquear as duas e a posição está perdida
+ * - se o adversário tem uma, o bloqueio é a única jogada, e ela não gasta profundidade (extensão),
+ *   assim as sequências de ameaças forçadas são seguidas até o fim
+ *
+ * Os scores seguem a escala do {@link AlphaBetaSearch} (vitória = {@link AlphaBetaSearch#WIN_SCORE} + células
+ * vazias), e a heurística soma as linhas ainda abertas para cada lado, com peso crescente pelo número de peças.
+ *
+ * Uma instância não é thread-safe.
+ */
+final class QubicSearch {
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    private static final long BUDGET_CHECK_INTERVAL = 1024;
+    /**
+     * LINE_WEIGHTS[n] é quanto vale uma linha aberta com `n` peças de um lado só
+     */
+    private static final int[] LINE_WEIGHTS = {0, 1, 12, 150, 0};
+
+    // prioridades usadas na ordenação das jogadas
+    private static final int TRANSPOSITION_MOVE_PRIORITY = 1 << 30;
+    private static final int KILLER_PRIORITY = 1 << 24;
+    private static final int POTENTIAL_PRIORITY = 1 << 12;
+
+    private final TranspositionTable transpositionTable;
+    /**
+     * Buffers por profundidade; cada jogada ocupa uma célula, então nunca passamos de 64
+     */
+    private final int[][] moveBuffers = new int[QubicBitboard.CELLS + 1][QubicBitboard.CELLS];
+    private final int[][] priorityBuffers = new int[QubicBitboard.CELLS + 1][QubicBitboard.CELLS];
+    private final int[][] killers = new int[QubicBitboard.CELLS + 1][2];
+    private final int[] history = new int[QubicBitboard.CELLS];
+
+    private long nodesVisited;
+    private long terminalNodes;
+    private long evaluations;
+    private long cutoffs;
+    private long transpositionProbes;
+    private long transpositionHits;
+    private long startNanos;
+    private long deadlineNanos;
+    private long maxNodes;
+    private boolean aborted;
+    private int lastScore;
+    private int completedDepth;
+
+    QubicSearch(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Busca a melhor jogada com aprofundamento iterativo até o orçamento acabar ou o resultado ser forçado.
+     *
+     * @param mine as peças de quem tem a vez
+     * @param theirs as peças do adversário
+     * @param budget o limite de tempo e nós da jogada
+     * @return a célula da melhor jogada
+     */
+    int search(long mine, long theirs, SearchBudget budget) {
+        start(budget);
+        final var empties = QubicBitboard.CELLS - Long.bitCount(mine | theirs);
+
+        // ganhar ou bloquear não precisa de busca
+        final var wins = QubicBitboard.winningCells(mine, theirs);
+        if (wins != 0) {
+            lastScore = AlphaBetaSearch.WIN_SCORE + empties - 1;
+            return Long.numberOfTrailingZeros(wins);
+        }
+        final var threats = QubicBitboard.winningCells(theirs, mine);
+        if (threats != 0) {
+            lastScore = Long.bitCount(threats) >= 2 ? -(AlphaBetaSearch.WIN_SCORE + empties - 2) : 0;
+            return Long.numberOfTrailingZeros(threats);
+        }
+
+        var bestCell = -1;
+        var bestScore = 0;
+        for (var depth = 1; depth <= empties; depth++) {
+            final var cell = searchRoot(mine, theirs, depth);
+            if (aborted) {
+                if (bestCell == -1) {
+                    bestCell = cell;
+                    bestScore = lastScore;
+                }
+                break;
+            }
+            bestCell = cell;
+            bestScore = lastScore;
+            completedDepth = depth;
+            if (AlphaBetaSearch.isDecisive(lastScore)) {
+                break;
+            }
+        }
+        lastScore = bestScore;
+        return bestCell;
+    }
+
+    int getLastScore() {
+        return lastScore;
+    }
+
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    SearchStatistics getStatistics() {
+        return new SearchStatistics(nodesVisited, terminalNodes, evaluations, cutoffs,
+                transpositionProbes, transpositionHits, completedDepth, System.nanoTime() - startNanos);
+    }
+
+    private void start(SearchBudget budget) {
+        transpositionTable.newGeneration();
+        nodesVisited = 0;
+        terminalNodes = 0;
+        evaluations = 0;
+        cutoffs = 0;
+        transpositionProbes = 0;
+        transpositionHits = 0;
+        completedDepth = 0;
+        aborted = false;
+        startNanos = System.nanoTime();
+        deadlineNanos = budget.hasTimeLimit() ? startNanos + budget.timeMillis() * 1_000_000L : Long.MAX_VALUE;
+        maxNodes = budget.hasNodeLimit() ? budget.maxNodes() : Long.MAX_VALUE;
+        for (final var killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        Arrays.fill(history, 0);
+    }
+
+    private int searchRoot(long mine, long theirs, int depth) {
+        final var key = positionKey(mine, theirs);
+        final var entry = probe(key);
+        final var moves = moveBuffers[0];
+        final var moveCount = orderMoves(mine, theirs, 0, entry);
+        var alpha = -INFINITY;
+        var bestCell = moves[0];
+        for (var i = 0; i < moveCount; i++) {
+            final var cell = moves[i];
+            final var score = -negaMax(theirs, mine | (1L << cell), depth - 1, -INFINITY, -alpha, 1);
+            if (aborted) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestCell = cell;
+            }
+        }
+        lastScore = alpha;
+        if (!aborted) {
+            transpositionTable.store(key, alpha, TranspositionTable.EXACT, bestCell, depth);
+        }
+        return bestCell;
+    }
+
+    /**
+     * O valor da posição para quem tem a vez (`mine`), olhando só o que cabe na janela [alpha, beta].
+     * Quem acabou de jogar nunca tem linha completa aqui: jogadas que ganham são detectadas como ameaça
+     * um nível acima.
+     */
+    private int negaMax(long mine, long theirs, int depth, int alpha, int beta, int ply) {
+        if (++nodesVisited % BUDGET_CHECK_INTERVAL == 0) {
+            checkBudget();
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        final var empties = QubicBitboard.CELLS - Long.bitCount(mine | theirs);
+        if (empties == 0) {
+            terminalNodes++;
+            return 0;
+        }
+        if (QubicBitboard.winningCells(mine, theirs) != 0) {
+            // ganhamos na próxima jogada
+            terminalNodes++;
+            return AlphaBetaSearch.WIN_SCORE + empties - 1;
+        }
+        final var threats = QubicBitboard.winningCells(theirs, mine);
+        if (Long.bitCount(threats) >= 2) {
+            // só dá para bloquear uma, o adversário ganha com a outra
+            terminalNodes++;
+            return -(AlphaBetaSearch.WIN_SCORE + empties - 2);
+        }
+        if (threats != 0) {
+            // o bloqueio é forçado, então não gastamos profundidade com ele
+            return -negaMax(theirs, mine | threats, depth, -beta, -alpha, ply + 1);
+        }
+        if (depth <= 0) {
+            evaluations++;
+            return evaluate(mine, theirs);
+        }
+
+        final var originalAlpha = alpha;
+        final var key = positionKey(mine, theirs);
+        final var entry = probe(key);
+        if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+            final var score = TranspositionTable.score(entry);
+            switch (TranspositionTable.bound(entry)) {
+                case TranspositionTable.EXACT -> {
+                    return score;
+                }
+                case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, score);
+                default -> beta = Math.min(beta, score);
+            }
+            if (alpha >= beta) {
+                return score;
+            }
+        }
+
+        final var moves = moveBuffers[ply];
+        final var moveCount = orderMoves(mine, theirs, ply, entry);
+        var bestScore = -INFINITY;
+        var bestCell = TranspositionTable.NO_MOVE;
+        for (var i = 0; i < moveCount; i++) {
+            final var cell = moves[i];
+            final var score = -negaMax(theirs, mine | (1L << cell), depth - 1, -beta, -alpha, ply + 1);
+            if (aborted) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestCell = cell;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                cutoffs++;
+                if (killers[ply][0] != cell) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = cell;
+                }
+                history[cell] += depth * depth;
+                break;
+            }
+        }
+
+        final int bound;
+        if (bestScore <= originalAlpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        } else if (bestScore >= beta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        } else {
+            bound = TranspositionTable.EXACT;
+        }
+        transpositionTable.store(key, bestScore, bound, bestCell, depth);
+        return bestScore;
+    }
+
+    /**
+     * Soma as linhas abertas: cada linha só com peças de um lado vale {@link #LINE_WEIGHTS} pelo número de peças.
+     */
+    private static int evaluate(long mine, long theirs) {
+        var score = 0;
+        for (final var line : QubicBitboard.LINES) {
+            final var myPieces = Long.bitCount(line & mine);
+            final var theirPieces = Long.bitCount(line & theirs);
+            if (theirPieces == 0) {
+                score += LINE_WEIGHTS[myPieces];
+            } else if (myPieces == 0) {
+                score -= LINE_WEIGHTS[theirPieces];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Ordena as células vazias: a jogada da tabela, os killers e depois o potencial da célula
+     * (o que ela soma nas nossas linhas abertas mais o que ela tira das do adversário), desempatando pelo histórico.
+     */
+    private int orderMoves(long mine, long theirs, int ply, long entry) {
+        final var moves = moveBuffers[ply];
+        final var priorities = priorityBuffers[ply];
+        final var transpositionMove = entry == TranspositionTable.MISS ? -1 : TranspositionTable.move(entry);
+
+        var count = 0;
+        for (var empty = ~(mine | theirs); empty != 0; empty &= empty - 1) {
+            final var cell = Long.numberOfTrailingZeros(empty);
+            var potential = 0;
+            for (final var line : QubicBitboard.CELL_LINES[cell]) {
+                final var myPieces = Long.bitCount(line & mine);
+                final var theirPieces = Long.bitCount(line & theirs);
+                if (theirPieces == 0) {
+                    potential += LINE_WEIGHTS[myPieces + 1];
+                } else if (myPieces == 0) {
+                    potential += LINE_WEIGHTS[theirPieces + 1];
+                }
+            }
+            var priority = Math.min(potential, KILLER_PRIORITY / POTENTIAL_PRIORITY - 1) * POTENTIAL_PRIORITY
+                    + Math.min(history[cell], POTENTIAL_PRIORITY - 1);
+            if (cell == transpositionMove) {
+                priority += TRANSPOSITION_MOVE_PRIORITY;
+            }
+            if (cell == killers[ply][0] || cell == killers[ply][1]) {
+                priority += KILLER_PRIORITY;
+            }
+            var position = count++;
+            while (position > 0 && priorities[position - 1] < priority) {
+                moves[position] = moves[position - 1];
+                priorities[position] = priorities[position - 1];
+                position--;
+            }
+            moves[position] = cell;
+            priorities[position] = priority;
+        }
+        return count;
+    }
+
+    private long probe(long key) {
+        transpositionProbes++;
+        final var entry = transpositionTable.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            transpositionHits++;
+        }
+        return entry;
+    }
+
+    private void checkBudget() {
+        if (nodesVisited >= maxNodes || System.nanoTime() >= deadlineNanos) {
+            aborted = true;
+        }
+    }
+
+    /**
+     * A chave da tabela: um hash das duas máscaras. Como elas são de quem tem a vez e do adversário,
+     * a mesma disposição de peças com o outro jogador na vez já dá outra chave.
+     */
+    private static long positionKey(long mine, long theirs) {
+        var hash = mine * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(theirs * 0xC2B2AE3D27D4EB4FL, 31);
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 32);
+    }
+}
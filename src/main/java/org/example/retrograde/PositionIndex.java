@@ -0,0 +1,151 @@
+package org.example.retrograde;
+
+import org.example.core.BoardGeometry;
+
+/**
+ * Numeração compacta das posições de um nível (quantidade de peças), para as tabelas da análise retrógrada.
+ *
+ * As posições são vistas do ponto de vista de quem tem a vez: "minhas" peças e as "do adversário".
+ * Como as jogadas alternam, num nível com `n` peças quem tem a vez sempre tem `n / 2` peças e o adversário
+ * o resto, começando o X ou o O. Então o mesmo número serve para os dois primeiros jogadores, e a
+ * posição com X para jogar vale o mesmo que a com as cores trocadas e O para jogar.
+ *
+ * O índice usa o sistema combinatório de números: primeiro o posto das `n` células ocupadas entre
+ * todas as células, depois o posto das minhas peças entre as ocupadas. Assim cada nível tem exatamente
+ * C(células, n) * C(n, n / 2) posições, sem buracos, e dá para ir e voltar do índice sem tabela nenhuma.
+ *
+ * As máscaras são longs com o bit `cell` ligado para cada peça, então o tabuleiro tem no máximo {@link #MAX_CELLS} células.
+ */
+final class PositionIndex {
+    /**
+     * O 4x4: o maior nível já tem ~2 milhões de posições; no 5x5 seriam bilhões
+     */
+    static final int MAX_CELLS = 16;
+
+    private final BoardGeometry geometry;
+    private final int cellCount;
+    /**
+     * binomials[n][k] = C(n, k)
+     */
+    private final long[][] binomials;
+    /**
+     * lineMasks[line] tem ligados os bits das células da linha vencedora
+     */
+    private final long[] lineMasks;
+
+    PositionIndex(BoardGeometry geometry) {
+        if (geometry.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("A análise retrógrada só suporta tabuleiros de até " + MAX_CELLS + " células");
+        }
+        this.geometry = geometry;
+        this.cellCount = geometry.getCellCount();
+        this.binomials = new long[cellCount + 1][cellCount + 1];
+        for (var n = 0; n <= cellCount; n++) {
+            binomials[n][0] = 1;
+            for (var k = 1; k <= n; k++) {
+                binomials[n][k] = binomials[n - 1][k - 1] + binomials[n - 1][k];
+            }
+        }
+        this.lineMasks = new long[geometry.getLineCount()];
+        for (var line = 0; line < lineMasks.length; line++) {
+            for (final var cell : geometry.getLineCells(line)) {
+                lineMasks[line] |= 1L << cell;
+            }
+        }
+    }
+
+    BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @param level quantas peças existem no tabuleiro
+     * @return quantas posições o nível tem
+     */
+    long levelSize(int level) {
+        return binomials[cellCount][level] * binomials[level][level / 2];
+    }
+
+    /**
+     * @param mine as peças de quem tem a vez (precisam ser `n / 2` das `n` peças)
+     * @param theirs as peças do adversário
+     * @return o índice da posição dentro do seu nível
+     */
+    long rank(long mine, long theirs) {
+        final var occupied = mine | theirs;
+        final var level = Long.bitCount(occupied);
+        var occupiedRank = 0L;
+        var mineRank = 0L;
+        var occupiedSeen = 0;
+        var mineSeen = 0;
+        for (var bits = occupied; bits != 0; bits &= bits - 1) {
+            final var cell = Long.numberOfTrailingZeros(bits);
+            occupiedRank += binomials[cell][++occupiedSeen];
+            if ((mine & (1L << cell)) != 0) {
+                // a posição da peça entre as ocupadas é occupiedSeen - 1
+                mineRank += binomials[occupiedSeen - 1][++mineSeen];
+            }
+        }
+        return occupiedRank * binomials[level][level / 2] + mineRank;
+    }
+
+    /**
+     * O inverso de {@link #rank(long, long)}.
+     * @param level quantas peças existem no tabuleiro
+     * @param rank o índice dentro do nível
+     * @param masks onde escrever: masks[0] = minhas peças, masks[1] = as do adversário
+     */
+    void unrank(int level, long rank, long[] masks) {
+        final var mineCount = level / 2;
+        final var subsets = binomials[level][mineCount];
+        final var occupied = unrankCombination(rank / subsets, level, cellCount);
+        // os índices (entre as ocupadas) das minhas peças
+        final var mineIndexes = unrankCombination(rank % subsets, mineCount, level);
+
+        var mine = 0L;
+        var index = 0;
+        for (var bits = occupied; bits != 0; bits &= bits - 1, index++) {
+            if ((mineIndexes & (1L << index)) != 0) {
+                mine |= Long.lowestOneBit(bits);
+            }
+        }
+        masks[0] = mine;
+        masks[1] = occupied & ~mine;
+    }
+
+    /**
+     * @param pieces as peças de um jogador
+     * @return true se elas completam alguma linha vencedora
+     */
+    boolean hasLine(long pieces) {
+        for (final var line : lineMasks) {
+            if ((pieces & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a máscara da combinação de `k` elementos entre `n` com o posto informado
+     */
+    private long unrankCombination(long rank, int k, int n) {
+        var mask = 0L;
+        var remaining = rank;
+        var candidate = n - 1;
+        for (var i = k; i > 0; i--) {
+            // o maior elemento é o maior c com C(c, i) <= posto
+            while (binomials[candidate][i] > remaining) {
+                candidate--;
+            }
+            mask |= 1L << candidate;
+            remaining -= binomials[candidate][i];
+            candidate--;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.retrograde;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.Moves;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+
+/**
+ * Action generator que joga perfeito consultando as {@link RetrogradeTable}s, sem busca nenhuma.
+ *
+ * Para cada jogada possível olhamos o valor da posição que ela gera (do ponto de vista do adversário):
+ * uma jogada que ganha na hora vem primeiro, depois uma que deixa o adversário perdido, depois uma que
+ * garante a velha. As tabelas só guardam vitória/derrota/velha, não em quantas jogadas, mas como toda
+ * jogada ocupa uma célula o jogo sempre acaba, então manter a vitória a cada jogada basta para ganhar.
+ *
+ * Se o tabuleiro não for o das tabelas, a jogada é delegada para outro action generator.
+ * Não guarda estado, então uma única instância pode atender todos os jogos ao mesmo tempo.
+ */
+public class RetrogradeActionGenerator implements ActionGenerator {
+    private final RetrogradeTable table;
+    private final ActionGenerator fallback;
+
+    /**
+     * @param table as tabelas resolvidas
+     * @param fallback quem gera a jogada quando o tabuleiro não é o das tabelas
+     */
+    public RetrogradeActionGenerator(RetrogradeTable table, ActionGenerator fallback) {
+        this.table = table;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        if (board.getGeometry() != table.getGeometry()) {
+            return fallback.generateMove(board, player);
+        }
+        final var boardCell = player.getBoardCell();
+        final var index = table.getIndex();
+        final var mine = RetrogradeTable.mask(board, boardCell);
+        final var theirs = RetrogradeTable.mask(board, boardCell.opponent());
+
+        var bestCell = -1;
+        var bestRank = Integer.MAX_VALUE;
+        final var full = (1L << index.getCellCount()) - 1;
+        for (var empty = full & ~(mine | theirs); empty != 0; empty &= empty - 1) {
+            final var cell = Long.numberOfTrailingZeros(empty);
+            final var after = mine | (1L << cell);
+            if (index.hasLine(after)) {
+                return Moves.of(cell, boardCell);
+            }
+            // do ponto de vista do adversário, que passa a ter a vez
+            final var rank = switch (table.value(theirs, after)) {
+                case RetrogradeTable.LOSS -> 0;
+                case RetrogradeTable.DRAW -> 1;
+                default -> 2;
+            };
+            if (rank < bestRank) {
+                bestRank = rank;
+                bestCell = cell;
+            }
+        }
+        return Moves.of(bestCell, boardCell);
+    }
+}
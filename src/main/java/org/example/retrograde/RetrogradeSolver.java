@@ -0,0 +1,192 @@
+package org.example.retrograde;
+
+import org.example.core.BoardGeometry;
+import org.example.core.WorkerPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Resolve todas as posições de um tabuleiro por análise retrógrada e grava as {@link RetrogradeTable}s.
+ *
+ * No 4x4 a busca para frente do {@link org.example.core.MiniMaxActionGenerator} não dá conta: são dezenas
+ * de milhões de posições. Aqui a gente vai de trás para frente, um nível (quantidade de peças) por vez:
+ * o nível cheio só tem posições terminais, e o valor de uma posição do nível `n` só depende das posições
+ * do nível `n + 1` (todas as jogadas colocam uma peça). Então resolvemos do nível cheio até o vazio, e
+ * cada nível só precisa do arquivo do nível seguinte, mapeado em memória. O heap não guarda nenhuma tabela.
+ *
+ * Dentro de um nível as posições são independentes, então as threads pegam blocos de posições de um
+ * contador compartilhado e escrevem direto no arquivo mapeado (cada bloco em bytes diferentes).
+ *
+ * Uso: `java org.example.retrograde.RetrogradeSolver <diretório> [tamanho sequência] [threads]`
+ * (o padrão é 4x4 com três em linha e uma thread por núcleo).
+ */
+public class RetrogradeSolver implements AutoCloseable {
+    /**
+     * Quantas posições cada thread pega por vez (múltiplo de 4, para os blocos não dividirem bytes)
+     */
+    private static final int CHUNK_POSITIONS = 1 << 14;
+
+    private final PositionIndex index;
+    private final Path directory;
+    private final WorkerPool pool;
+
+    /**
+     * @param geometry o tabuleiro (até {@link PositionIndex#MAX_CELLS} células)
+     * @param directory onde gravar os níveis (é criado se não existir)
+     * @param threads quantas threads resolvem cada nível (contando a que chama)
+     */
+    public RetrogradeSolver(BoardGeometry geometry, Path directory, int threads) {
+        this.pool = new WorkerPool("retrograde-solver", threads);
+        this.index = new PositionIndex(geometry);
+        this.directory = directory;
+    }
+
+    /**
+     * Desliga o pool das threads auxiliares (depois disso o solver não resolve mais nada).
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Uso: RetrogradeSolver <diretório> [tamanho sequência] [threads]");
+            return;
+        }
+        final var geometry = args.length >= 3
+                ? BoardGeometry.of(Integer.parseInt(args[1]), Integer.parseInt(args[2]))
+                : BoardGeometry.of(4, 3);
+        final var threads = args.length >= 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        try (final var solver = new RetrogradeSolver(geometry, Path.of(args[0]), threads)) {
+            final var start = System.nanoTime();
+            for (var level = geometry.getCellCount(); level >= 0; level--) {
+                final var levelStart = System.nanoTime();
+                final var counts = solver.solveLevel(level);
+                System.out.printf("nível %2d: %,d posições (vitórias %,d, derrotas %,d, velhas %,d) em %.2fs%n",
+                        level, solver.index.levelSize(level), counts[RetrogradeTable.WIN], counts[RetrogradeTable.LOSS],
+                        counts[RetrogradeTable.DRAW], (System.nanoTime() - levelStart) / 1e9);
+            }
+            final var table = RetrogradeTable.open(Path.of(args[0]));
+            final var empty = table.value(0, 0);
+            System.out.printf("tabuleiro vazio: %s para quem começa (%.2fs)%n",
+                    empty == RetrogradeTable.WIN ? "vitória" : empty == RetrogradeTable.LOSS ? "derrota" : "velha",
+                    (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * Resolve todos os níveis, do tabuleiro cheio até o vazio.
+     * @throws IOException se não for possível gravar algum nível
+     */
+    public void solve() throws IOException {
+        for (var level = index.getCellCount(); level >= 0; level--) {
+            solveLevel(level);
+        }
+    }
+
+    /**
+     * Resolve e grava um nível. O nível seguinte (com uma peça a mais) já precisa estar gravado,
+     * a não ser que este seja o tabuleiro cheio.
+     *
+     * @param level quantas peças existem no tabuleiro
+     * @return quantas posições ficaram com cada valor, indexado por {@link RetrogradeTable#WIN} e companhia
+     * @throws IOException se não for possível ler o nível seguinte ou gravar este
+     */
+    public long[] solveLevel(int level) throws IOException {
+        Files.createDirectories(directory);
+        final var next = level == index.getCellCount() ? null : RetrogradeTable.mapLevel(directory, index, level + 1);
+        final var positions = index.levelSize(level);
+        final var geometry = index.getGeometry();
+
+        try (final var channel = FileChannel.open(RetrogradeTable.levelPath(directory, level), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    RetrogradeTable.HEADER_BYTES + RetrogradeTable.entryBytes(positions));
+            buffer.putInt(RetrogradeTable.MAGIC)
+                    .putInt(RetrogradeTable.VERSION)
+                    .putInt(geometry.getSize())
+                    .putInt(geometry.getWinLength())
+                    .putInt(level)
+                    .putLong(positions);
+            final var entries = buffer.slice(RetrogradeTable.HEADER_BYTES, RetrogradeTable.entryBytes(positions));
+
+            final var counts = new AtomicLongArray(4);
+            final var nextChunk = new AtomicLong();
+            pool.run(worker -> solveChunks(level, next, entries, nextChunk, counts));
+
+            buffer.force();
+            final var result = new long[4];
+            for (var value = 0; value < result.length; value++) {
+                result[value] = counts.get(value);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * O laço de uma thread: pega blocos de posições até o nível acabar.
+     */
+    private void solveChunks(int level, ByteBuffer next, ByteBuffer entries, AtomicLong nextChunk, AtomicLongArray counts) {
+        final var positions = index.levelSize(level);
+        final var masks = new long[2];
+        final var localCounts = new long[4];
+        for (var start = nextChunk.getAndAdd(CHUNK_POSITIONS); start < positions; start = nextChunk.getAndAdd(CHUNK_POSITIONS)) {
+            final var end = Math.min(positions, start + CHUNK_POSITIONS);
+            var packed = 0;
+            for (var position = start; position < end; position++) {
+                index.unrank(level, position, masks);
+                final var value = solvePosition(level, masks[0], masks[1], next);
+                localCounts[value]++;
+                packed |= value << ((position & 3) << 1);
+                if ((position & 3) == 3 || position == end - 1) {
+                    entries.put((int) (position >>> 2), (byte) packed);
+                    packed = 0;
+                }
+            }
+        }
+        for (var value = 0; value < localCounts.length; value++) {
+            counts.addAndGet(value, localCounts[value]);
+        }
+    }
+
+    /**
+     * O valor de uma posição para quem tem a vez, olhando os valores do nível seguinte.
+     *
+     * @param mine as peças de quem tem a vez
+     * @param theirs as peças do adversário (quem jogou por último)
+     */
+    private int solvePosition(int level, long mine, long theirs, ByteBuffer next) {
+        if (index.hasLine(mine)) {
+            // o jogo teria acabado antes do adversário jogar
+            return RetrogradeTable.INVALID;
+        }
+        if (index.hasLine(theirs)) {
+            return RetrogradeTable.LOSS;
+        }
+        if (level == index.getCellCount()) {
+            return RetrogradeTable.DRAW;
+        }
+
+        // depois da jogada os papéis trocam: o adversário passa a ter a vez
+        var best = RetrogradeTable.LOSS;
+        final var full = (1L << index.getCellCount()) - 1;
+        for (var empty = full & ~(mine | theirs); empty != 0; empty &= empty - 1) {
+            final var child = RetrogradeTable.entry(next, index.rank(theirs, mine | Long.lowestOneBit(empty)));
+            if (child == RetrogradeTable.LOSS) {
+                return RetrogradeTable.WIN;
+            }
+            if (child == RetrogradeTable.DRAW) {
+                best = RetrogradeTable.DRAW;
+            }
+        }
+        return best;
+    }
+}
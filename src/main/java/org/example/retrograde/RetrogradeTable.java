@@ -0,0 +1,174 @@
+package org.example.retrograde;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * As tabelas geradas pelo {@link RetrogradeSolver}: o valor com jogo perfeito de cada posição de um tabuleiro.
+ *
+ * Cada nível (quantidade de peças) fica no seu arquivo, `level-NN.ttr` dentro do diretório, aberto com
+ * memory-map: o heap não guarda nada e o sistema operacional carrega as páginas sob demanda.
+ * A leitura é thread-safe.
+ *
+ * Formato de cada arquivo (big-endian):
+ * - cabeçalho: magic "TTTR" (int), versão (int), tamanho do tabuleiro (int), sequência para ganhar (int),
+ *   nível (int), quantidade de posições (long)
+ * - entradas: 2 bits por posição, quatro por byte (a posição `i` fica nos bits `2 * (i % 4)` do byte `i / 4`),
+ *   na ordem do {@link PositionIndex}
+ *
+ * O valor é sempre do ponto de vista de quem tem a vez: {@link #WIN}, {@link #LOSS}, {@link #DRAW}, ou
+ * {@link #INVALID} para posições que não acontecem num jogo (quem tem a vez já fez uma linha).
+ */
+public class RetrogradeTable {
+    public static final int INVALID = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int DRAW = 3;
+
+    static final int MAGIC = 0x54545452; // "TTTR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5 * Integer.BYTES + Long.BYTES;
+
+    private final PositionIndex index;
+    /**
+     * levels[n] são as entradas do nível com `n` peças
+     */
+    private final ByteBuffer[] levels;
+
+    private RetrogradeTable(PositionIndex index, ByteBuffer[] levels) {
+        this.index = index;
+        this.levels = levels;
+    }
+
+    /**
+     * Abre as tabelas geradas pelo {@link RetrogradeSolver} num diretório.
+     *
+     * @param directory o diretório com os arquivos de cada nível
+     * @return as tabelas, mapeadas em memória
+     * @throws IOException se algum nível estiver faltando, truncado ou for de outro tabuleiro
+     */
+    public static RetrogradeTable open(Path directory) throws IOException {
+        final var geometry = readGeometry(levelPath(directory, 0));
+        final var index = new PositionIndex(geometry);
+        final var levels = new ByteBuffer[index.getCellCount() + 1];
+        for (var level = 0; level < levels.length; level++) {
+            levels[level] = mapLevel(directory, index, level);
+        }
+        return new RetrogradeTable(index, levels);
+    }
+
+    /**
+     * @return a geometria do tabuleiro para o qual as tabelas foram geradas
+     */
+    public BoardGeometry getGeometry() {
+        return index.getGeometry();
+    }
+
+    /**
+     * @param board é o tabuleiro atual
+     * @param player é o jogador da vez
+     * @return o valor da posição para quem joga, ou {@link #INVALID} se a posição não é de um jogo
+     * (ou é de outro tabuleiro)
+     */
+    public int value(Board board, BoardCell player) {
+        if (board.getGeometry() != index.getGeometry()) {
+            return INVALID;
+        }
+        return value(mask(board, player), mask(board, player.opponent()));
+    }
+
+    /**
+     * Mesmo que {@link #value(Board, BoardCell)}, direto das máscaras (como as de {@link Board#getBits(BoardCell, int)}),
+     * para quem consulta em laço e não quer varrer o tabuleiro a cada posição.
+     *
+     * @param mine as peças de quem tem a vez
+     * @param theirs as peças do adversário
+     * @return o valor da posição para quem tem a vez
+     */
+    public int value(long mine, long theirs) {
+        final var level = Long.bitCount(mine) + Long.bitCount(theirs);
+        if (Long.bitCount(mine) != level / 2) {
+            // as contagens não batem com ninguém tendo jogado fora da vez
+            return INVALID;
+        }
+        return entry(levels[level], index.rank(mine, theirs));
+    }
+
+    PositionIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @param board é o tabuleiro atual
+     * @param player X ou O
+     * @return a máscara das peças do jogador
+     */
+    static long mask(Board board, BoardCell player) {
+        var mask = 0L;
+        for (var cell = 0; cell < board.getGeometry().getCellCount(); cell++) {
+            if (board.getBoardCell(cell) == player) {
+                mask |= 1L << cell;
+            }
+        }
+        return mask;
+    }
+
+    static int entry(ByteBuffer entries, long position) {
+        return (entries.get((int) (position >>> 2)) >>> ((position & 3) << 1)) & 3;
+    }
+
+    static Path levelPath(Path directory, int level) {
+        return directory.resolve(String.format("level-%02d.ttr", level));
+    }
+
+    /**
+     * @return quantos bytes as entradas de um nível ocupam
+     */
+    static int entryBytes(long positions) {
+        return (int) ((positions + 3) / 4);
+    }
+
+    /**
+     * Mapeia as entradas de um nível, conferindo o cabeçalho.
+     */
+    static ByteBuffer mapLevel(Path directory, PositionIndex index, int level) throws IOException {
+        final var path = levelPath(directory, level);
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // o mapeamento continua válido depois de fechar o canal
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+            final var geometry = index.getGeometry();
+            final var positions = index.levelSize(level);
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != geometry.getSize() || buffer.getInt(12) != geometry.getWinLength()
+                    || buffer.getInt(16) != level || buffer.getLong(20) != positions) {
+                throw new IOException("Arquivo não é o nível " + level + " desta tabela: " + path);
+            }
+            if (buffer.limit() < HEADER_BYTES + entryBytes(positions)) {
+                throw new IOException("Nível truncado: " + path);
+            }
+            return buffer.slice(HEADER_BYTES, entryBytes(positions));
+        }
+    }
+
+    private static BoardGeometry readGeometry(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("Tabela retrógrada não encontrada: " + path);
+        }
+        try (final var input = new DataInputStream(Files.newInputStream(path))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Arquivo não é uma tabela retrógrada válida: " + path);
+            }
+            return BoardGeometry.of(input.readInt(), input.readInt());
+        }
+    }
+}
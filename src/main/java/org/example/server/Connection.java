@@ -0,0 +1,64 @@
+package org.example.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Uma conexão com um cliente, lida e escrita linha a linha.
+ *
+ * Só a thread (virtual) da sessão usa a conexão, então não há sincronização. As leituras bloqueiam,
+ * o que é barato numa thread virtual: ela é desmontada da thread do sistema enquanto espera.
+ */
+class Connection implements Closeable {
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+
+    Connection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a próxima linha do cliente, sem espaços nas pontas
+     * @throws SessionClosedException se o cliente desconectou
+     */
+    String readLine() {
+        try {
+            final var line = reader.readLine();
+            if (line == null) {
+                throw new SessionClosedException("Cliente desconectou");
+            }
+            return line.trim();
+        } catch (IOException e) {
+            throw new SessionClosedException("Erro lendo do cliente: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Envia uma linha para o cliente (já enviada, sem ficar no buffer).
+     * @param line a mensagem, sem a quebra de linha
+     * @throws SessionClosedException se o cliente desconectou (como em {@link #readLine()})
+     */
+    void send(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new SessionClosedException("Erro escrevendo para o cliente: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.server;
+
+import org.example.core.BestMoveCache;
+import org.example.gamelog.GameLogWriter;
+import org.example.metrics.CacheMetrics;
+import org.example.metrics.GameMetrics;
+import org.example.metrics.MBeans;
+import org.example.metrics.SearchMetrics;
+import org.example.spectator.SpectatorHub;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor TCP que hospeda muitas partidas ao mesmo tempo, cada cliente jogando contra um bot.
+ *
+ * Cada conexão roda numa thread virtual, então dezenas de milhares de sessões custam pouco mais que a
+ * memória dos seus tabuleiros: enquanto uma sessão espera o cliente, ela não ocupa nenhuma thread do
+ * sistema. As buscas dos bots, que usam CPU, vão para um pool limitado (veja {@link PooledActionGenerator}).
+ *
+ * Protocolo, em linhas de texto UTF-8:
+ * - servidor: {@code WELCOME} ao conectar (e {@code SPECTATE <id>} se os espectadores estiverem ligados: é o id
+ *   que quem quiser assistir às partidas da sessão usa no {@link SpectatorHub})
+ * - cliente: {@code NEW [tamanho sequência]} começa uma partida (o padrão é 3x3), o cliente é sempre X
+ * - servidor: {@code START <tamanho> <sequência> X <quem começa>}
+ * - servidor: {@code TURN} quando é a vez do cliente, que responde {@code MOVE <linha> <coluna>}
+ *   (jogadas inválidas recebem {@code ERROR <motivo>} e o cliente tenta de novo)
+ * - servidor: {@code MOVED <peça> <linha> <coluna>} depois de cada jogada, dos dois jogadores
+ * - servidor: {@code END <X|O|DRAW>} no fim da partida; o cliente pode mandar outro {@code NEW}
+ * - cliente: {@code QUIT} a qualquer momento encerra a sessão
+ *
+ * Uso: `java org.example.server.GameServer [porta] [threads para os bots] [diretório do log de partidas ou -]
+ * [porta dos espectadores]`.
+ */
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7070;
+    /**
+     * Tempo que o bot tem para cada jogada em tabuleiros maiores que 3x3
+     */
+    public static final long BOT_MILLIS_PER_MOVE = 200;
+    /**
+     * Quantas conexões podem esperar na fila do accept (rajadas de milhares de clientes conectando juntos)
+     */
+    private static final int ACCEPT_BACKLOG = 4096;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService botPool;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final GameMetrics gameMetrics = new GameMetrics();
+    private final SearchMetrics searchMetrics = new SearchMetrics();
+    /**
+     * Onde as partidas terminadas são gravadas (null se o log estiver desligado)
+     */
+    private final GameLogWriter gameLog;
+    /**
+     * Onde as partidas são transmitidas para espectadores (null se estiver desligado)
+     */
+    private final SpectatorHub spectatorHub;
+
+    /**
+     * @param port a porta (0 escolhe uma livre, veja {@link #getPort()})
+     * @param botThreads quantas buscas de bot podem rodar ao mesmo tempo
+     * @throws IOException se não for possível abrir a porta
+     */
+    public GameServer(int port, int botThreads) throws IOException {
+        this(port, botThreads, null);
+    }
+
+    /**
+     * @param port a porta (0 escolhe uma livre, veja {@link #getPort()})
+     * @param botThreads quantas buscas de bot podem rodar ao mesmo tempo
+     * @param gameLog onde gravar as partidas terminadas (pode ser null); é fechado junto com o servidor
+     * @throws IOException se não for possível abrir a porta
+     */
+    public GameServer(int port, int botThreads, GameLogWriter gameLog) throws IOException {
+        this(port, botThreads, gameLog, null);
+    }
+
+    /**
+     * @param port a porta (0 escolhe uma livre, veja {@link #getPort()})
+     * @param botThreads quantas buscas de bot podem rodar ao mesmo tempo
+     * @param gameLog onde gravar as partidas terminadas (pode ser null); é fechado junto com o servidor
+     * @param spectatorHub onde transmitir as partidas (pode ser null); é fechado junto com o servidor
+     * @throws IOException se não for possível abrir a porta
+     */
+    public GameServer(int port, int botThreads, GameLogWriter gameLog, SpectatorHub spectatorHub) throws IOException {
+        this.gameLog = gameLog;
+        this.spectatorHub = spectatorHub;
+        this.serverSocket = new ServerSocket(port, ACCEPT_BACKLOG);
+        this.botPool = Executors.newFixedThreadPool(botThreads, runnable -> {
+            final var thread = new Thread(runnable, "bot-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        final var port = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        final var botThreads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final var gameLog = args.length >= 3 && !args[2].equals("-") ? new GameLogWriter(Path.of(args[2])) : null;
+        final var spectatorHub = args.length >= 4 ? new SpectatorHub(Integer.parseInt(args[3])) : null;
+        try (final var server = new GameServer(port, botThreads, gameLog, spectatorHub)) {
+            // as métricas aparecem no jconsole/VisualVM em org.example
+            MBeans.register("GameMetrics", server.getGameMetrics());
+            MBeans.register("SearchMetrics", server.getSearchMetrics());
+            MBeans.register("BestMoveCache", new CacheMetrics(BestMoveCache.shared()));
+            System.out.println("Servidor ouvindo na porta " + server.getPort());
+            if (spectatorHub != null) {
+                System.out.println("Espectadores na porta " + spectatorHub.getPort());
+            }
+            server.serve();
+        }
+    }
+
+    /**
+     * Aceita conexões até o servidor ser fechado, abrindo uma thread virtual para cada uma.
+     * @throws IOException se o accept falhar por outro motivo que não o fechamento do servidor
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            final Connection connection;
+            try {
+                final var socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connection = new Connection(socket);
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            activeSessions.incrementAndGet();
+            sessions.execute(() -> {
+                try {
+                    new GameSession(connection, botPool, BOT_MILLIS_PER_MOVE, gameMetrics, searchMetrics, gameLog,
+                            spectatorHub).run();
+                } finally {
+                    activeSessions.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return a porta onde o servidor está ouvindo
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return as métricas das partidas de todas as sessões
+     */
+    public GameMetrics getGameMetrics() {
+        return gameMetrics;
+    }
+
+    /**
+     * @return as métricas das buscas de todos os bots
+     */
+    public SearchMetrics getSearchMetrics() {
+        return searchMetrics;
+    }
+
+    /**
+     * @return quantas sessões estão abertas agora
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Para de aceitar conexões, derruba as sessões abertas e fecha o log de partidas e os espectadores.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+        botPool.shutdownNow();
+        if (spectatorHub != null) {
+            spectatorHub.close();
+        }
+        if (gameLog != null) {
+            // esperamos as sessões saírem para nenhuma tentar gravar no log já fechado
+            try {
+                sessions.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            gameLog.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.server;
+
+import org.example.core.ActionGenerator;
+import org.example.core.BestMoveCache;
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Game;
+import org.example.core.GameListener;
+import org.example.core.GameState;
+import org.example.core.IterativeDeepeningActionGenerator;
+import org.example.core.MiniMaxActionGenerator;
+import org.example.core.Moves;
+import org.example.core.OpenLinesEvaluator;
+import org.example.core.SearchBudget;
+import org.example.core.TranspositionTable;
+import org.example.gamelog.GameLogListener;
+import org.example.gamelog.GameLogWriter;
+import org.example.metrics.GameMetrics;
+import org.example.metrics.SearchMetrics;
+import org.example.spectator.GameBroadcast;
+import org.example.spectator.SpectatorHub;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uma conexão de cliente: várias partidas seguidas entre o cliente (X) e um bot (O).
+ * Roda inteira numa thread virtual, veja o protocolo em {@link GameServer}.
+ */
+class GameSession implements Runnable, GameListener {
+    /**
+     * Tabela pequena por sessão: com dezenas de milhares de sessões, a tabela padrão custaria gigabytes
+     */
+    private static final int BOT_TABLE_SIZE = 1 << 8;
+
+    private final Connection connection;
+    private final ExecutorService botPool;
+    private final long botMillisPerMove;
+    private final SearchMetrics searchMetrics;
+    private final GameMetrics.SessionMetrics sessionMetrics;
+    private final GameListener listener;
+    /**
+     * A transmissão das partidas da sessão (null se os espectadores estiverem desligados)
+     */
+    private final GameBroadcast broadcast;
+
+    GameSession(Connection connection, ExecutorService botPool, long botMillisPerMove,
+                GameMetrics gameMetrics, SearchMetrics searchMetrics, GameLogWriter gameLog, SpectatorHub spectatorHub) {
+        this.connection = connection;
+        this.botPool = botPool;
+        this.botMillisPerMove = botMillisPerMove;
+        this.searchMetrics = searchMetrics;
+        this.sessionMetrics = gameMetrics.newSession();
+        this.broadcast = spectatorHub == null ? null : spectatorHub.openGame();
+        // com o log ligado, toda partida terminada vai para o disco; com os espectadores, toda jogada vai para eles
+        final var listeners = new ArrayList<GameListener>(List.of(this, sessionMetrics));
+        if (gameLog != null) {
+            listeners.add(new GameLogListener(gameLog));
+        }
+        if (broadcast != null) {
+            listeners.add(broadcast);
+        }
+        this.listener = GameListener.all(listeners.toArray(GameListener[]::new));
+    }
+
+    @Override
+    public void run() {
+        try (connection) {
+            try {
+                serve();
+            } catch (SessionClosedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // falha do nosso lado (o bot, o log de partidas...): avisamos o cliente antes de fechar a conexão
+                sessionMetrics.abandon();
+                System.err.println("Sessão encerrada por erro: " + e);
+                try {
+                    connection.send("ERROR Erro no servidor: " + e.getMessage());
+                } catch (SessionClosedException ignored) {
+                    // o cliente também já foi embora
+                }
+            }
+        } catch (SessionClosedException | IOException e) {
+            // o cliente foi embora; não há mais nada a fazer com a sessão
+            sessionMetrics.abandon();
+        } finally {
+            if (broadcast != null) {
+                broadcast.close();
+            }
+        }
+    }
+
+    /**
+     * O protocolo da sessão: partidas seguidas até o QUIT (ou até o cliente desconectar).
+     */
+    private void serve() {
+        connection.send("WELCOME");
+        if (broadcast != null) {
+            connection.send("SPECTATE " + broadcast.getId());
+        }
+        // o bot é criado na primeira partida e reaproveitado enquanto o tamanho do tabuleiro não mudar
+        ActionGenerator bot = null;
+        BoardGeometry botGeometry = null;
+        while (true) {
+            final var parts = connection.readLine().split("\\s+");
+            if (parts[0].equals("QUIT")) {
+                return;
+            }
+            // NEW sozinho ou com tamanho e sequência; com só um dos dois não dá para adivinhar o tabuleiro
+            if (!parts[0].equals("NEW") || parts.length != 1 && parts.length != 3) {
+                connection.send("ERROR Esperava NEW [tamanho sequência] ou QUIT");
+                continue;
+            }
+
+            final BoardGeometry geometry;
+            try {
+                geometry = parts.length == 3
+                        ? BoardGeometry.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))
+                        : BoardGeometry.STANDARD;
+            } catch (IllegalArgumentException e) {
+                connection.send("ERROR " + e.getMessage());
+                continue;
+            }
+            if (geometry != botGeometry) {
+                bot = new PooledActionGenerator(createBot(geometry), botPool);
+                botGeometry = geometry;
+            }
+            play(geometry, bot);
+        }
+    }
+
+    private void play(BoardGeometry geometry, ActionGenerator bot) {
+        final var gameState = new GameState(new RemoteActionGenerator(connection), bot);
+        final var game = new Game(gameState, new Board(geometry));
+        final var first = ThreadLocalRandom.current().nextBoolean() ? gameState.getXPlayer() : gameState.getOPlayer();
+        connection.send("START " + geometry.getSize() + " " + geometry.getWinLength() + " X " + first.getBoardCell());
+        if (broadcast != null) {
+            broadcast.start(geometry);
+        }
+        game.play(first, listener);
+    }
+
+    /**
+     * No 3x3 o bot joga perfeito; nos maiores, busca com tempo limitado por jogada.
+     * Todos os bots consultam o {@link BestMoveCache#shared()}: as aberturas que todas as sessões repetem
+     * são buscadas uma vez só no servidor inteiro.
+     */
+    private ActionGenerator createBot(BoardGeometry geometry) {
+        final var transpositionTable = new TranspositionTable(BOT_TABLE_SIZE, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        if (geometry.getCellCount() <= 9) {
+            final var bot = new MiniMaxActionGenerator(transpositionTable);
+            bot.setSearchListener(searchMetrics);
+            bot.setBestMoveCache(BestMoveCache.shared());
+            return bot;
+        }
+        final var bot = new IterativeDeepeningActionGenerator(SearchBudget.ofMillis(botMillisPerMove),
+                new OpenLinesEvaluator(), transpositionTable);
+        bot.setSearchListener(searchMetrics);
+        bot.setBestMoveCache(BestMoveCache.shared());
+        return bot;
+    }
+
+    @Override
+    public void onMove(Board board, int move, long nanos) {
+        final var size = board.getBoardSize();
+        connection.send("MOVED " + Moves.player(move) + " " + Moves.row(move, size) + " " + Moves.column(move, size));
+    }
+
+    @Override
+    public void onGameOver(Board board, BoardCell winner) {
+        connection.send("END " + (winner == BoardCell.EMPTY ? "DRAW" : winner));
+    }
+}
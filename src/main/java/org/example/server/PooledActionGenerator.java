@@ -0,0 +1,59 @@
+package org.example.server;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Roda as buscas de um bot num pool de threads limitado, em vez de na thread virtual da sessão.
+ *
+ * As buscas usam CPU o tempo todo; se rodassem direto nas threads virtuais, ocupariam todas as threads
+ * do sistema que carregam as threads virtuais e as sessões esperando rede ficariam sem vez. Com o pool,
+ * no máximo `n` buscas rodam ao mesmo tempo e as outras esperam na fila, enquanto a thread virtual da
+ * sessão fica parada (sem custo) esperando o resultado.
+ */
+class PooledActionGenerator implements ActionGenerator {
+    private final ActionGenerator delegate;
+    private final ExecutorService pool;
+
+    /**
+     * @param delegate o bot (é usado por uma sessão só, então não precisa ser thread-safe)
+     * @param pool o pool de CPU compartilhado por todas as sessões
+     */
+    PooledActionGenerator(ActionGenerator delegate, ExecutorService pool) {
+        this.delegate = delegate;
+        this.pool = pool;
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return runInPool(() -> delegate.generateAction(board, player));
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        return runInPool(() -> delegate.generateMove(board, player));
+    }
+
+    /**
+     * Roda a busca no pool e espera o resultado. Se a sessão for interrompida esperando, a busca é
+     * cancelada (sai da fila, ou a thread do pool é interrompida) para não ocupar o pool à toa.
+     */
+    private <T> T runInPool(Callable<T> search) {
+        final var future = pool.submit(search);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SessionClosedException("Sessão interrompida esperando o bot");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na busca do bot", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.server;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.CliActionGenerator;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+
+/**
+ * O equivalente do {@link CliActionGenerator} para um jogador conectado pela rede: avisa que é a vez
+ * dele ({@code TURN}) e espera um {@code MOVE <linha> <coluna>} válido, respondendo {@code ERROR} aos inválidos.
+ */
+class RemoteActionGenerator implements ActionGenerator {
+    private final Connection connection;
+
+    RemoteActionGenerator(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        connection.send("TURN");
+        while (true) {
+            final var parts = connection.readLine().split("\\s+");
+            if (parts[0].equals("QUIT")) {
+                throw new SessionClosedException("Cliente saiu no meio da partida");
+            }
+            try {
+                if (!parts[0].equals("MOVE") || parts.length != 3) {
+                    throw new IllegalArgumentException("Esperava MOVE <linha> <coluna>");
+                }
+                final var row = Integer.parseInt(parts[1]);
+                final var column = Integer.parseInt(parts[2]);
+                CliActionGenerator.validateAction(board, row, column);
+                return new PlayerAction(player, row, column);
+            } catch (IllegalArgumentException e) {
+                connection.send("ERROR " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.server;
+
+/**
+ * Lançada quando o cliente sai ({@code QUIT}) ou desconecta no meio de uma partida.
+ * Interrompe o {@link org.example.core.Game} da sessão, que não tem outra forma de ser cancelado.
+ */
+class SessionClosedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    SessionClosedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.session;
+
+/**
+ * A situação de uma partida guardada no {@link SessionStore}.
+ */
+public enum SessionStatus {
+    IN_PROGRESS,
+    X_WON,
+    O_WON,
+    DRAW;
+
+    /**
+     * Cópia de values(), que aloca um array novo a cada chamada
+     */
+    static final SessionStatus[] VALUES = values();
+
+    /**
+     * @return true se a partida acabou
+     */
+    public boolean isGameOver() {
+        return this != IN_PROGRESS;
+    }
+}
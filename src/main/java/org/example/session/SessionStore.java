@@ -0,0 +1,325 @@
+package org.example.session;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guarda milhões de partidas em andamento sem nenhum objeto por partida: cada partida é um único
+ * long dentro de um array grande, indexado pelo id da sessão.
+ *
+ * Um milhão de partidas ocupa 8 MB de estados mais 4 MB da lista de ids livres, em vez de um
+ * {@link org.example.core.Game} com jogadores, geradores e {@link Board} para cada uma. O GC
+ * também agradece: são dois arrays, não milhões de objetos pequenos.
+ *
+ * Formato do long (c = quantidade de células, no máximo 25, ou seja, tabuleiros de até 5x5):
+ * - bits 0..c-1: as peças de X
+ * - bits c..2c-1: as peças de O
+ * - bit 56: vez de O
+ * - bits 57..58: {@link SessionStatus}
+ * - bit 63: a sessão existe
+ * A quantidade de jogadas não precisa ser guardada: é o número de bits ligados nas duas máscaras.
+ *
+ * Todas as operações são thread-safe e sem locks: cada jogada lê o estado, calcula o próximo e grava
+ * com compare-and-set, tentando de novo se outra thread mexeu na mesma sessão no meio do caminho.
+ * Sessões diferentes nunca disputam nada.
+ */
+public class SessionStore {
+    /**
+     * O maior tabuleiro que cabe em um long: 2 * 25 bits de peças, mais os bits de controle
+     */
+    public static final int MAX_CELLS = 25;
+
+    private static final int O_TO_MOVE_BIT = 56;
+    private static final int STATUS_SHIFT = 57;
+    private static final long STATUS_MASK = 0b11L << STATUS_SHIFT;
+    private static final long ALLOCATED = 1L << 63;
+    /**
+     * Valor dos ids livres no topo da pilha de livres
+     */
+    private static final int NONE = -1;
+
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final BoardGeometry geometry;
+    private final int cellCount;
+    private final long cellsMask;
+    /**
+     * winMasks[cell] = as máscaras das linhas vencedoras que passam pela célula
+     */
+    private final long[][] winMasks;
+
+    private final long[] states;
+    /**
+     * A pilha de ids livres (Treiber stack): nextFree[id] é o id livre abaixo de `id`.
+     * O topo guarda o id nos 32 bits de baixo e um contador de versões nos de cima, para evitar ABA.
+     */
+    private final int[] nextFree;
+    private final AtomicLong freeTop = new AtomicLong(NONE & 0xFFFF_FFFFL);
+    /**
+     * Ids nunca usados começam daqui
+     */
+    private final AtomicInteger nextUnused = new AtomicInteger();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    /**
+     * @param geometry o tabuleiro das partidas (até 5x5)
+     * @param capacity quantas sessões podem existir ao mesmo tempo
+     */
+    public SessionStore(BoardGeometry geometry, int capacity) {
+        if (geometry.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("O SessionStore só suporta tabuleiros de até " + MAX_CELLS + " células");
+        }
+        this.geometry = geometry;
+        this.cellCount = geometry.getCellCount();
+        this.cellsMask = (1L << cellCount) - 1;
+        this.winMasks = buildWinMasks(geometry);
+        this.states = new long[capacity];
+        this.nextFree = new int[capacity];
+    }
+
+    /**
+     * Cria uma partida nova, com o tabuleiro vazio.
+     *
+     * @param firstPlayer quem começa
+     * @return o id da sessão
+     * @throws IllegalStateException se o store estiver cheio
+     */
+    public int create(BoardCell firstPlayer) {
+        final var id = allocateId();
+        final var state = ALLOCATED | (firstPlayer == BoardCell.O ? 1L << O_TO_MOVE_BIT : 0);
+        STATES.setRelease(states, id, state);
+        activeSessions.incrementAndGet();
+        return id;
+    }
+
+    /**
+     * Joga na célula pela vez de quem for o jogador da vez.
+     *
+     * @param id a sessão
+     * @param cell a célula (linha * tamanho + coluna)
+     * @return o estado depois da jogada (use os métodos estáticos para ler)
+     * @throws IllegalArgumentException se a célula não existir ou estiver ocupada
+     * @throws IllegalStateException se a sessão não existir ou a partida já tiver acabado
+     */
+    public long play(int id, int cell) {
+        if (cell < 0 || cell >= cellCount) {
+            throw new IllegalArgumentException("Célula inválida");
+        }
+        while (true) {
+            final var state = (long) STATES.getAcquire(states, id);
+            checkPlayable(state);
+            final var xBits = state & cellsMask;
+            final var oBits = (state >>> cellCount) & cellsMask;
+            if (((xBits | oBits) & (1L << cell)) != 0) {
+                throw new IllegalArgumentException("Célula já ocupada");
+            }
+
+            final var player = sideToMove(state);
+            final var playerBits = (player == BoardCell.X ? xBits : oBits) | (1L << cell);
+            final SessionStatus status;
+            if (completesLine(playerBits, cell)) {
+                status = player == BoardCell.X ? SessionStatus.X_WON : SessionStatus.O_WON;
+            } else if (Long.bitCount(xBits | oBits) + 1 == cellCount) {
+                status = SessionStatus.DRAW;
+            } else {
+                status = SessionStatus.IN_PROGRESS;
+            }
+
+            final var pieces = player == BoardCell.X
+                    ? playerBits | (oBits << cellCount)
+                    : xBits | (playerBits << cellCount);
+            final var next = ALLOCATED
+                    | pieces
+                    | (player == BoardCell.X ? 1L << O_TO_MOVE_BIT : 0)
+                    | ((long) status.ordinal() << STATUS_SHIFT);
+            if (STATES.compareAndSet(states, id, state, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @param id a sessão
+     * @return o estado atual da sessão (use os métodos estáticos para ler)
+     * @throws IllegalStateException se a sessão não existir
+     */
+    public long get(int id) {
+        final var state = (long) STATES.getAcquire(states, id);
+        if ((state & ALLOCATED) == 0) {
+            throw new IllegalStateException("Sessão inexistente: " + id);
+        }
+        return state;
+    }
+
+    /**
+     * Encerra a sessão e devolve o id para ser reaproveitado.
+     * @param id a sessão
+     * @throws IllegalStateException se a sessão não existir
+     */
+    public void release(int id) {
+        while (true) {
+            final var state = (long) STATES.getAcquire(states, id);
+            if ((state & ALLOCATED) == 0) {
+                throw new IllegalStateException("Sessão inexistente: " + id);
+            }
+            if (STATES.compareAndSet(states, id, state, 0L)) {
+                break;
+            }
+        }
+        activeSessions.decrementAndGet();
+        pushFree(id);
+    }
+
+    /**
+     * Monta um {@link Board} com a posição da sessão, para entregar a um action generator.
+     * @param id a sessão
+     * @return um tabuleiro novo, independente do store
+     */
+    public Board toBoard(int id) {
+        final var state = get(id);
+        final var board = new Board(geometry);
+        for (var cell = 0; cell < cellCount; cell++) {
+            final var value = cell(state, cell);
+            if (value != BoardCell.EMPTY) {
+                board.setCell(cell, value);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return quantas sessões existem agora
+     */
+    public int size() {
+        return activeSessions.get();
+    }
+
+    /**
+     * @return quantas sessões cabem no store
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    /**
+     * @return o tabuleiro das partidas
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @param state um estado retornado por {@link #get(int)} ou {@link #play(int, int)}
+     * @param cell a célula
+     * @return a peça na célula
+     */
+    public BoardCell cell(long state, int cell) {
+        if ((state & (1L << cell)) != 0) {
+            return BoardCell.X;
+        }
+        if ((state & (1L << (cellCount + cell))) != 0) {
+            return BoardCell.O;
+        }
+        return BoardCell.EMPTY;
+    }
+
+    /**
+     * @param state um estado retornado por {@link #get(int)} ou {@link #play(int, int)}
+     * @return quantas jogadas já foram feitas
+     */
+    public int moveCount(long state) {
+        return Long.bitCount(state & ((1L << (2 * cellCount)) - 1));
+    }
+
+    /**
+     * @param state um estado retornado por {@link #get(int)} ou {@link #play(int, int)}
+     * @return o jogador da vez
+     */
+    public static BoardCell sideToMove(long state) {
+        return (state & (1L << O_TO_MOVE_BIT)) != 0 ? BoardCell.O : BoardCell.X;
+    }
+
+    /**
+     * @param state um estado retornado por {@link #get(int)} ou {@link #play(int, int)}
+     * @return a situação da partida
+     */
+    public static SessionStatus status(long state) {
+        return SessionStatus.VALUES[(int) ((state & STATUS_MASK) >>> STATUS_SHIFT)];
+    }
+
+    private void checkPlayable(long state) {
+        if ((state & ALLOCATED) == 0) {
+            throw new IllegalStateException("Sessão inexistente");
+        }
+        if (status(state).isGameOver()) {
+            throw new IllegalStateException("A partida já acabou");
+        }
+    }
+
+    /**
+     * Só as linhas que passam pela última jogada podem ter sido completadas.
+     */
+    private boolean completesLine(long playerBits, int cell) {
+        for (final var mask : winMasks[cell]) {
+            if ((playerBits & mask) == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int allocateId() {
+        while (true) {
+            final var top = freeTop.get();
+            final var id = (int) top;
+            if (id == NONE) {
+                break;
+            }
+            // a versão nos bits de cima muda a cada pop, então um topo reciclado não engana o CAS
+            final var next = ((top >>> 32) + 1) << 32 | (nextFree[id] & 0xFFFF_FFFFL);
+            if (freeTop.compareAndSet(top, next)) {
+                return id;
+            }
+        }
+        while (true) {
+            final var id = nextUnused.get();
+            if (id >= states.length) {
+                throw new IllegalStateException("O SessionStore está cheio (" + states.length + " sessões)");
+            }
+            if (nextUnused.compareAndSet(id, id + 1)) {
+                return id;
+            }
+        }
+    }
+
+    private void pushFree(int id) {
+        while (true) {
+            final var top = freeTop.get();
+            nextFree[id] = (int) top;
+            final var next = ((top >>> 32) + 1) << 32 | (id & 0xFFFF_FFFFL);
+            if (freeTop.compareAndSet(top, next)) {
+                return;
+            }
+        }
+    }
+
+    private static long[][] buildWinMasks(BoardGeometry geometry) {
+        final var masks = new long[geometry.getCellCount()][];
+        for (var cell = 0; cell < masks.length; cell++) {
+            final var lines = geometry.getCellLines(cell);
+            masks[cell] = new long[lines.length];
+            for (var i = 0; i < lines.length; i++) {
+                for (final var lineCell : geometry.getLineCells(lines[i])) {
+                    masks[cell][i] |= 1L << lineCell;
+                }
+            }
+        }
+        return masks;
+    }
+}
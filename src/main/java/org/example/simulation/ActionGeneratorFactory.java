@@ -0,0 +1,19 @@
+package org.example.simulation;
+
+import org.example.core.ActionGenerator;
+
+/**
+ * Cria um action generator para cada thread do {@link SelfPlaySimulator}.
+ *
+ * Os geradores guardam estado (tabela de transposição, árvore do MCTS, gerador de números aleatórios...)
+ * e não são thread-safe, então cada thread precisa do seu. A semente vem do simulador, derivada da
+ * semente da simulação, para que as partidas sejam reprodutíveis.
+ */
+@FunctionalInterface
+public interface ActionGeneratorFactory {
+    /**
+     * @param seed uma semente para o gerador (quem não usa números aleatórios pode ignorar)
+     * @return um gerador novo, usado por uma thread só
+     */
+    ActionGenerator create(long seed);
+}
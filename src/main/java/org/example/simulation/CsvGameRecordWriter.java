@@ -0,0 +1,51 @@
+package org.example.simulation;
+
+import org.example.core.BoardCell;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Grava as partidas do {@link SelfPlaySimulator} à medida que terminam, uma por linha:
+ * `partida,quem começou,vencedor,jogadas` (jogadas separadas por espaço, vencedor "-" se deu velha).
+ *
+ * É chamado por várias threads ao mesmo tempo, então a escrita é sincronizada. Nada fica
+ * guardado em memória além do buffer de escrita.
+ */
+public class CsvGameRecordWriter implements Consumer<GameRecord>, Closeable {
+    private final BufferedWriter writer;
+    private final StringBuilder line = new StringBuilder();
+
+    public CsvGameRecordWriter(Writer writer) {
+        this.writer = new BufferedWriter(writer, 1 << 16);
+    }
+
+    @Override
+    public synchronized void accept(GameRecord record) {
+        line.setLength(0);
+        line.append(record.gameIndex()).append(',')
+                .append(record.firstPlayer()).append(',')
+                .append(record.winner() == BoardCell.EMPTY ? "-" : record.winner()).append(',');
+        for (var i = 0; i < record.moves().length; i++) {
+            if (i > 0) {
+                line.append(' ');
+            }
+            line.append(Byte.toUnsignedInt(record.moves()[i]));
+        }
+        line.append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
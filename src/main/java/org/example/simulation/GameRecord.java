@@ -0,0 +1,14 @@
+package org.example.simulation;
+
+import org.example.core.BoardCell;
+
+/**
+ * O resultado de uma partida simulada.
+ *
+ * @param gameIndex o número da partida na simulação (de 0 até a quantidade de partidas - 1)
+ * @param firstPlayer quem começou
+ * @param winner quem ganhou, ou EMPTY se deu velha
+ * @param moves as células jogadas, em ordem (linha * tamanho + coluna), alternando a partir de `firstPlayer`
+ */
+public record GameRecord(long gameIndex, BoardCell firstPlayer, BoardCell winner, byte[] moves) {
+}
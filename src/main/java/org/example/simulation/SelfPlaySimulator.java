@@ -0,0 +1,188 @@
+package org.example.simulation;
+
+import org.example.core.Board;
+import org.example.core.BoardGeometry;
+import org.example.core.Game;
+import org.example.core.GameListener;
+import org.example.core.GameState;
+import org.example.core.IterativeDeepeningActionGenerator;
+import org.example.core.MiniMaxActionGenerator;
+import org.example.core.MonteCarloActionGenerator;
+import org.example.core.Moves;
+import org.example.core.RandomActionGenerator;
+import org.example.core.SearchBudget;
+import org.example.core.WorkerPool;
+import org.example.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Joga muitas partidas entre dois action generators, sem console, usando todos os núcleos.
+ *
+ * Cada thread tem seus próprios geradores, tabuleiro e contadores, então as threads não disputam nada
+ * durante a simulação; só juntamos os números no final. As partidas são divididas de forma fixa
+ * (a thread t joga as partidas t, t + threads, t + 2 * threads...) e toda a aleatoriedade vem da semente,
+ * então a mesma semente com o mesmo número de threads repete as mesmas partidas (desde que os
+ * geradores sejam determinísticos, ou seja, limitados por nós e não por tempo).
+ *
+ * As partidas não ficam em memória: cada uma é entregue ao `sink` assim que termina.
+ *
+ * Uso: `java org.example.simulation.SelfPlaySimulator <partidas> <threads> <semente> <botX> <botO>
+ * [tamanho sequência] [saída.csv]`, onde os bots podem ser `random`, `minimax`, `id:<nós>` ou `mcts:<simulações>`.
+ */
+public class SelfPlaySimulator {
+    private final BoardGeometry geometry;
+    private final ActionGeneratorFactory xFactory;
+    private final ActionGeneratorFactory oFactory;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * @param geometry o tabuleiro onde as partidas são jogadas
+     * @param xFactory cria o gerador de jogadas do jogador X de cada thread
+     * @param oFactory cria o gerador de jogadas do jogador O de cada thread
+     * @param threads quantas partidas são jogadas ao mesmo tempo
+     * @param seed a semente de toda a aleatoriedade da simulação
+     */
+    public SelfPlaySimulator(BoardGeometry geometry, ActionGeneratorFactory xFactory, ActionGeneratorFactory oFactory,
+                             int threads, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("É preciso pelo menos uma thread");
+        }
+        this.geometry = geometry;
+        this.xFactory = xFactory;
+        this.oFactory = oFactory;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.out.println("Uso: SelfPlaySimulator <partidas> <threads> <semente> <botX> <botO> "
+                    + "[tamanho sequência] [saída.csv]");
+            System.out.println("Bots: random, minimax, id:<nós>, mcts:<simulações>");
+            return;
+        }
+        final var games = Long.parseLong(args[0]);
+        final var threads = Integer.parseInt(args[1]);
+        final var seed = Long.parseLong(args[2]);
+        final var geometry = args.length >= 7
+                ? BoardGeometry.of(Integer.parseInt(args[5]), Integer.parseInt(args[6]))
+                : BoardGeometry.STANDARD;
+        final var simulator = new SelfPlaySimulator(geometry, parseBot(args[3]), parseBot(args[4]), threads, seed);
+
+        final SimulationReport report;
+        if (args.length >= 8) {
+            try (final var writer = new CsvGameRecordWriter(
+                    new OutputStreamWriter(Files.newOutputStream(Path.of(args[7])), StandardCharsets.UTF_8))) {
+                report = simulator.run(games, writer);
+            }
+        } else {
+            report = simulator.run(games, null);
+        }
+        System.out.println(report);
+    }
+
+    /**
+     * Joga as partidas e espera todas terminarem.
+     *
+     * @param games quantas partidas jogar
+     * @param sink recebe cada partida assim que termina, de várias threads ao mesmo tempo (pode ser null)
+     * @return o resumo da simulação
+     */
+    public SimulationReport run(long games, Consumer<GameRecord> sink) {
+        // as sementes de cada thread são tiradas antes de começar, sempre na mesma ordem
+        final var seeds = new SplittableRandom(seed);
+        final var workers = new ArrayList<Worker>(threads);
+        for (var i = 0; i < threads; i++) {
+            workers.add(new Worker(i, games, sink, seeds.split()));
+        }
+
+        final var start = System.nanoTime();
+        try (final var pool = new WorkerPool("self-play", threads)) {
+            pool.run(worker -> workers.get(worker).run());
+        }
+        final var elapsed = System.nanoTime() - start;
+
+        final var latency = new LatencyHistogram();
+        long xWins = 0, oWins = 0, draws = 0;
+        for (final var worker : workers) {
+            latency.merge(worker.latency);
+            xWins += worker.xWins;
+            oWins += worker.oWins;
+            draws += worker.draws;
+        }
+        return new SimulationReport(xWins + oWins + draws, xWins, oWins, draws, elapsed, latency);
+    }
+
+    private static ActionGeneratorFactory parseBot(String name) {
+        final var separator = name.indexOf(':');
+        final var kind = separator == -1 ? name : name.substring(0, separator);
+        final var limit = separator == -1 ? 0 : Long.parseLong(name.substring(separator + 1));
+        return switch (kind) {
+            case "random" -> RandomActionGenerator::new;
+            case "minimax" -> seed -> new MiniMaxActionGenerator();
+            case "id" -> seed -> new IterativeDeepeningActionGenerator(SearchBudget.ofNodes(limit));
+            case "mcts" -> seed -> new MonteCarloActionGenerator(SearchBudget.ofNodes(limit), seed);
+            default -> throw new IllegalArgumentException("Bot desconhecido: " + name);
+        };
+    }
+
+    /**
+     * Uma thread da simulação: joga as suas partidas e conta os resultados, sem falar com as outras.
+     */
+    private final class Worker implements Runnable, GameListener {
+        private final int index;
+        private final long games;
+        private final Consumer<GameRecord> sink;
+        private final SplittableRandom random;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final byte[] moves = new byte[geometry.getCellCount()];
+        private int moveCount;
+        private long xWins;
+        private long oWins;
+        private long draws;
+
+        Worker(int index, long games, Consumer<GameRecord> sink, SplittableRandom random) {
+            this.index = index;
+            this.games = games;
+            this.sink = sink;
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            final var gameState = new GameState(xFactory.create(random.nextLong()), oFactory.create(random.nextLong()));
+            final var empty = new Board(geometry);
+            final var game = new Game(gameState, new Board(geometry));
+            for (var gameIndex = (long) index; gameIndex < games; gameIndex += threads) {
+                game.getBoard().copyFrom(empty);
+                moveCount = 0;
+                final var first = random.nextBoolean() ? gameState.getXPlayer() : gameState.getOPlayer();
+                final var winner = game.play(first, this);
+                switch (winner) {
+                    case X -> xWins++;
+                    case O -> oWins++;
+                    default -> draws++;
+                }
+                if (sink != null) {
+                    sink.accept(new GameRecord(gameIndex, first.getBoardCell(), winner, Arrays.copyOf(moves, moveCount)));
+                }
+            }
+        }
+
+        @Override
+        public void onMove(Board board, int move, long nanos) {
+            latency.record(nanos);
+            moves[moveCount++] = (byte) Moves.cell(move);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.simulation;
+
+import org.example.metrics.LatencyHistogram;
+
+/**
+ * O resumo de uma simulação do {@link SelfPlaySimulator}.
+ *
+ * @param games quantas partidas foram jogadas
+ * @param xWins quantas o jogador X ganhou
+ * @param oWins quantas o jogador O ganhou
+ * @param draws quantas deram velha
+ * @param elapsedNanos quanto tempo a simulação levou
+ * @param moveLatency quanto tempo cada jogada levou para ser decidida
+ */
+public record SimulationReport(long games, long xWins, long oWins, long draws, long elapsedNanos,
+                               LatencyHistogram moveLatency) {
+    /**
+     * @return partidas por segundo
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d partidas em %.2fs (%.0f partidas/s)%nX: %d vitórias, O: %d vitórias, %d velhas%n"
+                        + "latência por jogada: %s",
+                games, elapsedNanos / 1e9, gamesPerSecond(), xWins, oWins, draws, moveLatency);
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.spectator;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.GameListener;
+import org.example.core.Moves;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A transmissão de uma partida para os espectadores de um {@link SpectatorHub}.
+ *
+ * Do lado do jogo ela é só um {@link GameListener}: cada evento vira um int numa fila e o hub é acordado.
+ * Quem codifica os frames é a thread de I/O do hub, uma vez por evento, direto num buffer circular
+ * (direct) da partida; todos os espectadores são escritos a partir desse mesmo buffer, cada um com o seu
+ * cursor. Assim o jogo nunca espera a rede, e o custo por espectador é só o write no socket.
+ *
+ * Cada partida nova precisa de um {@link #start(BoardGeometry)}; a transmissão pode ser reaproveitada
+ * para várias partidas seguidas (como as de uma sessão do servidor) e termina com {@link #close()}.
+ */
+public class GameBroadcast implements GameListener, Closeable {
+    // os eventos são ints: o tipo nos 2 bits de baixo e o resto nos de cima
+    private static final int EVENT_START = 0;
+    private static final int EVENT_MOVE = 1;
+    private static final int EVENT_END = 2;
+    private static final int EVENT_CLOSE = 3;
+    private static final int EVENT_BITS = 2;
+
+    private final SpectatorHub hub;
+    private final long id;
+
+    /**
+     * Eventos publicados pelo jogo e ainda não processados pela thread de I/O (protegidos pelo lock do objeto)
+     */
+    private int[] events = new int[16];
+    private int eventCount;
+    private boolean queued;
+    private boolean closeRequested;
+
+    // daqui para baixo, só a thread de I/O do hub mexe
+    private int[] draining = new int[16];
+    /**
+     * Os frames já codificados; o byte `n` da transmissão fica em `n % capacidade`
+     */
+    final ByteBuffer ring;
+    /**
+     * Uma visão do mesmo buffer só para os writes nos sockets, que mexem em posição e limite
+     * (assim as leituras e escritas absolutas no `ring` sempre enxergam o buffer inteiro)
+     */
+    final ByteBuffer ringView;
+    /**
+     * Quantos bytes já foram escritos no buffer circular desde o começo da transmissão
+     */
+    long written;
+    final List<Subscriber> subscribers = new ArrayList<>();
+    boolean closed;
+    private final ByteBuffer frame = ByteBuffer.allocateDirect(SpectatorFrames.MAX_FRAME_BYTES);
+    private final ByteBuffer snapshot = ByteBuffer.allocateDirect(SpectatorFrames.MAX_FRAME_BYTES);
+    private int snapshotSequence = -1;
+    private int sequence;
+    private final byte[] cells = new byte[SpectatorFrames.MAX_CELLS];
+    private int size;
+    private int winLength;
+    private int layers;
+    private int cellCount;
+    private int status = SpectatorFrames.STATUS_PLAYING;
+
+    GameBroadcast(SpectatorHub hub, long id, int ringBytes) {
+        this.hub = hub;
+        this.id = id;
+        this.ring = ByteBuffer.allocateDirect(ringBytes);
+        this.ringView = ring.duplicate();
+    }
+
+    /**
+     * @return o id que os espectadores usam no `WATCH`
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Começa uma partida nova: os espectadores recebem o tabuleiro vazio.
+     * @param geometry o tabuleiro da partida
+     */
+    public void start(BoardGeometry geometry) {
+        if (geometry.getCellCount() > SpectatorFrames.MAX_CELLS) {
+            throw new IllegalArgumentException("A transmissão só suporta tabuleiros de até " + SpectatorFrames.MAX_CELLS + " células");
+        }
+        publish(EVENT_START | (geometry.getSize() | geometry.getWinLength() << 4 | geometry.getLayers() << 8) << EVENT_BITS);
+    }
+
+    @Override
+    public void onMove(Board board, int move, long nanos) {
+        publish(EVENT_MOVE | (Moves.cell(move) | SpectatorFrames.piece(Moves.player(move)) << 8) << EVENT_BITS);
+    }
+
+    @Override
+    public void onGameOver(Board board, BoardCell winner) {
+        publish(EVENT_END | SpectatorFrames.piece(winner) << EVENT_BITS);
+    }
+
+    /**
+     * Encerra a transmissão: os espectadores recebem o que falta e são desconectados.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closeRequested) {
+                return;
+            }
+            closeRequested = true;
+        }
+        publish(EVENT_CLOSE);
+    }
+
+    private void publish(int event) {
+        synchronized (this) {
+            if (eventCount == events.length) {
+                events = Arrays.copyOf(events, eventCount * 2);
+            }
+            events[eventCount++] = event;
+            if (queued) {
+                // o hub já vai passar por aqui
+                return;
+            }
+            queued = true;
+        }
+        hub.schedule(this);
+    }
+
+    /**
+     * Codifica os eventos pendentes no buffer circular. Só a thread de I/O chama.
+     */
+    void drainEvents() {
+        final int count;
+        synchronized (this) {
+            if (draining.length < eventCount) {
+                draining = new int[events.length];
+            }
+            System.arraycopy(events, 0, draining, 0, eventCount);
+            count = eventCount;
+            eventCount = 0;
+            queued = false;
+        }
+
+        for (var i = 0; i < count; i++) {
+            final var event = draining[i];
+            final var payload = event >>> EVENT_BITS;
+            switch (event & ((1 << EVENT_BITS) - 1)) {
+                case EVENT_START -> {
+                    size = payload & 0xF;
+                    winLength = (payload >>> 4) & 0xF;
+                    layers = payload >>> 8;
+                    cellCount = size * size * layers;
+                    Arrays.fill(cells, (byte) 0);
+                    status = SpectatorFrames.STATUS_PLAYING;
+                    frame.clear();
+                    SpectatorFrames.putSnapshot(frame, ++sequence, size, winLength, layers, status, cells, cellCount);
+                    append();
+                }
+                case EVENT_MOVE -> {
+                    final var cell = payload & 0xFF;
+                    final var piece = payload >>> 8;
+                    cells[cell] = (byte) piece;
+                    frame.clear();
+                    SpectatorFrames.putMove(frame, ++sequence, cell, piece);
+                    append();
+                }
+                case EVENT_END -> {
+                    status = payload == 0 ? SpectatorFrames.STATUS_DRAW : payload;
+                    frame.clear();
+                    SpectatorFrames.putEnd(frame, ++sequence, payload);
+                    append();
+                }
+                default -> closed = true;
+            }
+        }
+    }
+
+    /**
+     * O estado atual inteiro num frame SNAPSHOT, codificado de novo só quando algo mudou.
+     * Só a thread de I/O chama.
+     *
+     * @return o frame, pronto para ler do começo
+     */
+    ByteBuffer snapshot() {
+        if (snapshotSequence != sequence) {
+            snapshot.clear();
+            SpectatorFrames.putSnapshot(snapshot, sequence, size, winLength, layers, status, cells, cellCount);
+            snapshot.flip();
+            snapshotSequence = sequence;
+        }
+        return snapshot.position(0);
+    }
+
+    /**
+     * Copia o frame recém-codificado para o buffer circular, dando a volta no fim se precisar.
+     */
+    private void append() {
+        final var length = frame.position();
+        final var capacity = ring.capacity();
+        final var start = (int) (written % capacity);
+        final var first = Math.min(length, capacity - start);
+        ring.put(start, frame, 0, first);
+        if (first < length) {
+            ring.put(0, frame, first, length - first);
+        }
+        written += length;
+        hub.frameEncoded();
+    }
+}
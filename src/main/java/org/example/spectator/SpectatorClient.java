@@ -0,0 +1,102 @@
+package org.example.spectator;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Um espectador de terminal: conecta no {@link SpectatorHub}, decodifica os frames e desenha o tabuleiro.
+ * O texto é montado aqui, do lado de quem assiste, e não uma vez por espectador no servidor.
+ *
+ * Uso: `java org.example.spectator.SpectatorClient <host> <porta> <id da partida>`.
+ */
+public class SpectatorClient {
+    private Board board;
+    private int lastSequence;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Uso: SpectatorClient <host> <porta> <id da partida>");
+            return;
+        }
+        try (final var socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            final OutputStream output = socket.getOutputStream();
+            output.write(("WATCH " + args[2] + "\n").getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            new SpectatorClient().follow(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+        }
+    }
+
+    /**
+     * Lê frames até a transmissão acabar, mostrando o tabuleiro a cada um.
+     */
+    private void follow(DataInputStream input) throws IOException {
+        final var frame = new byte[SpectatorFrames.MAX_FRAME_BYTES];
+        while (true) {
+            final int length;
+            try {
+                length = input.readUnsignedByte();
+            } catch (EOFException e) {
+                System.out.println("Transmissão encerrada.");
+                return;
+            }
+            input.readFully(frame, 0, length);
+            apply(frame);
+        }
+    }
+
+    private void apply(byte[] frame) {
+        final var type = frame[0];
+        final var sequence = (frame[1] & 0xFF) << 24 | (frame[2] & 0xFF) << 16 | (frame[3] & 0xFF) << 8 | (frame[4] & 0xFF);
+        if (type != SpectatorFrames.SNAPSHOT && sequence != lastSequence + 1) {
+            System.out.println("(perdemos eventos, esperando um snapshot)");
+        }
+        lastSequence = sequence;
+        final var offset = SpectatorFrames.HEADER_BYTES - 1;
+
+        switch (type) {
+            case SpectatorFrames.SNAPSHOT -> {
+                final var size = frame[offset];
+                final var winLength = frame[offset + 1];
+                final var layers = frame[offset + 2];
+                final var status = frame[offset + 3];
+                if (size == 0) {
+                    board = null;
+                    System.out.println("Esperando a partida começar...");
+                    return;
+                }
+                final var geometry = layers > 1 ? BoardGeometry.cube(size) : BoardGeometry.of(size, winLength);
+                board = new Board(geometry);
+                for (var cell = 0; cell < geometry.getCellCount(); cell++) {
+                    final var piece = (frame[offset + 4 + cell / 4] >>> ((cell % 4) * 2)) & 3;
+                    board.setCell(cell, SpectatorFrames.boardCell(piece));
+                }
+                System.out.println(board);
+                if (status != SpectatorFrames.STATUS_PLAYING) {
+                    printResult(status == SpectatorFrames.STATUS_DRAW ? BoardCell.EMPTY : SpectatorFrames.boardCell(status));
+                }
+            }
+            case SpectatorFrames.MOVE -> {
+                if (board != null) {
+                    board.makeMove(Moves.of(frame[offset] & 0xFF, SpectatorFrames.boardCell(frame[offset + 1])));
+                    System.out.println(board);
+                }
+            }
+            case SpectatorFrames.END -> printResult(SpectatorFrames.boardCell(frame[offset]));
+            default -> System.out.println("(frame desconhecido: " + type + ")");
+        }
+    }
+
+    private static void printResult(BoardCell winner) {
+        System.out.println(winner == BoardCell.EMPTY ? "Fim de jogo! Empate!" : "Fim de jogo! O jogador " + winner + " venceu!");
+    }
+}
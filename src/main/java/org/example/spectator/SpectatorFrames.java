@@ -0,0 +1,99 @@
+package org.example.spectator;
+
+import org.example.core.BoardCell;
+
+import java.nio.ByteBuffer;
+
+/**
+ * O formato binário dos frames enviados para os espectadores, compartilhado pelo {@link SpectatorHub}
+ * e pelo {@link SpectatorClient}.
+ *
+ * Cada frame é:
+ * - byte 0: quantos bytes vêm depois deste (um frame nunca passa de 255)
+ * - byte 1: o tipo ({@link #SNAPSHOT}, {@link #MOVE} ou {@link #END})
+ * - bytes 2..5: o número de sequência do evento (int big-endian), que cresce de um em um dentro de uma partida
+ * - o resto depende do tipo:
+ *   - SNAPSHOT: tamanho, sequência para ganhar, camadas, situação (0 em andamento, 1 X ganhou, 2 O ganhou,
+ *     3 velha) e as células, 2 bits cada (0 vazia, 1 X, 2 O), quatro por byte, na ordem dos índices
+ *   - MOVE: a célula e a peça (1 X, 2 O), um byte cada
+ *   - END: o vencedor (0 velha, 1 X, 2 O)
+ *
+ * Uma jogada custa 8 bytes, independente do tamanho do tabuleiro. O snapshot é mandado quando o espectador
+ * entra, quando começa uma partida nova e quando ele fica tão para trás que os frames que faltam já foram
+ * sobrescritos (veja {@link SpectatorHub}).
+ *
+ * Para entrar, o espectador manda uma linha de texto `WATCH <id da partida>`.
+ */
+final class SpectatorFrames {
+    static final int SNAPSHOT = 'S';
+    static final int MOVE = 'M';
+    static final int END = 'E';
+
+    static final int STATUS_PLAYING = 0;
+    static final int STATUS_DRAW = 3;
+
+    static final int HEADER_BYTES = 1 + 1 + Integer.BYTES;
+    static final int MOVE_FRAME_BYTES = HEADER_BYTES + 2;
+    static final int END_FRAME_BYTES = HEADER_BYTES + 1;
+    /**
+     * O maior tabuleiro (15x15 = 225 células) cabe em 57 bytes de células
+     */
+    static final int MAX_CELLS = 255;
+    static final int MAX_FRAME_BYTES = HEADER_BYTES + 4 + (MAX_CELLS + 3) / 4;
+
+    private SpectatorFrames() {
+    }
+
+    static int snapshotBytes(int cellCount) {
+        return HEADER_BYTES + 4 + (cellCount + 3) / 4;
+    }
+
+    static void putMove(ByteBuffer buffer, int sequence, int cell, int piece) {
+        putHeader(buffer, MOVE_FRAME_BYTES, MOVE, sequence);
+        buffer.put((byte) cell).put((byte) piece);
+    }
+
+    static void putEnd(ByteBuffer buffer, int sequence, int winner) {
+        putHeader(buffer, END_FRAME_BYTES, END, sequence);
+        buffer.put((byte) winner);
+    }
+
+    /**
+     * @param cells uma peça por célula (0 vazia, 1 X, 2 O)
+     */
+    static void putSnapshot(ByteBuffer buffer, int sequence, int size, int winLength, int layers, int status,
+                            byte[] cells, int cellCount) {
+        putHeader(buffer, snapshotBytes(cellCount), SNAPSHOT, sequence);
+        buffer.put((byte) size).put((byte) winLength).put((byte) layers).put((byte) status);
+        for (var cell = 0; cell < cellCount; cell += 4) {
+            var packed = 0;
+            for (var i = 0; i < 4 && cell + i < cellCount; i++) {
+                packed |= cells[cell + i] << (i << 1);
+            }
+            buffer.put((byte) packed);
+        }
+    }
+
+    /**
+     * @return a peça no formato dos frames (1 X, 2 O, 0 para EMPTY)
+     */
+    static int piece(BoardCell boardCell) {
+        return switch (boardCell) {
+            case X -> 1;
+            case O -> 2;
+            default -> 0;
+        };
+    }
+
+    static BoardCell boardCell(int piece) {
+        return switch (piece) {
+            case 1 -> BoardCell.X;
+            case 2 -> BoardCell.O;
+            default -> BoardCell.EMPTY;
+        };
+    }
+
+    private static void putHeader(ByteBuffer buffer, int frameBytes, int type, int sequence) {
+        buffer.put((byte) (frameBytes - 1)).put((byte) type).putInt(sequence);
+    }
+}
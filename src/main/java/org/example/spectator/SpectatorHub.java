@@ -0,0 +1,373 @@
+package org.example.spectator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor de espectadores: muita gente assistindo às partidas ao vivo, sem custar nada ao jogo.
+ *
+ * Mandar o `Board.toString()` para cada espectador a cada jogada não escala: uma partida popular tem
+ * milhares deles. Aqui cada evento da partida vira um frame binário pequeno (veja {@link SpectatorFrames}),
+ * codificado uma vez só num buffer direct da partida ({@link GameBroadcast}), e uma única thread de I/O
+ * escreve esse mesmo buffer para todos os espectadores, com sockets não bloqueantes e um selector.
+ *
+ * Espectadores lentos não seguram ninguém: o socket que não aceita mais bytes fica esperando OP_WRITE e os
+ * outros continuam. Se ele ficar mais de `maxLagBytes` para trás (os frames que faltam seriam sobrescritos
+ * no buffer circular), o atraso é descartado e ele recebe um snapshot do estado atual, continuando dali.
+ *
+ * Para assistir, o cliente conecta e manda `WATCH <id>` (o id vem de {@link GameBroadcast#getId()}; no
+ * {@link org.example.server.GameServer} o jogador recebe o da sua sessão). Partidas que não existem
+ * derrubam a conexão.
+ */
+public class SpectatorHub implements Closeable {
+    /**
+     * Tamanho padrão do buffer circular de cada partida
+     */
+    public static final int DEFAULT_RING_BYTES = 1 << 14;
+    /**
+     * Atraso padrão a partir do qual um espectador é ressincronizado com um snapshot
+     */
+    public static final int DEFAULT_MAX_LAG_BYTES = 1 << 13;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread ioThread;
+    private final int ringBytes;
+    private final int maxLagBytes;
+    private final Map<Long, GameBroadcast> games = new ConcurrentHashMap<>();
+    /**
+     * Partidas com eventos novos, esperando a thread de I/O
+     */
+    private final Queue<GameBroadcast> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicInteger spectators = new AtomicInteger();
+    private final AtomicLong framesEncoded = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param port a porta (0 escolhe uma livre, veja {@link #getPort()})
+     * @throws IOException se não for possível abrir a porta
+     */
+    public SpectatorHub(int port) throws IOException {
+        this(port, DEFAULT_RING_BYTES, DEFAULT_MAX_LAG_BYTES);
+    }
+
+    /**
+     * @param port a porta (0 escolhe uma livre, veja {@link #getPort()})
+     * @param ringBytes o tamanho do buffer circular de cada partida
+     * @param maxLagBytes quantos bytes um espectador pode ficar para trás antes de receber um snapshot
+     * @throws IOException se não for possível abrir a porta
+     */
+    public SpectatorHub(int port, int ringBytes, int maxLagBytes) throws IOException {
+        if (maxLagBytes < SpectatorFrames.MAX_FRAME_BYTES || maxLagBytes > ringBytes) {
+            throw new IllegalArgumentException("O atraso máximo precisa caber no buffer circular e ter pelo menos um frame");
+        }
+        this.ringBytes = ringBytes;
+        this.maxLagBytes = maxLagBytes;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.ioThread = new Thread(this::run, "spectator-hub");
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /**
+     * @return uma transmissão nova, já visível para `WATCH`
+     */
+    public GameBroadcast openGame() {
+        final var game = new GameBroadcast(this, nextId.getAndIncrement(), ringBytes);
+        games.put(game.getId(), game);
+        return game;
+    }
+
+    /**
+     * @return a porta onde os espectadores conectam
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return quantos espectadores estão conectados agora
+     */
+    public int getSpectatorCount() {
+        return spectators.get();
+    }
+
+    /**
+     * @return quantos frames foram codificados (um por evento, não importa quantos espectadores)
+     */
+    public long getFramesEncoded() {
+        return framesEncoded.get();
+    }
+
+    /**
+     * @return quantas vezes um espectador lento teve o atraso descartado e recebeu um snapshot
+     */
+    public long getResyncs() {
+        return resyncs.get();
+    }
+
+    /**
+     * Para a thread de I/O e desconecta todos os espectadores.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (final var key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    void schedule(GameBroadcast game) {
+        dirty.add(game);
+        selector.wakeup();
+    }
+
+    void frameEncoded() {
+        framesEncoded.incrementAndGet();
+    }
+
+    /**
+     * O loop da thread de I/O: aceita conexões, lê os pedidos, codifica os eventos novos e escreve.
+     */
+    private void run() {
+        while (!closed) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                throw new IllegalStateException("Falha no selector dos espectadores", e);
+            }
+            for (var game = dirty.poll(); game != null; game = dirty.poll()) {
+                game.drainEvents();
+                // percorre de trás para frente porque quem termina ou falha sai da lista
+                for (var i = game.subscribers.size() - 1; i >= 0; i--) {
+                    flush(game.subscribers.get(i));
+                }
+                if (game.closed) {
+                    games.remove(game.getId());
+                }
+            }
+
+            final var selected = selector.selectedKeys();
+            for (final var key : selected) {
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                final var subscriber = (Subscriber) key.attachment();
+                if (key.isReadable()) {
+                    read(subscriber);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(subscriber);
+                }
+            }
+            selected.clear();
+        }
+    }
+
+    private void accept() {
+        try {
+            // aceita todos que estão na fila de uma vez (rajadas de espectadores entrando juntos)
+            for (var channel = serverChannel.accept(); channel != null; channel = serverChannel.accept()) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                final var key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Subscriber(channel, key));
+                spectators.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // um accept que falhou não afeta os outros espectadores
+        }
+    }
+
+    /**
+     * Lê o `WATCH <id>` de quem acabou de conectar. Depois disso, o que o espectador mandar é ignorado.
+     */
+    private void read(Subscriber subscriber) {
+        final int read;
+        try {
+            read = subscriber.channel.read(subscriber.request);
+        } catch (IOException e) {
+            disconnect(subscriber);
+            return;
+        }
+        if (read < 0) {
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.game != null) {
+            subscriber.request.clear();
+            return;
+        }
+
+        final var request = subscriber.request;
+        for (var i = 0; i < request.position(); i++) {
+            if (request.get(i) == '\n') {
+                final var line = new String(request.array(), 0, i, StandardCharsets.US_ASCII).trim().split("\\s+");
+                request.clear();
+                subscribe(subscriber, line);
+                return;
+            }
+        }
+        if (!request.hasRemaining()) {
+            // pedido grande demais, não é um WATCH
+            disconnect(subscriber);
+        }
+    }
+
+    private void subscribe(Subscriber subscriber, String[] request) {
+        GameBroadcast game = null;
+        if (request.length == 2 && request[0].equals("WATCH")) {
+            try {
+                game = games.get(Long.parseLong(request[1]));
+            } catch (NumberFormatException e) {
+                // cai no disconnect abaixo
+            }
+        }
+        if (game == null || game.closed) {
+            disconnect(subscriber);
+            return;
+        }
+        subscriber.game = game;
+        subscriber.sent = game.written;
+        subscriber.frameEnd = game.written;
+        game.subscribers.add(subscriber);
+        resync(subscriber);
+        flush(subscriber);
+    }
+
+    /**
+     * Descarta o que o espectador ainda não recebeu e coloca o estado atual na frente.
+     * Se um frame ficou pela metade no socket, o resto dele vai antes do snapshot, senão o cliente
+     * perderia o alinhamento dos frames.
+     *
+     * @return false se o resto do frame já foi sobrescrito e o espectador precisa ser desconectado
+     */
+    private boolean resync(Subscriber subscriber) {
+        final var game = subscriber.game;
+        final var ring = game.ring;
+        subscriber.resync.clear();
+        if (subscriber.frameEnd > subscriber.sent) {
+            if (game.written - subscriber.sent > ring.capacity()) {
+                return false;
+            }
+            for (var position = subscriber.sent; position < subscriber.frameEnd; position++) {
+                subscriber.resync.put(ring.get((int) (position % ring.capacity())));
+            }
+        }
+        subscriber.resync.put(game.snapshot());
+        subscriber.resync.flip();
+        subscriber.sent = game.written;
+        subscriber.frameEnd = game.written;
+        return true;
+    }
+
+    /**
+     * Escreve tudo que o espectador pode receber agora, sem bloquear. Se o socket encher, liga o OP_WRITE
+     * e continua quando ele esvaziar.
+     */
+    private void flush(Subscriber subscriber) {
+        final var game = subscriber.game;
+        if (game == null) {
+            return;
+        }
+        try {
+            if (subscriber.resync.hasRemaining()) {
+                subscriber.channel.write(subscriber.resync);
+                if (subscriber.resync.hasRemaining()) {
+                    waitWrite(subscriber, true);
+                    return;
+                }
+            }
+
+            var lag = game.written - subscriber.sent;
+            if (lag > maxLagBytes) {
+                // ficou para trás demais: pula direto para o estado atual
+                resyncs.incrementAndGet();
+                if (resync(subscriber)) {
+                    flush(subscriber);
+                } else {
+                    disconnect(subscriber);
+                }
+                return;
+            }
+            final var ring = game.ring;
+            while (lag > 0) {
+                final var start = (int) (subscriber.sent % ring.capacity());
+                final var length = (int) Math.min(lag, ring.capacity() - start);
+                game.ringView.limit(start + length).position(start);
+                final var written = subscriber.channel.write(game.ringView);
+                subscriber.sent += written;
+                lag -= written;
+                // acompanha os limites dos frames (o byte de tamanho de cada um acabou de ser enviado)
+                while (subscriber.frameEnd < subscriber.sent) {
+                    subscriber.frameEnd += 1 + (ring.get((int) (subscriber.frameEnd % ring.capacity())) & 0xFF);
+                }
+                if (written < length) {
+                    waitWrite(subscriber, true);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            disconnect(subscriber);
+            return;
+        }
+
+        waitWrite(subscriber, false);
+        if (game.closed) {
+            // recebeu tudo da transmissão que acabou
+            disconnect(subscriber);
+        }
+    }
+
+    private void waitWrite(Subscriber subscriber, boolean waiting) {
+        if (subscriber.waitingWrite != waiting) {
+            subscriber.key.interestOps(waiting ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            subscriber.waitingWrite = waiting;
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (!subscriber.key.isValid()) {
+            return;
+        }
+        if (subscriber.game != null) {
+            subscriber.game.subscribers.remove(subscriber);
+            subscriber.game = null;
+        }
+        subscriber.key.cancel();
+        try {
+            subscriber.channel.close();
+        } catch (IOException e) {
+            // já estamos desconectando
+        }
+        spectators.decrementAndGet();
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.spectator;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Um espectador conectado ao {@link SpectatorHub}. Só a thread de I/O do hub mexe aqui.
+ */
+final class Subscriber {
+    /**
+     * O maior pedido aceito (`WATCH <id>` com folga)
+     */
+    private static final int MAX_REQUEST_BYTES = 64;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer request = ByteBuffer.allocate(MAX_REQUEST_BYTES);
+    /**
+     * A partida assistida (null enquanto o pedido não chegou)
+     */
+    GameBroadcast game;
+    /**
+     * Até que byte da transmissão o espectador já recebeu
+     */
+    long sent;
+    /**
+     * Onde termina o frame que contém o byte `sent` (igual a `sent` quando estamos entre dois frames)
+     */
+    long frameEnd;
+    /**
+     * O snapshot sendo enviado (precedido do resto do frame que tinha ficado pela metade), copiado do da
+     * partida para não mudar no meio do envio
+     */
+    final ByteBuffer resync = ByteBuffer.allocate(2 * SpectatorFrames.MAX_FRAME_BYTES).flip();
+    /**
+     * Se o interesse em OP_WRITE está ligado (evita mexer no selector à toa)
+     */
+    boolean waitingWrite;
+
+    Subscriber(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+}
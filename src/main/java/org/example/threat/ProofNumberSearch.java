@@ -0,0 +1,241 @@
+package org.example.threat;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Moves;
+
+/**
+ * Busca por números de prova (proof-number search) restrita ao espaço de ameaças: prova (ou refuta) que o
+ * atacante ganha só com jogadas forçantes.
+ *
+ * Nos nós do atacante (OU) as jogadas são os quatros e três dele ({@link ThreatSpace#threatMoves}); nos do
+ * defensor (E) são só as respostas que desfazem a ameaça: bloquear o quatro, ou mexer num ponto de quatro
+ * duplo do três, ou fazer um quatro próprio. Como toda jogada do atacante ameaça ganhar, qualquer outra
+ * resposta perde, então a prova vale contra todas as defesas. Se o atacante fica sem ameaça, o ramo é
+ * refutado (o defensor ganhou tempo para jogar o que quiser).
+ *
+ * Cada nó guarda o número de prova (quantas folhas ainda precisam ser provadas para provar o nó) e o de
+ * refutação, e a busca sempre expande a folha "mais provável" a partir da raiz. Os nós ficam numa arena
+ * de arrays primitivos, com os filhos de um nó em posições consecutivas: nenhum objeto por nó, e a arena é
+ * reaproveitada de uma busca para a outra.
+ *
+ * Não é thread-safe.
+ */
+final class ProofNumberSearch {
+    static final int UNKNOWN = 0;
+    static final int PROVEN = 1;
+    static final int DISPROVEN = 2;
+
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    /**
+     * De quantas em quantas expansões olhamos o relógio
+     */
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final ThreatSpace threats;
+    private final Board board;
+    private final int capacity;
+    private final int cellCount;
+
+    // a arena: o nó `n` é a posição `n` de cada array
+    private final int[] proof;
+    private final int[] disproof;
+    private final int[] parent;
+    private final int[] firstChild;
+    private final short[] childCount;
+    private final short[] cells;
+    private int size;
+
+    private final int[] moves;
+    private final int[] points;
+    private long expansions;
+
+    /**
+     * @param threats o detector de ameaças, com o tabuleiro onde a busca faz e desfaz as jogadas
+     * @param capacity quantos nós cabem na arena
+     */
+    ProofNumberSearch(ThreatSpace threats, int capacity) {
+        this.threats = threats;
+        this.board = threats.getBoard();
+        this.capacity = capacity;
+        this.cellCount = board.getGeometry().getCellCount();
+        this.proof = new int[capacity];
+        this.disproof = new int[capacity];
+        this.parent = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new short[capacity];
+        this.cells = new short[capacity];
+        this.moves = new int[cellCount];
+        this.points = new int[cellCount];
+    }
+
+    /**
+     * Procura uma vitória forçada de `attacker`, que tem a vez no tabuleiro.
+     *
+     * @param attacker quem ataca
+     * @param deadlineNanos até quando buscar, em {@link System#nanoTime()} (0 para sem limite)
+     * @param maxNodes quantos nós no máximo (0 para até a arena encher)
+     * @return {@link #PROVEN}, {@link #DISPROVEN} ou {@link #UNKNOWN} (o orçamento ou a arena acabou antes)
+     */
+    int search(BoardCell attacker, long deadlineNanos, long maxNodes) {
+        final var limit = maxNodes > 0 ? (int) Math.min(capacity, maxNodes) : capacity;
+        size = 0;
+        final var root = allocate(-1, -1);
+        final var defender = attacker.opponent();
+        var iterations = 0L;
+        while (proof[root] != 0 && disproof[root] != 0) {
+            if (size + cellCount > limit) {
+                return UNKNOWN;
+            }
+            if (deadlineNanos != 0 && ++iterations % CLOCK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+                return UNKNOWN;
+            }
+
+            // desce até a folha mais provável: o filho de menor prova nos nós OU, de menor refutação nos E
+            var node = root;
+            var attackerToMove = true;
+            while (childCount[node] > 0) {
+                node = select(node, attackerToMove);
+                board.makeMove(Moves.of(cells[node], attackerToMove ? attacker : defender));
+                attackerToMove = !attackerToMove;
+            }
+            expand(node, attackerToMove, attacker);
+            expansions++;
+
+            // sobe atualizando os números até a raiz, desfazendo as jogadas
+            while (node != root) {
+                board.unmakeMove();
+                node = parent[node];
+                attackerToMove = !attackerToMove;
+                update(node, attackerToMove);
+            }
+        }
+        return proof[root] == 0 ? PROVEN : DISPROVEN;
+    }
+
+    /**
+     * @return a jogada da raiz que prova a vitória (depois de um {@link #search} que retornou {@link #PROVEN})
+     */
+    int getWinningCell() {
+        for (var child = firstChild[0]; child < firstChild[0] + childCount[0]; child++) {
+            if (proof[child] == 0) {
+                return cells[child];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return quantos nós a última busca usou
+     */
+    int getNodeCount() {
+        return size;
+    }
+
+    /**
+     * @return quantos nós foram expandidos desde a criação
+     */
+    long getExpansions() {
+        return expansions;
+    }
+
+    private int select(int node, boolean orNode) {
+        var best = firstChild[node];
+        final var end = best + childCount[node];
+        for (var child = best + 1; child < end; child++) {
+            if (orNode ? proof[child] < proof[best] : disproof[child] < disproof[best]) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Decide se a folha acabou (prova ou refutação direto) ou cria os filhos dela.
+     */
+    private void expand(int node, boolean attackerToMove, BoardCell attacker) {
+        final var defender = attacker.opponent();
+        final var mover = attackerToMove ? attacker : defender;
+        final var waiting = mover.opponent();
+
+        // quem tem a vez e tem um quatro ganha na hora
+        if (threats.winningCells(mover, moves) > 0) {
+            setResult(node, attackerToMove);
+            return;
+        }
+        if (board.isBoardFull()) {
+            setResult(node, false);
+            return;
+        }
+
+        int count;
+        final var opponentWins = threats.winningCells(waiting, moves);
+        if (opponentWins >= 2) {
+            // não dá para bloquear dois quatros
+            setResult(node, !attackerToMove);
+            return;
+        } else if (opponentWins == 1) {
+            // bloqueio forçado (o ramo continua só se o bloqueio do atacante também for uma ameaça)
+            count = 1;
+        } else if (attackerToMove) {
+            count = threats.threatMoves(attacker, moves);
+        } else {
+            final var pointCount = threats.doubleFourPoints(attacker, points);
+            if (pointCount == 0) {
+                // o atacante ficou sem ameaça: o defensor está livre
+                setResult(node, false);
+                return;
+            }
+            count = threats.defences(attacker, points, pointCount, moves);
+        }
+        if (count == 0) {
+            // o atacante sem jogada forçante não prova nada; o defensor sem resposta perde
+            setResult(node, !attackerToMove);
+            return;
+        }
+
+        firstChild[node] = size;
+        childCount[node] = (short) count;
+        for (var i = 0; i < count; i++) {
+            allocate(node, moves[i]);
+        }
+        update(node, attackerToMove);
+    }
+
+    /**
+     * Marca a folha como provada (vitória do atacante) ou refutada.
+     */
+    private void setResult(int node, boolean proven) {
+        proof[node] = proven ? 0 : INFINITY;
+        disproof[node] = proven ? INFINITY : 0;
+    }
+
+    private void update(int node, boolean orNode) {
+        final var start = firstChild[node];
+        final var end = start + childCount[node];
+        var min = INFINITY;
+        var sum = 0;
+        for (var child = start; child < end; child++) {
+            min = Math.min(min, orNode ? proof[child] : disproof[child]);
+            sum = Math.min(INFINITY, sum + (orNode ? disproof[child] : proof[child]));
+        }
+        if (orNode) {
+            proof[node] = min;
+            disproof[node] = sum;
+        } else {
+            proof[node] = sum;
+            disproof[node] = min;
+        }
+    }
+
+    private int allocate(int parentNode, int cell) {
+        final var node = size++;
+        proof[node] = 1;
+        disproof[node] = 1;
+        parent[node] = parentNode;
+        firstChild[node] = 0;
+        childCount[node] = 0;
+        cells[node] = (short) cell;
+        return node;
+    }
+}
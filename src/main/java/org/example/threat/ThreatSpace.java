@@ -0,0 +1,265 @@
+package org.example.threat;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+
+import java.util.Arrays;
+
+/**
+ * As ameaças de um tabuleiro de K em linha, lidas das janelas de K células (as linhas vencedoras da
+ * {@link BoardGeometry}) e dos contadores de peças por linha que o {@link Board} já mantém.
+ *
+ * Os nomes vêm do gomoku (K = 5), mas valem para qualquer K:
+ * - um <b>quatro</b> é uma janela com K - 1 peças de um jogador e nenhuma do outro: a célula que falta
+ *   ganha o jogo (a "célula de vitória")
+ * - um <b>ponto de quatro duplo</b> é uma célula vazia que, jogada, cria duas células de vitória diferentes
+ *   de uma vez; o adversário só bloqueia uma
+ * - um <b>três</b> é o que sobra depois de uma jogada que deixa um ponto de quatro duplo no tabuleiro: se o
+ *   adversário não mexer nele, perde em duas jogadas
+ *
+ * Quatros e três são as jogadas que forçam resposta, e a busca de ameaças só olha essas (veja
+ * {@link ProofNumberSearch}). As funções fazem e desfazem jogadas no tabuleiro, mas sempre o devolvem como
+ * estava. Não é thread-safe.
+ */
+final class ThreatSpace {
+    // o que uma jogada cria (veja threatKind)
+    static final int NONE = 0;
+    static final int THREE = 1;
+    static final int FOUR = 2;
+
+    private final Board board;
+    private final int winLength;
+    private final int[][] lineCells;
+    private final int[][] cellLines;
+    /**
+     * Marca de "já vista" por célula, para juntar células sem repetição; vale quando igual a {@link #epoch}
+     */
+    private final int[] seen;
+    private int epoch;
+    private final int[] candidates;
+    private final int[] threes;
+
+    ThreatSpace(Board board) {
+        this.board = board;
+        final var geometry = board.getGeometry();
+        this.winLength = geometry.getWinLength();
+        this.lineCells = new int[geometry.getLineCount()][];
+        for (var line = 0; line < lineCells.length; line++) {
+            lineCells[line] = geometry.getLineCells(line);
+        }
+        this.cellLines = new int[geometry.getCellCount()][];
+        for (var cell = 0; cell < cellLines.length; cell++) {
+            cellLines[cell] = geometry.getCellLines(cell);
+        }
+        this.seen = new int[geometry.getCellCount()];
+        this.candidates = new int[geometry.getCellCount()];
+        this.threes = new int[geometry.getCellCount()];
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @param player X ou O
+     * @param out recebe as células de vitória, sem repetição (precisa caber todas as células do tabuleiro)
+     * @return quantas células de vitória `player` tem (as células vazias que completam uma linha dele)
+     */
+    int winningCells(BoardCell player, int[] out) {
+        final var opponent = player.opponent();
+        nextEpoch();
+        var count = 0;
+        for (var line = 0; line < lineCells.length; line++) {
+            if (board.getPiecesInLine(player, line) == winLength - 1 && board.getPiecesInLine(opponent, line) == 0) {
+                final var cell = emptyCell(line, -1);
+                if (mark(cell)) {
+                    out[count++] = cell;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return se jogar na célula vazia cria duas ou mais células de vitória diferentes para `player`
+     */
+    boolean isDoubleFourPoint(int cell, BoardCell player) {
+        final var opponent = player.opponent();
+        var first = -1;
+        for (final var line : cellLines[cell]) {
+            if (board.getPiecesInLine(player, line) == winLength - 2 && board.getPiecesInLine(opponent, line) == 0) {
+                // com a peça em `cell`, a linha fica com uma célula vazia só: a de vitória
+                final var winning = emptyCell(line, cell);
+                if (first < 0) {
+                    first = winning;
+                } else if (winning != first) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param player o atacante
+     * @param out recebe os pontos de quatro duplo, sem repetição
+     * @return quantos pontos de quatro duplo `player` tem no tabuleiro (se for a vez do adversário, são os
+     * três que ele precisa desfazer)
+     */
+    int doubleFourPoints(BoardCell player, int[] out) {
+        final var opponent = player.opponent();
+        nextEpoch();
+        var count = 0;
+        for (var line = 0; line < lineCells.length; line++) {
+            if (board.getPiecesInLine(player, line) != winLength - 2 || board.getPiecesInLine(opponent, line) != 0) {
+                continue;
+            }
+            for (final var cell : lineCells[line]) {
+                if (board.isCellEmpty(cell) && seen[cell] != epoch && isDoubleFourPoint(cell, player)) {
+                    seen[cell] = epoch;
+                    out[count++] = cell;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * As jogadas de ameaça de `player`: as que criam um quatro ou um três. Só olhamos células de janelas
+     * que já têm K - 3 peças dele e nenhuma do adversário; nenhuma outra célula pode virar ameaça numa jogada.
+     *
+     * @param player o atacante (é a vez dele)
+     * @param out recebe as jogadas, quatros primeiro
+     * @return quantas jogadas de ameaça existem
+     */
+    int threatMoves(BoardCell player, int[] out) {
+        final var opponent = player.opponent();
+        final var minimum = Math.max(1, winLength - 3);
+        nextEpoch();
+        var candidateCount = 0;
+        for (var line = 0; line < lineCells.length; line++) {
+            if (board.getPiecesInLine(player, line) < minimum || board.getPiecesInLine(opponent, line) != 0) {
+                continue;
+            }
+            for (final var cell : lineCells[line]) {
+                if (board.isCellEmpty(cell) && mark(cell)) {
+                    candidates[candidateCount++] = cell;
+                }
+            }
+        }
+
+        // quatros na frente: são as ameaças mais fortes e as de prova mais curta
+        var count = 0;
+        var threeCount = 0;
+        for (var i = 0; i < candidateCount; i++) {
+            final var cell = candidates[i];
+            final var kind = threatKind(cell, player);
+            if (kind == FOUR) {
+                out[count++] = cell;
+            } else if (kind == THREE) {
+                threes[threeCount++] = cell;
+            }
+        }
+        System.arraycopy(threes, 0, out, count, threeCount);
+        return count + threeCount;
+    }
+
+    /**
+     * @return que ameaça a jogada de `player` na célula vazia cria: {@link #FOUR}, {@link #THREE} ou {@link #NONE}
+     */
+    int threatKind(int cell, BoardCell player) {
+        final var opponent = player.opponent();
+        board.makeMove(Moves.of(cell, player));
+        try {
+            var three = false;
+            for (final var line : cellLines[cell]) {
+                if (board.getPiecesInLine(opponent, line) != 0) {
+                    continue;
+                }
+                final var pieces = board.getPiecesInLine(player, line);
+                if (pieces == winLength - 1) {
+                    return FOUR;
+                }
+                if (pieces == winLength - 2 && !three) {
+                    for (final var other : lineCells[line]) {
+                        if (board.isCellEmpty(other) && isDoubleFourPoint(other, player)) {
+                            three = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            return three ? THREE : NONE;
+        } finally {
+            board.unmakeMove();
+        }
+    }
+
+    /**
+     * As respostas do defensor a um três do atacante: qualquer célula vazia das janelas que formam algum
+     * ponto de quatro duplo (inclusive o próprio ponto), mais os quatros do defensor, que forçam o atacante
+     * a responder. Uma jogada fora disso deixa todos os pontos de pé, e o atacante ganha jogando num deles.
+     *
+     * @param attacker o atacante (é a vez do defensor)
+     * @param points os pontos de quatro duplo do atacante
+     * @param pointCount quantos pontos
+     * @param out recebe as respostas, sem repetição
+     * @return quantas respostas
+     */
+    int defences(BoardCell attacker, int[] points, int pointCount, int[] out) {
+        final var defender = attacker.opponent();
+        nextEpoch();
+        var count = 0;
+        for (var i = 0; i < pointCount; i++) {
+            final var point = points[i];
+            for (final var line : cellLines[point]) {
+                if (board.getPiecesInLine(attacker, line) == winLength - 2 && board.getPiecesInLine(defender, line) == 0) {
+                    for (final var cell : lineCells[line]) {
+                        if (board.isCellEmpty(cell) && mark(cell)) {
+                            out[count++] = cell;
+                        }
+                    }
+                }
+            }
+        }
+        for (var line = 0; line < lineCells.length; line++) {
+            if (board.getPiecesInLine(defender, line) == winLength - 2 && board.getPiecesInLine(attacker, line) == 0) {
+                for (final var cell : lineCells[line]) {
+                    if (board.isCellEmpty(cell) && mark(cell)) {
+                        out[count++] = cell;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return a célula vazia da linha diferente de `except` (a linha tem no máximo uma assim)
+     */
+    private int emptyCell(int line, int except) {
+        for (final var cell : lineCells[line]) {
+            if (cell != except && board.isCellEmpty(cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private boolean mark(int cell) {
+        if (seen[cell] == epoch) {
+            return false;
+        }
+        seen[cell] = epoch;
+        return true;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            Arrays.fill(seen, 0);
+            epoch = 1;
+        }
+    }
+}
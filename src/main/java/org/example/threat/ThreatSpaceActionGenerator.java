@@ -0,0 +1,280 @@
+package org.example.threat;
+
+import org.example.core.ActionGenerator;
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.Moves;
+import org.example.core.Player;
+import org.example.core.PlayerAction;
+import org.example.core.SearchBudget;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Action generator para tabuleiros grandes de K em linha (o gomoku, 15x15 com cinco), onde o MiniMax
+ * não tem chance e nem o aprofundamento iterativo enxerga as sequências forçadas longas.
+ *
+ * Cada jogada segue a ordem:
+ * 1. ganhar na hora, ou bloquear o quatro do adversário
+ * 2. procurar uma vitória forçada nossa só com ameaças ({@link ProofNumberSearch})
+ * 3. procurar uma vitória forçada do adversário (como se passássemos a vez); se existir, testar as
+ *    células perto das peças até achar uma que a refute
+ * 4. sem nada forçado, a heurística: a célula perto das peças que mais soma nas janelas abertas dos dois
+ *    jogadores (ou o `fallback`, se houver um)
+ *
+ * Todas as jogadas candidatas ficam a no máximo {@link #NEIGHBOURHOOD} células de uma peça: no 15x15 isso
+ * corta as 225 células para algumas dezenas. O orçamento vale para as buscas de ameaça da jogada inteira:
+ * cada busca só pode usar o tempo e os nós que as anteriores da mesma jogada deixaram.
+ *
+ * Não é thread-safe: use uma instância por jogo.
+ */
+public class ThreatSpaceActionGenerator implements ActionGenerator {
+    /**
+     * Distância máxima (em linhas e colunas) entre uma candidata e a peça mais próxima
+     */
+    public static final int NEIGHBOURHOOD = 2;
+    /**
+     * Quantos nós a arena guarda por padrão
+     */
+    public static final int DEFAULT_ARENA_NODES = 1 << 20;
+
+    private final SearchBudget budget;
+    private final ActionGenerator fallback;
+    private final int arenaNodes;
+    private Board scratch;
+    private ThreatSpace threats;
+    private ProofNumberSearch search;
+    /**
+     * As candidatas e o valor de cada uma, reaproveitados entre as jogadas (criados de novo só quando o tabuleiro muda)
+     */
+    private int[] cellsBuffer;
+    private long[] scoresBuffer;
+    private boolean lastMoveForced;
+    private long lastNodes;
+
+    /**
+     * @param budget o limite de tempo e/ou nós das buscas de ameaça de cada jogada
+     */
+    public ThreatSpaceActionGenerator(SearchBudget budget) {
+        this(budget, null, DEFAULT_ARENA_NODES);
+    }
+
+    /**
+     * @param budget o limite de tempo e/ou nós das buscas de ameaça de cada jogada
+     * @param fallback quem joga quando não há nada forçado (null para a heurística própria)
+     * @param arenaNodes quantos nós cabem na arena da busca
+     */
+    public ThreatSpaceActionGenerator(SearchBudget budget, ActionGenerator fallback, int arenaNodes) {
+        if (!budget.hasTimeLimit() && !budget.hasNodeLimit()) {
+            throw new IllegalArgumentException("A busca de ameaças precisa de um limite de tempo ou de nós");
+        }
+        if (arenaNodes < 1) {
+            throw new IllegalArgumentException("Tamanho de arena inválido: " + arenaNodes);
+        }
+        this.budget = budget;
+        this.fallback = fallback;
+        this.arenaNodes = arenaNodes;
+    }
+
+    @Override
+    public PlayerAction generateAction(Board board, Player player) {
+        return Moves.toAction(generateMove(board, player), player, board.getBoardSize());
+    }
+
+    @Override
+    public int generateMove(Board board, Player player) {
+        final var boardCell = player.getBoardCell();
+        final var cell = getBestCell(board, boardCell);
+        if (cell < 0) {
+            return fallback.generateMove(board, player);
+        }
+        return Moves.of(cell, boardCell);
+    }
+
+    /**
+     * @param board é o tabuleiro atual (com o jogo em andamento)
+     * @param player é o jogador da vez
+     * @return a célula escolhida, ou -1 se a escolha fica com o `fallback`
+     */
+    public int getBestCell(Board board, BoardCell player) {
+        prepare(board);
+        final var opponent = player.opponent();
+        final var deadline = budget.hasTimeLimit() ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget.timeMillis()) : 0;
+        lastMoveForced = true;
+        lastNodes = 0;
+
+        // 1. vitória na hora, ou o bloqueio que não dá para evitar
+        if (threats.winningCells(player, cellsBuffer) > 0) {
+            return cellsBuffer[0];
+        }
+        if (threats.winningCells(opponent, cellsBuffer) > 0) {
+            return cellsBuffer[0];
+        }
+
+        // 2. vitória forçada nossa (com metade do tempo, o resto fica para a defesa)
+        if (search(player, halfway(deadline)) == ProofNumberSearch.PROVEN) {
+            return search.getWinningCell();
+        }
+
+        // 3. vitória forçada do adversário, se ele jogasse agora
+        if (search(opponent, halfway(deadline)) == ProofNumberSearch.PROVEN) {
+            final var threat = search.getWinningCell();
+            final var candidates = candidates(player, threat);
+            var fallbackCell = -1;
+            for (var i = 0; i < candidates; i++) {
+                final var cell = cellsBuffer[i];
+                scratch.makeMove(Moves.of(cell, player));
+                final var result = search(opponent, deadline);
+                scratch.unmakeMove();
+                if (result == ProofNumberSearch.DISPROVEN) {
+                    return cell;
+                }
+                if (result == ProofNumberSearch.UNKNOWN && fallbackCell < 0) {
+                    fallbackCell = cell;
+                }
+                if (deadline != 0 && System.nanoTime() - deadline > 0
+                        || budget.hasNodeLimit() && lastNodes >= budget.maxNodes()) {
+                    break;
+                }
+            }
+            if (fallbackCell >= 0) {
+                return fallbackCell;
+            }
+            // nenhuma defesa segura: pelo menos atrapalhamos a jogada que ele faria
+            return threat;
+        }
+
+        // 4. nada forçado
+        lastMoveForced = false;
+        if (fallback != null) {
+            return -1;
+        }
+        return candidates(player, -1) > 0 ? cellsBuffer[0] : -1;
+    }
+
+    /**
+     * @return se a última jogada saiu de uma sequência forçada (vitória, bloqueio ou defesa), e não da heurística
+     */
+    public boolean isLastMoveForced() {
+        return lastMoveForced;
+    }
+
+    /**
+     * @return quantos nós as buscas de ameaça da última jogada usaram
+     */
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    /**
+     * Uma busca de ameaças com o que sobrou do orçamento da jogada.
+     */
+    private int search(BoardCell attacker, long deadline) {
+        var maxNodes = 0L;
+        if (budget.hasNodeLimit()) {
+            maxNodes = budget.maxNodes() - lastNodes;
+            if (maxNodes <= 0) {
+                // 0 seria "sem limite" para a busca
+                return ProofNumberSearch.UNKNOWN;
+            }
+        }
+        final var result = search.search(attacker, deadline, maxNodes);
+        lastNodes += search.getNodeCount();
+        return result;
+    }
+
+    /**
+     * @return o instante na metade do caminho até o prazo (0 se não houver prazo)
+     */
+    private static long halfway(long deadline) {
+        if (deadline == 0) {
+            return 0;
+        }
+        return deadline - (deadline - System.nanoTime()) / 2;
+    }
+
+    /**
+     * As células vazias perto das peças, em ordem de valor heurístico (a primeira é a jogada da heurística).
+     *
+     * @param player quem joga
+     * @param first uma célula para vir antes de todas (ou -1)
+     * @return quantas candidatas ficaram em {@link #cellsBuffer}
+     */
+    private int candidates(BoardCell player, int first) {
+        final var geometry = scratch.getGeometry();
+        final var size = geometry.getSize();
+        final var cellCount = geometry.getCellCount();
+        final var scores = scoresBuffer;
+        var count = 0;
+        for (var cell = 0; cell < cellCount; cell++) {
+            if (scratch.isCellEmpty(cell) && (cell == first || nearStone(cell, size))) {
+                scores[count] = cell == first ? Long.MAX_VALUE : score(cell, player);
+                cellsBuffer[count++] = cell;
+            }
+        }
+        if (count == 0 && scratch.getEmptyCellCount() > 0) {
+            // tabuleiro vazio: o centro
+            cellsBuffer[count++] = (size / 2) * size + size / 2;
+            return count;
+        }
+        // ordenação por inserção: são poucas dezenas de candidatas
+        for (var i = 1; i < count; i++) {
+            final var cell = cellsBuffer[i];
+            final var score = scores[i];
+            var j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                scores[j + 1] = scores[j];
+                cellsBuffer[j + 1] = cellsBuffer[j];
+                j--;
+            }
+            scores[j + 1] = score;
+            cellsBuffer[j + 1] = cell;
+        }
+        return count;
+    }
+
+    private boolean nearStone(int cell, int size) {
+        final var row = cell / size;
+        final var column = cell % size;
+        for (var r = Math.max(0, row - NEIGHBOURHOOD); r <= Math.min(size - 1, row + NEIGHBOURHOOD); r++) {
+            for (var c = Math.max(0, column - NEIGHBOURHOOD); c <= Math.min(size - 1, column + NEIGHBOURHOOD); c++) {
+                if (!scratch.isCellEmpty(r * size + c)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * O valor de jogar na célula: cada janela aberta que passa por ela vale mais quanto mais peças já tem,
+     * as nossas (atacar) um pouco mais que as do adversário (bloquear).
+     */
+    private long score(int cell, BoardCell player) {
+        final var opponent = player.opponent();
+        var score = 0L;
+        for (final var line : scratch.getGeometry().getCellLines(cell)) {
+            final var mine = scratch.getPiecesInLine(player, line);
+            final var theirs = scratch.getPiecesInLine(opponent, line);
+            if (theirs == 0) {
+                score += 1L << (4 * mine + 1);
+            }
+            if (mine == 0) {
+                score += 1L << (4 * theirs);
+            }
+        }
+        return score;
+    }
+
+    private void prepare(Board board) {
+        if (scratch == null || scratch.getGeometry() != board.getGeometry()) {
+            scratch = board.copy();
+            threats = new ThreatSpace(scratch);
+            search = new ProofNumberSearch(threats, arenaNodes);
+            cellsBuffer = new int[board.getGeometry().getCellCount()];
+            scoresBuffer = new long[board.getGeometry().getCellCount()];
+        } else {
+            scratch.copyFrom(board);
+        }
+    }
+}
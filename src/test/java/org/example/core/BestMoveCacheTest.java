@@ -0,0 +1,122 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BestMoveCacheTest {
+    private static final BoardGeometry GEOMETRY = BoardGeometry.of(7, 4);
+    /**
+     * Células do 7x7 em que um X sozinho dá posições diferentes mesmo a menos de simetria
+     * (o triângulo entre a borda de cima, a diagonal e o meio)
+     */
+    private static final int[] DISTINCT_CELLS = {0, 1, 2, 3, 8, 9, 10, 16, 17, 24};
+
+    @Test
+    void findsTheMoveInAnyOrientation() {
+        final var cache = new BestMoveCache(1 << 10);
+        // o O do lado do X tira a simetria da posição, então cada orientação tem uma única resposta certa
+        final var board = new Board();
+        board.setCell(0, BoardCell.X);
+        board.setCell(1, BoardCell.O);
+        cache.store(board, BoardCell.X, 3, 9);
+        assertEquals(3, cache.lookup(board, BoardCell.X, 9));
+
+        // espelhada da esquerda para a direita
+        final var mirrored = new Board();
+        mirrored.setCell(2, BoardCell.X);
+        mirrored.setCell(1, BoardCell.O);
+        assertEquals(5, cache.lookup(mirrored, BoardCell.X, 9));
+        // girada 90 graus para a esquerda
+        final var rotated = new Board();
+        rotated.setCell(6, BoardCell.X);
+        rotated.setCell(3, BoardCell.O);
+        assertEquals(7, cache.lookup(rotated, BoardCell.X, 9));
+    }
+
+    @Test
+    void separatesPlayersAndVariants() {
+        final var cache = new BestMoveCache(1 << 10);
+        final var board = new Board(BoardGeometry.of(4, 3));
+        board.setCell(5, BoardCell.X);
+        cache.store(board, BoardCell.O, 0, 4);
+
+        assertEquals(BestMoveCache.MISS, cache.lookup(board, BoardCell.X, 0));
+        final var otherVariant = new Board(BoardGeometry.of(4, 4));
+        otherVariant.setCell(5, BoardCell.X);
+        assertEquals(BestMoveCache.MISS, cache.lookup(otherVariant, BoardCell.O, 0));
+        assertEquals(0, cache.lookup(board, BoardCell.O, 0));
+    }
+
+    @Test
+    void keepsTheDeeperMove() {
+        final var cache = new BestMoveCache(1 << 10);
+        final var board = single(0);
+        cache.store(board, BoardCell.O, 24, 6);
+        assertEquals(BestMoveCache.MISS, cache.lookup(board, BoardCell.O, 7), "busca rasa demais");
+        assertEquals(24, cache.lookup(board, BoardCell.O, 6));
+
+        cache.store(board, BoardCell.O, 25, 5);
+        assertEquals(24, cache.lookup(board, BoardCell.O, 0), "a jogada mais rasa não substitui");
+        cache.store(board, BoardCell.O, 25, 8);
+        assertEquals(25, cache.lookup(board, BoardCell.O, 7));
+        assertEquals(1, cache.getStores());
+    }
+
+    @Test
+    void clockGivesReadEntriesASecondChance() {
+        // com 8 entradas o cache é um conjunto só, então todas as posições disputam as mesmas vagas
+        final var cache = new BestMoveCache(BestMoveCache.WAYS);
+        for (var i = 0; i < BestMoveCache.WAYS; i++) {
+            cache.store(single(DISTINCT_CELLS[i]), BoardCell.O, 48, 10);
+        }
+        // todas lidas menos a última
+        for (var i = 0; i < BestMoveCache.WAYS - 1; i++) {
+            assertEquals(48, cache.lookup(single(DISTINCT_CELLS[i]), BoardCell.O, 0));
+        }
+        assertEquals(0, cache.getEvictions());
+
+        // o ponteiro passa pelas lidas (tirando a segunda chance delas) e descarta a que não foi lida
+        cache.store(single(DISTINCT_CELLS[8]), BoardCell.O, 48, 10);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(BestMoveCache.MISS, cache.lookup(single(DISTINCT_CELLS[7]), BoardCell.O, 0));
+
+        // agora ninguém tem segunda chance, então a próxima vítima é a primeira depois do ponteiro
+        cache.store(single(DISTINCT_CELLS[9]), BoardCell.O, 48, 10);
+        assertEquals(2, cache.getEvictions());
+        assertEquals(BestMoveCache.MISS, cache.lookup(single(DISTINCT_CELLS[0]), BoardCell.O, 0));
+        for (var i = 1; i < BestMoveCache.WAYS - 1; i++) {
+            assertEquals(48, cache.lookup(single(DISTINCT_CELLS[i]), BoardCell.O, 0));
+        }
+        assertEquals(48, cache.lookup(single(DISTINCT_CELLS[8]), BoardCell.O, 0));
+        assertEquals(48, cache.lookup(single(DISTINCT_CELLS[9]), BoardCell.O, 0));
+    }
+
+    @Test
+    void clearEmptiesTheCache() {
+        final var cache = new BestMoveCache(BestMoveCache.WAYS);
+        cache.store(single(0), BoardCell.O, 48, 10);
+        cache.clear();
+        assertEquals(BestMoveCache.MISS, cache.lookup(single(0), BoardCell.O, 0));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void roundsTheCapacityUpToWholeSets() {
+        assertEquals(BestMoveCache.WAYS, new BestMoveCache(1).capacity());
+        assertEquals(2 * BestMoveCache.WAYS, new BestMoveCache(BestMoveCache.WAYS + 1).capacity());
+        assertEquals(1 << 10, new BestMoveCache(1 << 10).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new BestMoveCache(0));
+    }
+
+    /**
+     * @return um 7x7 com um X sozinho na célula
+     */
+    private static Board single(int cell) {
+        final var board = new Board(GEOMETRY);
+        board.setCell(cell, BoardCell.X);
+        return board;
+    }
+}
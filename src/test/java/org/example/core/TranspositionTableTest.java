@@ -0,0 +1,95 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TranspositionTableTest {
+    @Test
+    void unpacksWhatWasStored() {
+        final var table = new TranspositionTable(1 << 10, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        final int[][] entries = {
+                // score, limite, jogada, profundidade
+                {0, TranspositionTable.EXACT, 0, 0},
+                {-AlphaBetaSearch.WIN_SCORE - 7, TranspositionTable.LOWER_BOUND, 224, 1},
+                {AlphaBetaSearch.WIN_SCORE + 100, TranspositionTable.UPPER_BOUND, TranspositionTable.NO_MOVE, 255},
+                {Integer.MIN_VALUE, TranspositionTable.EXACT, 8, 17},
+                {Integer.MAX_VALUE, TranspositionTable.UPPER_BOUND, 48, 64},
+        };
+        for (var i = 0; i < entries.length; i++) {
+            final var key = 0x9E3779B97F4A7C15L * (i + 1);
+            final var entry = entries[i];
+            table.store(key, entry[0], entry[1], entry[2], entry[3]);
+            final var data = table.probe(key);
+            assertEquals(entry[0], TranspositionTable.score(data));
+            assertEquals(entry[1], TranspositionTable.bound(data));
+            assertEquals(entry[2], TranspositionTable.move(data));
+            assertEquals(entry[3], TranspositionTable.depth(data));
+        }
+    }
+
+    @Test
+    void clampsTheDepth() {
+        final var table = new TranspositionTable();
+        table.store(42, 1, TranspositionTable.EXACT, 3, 1_000);
+        assertEquals(255, TranspositionTable.depth(table.probe(42)));
+    }
+
+    @Test
+    void missesKeysThatShareTheSlot() {
+        final var table = new TranspositionTable(16, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        table.store(5, 10, TranspositionTable.EXACT, 1, 1);
+        // mesmo slot (os bits baixos e os altos são iguais), chave diferente
+        assertEquals(TranspositionTable.MISS, table.probe(5 + 16));
+        assertEquals(TranspositionTable.MISS, table.probe(6));
+        assertEquals(10, TranspositionTable.score(table.probe(5)));
+    }
+
+    @Test
+    void depthPreferredKeepsTheDeeperEntryOfTheSameGeneration() {
+        final var table = new TranspositionTable(16, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        table.newGeneration();
+        table.store(5, 10, TranspositionTable.EXACT, 1, 8);
+        table.store(5 + 16, 20, TranspositionTable.EXACT, 2, 3);
+        assertEquals(TranspositionTable.MISS, table.probe(5 + 16));
+        assertEquals(10, TranspositionTable.score(table.probe(5)));
+
+        // a mesma posição é sempre atualizada, mesmo mais rasa
+        table.store(5, 11, TranspositionTable.EXACT, 1, 2);
+        assertEquals(11, TranspositionTable.score(table.probe(5)));
+
+        // numa busca nova, a entrada antiga pode sair
+        table.store(5, 12, TranspositionTable.EXACT, 1, 8);
+        table.newGeneration();
+        table.store(5 + 16, 20, TranspositionTable.EXACT, 2, 3);
+        assertEquals(TranspositionTable.MISS, table.probe(5));
+        assertEquals(20, TranspositionTable.score(table.probe(5 + 16)));
+    }
+
+    @Test
+    void alwaysReplaceKeepsTheNewestEntry() {
+        final var table = new TranspositionTable(16, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        table.store(5, 10, TranspositionTable.EXACT, 1, 8);
+        table.store(5 + 16, 20, TranspositionTable.EXACT, 2, 3);
+        assertEquals(TranspositionTable.MISS, table.probe(5));
+        assertEquals(20, TranspositionTable.score(table.probe(5 + 16)));
+    }
+
+    @Test
+    void roundsTheSizeUpToAPowerOfTwo() {
+        assertEquals(16, new TranspositionTable(16, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE).size());
+        assertEquals(32, new TranspositionTable(17, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE).size());
+        assertEquals(1, new TranspositionTable(1, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> new TranspositionTable(0, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE));
+    }
+
+    @Test
+    void clearEmptiesTheTable() {
+        final var table = new TranspositionTable();
+        table.store(42, 1, TranspositionTable.EXACT, 3, 4);
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+    }
+}
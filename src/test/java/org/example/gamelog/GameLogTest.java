@@ -0,0 +1,196 @@
+package org.example.gamelog;
+
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameLogTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * O que esperamos ler de volta de cada partida gravada
+     */
+    private record Game(BoardGeometry geometry, BoardCell firstPlayer, BoardCell winner, byte[] moves) {
+        // o equals do record compara o array pela referência
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Game game && geometry == game.geometry && firstPlayer == game.firstPlayer
+                    && winner == game.winner && Arrays.equals(moves, game.moves);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(geometry, firstPlayer, winner, Arrays.hashCode(moves));
+        }
+
+        @Override
+        public String toString() {
+            return geometry + " " + firstPlayer + " " + winner + " " + Arrays.toString(moves);
+        }
+    }
+
+    @Test
+    void readsBackEveryGameInOrder() throws IOException {
+        final var games = randomGames(1_000, 1);
+        write(games, GameLogWriter.DEFAULT_BUFFER_BYTES, GameLogWriter.DEFAULT_SEGMENT_BYTES);
+
+        final var reader = GameLogReader.open(directory);
+        assertEquals(1, reader.getSegmentCount());
+        assertEquals(games, readAll(reader.cursor()), "as partidas não voltaram iguais");
+    }
+
+    @Test
+    void readsAcrossSegments() throws IOException {
+        final var games = randomGames(1_000, 2);
+        // segmentos e buffers bem pequenos para trocar de segmento muitas vezes
+        write(games, 512, 1 << 10);
+
+        final var reader = GameLogReader.open(directory);
+        assertTrue(reader.getSegmentCount() > 1, "esperava vários segmentos");
+        assertEquals(games, readAll(reader.cursor()));
+    }
+
+    @Test
+    void reopenedWriterAppendsInANewSegment() throws IOException {
+        final var first = randomGames(10, 3);
+        final var second = randomGames(10, 4);
+        write(first, GameLogWriter.DEFAULT_BUFFER_BYTES, GameLogWriter.DEFAULT_SEGMENT_BYTES);
+        write(second, GameLogWriter.DEFAULT_BUFFER_BYTES, GameLogWriter.DEFAULT_SEGMENT_BYTES);
+
+        final var reader = GameLogReader.open(directory);
+        assertEquals(2, reader.getSegmentCount());
+        final var expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected, readAll(reader.cursor()));
+    }
+
+    @Test
+    void ignoresAGameCutAtTheEndOfASegment() throws IOException {
+        final var games = randomGames(20, 5);
+        write(games, GameLogWriter.DEFAULT_BUFFER_BYTES, GameLogWriter.DEFAULT_SEGMENT_BYTES);
+        // simula um crash no meio da escrita da última partida
+        try (final var channel = FileChannel.open(directory.resolve(GameLogFormat.segmentName(0)), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        assertEquals(games.subList(0, games.size() - 1), readAll(GameLogReader.open(directory).cursor()));
+    }
+
+    @Test
+    void ignoresASegmentWithoutHeader() throws IOException {
+        final var games = randomGames(20, 6);
+        write(games, GameLogWriter.DEFAULT_BUFFER_BYTES, GameLogWriter.DEFAULT_SEGMENT_BYTES);
+        // o writer criou o arquivo, mas o cabeçalho não chegou ao disco
+        Files.write(directory.resolve(GameLogFormat.segmentName(1)), new byte[3]);
+
+        final var reader = GameLogReader.open(directory);
+        assertEquals(1, reader.getSegmentCount());
+        assertEquals(games, readAll(reader.cursor()));
+
+        // e um writer novo continua depois do segmento vazio
+        final var more = randomGames(5, 7);
+        write(more, GameLogWriter.DEFAULT_BUFFER_BYTES, GameLogWriter.DEFAULT_SEGMENT_BYTES);
+        assertTrue(Files.exists(directory.resolve(GameLogFormat.segmentName(2))));
+        final var expected = new ArrayList<>(games);
+        expected.addAll(more);
+        assertEquals(expected, readAll(GameLogReader.open(directory).cursor()));
+    }
+
+    @Test
+    void forkStartsAtTheNextGame() throws IOException {
+        final var games = randomGames(100, 8);
+        write(games, 512, 1 << 10);
+
+        final var cursor = GameLogReader.open(directory).cursor();
+        for (var i = 0; i < 37; i++) {
+            assertTrue(cursor.next());
+        }
+        final var fork = cursor.fork();
+        assertEquals(games.subList(37, games.size()), readAll(fork));
+        // o fork não mexe no cursor original
+        assertEquals(games.subList(37, games.size()), readAll(cursor));
+    }
+
+    @Test
+    void emptyDirectoryHasNoGames() throws IOException {
+        assertFalse(GameLogReader.open(directory).cursor().next());
+    }
+
+    @Test
+    void rejectsSegmentsTheReaderCannotMap() {
+        assertThrows(IllegalArgumentException.class, () -> new GameLogWriter(directory, 1 << 10, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GameLogWriter(directory, 1 << 10, Integer.MAX_VALUE - 100, 10));
+    }
+
+    @Test
+    void rejectsBoardsTheFormatCannotHold() throws IOException {
+        try (final var writer = new GameLogWriter(directory)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.append(BoardGeometry.of(16, 5), BoardCell.X, BoardCell.EMPTY, new byte[0], 0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.append(BoardGeometry.QUBIC, BoardCell.X, BoardCell.EMPTY, new byte[0], 0));
+        }
+    }
+
+    private void write(List<Game> games, int bufferBytes, long segmentBytes) throws IOException {
+        try (final var writer = new GameLogWriter(directory, bufferBytes, segmentBytes, 1)) {
+            var ticket = 0L;
+            for (final var game : games) {
+                ticket = writer.append(game.geometry(), game.firstPlayer(), game.winner(), game.moves(), game.moves().length);
+            }
+            writer.awaitDurable(ticket);
+        }
+    }
+
+    private static List<Game> readAll(GameLogCursor cursor) {
+        final var games = new ArrayList<Game>();
+        while (cursor.next()) {
+            final var moves = new byte[cursor.getMoveCount()];
+            for (var i = 0; i < moves.length; i++) {
+                moves[i] = (byte) cursor.getMove(i);
+            }
+            games.add(new Game(BoardGeometry.of(cursor.getBoardSize(), cursor.getWinLength()),
+                    cursor.getFirstPlayer(), cursor.getWinner(), moves));
+        }
+        return games;
+    }
+
+    /**
+     * Partidas com jogadas aleatórias (não precisam ser partidas válidas, o log não confere as regras)
+     */
+    private static List<Game> randomGames(int count, long seed) {
+        final var random = new SplittableRandom(seed);
+        final var geometries = List.of(BoardGeometry.STANDARD, BoardGeometry.of(7, 4), BoardGeometry.of(15, 5));
+        final var results = List.of(BoardCell.X, BoardCell.O, BoardCell.EMPTY);
+        final var games = new ArrayList<Game>(count);
+        for (var i = 0; i < count; i++) {
+            final var geometry = geometries.get(random.nextInt(geometries.size()));
+            final var moves = new byte[random.nextInt(geometry.getCellCount() + 1)];
+            for (var j = 0; j < moves.length; j++) {
+                moves[j] = (byte) random.nextInt(geometry.getCellCount());
+            }
+            games.add(new Game(geometry, random.nextBoolean() ? BoardCell.X : BoardCell.O,
+                    results.get(random.nextInt(results.size())), moves));
+        }
+        return games;
+    }
+}
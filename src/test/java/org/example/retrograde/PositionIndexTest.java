@@ -0,0 +1,101 @@
+package org.example.retrograde;
+
+import org.example.core.BoardGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionIndexTest {
+    @Test
+    void everyRankOfEveryLevelRoundTrips() {
+        final var index = new PositionIndex(BoardGeometry.STANDARD);
+        final var masks = new long[2];
+        final var board = (1L << index.getCellCount()) - 1;
+        for (var level = 0; level <= index.getCellCount(); level++) {
+            for (var rank = 0L; rank < index.levelSize(level); rank++) {
+                index.unrank(level, rank, masks);
+                assertPosition(level, board, masks[0], masks[1]);
+                assertEquals(rank, index.rank(masks[0], masks[1]), "nível " + level);
+            }
+        }
+    }
+
+    @Test
+    void levelSizesCountEveryPosition() {
+        // todas as formas de espalhar minhas peças e as do adversário, sem o sistema combinatório
+        final var index = new PositionIndex(BoardGeometry.STANDARD);
+        final var cells = index.getCellCount();
+        final var counts = new long[cells + 1];
+        var positions = 1;
+        for (var i = 0; i < cells; i++) {
+            positions *= 3;
+        }
+        for (var position = 0; position < positions; position++) {
+            var mine = 0L;
+            var theirs = 0L;
+            var digits = position;
+            for (var cell = 0; cell < cells; cell++, digits /= 3) {
+                if (digits % 3 == 1) {
+                    mine |= 1L << cell;
+                } else if (digits % 3 == 2) {
+                    theirs |= 1L << cell;
+                }
+            }
+            final var level = Long.bitCount(mine | theirs);
+            if (Long.bitCount(mine) != level / 2) {
+                continue;
+            }
+            final var rank = index.rank(mine, theirs);
+            assertTrue(rank >= 0 && rank < index.levelSize(level), "posto fora do nível: " + rank);
+            counts[level]++;
+        }
+        for (var level = 0; level <= cells; level++) {
+            assertEquals(index.levelSize(level), counts[level], "nível " + level);
+        }
+    }
+
+    @Test
+    void randomRanksRoundTripOn4x4() {
+        final var index = new PositionIndex(BoardGeometry.of(4, 3));
+        final var random = new SplittableRandom(17);
+        final var masks = new long[2];
+        final var board = (1L << index.getCellCount()) - 1;
+        for (var level = 0; level <= index.getCellCount(); level++) {
+            final var size = index.levelSize(level);
+            // as pontas do nível e alguns postos no meio
+            for (var sample = 0; sample < 2_000; sample++) {
+                final var rank = sample == 0 ? 0 : sample == 1 ? size - 1 : random.nextLong(size);
+                index.unrank(level, rank, masks);
+                assertPosition(level, board, masks[0], masks[1]);
+                assertEquals(rank, index.rank(masks[0], masks[1]), "nível " + level);
+            }
+        }
+    }
+
+    @Test
+    void findsWinningLines() {
+        final var index = new PositionIndex(BoardGeometry.STANDARD);
+        assertTrue(index.hasLine(0b000_000_111));
+        assertTrue(index.hasLine(0b100_010_001));
+        assertTrue(index.hasLine(0b001_010_100 | 0b000_001_000));
+        assertFalse(index.hasLine(0b000_000_011));
+        assertFalse(index.hasLine(0b101_010_010));
+    }
+
+    @Test
+    void rejectsBoardsWithTooManyCells() {
+        assertThrows(IllegalArgumentException.class, () -> new PositionIndex(BoardGeometry.of(5, 4)));
+    }
+
+    private static void assertPosition(int level, long board, long mine, long theirs) {
+        assertEquals(0, mine & theirs, "uma célula com duas peças");
+        assertEquals(0, (mine | theirs) & ~board, "peça fora do tabuleiro");
+        assertEquals(level / 2, Long.bitCount(mine));
+        assertEquals(level - level / 2, Long.bitCount(theirs));
+    }
+}
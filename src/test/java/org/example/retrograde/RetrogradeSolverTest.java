@@ -0,0 +1,75 @@
+package org.example.retrograde;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RetrogradeSolverTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void agreesWithAPlainSearchOnEveryReachable3x3Position() throws IOException {
+        try (final var solver = new RetrogradeSolver(BoardGeometry.STANDARD, directory, 2)) {
+            solver.solve();
+        }
+        final var table = RetrogradeTable.open(directory);
+        assertEquals(BoardGeometry.STANDARD, table.getGeometry());
+        assertEquals(RetrogradeTable.DRAW, table.value(0, 0), "o jogo da velha é empate");
+
+        // os dois podem começar, então as posições alcançáveis aparecem com X ou O da vez
+        check(table, new Board(), BoardCell.X);
+        check(table, new Board(), BoardCell.O);
+    }
+
+    @Test
+    void marksPositionsThatCannotHappenAsInvalid() throws IOException {
+        try (final var solver = new RetrogradeSolver(BoardGeometry.STANDARD, directory, 1)) {
+            solver.solve();
+        }
+        final var table = RetrogradeTable.open(directory);
+        // quem tem a vez tem mais peças que o adversário: alguém jogou fora da vez
+        assertEquals(RetrogradeTable.INVALID, table.value(0b000_000_111, 0b000_011_000));
+        // quem tem a vez já fez a linha de cima: o jogo teria acabado antes do adversário jogar
+        assertEquals(RetrogradeTable.INVALID, table.value(0b000_000_111, 0b101_011_000));
+    }
+
+    /**
+     * Compara a tabela com um negamax sem poda em todas as posições alcançáveis a partir daqui.
+     * @return o valor da posição para quem tem a vez
+     */
+    private static int check(RetrogradeTable table, Board board, BoardCell player) {
+        final int expected;
+        if (board.isWinner(player.opponent())) {
+            expected = RetrogradeTable.LOSS;
+        } else if (board.isBoardFull()) {
+            expected = RetrogradeTable.DRAW;
+        } else {
+            var best = RetrogradeTable.LOSS;
+            for (var cell = 0; cell < board.getGeometry().getCellCount(); cell++) {
+                if (!board.isCellEmpty(cell)) {
+                    continue;
+                }
+                board.makeMove(Moves.of(cell, player));
+                final var reply = check(table, board, player.opponent());
+                board.unmakeMove();
+                if (reply == RetrogradeTable.LOSS) {
+                    best = RetrogradeTable.WIN;
+                } else if (reply == RetrogradeTable.DRAW && best == RetrogradeTable.LOSS) {
+                    best = RetrogradeTable.DRAW;
+                }
+            }
+            expected = best;
+        }
+        assertEquals(expected, table.value(board, player), () -> player + " joga em\n" + board);
+        return expected;
+    }
+}
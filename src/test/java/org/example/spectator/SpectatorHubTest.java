@@ -0,0 +1,204 @@
+package org.example.spectator;
+
+import org.example.core.Board;
+import org.example.core.BoardCell;
+import org.example.core.BoardGeometry;
+import org.example.core.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@Timeout(60)
+class SpectatorHubTest {
+    @Test
+    void spectatorFollowsEveryGameToTheEnd() throws IOException, InterruptedException {
+        try (final var hub = new SpectatorHub(0)) {
+            final var game = hub.openGame();
+            try (final var socket = watch(hub, game, 0)) {
+                awaitSpectators(hub, 1);
+                final var random = new SplittableRandom(1);
+                Board last = null;
+                for (var i = 0; i < 20; i++) {
+                    last = playRandomGame(game, BoardGeometry.of(7, 4), random);
+                }
+                game.close();
+
+                final var spectator = follow(socket);
+                assertBoardEquals(last, spectator.board);
+                assertEquals(winner(last), spectator.winner);
+            }
+            assertEquals(0, hub.getResyncs());
+        }
+    }
+
+    @Test
+    void slowSpectatorIsResyncedWithASnapshot() throws IOException, InterruptedException {
+        // um buffer circular pequeno, para o espectador que não lê ficar para trás logo
+        try (final var hub = new SpectatorHub(0, 1 << 10, 1 << 9)) {
+            final var game = hub.openGame();
+            try (final var socket = watch(hub, game, 1 << 10)) {
+                awaitSpectators(hub, 1);
+                final var random = new SplittableRandom(2);
+                Board last = null;
+                // uns 10 MB de frames sem ler nada, bem mais do que cabe nos buffers do socket
+                for (var i = 0; i < 30_000; i++) {
+                    last = playRandomGame(game, BoardGeometry.of(7, 4), random);
+                }
+                assertTrue(hub.getResyncs() > 0, "o espectador lento nunca foi ressincronizado");
+                game.close();
+
+                // mesmo tendo perdido frames, o que chega continua alinhado e termina no estado certo
+                final var spectator = follow(socket);
+                assertTrue(spectator.snapshots > 1, "esperava um snapshot depois do atraso");
+                assertBoardEquals(last, spectator.board);
+                assertEquals(winner(last), spectator.winner);
+            }
+        }
+    }
+
+    @Test
+    void unknownGameIsDisconnected() throws IOException, InterruptedException {
+        try (final var hub = new SpectatorHub(0); final var socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", hub.getPort()));
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write("WATCH 42\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals(-1, socket.getInputStream().read());
+            awaitSpectators(hub, 0);
+        }
+    }
+
+    @Test
+    void rejectsALagLimitThatDoesNotFitTheRing() {
+        assertThrows(IllegalArgumentException.class, () -> new SpectatorHub(0, 1 << 10, 1 << 11));
+        assertThrows(IllegalArgumentException.class, () -> new SpectatorHub(0, 1 << 10, 8));
+    }
+
+    /**
+     * O que um espectador reconstruiu a partir dos frames
+     */
+    private static final class Spectator {
+        Board board;
+        BoardCell winner;
+        int snapshots;
+    }
+
+    /**
+     * Lê a transmissão até o hub desconectar, conferindo que os frames chegam inteiros e em sequência.
+     */
+    private static Spectator follow(Socket socket) throws IOException {
+        final var input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        final var spectator = new Spectator();
+        final var frame = new byte[SpectatorFrames.MAX_FRAME_BYTES];
+        var lastSequence = -1;
+        while (true) {
+            final int length;
+            try {
+                length = input.readUnsignedByte();
+            } catch (EOFException e) {
+                return spectator;
+            }
+            input.readFully(frame, 0, length);
+            final var type = frame[0];
+            final var sequence = (frame[1] & 0xFF) << 24 | (frame[2] & 0xFF) << 16 | (frame[3] & 0xFF) << 8 | (frame[4] & 0xFF);
+            final var offset = SpectatorFrames.HEADER_BYTES - 1;
+            switch (type) {
+                case SpectatorFrames.SNAPSHOT -> {
+                    spectator.snapshots++;
+                    final var size = frame[offset];
+                    final var winLength = frame[offset + 1];
+                    final var status = frame[offset + 3];
+                    if (size == 0) {
+                        spectator.board = null;
+                        break;
+                    }
+                    final var geometry = BoardGeometry.of(size, winLength);
+                    assertEquals(SpectatorFrames.snapshotBytes(geometry.getCellCount()) - 1, length);
+                    spectator.board = new Board(geometry);
+                    for (var cell = 0; cell < geometry.getCellCount(); cell++) {
+                        final var piece = (frame[offset + 4 + cell / 4] >>> ((cell % 4) * 2)) & 3;
+                        spectator.board.setCell(cell, SpectatorFrames.boardCell(piece));
+                    }
+                    spectator.winner = status == SpectatorFrames.STATUS_PLAYING ? null
+                            : status == SpectatorFrames.STATUS_DRAW ? BoardCell.EMPTY : SpectatorFrames.boardCell(status);
+                }
+                case SpectatorFrames.MOVE -> {
+                    assertEquals(SpectatorFrames.MOVE_FRAME_BYTES - 1, length);
+                    assertEquals(lastSequence + 1, sequence, "faltou um evento sem snapshot");
+                    assertNotNull(spectator.board, "jogada antes do começo da partida");
+                    spectator.board.makeMove(Moves.of(frame[offset] & 0xFF, SpectatorFrames.boardCell(frame[offset + 1])));
+                }
+                case SpectatorFrames.END -> {
+                    assertEquals(SpectatorFrames.END_FRAME_BYTES - 1, length);
+                    assertEquals(lastSequence + 1, sequence, "faltou um evento sem snapshot");
+                    spectator.winner = SpectatorFrames.boardCell(frame[offset]);
+                }
+                default -> fail("Frame desalinhado: tipo " + type);
+            }
+            lastSequence = sequence;
+        }
+    }
+
+    /**
+     * Joga uma partida aleatória inteira, mandando cada evento para a transmissão.
+     * @return o tabuleiro final
+     */
+    private static Board playRandomGame(GameBroadcast game, BoardGeometry geometry, SplittableRandom random) {
+        final var board = new Board(geometry);
+        final var moves = new int[geometry.getCellCount()];
+        game.start(geometry);
+        var player = BoardCell.X;
+        while (!board.isGameOver()) {
+            final var count = board.generateMoves(moves, player);
+            final var move = moves[random.nextInt(count)];
+            board.makeMove(move);
+            game.onMove(board, move, 0);
+            player = player.opponent();
+        }
+        game.onGameOver(board, winner(board));
+        return board;
+    }
+
+    private static BoardCell winner(Board board) {
+        return board.isWinner(BoardCell.X) ? BoardCell.X : board.isWinner(BoardCell.O) ? BoardCell.O : BoardCell.EMPTY;
+    }
+
+    private static Socket watch(SpectatorHub hub, GameBroadcast game, int receiveBufferBytes) throws IOException {
+        final var socket = new Socket();
+        if (receiveBufferBytes > 0) {
+            socket.setReceiveBufferSize(receiveBufferBytes);
+        }
+        socket.connect(new InetSocketAddress("localhost", hub.getPort()));
+        socket.setSoTimeout(30_000);
+        socket.getOutputStream().write(("WATCH " + game.getId() + "\n").getBytes(StandardCharsets.US_ASCII));
+        return socket;
+    }
+
+    private static void awaitSpectators(SpectatorHub hub, int count) throws InterruptedException {
+        final var deadline = System.nanoTime() + 10_000_000_000L;
+        while (hub.getSpectatorCount() != count) {
+            if (System.nanoTime() > deadline) {
+                fail("Esperava " + count + " espectadores, mas há " + hub.getSpectatorCount());
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertBoardEquals(Board expected, Board actual) {
+        assertNotNull(actual, "o espectador não viu nenhuma partida");
+        assertEquals(expected.toString(), actual.toString());
+    }
+}